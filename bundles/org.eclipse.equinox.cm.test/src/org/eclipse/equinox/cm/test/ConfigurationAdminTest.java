@@ -155,6 +155,43 @@ public class ConfigurationAdminTest extends AbstractCMTest {
 		assertTrue(configs.length > 0);
 	}
 
+	@Test
+	public void testListConfigurationAfterLocationChange() throws Exception {
+		Configuration config = getConfiguration("test", "x");
+		String filterString = "(" + ConfigurationAdmin.SERVICE_BUNDLELOCATION + "=y)";
+		assertNull(cm.listConfigurations(filterString));
+		config.setBundleLocation("y");
+		Configuration[] configs = cm.listConfigurations(filterString);
+		assertNotNull(configs);
+		assertEquals(1, configs.length);
+		assertNull(cm.listConfigurations("(" + ConfigurationAdmin.SERVICE_BUNDLELOCATION + "=x)"));
+	}
+
+	@Test
+	public void testListFactoryConfigurationWithProperties() throws Exception {
+		Configuration config1 = cm.createFactoryConfiguration("test1", null);
+		Configuration config2 = cm.createFactoryConfiguration("test2", null);
+		try {
+			config1.update(dictionaryOf("testkey", "value1"));
+			config2.update(dictionaryOf("testkey", "value2"));
+			Configuration[] configs = cm.listConfigurations("(&(" + ConfigurationAdmin.SERVICE_FACTORYPID
+					+ "=test1)(testkey=value1))");
+			assertNotNull(configs);
+			assertEquals(1, configs.length);
+			assertEquals(config1, configs[0]);
+			assertNull(cm.listConfigurations(
+					"(&(" + ConfigurationAdmin.SERVICE_FACTORYPID + "=test1)(testkey=value2))"));
+			configs = cm.listConfigurations("(|(" + ConfigurationAdmin.SERVICE_FACTORYPID + "=test1)("
+					+ ConfigurationAdmin.SERVICE_FACTORYPID.toUpperCase() + "=test2))");
+			assertNotNull(configs);
+			assertEquals(2, configs.length);
+		} finally {
+			config1.delete();
+			config2.delete();
+		}
+		assertNull(cm.listConfigurations("(" + ConfigurationAdmin.SERVICE_FACTORYPID + "=test1)"));
+	}
+
 	@Test
 	public void testPersistentConfig() throws Exception {
 		Configuration config = cm.getConfiguration("test");
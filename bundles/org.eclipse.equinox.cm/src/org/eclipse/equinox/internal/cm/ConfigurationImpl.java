@@ -104,6 +104,7 @@ class ConfigurationImpl implements Configuration {
 			if (bundleLocation == null) {
 				bundleLocation = callerLocation;
 				bound = true;
+				configurationStore.locationChanged(this, bundleLocation);
 				try {
 					save();
 				} catch (IOException e) {
@@ -134,6 +135,7 @@ class ConfigurationImpl implements Configuration {
 			if (bound && callerLocation.equals(bundleLocation)) {
 				bundleLocation = null;
 				bound = false;
+				configurationStore.locationChanged(this, null);
 				try {
 					save();
 				} catch (IOException e) {
@@ -201,6 +203,8 @@ class ConfigurationImpl implements Configuration {
 	}
 
 	String getFactoryPid(boolean checkDeleted) {
+		if (!checkDeleted)
+			return factoryPid; // final, no need to lock
 		lock();
 		try {
 			if (checkDeleted)
@@ -217,6 +221,8 @@ class ConfigurationImpl implements Configuration {
 	}
 
 	String getPid(boolean checkDeleted) {
+		if (!checkDeleted)
+			return pid; // final, no need to lock
 		lock();
 		try {
 			if (checkDeleted)
@@ -267,6 +273,58 @@ class ConfigurationImpl implements Configuration {
 		}
 	}
 
+	/**
+	 * Matches the filter against the properties {@link #getAllProperties(boolean)
+	 * getAllProperties(false)} would return, without copying them.
+	 */
+	boolean matches(Filter filter) {
+		lock();
+		try {
+			if (deleted || dictionary == null)
+				return false;
+			return filter.matches(new PropertiesView());
+		} finally {
+			unlock();
+		}
+	}
+
+	/**
+	 * Read-only view of the properties of this configuration including the pid,
+	 * factory pid and location. Keys are case insensitive. Only valid while the
+	 * lock is held.
+	 */
+	private final class PropertiesView extends AbstractMap<String, Object> {
+		@Override
+		public Object get(Object key) {
+			if (!(key instanceof String))
+				return null;
+			String name = (String) key;
+			if (Constants.SERVICE_PID.equalsIgnoreCase(name))
+				return pid;
+			if (ConfigurationAdmin.SERVICE_FACTORYPID.equalsIgnoreCase(name))
+				return factoryPid;
+			if (ConfigurationAdmin.SERVICE_BUNDLELOCATION.equalsIgnoreCase(name))
+				return bundleLocation;
+			return dictionary.get(name);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			Map<String, Object> properties = new HashMap<>(dictionary.configurationProperties);
+			properties.put(Constants.SERVICE_PID, pid);
+			if (factoryPid != null)
+				properties.put(ConfigurationAdmin.SERVICE_FACTORYPID, factoryPid);
+			if (bundleLocation != null)
+				properties.put(ConfigurationAdmin.SERVICE_BUNDLELOCATION, bundleLocation);
+			return Collections.unmodifiableMap(properties).entrySet();
+		}
+	}
+
 	static void fileAutoProperties(Dictionary<String, Object> dictionary, ConfigurationImpl config, boolean includeLoc,
 			boolean includeStorageKey) {
 		dictionary.put(Constants.SERVICE_PID, config.getPid(false));
@@ -306,6 +364,7 @@ class ConfigurationImpl implements Configuration {
 			String oldLocation = this.bundleLocation;
 			this.bundleLocation = bundleLocation;
 			this.bound = false;
+			configurationStore.locationChanged(this, bundleLocation);
 			try {
 				save();
 			} catch (IOException e) {
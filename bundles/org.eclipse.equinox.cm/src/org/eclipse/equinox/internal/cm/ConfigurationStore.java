@@ -35,6 +35,12 @@ class ConfigurationStore {
 	private static final String DATA_PRE = "data"; //$NON-NLS-1$
 	private static final String CFG_EXT = ".cfg"; //$NON-NLS-1$
 	private final Map<String, ConfigurationImpl> configurations = new HashMap<>();
+	// Indexes used by listConfigurations. Key: factory pid or bundle location;
+	// value: the configurations by pid
+	private final Map<String, Map<String, ConfigurationImpl>> factoryPidIndex = new HashMap<>();
+	private final Map<String, Map<String, ConfigurationImpl>> locationIndex = new HashMap<>();
+	// Key: pid; value: the bundle location the configuration is indexed under
+	private final Map<String, String> indexedLocations = new HashMap<>();
 	private int createdPidCount = 0;
 	private final File store;
 
@@ -68,7 +74,7 @@ class ConfigurationStore {
 				}
 				ConfigurationImpl config = new ConfigurationImpl(configurationAdminFactory, this, dictionary,
 						configurationFile);
-				configurations.put(config.getPid(), config);
+				add(config, config.getLocation());
 			} catch (IOException e) {
 				String message = e.getMessage();
 				String pid = configurationFileName.substring(0, configurationFileName.length() - 4);
@@ -151,8 +157,53 @@ class ConfigurationStore {
 		}
 	}
 
+	private void add(ConfigurationImpl config, String location) {
+		String pid = config.getPid(false);
+		ConfigurationImpl previous = configurations.put(pid, config);
+		if (previous != null)
+			removeFromIndexes(previous);
+		String factoryPid = config.getFactoryPid(false);
+		if (factoryPid != null)
+			factoryPidIndex.computeIfAbsent(factoryPid, k -> new HashMap<>()).put(pid, config);
+		if (location != null) {
+			locationIndex.computeIfAbsent(location, k -> new HashMap<>()).put(pid, config);
+			indexedLocations.put(pid, location);
+		}
+	}
+
+	private static void removeFromIndex(Map<String, Map<String, ConfigurationImpl>> index, String key, String pid) {
+		Map<String, ConfigurationImpl> configs = index.get(key);
+		if (configs != null && configs.remove(pid) != null && configs.isEmpty())
+			index.remove(key);
+	}
+
+	private void removeFromIndexes(ConfigurationImpl config) {
+		String pid = config.getPid(false);
+		String factoryPid = config.getFactoryPid(false);
+		if (factoryPid != null)
+			removeFromIndex(factoryPidIndex, factoryPid, pid);
+		String location = indexedLocations.remove(pid);
+		if (location != null)
+			removeFromIndex(locationIndex, location, pid);
+	}
+
+	synchronized void locationChanged(ConfigurationImpl config, String location) {
+		String pid = config.getPid(false);
+		if (configurations.get(pid) != config)
+			return; // already removed
+		String oldLocation = indexedLocations.remove(pid);
+		if (oldLocation != null)
+			removeFromIndex(locationIndex, oldLocation, pid);
+		if (location != null) {
+			locationIndex.computeIfAbsent(location, k -> new HashMap<>()).put(pid, config);
+			indexedLocations.put(pid, location);
+		}
+	}
+
 	public synchronized void removeConfiguration(String pid, final Object token) {
-		configurations.remove(pid);
+		ConfigurationImpl config = configurations.remove(pid);
+		if (config != null)
+			removeFromIndexes(config);
 		if (store == null || token == null)
 			return; // no persistent store
 		AccessController.doPrivileged(new PrivilegedAction<>() {
@@ -173,7 +224,7 @@ class ConfigurationStore {
 		ConfigurationImpl config = configurations.get(pid);
 		if (config == null) {
 			config = new ConfigurationImpl(configurationAdminFactory, this, null, pid, location, bind);
-			configurations.put(pid, config);
+			add(config, location);
 		}
 		return config;
 	}
@@ -193,7 +244,7 @@ class ConfigurationStore {
 
 		ConfigurationImpl config = new ConfigurationImpl(configurationAdminFactory, this, factoryPid, pid, location,
 				bind);
-		configurations.put(pid, config);
+		add(config, location);
 		return config;
 	}
 
@@ -204,12 +255,12 @@ class ConfigurationStore {
 	public ConfigurationImpl[] getFactoryConfigurations(String factoryPid) {
 		List<ConfigurationImpl> resultList = new ArrayList<>();
 		synchronized (this) {
-			resultList.addAll(configurations.values());
+			Map<String, ConfigurationImpl> configs = factoryPidIndex.get(factoryPid);
+			if (configs != null)
+				resultList.addAll(configs.values());
 		}
 		for (Iterator<ConfigurationImpl> it = resultList.iterator(); it.hasNext();) {
-			ConfigurationImpl config = it.next();
-			String otherFactoryPid = config.getFactoryPid();
-			if (otherFactoryPid == null || !otherFactoryPid.equals(factoryPid))
+			if (it.next().isDeleted())
 				it.remove();
 		}
 		return resultList.toArray(new ConfigurationImpl[resultList.size()]);
@@ -218,12 +269,11 @@ class ConfigurationStore {
 	public ConfigurationImpl[] listConfigurations(Filter filter) {
 		List<ConfigurationImpl> resultList = new ArrayList<>();
 		synchronized (this) {
-			resultList.addAll(configurations.values());
+			Map<String, ConfigurationImpl> candidates = new CandidateFinder(filter.toString()).find();
+			resultList.addAll(candidates == null ? configurations.values() : candidates.values());
 		}
 		for (Iterator<ConfigurationImpl> it = resultList.iterator(); it.hasNext();) {
-			ConfigurationImpl config = it.next();
-			Dictionary<String, Object> properties = config.getAllProperties(false);
-			if (properties == null || !filter.match(properties)) {
+			if (!it.next().matches(filter)) {
 				it.remove();
 			}
 		}
@@ -231,6 +281,117 @@ class ConfigurationStore {
 		return size == 0 ? null : (ConfigurationImpl[]) resultList.toArray(new ConfigurationImpl[size]);
 	}
 
+	/**
+	 * Looks up the configurations that may match a filter in the indexes. Only
+	 * equality on service.pid, service.factoryPid and service.bundleLocation is
+	 * indexed; an and-filter uses its most selective indexed operand and an
+	 * or-filter needs all of its operands indexed. The candidates still have to be
+	 * matched against the filter.
+	 */
+	private final class CandidateFinder {
+		private final String filter;
+		private int pos;
+
+		CandidateFinder(String filter) {
+			this.filter = filter;
+		}
+
+		/**
+		 * Returns the candidates by pid, or <code>null</code> if the filter cannot be
+		 * answered from the indexes.
+		 */
+		Map<String, ConfigurationImpl> find() {
+			try {
+				Map<String, ConfigurationImpl> result = parseFilter();
+				return pos == filter.length() ? result : null;
+			} catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+				// not a well formed filter string; evaluate the filter on all configurations
+				return null;
+			}
+		}
+
+		private Map<String, ConfigurationImpl> parseFilter() {
+			expect('(');
+			Map<String, ConfigurationImpl> result;
+			switch (filter.charAt(pos)) {
+			case '&':
+				pos++;
+				result = null;
+				while (filter.charAt(pos) == '(') {
+					Map<String, ConfigurationImpl> operand = parseFilter();
+					if (operand != null && (result == null || operand.size() < result.size()))
+						result = operand;
+				}
+				break;
+			case '|':
+				pos++;
+				result = new HashMap<>();
+				while (filter.charAt(pos) == '(') {
+					Map<String, ConfigurationImpl> operand = parseFilter();
+					if (operand == null)
+						result = null;
+					else if (result != null)
+						result.putAll(operand);
+				}
+				break;
+			case '!':
+				pos++;
+				parseFilter();
+				result = null;
+				break;
+			default:
+				result = parseItem();
+			}
+			expect(')');
+			return result;
+		}
+
+		private Map<String, ConfigurationImpl> parseItem() {
+			int start = pos;
+			char c = filter.charAt(pos);
+			while (c != '~' && c != '<' && c != '>' && c != '=' && c != '(' && c != ')') {
+				c = filter.charAt(++pos);
+			}
+			String attr = filter.substring(start, pos).trim();
+			boolean equal = c == '=';
+			if (!equal)
+				pos++; // approximate or ordering, skip the '='
+			pos++;
+			StringBuilder value = new StringBuilder();
+			while ((c = filter.charAt(pos)) != ')') {
+				if (c == '(')
+					throw new IllegalArgumentException(filter);
+				if (c == '*')
+					equal = false; // presence or substring
+				else if (c == '\\')
+					c = filter.charAt(++pos);
+				value.append(c);
+				pos++;
+			}
+			if (!equal)
+				return null;
+			String key = value.toString();
+			if (Constants.SERVICE_PID.equalsIgnoreCase(attr)) {
+				ConfigurationImpl config = configurations.get(key);
+				return config == null ? Collections.emptyMap() : Collections.singletonMap(key, config);
+			}
+			Map<String, Map<String, ConfigurationImpl>> index;
+			if (ConfigurationAdmin.SERVICE_FACTORYPID.equalsIgnoreCase(attr))
+				index = factoryPidIndex;
+			else if (ConfigurationAdmin.SERVICE_BUNDLELOCATION.equalsIgnoreCase(attr))
+				index = locationIndex;
+			else
+				return null;
+			Map<String, ConfigurationImpl> configs = index.get(key);
+			return configs == null ? Collections.emptyMap() : configs;
+		}
+
+		private void expect(char c) {
+			if (filter.charAt(pos++) != c)
+				throw new IllegalArgumentException(filter);
+		}
+	}
+
 	public void unbindConfigurations(Bundle bundle) {
 		ConfigurationImpl[] copy;
 		synchronized (this) {
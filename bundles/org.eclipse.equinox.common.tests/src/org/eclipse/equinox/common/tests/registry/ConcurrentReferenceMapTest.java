@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.common.tests.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.Field;
+import java.util.Map;
+
+import org.eclipse.core.internal.registry.ConcurrentReferenceMap;
+import org.junit.Test;
+
+/**
+ * Tests the map used by the registry object manager to hold loaded registry
+ * objects.
+ */
+public class ConcurrentReferenceMapTest {
+
+	@Test
+	public void testHardGetPutRemove() throws Exception {
+		doTestGetPutRemove(ConcurrentReferenceMap.HARD);
+	}
+
+	@Test
+	public void testSoftGetPutRemove() throws Exception {
+		doTestGetPutRemove(ConcurrentReferenceMap.SOFT);
+	}
+
+	private void doTestGetPutRemove(int referenceType) throws Exception {
+		ConcurrentReferenceMap map = new ConcurrentReferenceMap(referenceType, 16, 0.75f);
+		Object value1 = new Object();
+		Object value2 = new Object();
+		assertNull(map.get(1));
+
+		map.put(1, value1);
+		map.put(2, value2);
+		assertSame(value1, map.get(1));
+		assertSame(value2, map.get(2));
+		assertNull(map.get(3));
+
+		Object value3 = new Object();
+		map.put(1, value3);
+		assertSame(value3, map.get(1));
+		assertEquals(2, getEntries(map).size());
+
+		assertSame(value3, map.remove(1));
+		assertNull(map.get(1));
+		assertNull(map.remove(1));
+		assertSame(value2, map.get(2));
+		assertEquals(1, getEntries(map).size());
+	}
+
+	@Test
+	public void testNullValue() {
+		ConcurrentReferenceMap hardMap = new ConcurrentReferenceMap(ConcurrentReferenceMap.HARD, 16, 0.75f);
+		assertThrows(NullPointerException.class, () -> hardMap.put(1, null));
+		ConcurrentReferenceMap softMap = new ConcurrentReferenceMap(ConcurrentReferenceMap.SOFT, 16, 0.75f);
+		assertThrows(NullPointerException.class, () -> softMap.put(1, null));
+		assertNull(softMap.get(1));
+	}
+
+	@Test
+	public void testInvalidArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new ConcurrentReferenceMap(-1, 16, 0.75f));
+		assertThrows(IllegalArgumentException.class,
+				() -> new ConcurrentReferenceMap(ConcurrentReferenceMap.SOFT, 0, 0.75f));
+		assertThrows(IllegalArgumentException.class,
+				() -> new ConcurrentReferenceMap(ConcurrentReferenceMap.SOFT, 16, 1.0f));
+	}
+
+	@Test
+	public void testSoftCollectedValue() throws Exception {
+		ConcurrentReferenceMap map = new ConcurrentReferenceMap(ConcurrentReferenceMap.SOFT, 16, 0.75f);
+		map.put(1, new Object());
+		// simulate the garbage collector clearing the value
+		collect(getEntries(map).get(1));
+
+		assertNull(map.get(1));
+		assertEquals("Stale mapping not purged", 0, getEntries(map).size());
+	}
+
+	/**
+	 * Bug 205117: purging the collected reference of a replaced value must not
+	 * remove the value added again with the same key.
+	 */
+	@Test
+	public void testSoftStalePurgeKeepsNewValue() throws Exception {
+		ConcurrentReferenceMap map = new ConcurrentReferenceMap(ConcurrentReferenceMap.SOFT, 16, 0.75f);
+		map.put(1, new Object());
+		Object staleRef = getEntries(map).get(1);
+		Object value = new Object();
+		map.put(1, value);
+		// the replaced value is collected after the new value was added
+		collect(staleRef);
+
+		// put and remove purge stale mappings
+		map.put(2, new Object());
+		assertSame(value, map.get(1));
+		map.remove(3);
+		assertSame(value, map.get(1));
+		assertEquals(2, getEntries(map).size());
+	}
+
+	private static void collect(Object ref) {
+		Reference<?> reference = (Reference<?>) ref;
+		reference.clear();
+		reference.enqueue();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Integer, Object> getEntries(ConcurrentReferenceMap map) throws Exception {
+		Field field = ConcurrentReferenceMap.class.getDeclaredField("map");
+		field.setAccessible(true);
+		return (Map<Integer, Object>) field.get(map);
+	}
+}
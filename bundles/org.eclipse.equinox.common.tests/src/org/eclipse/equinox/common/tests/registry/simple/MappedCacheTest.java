@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.common.tests.registry.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.runtime.ContributorFactorySimple;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IContributor;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that a registry reading its cache from memory mapped files loads the
+ * same objects, also when several threads fault them in concurrently.
+ */
+public class MappedCacheTest extends BaseExtensionRegistryRun {
+
+	private static final String PROP_MAPPED_CACHE = "eclipse.registry.mappedCache"; //$NON-NLS-1$
+	private static final int THREADS = 8;
+
+	@Override
+	@Before
+	public void setUp() throws Exception {
+		System.setProperty(PROP_MAPPED_CACHE, "true"); //$NON-NLS-1$
+		super.setUp();
+	}
+
+	@Override
+	@After
+	public void tearDown() throws Exception {
+		try {
+			super.tearDown();
+		} finally {
+			System.clearProperty(PROP_MAPPED_CACHE);
+		}
+	}
+
+	@Test
+	public void testConcurrentLoad() throws Exception {
+		IContributor contributor = ContributorFactorySimple.createContributor("Mapped"); //$NON-NLS-1$
+		processXMLContribution(contributor, getXML("MappedCache.xml"), true); //$NON-NLS-1$
+		checkRegistry(contributor.getName());
+
+		// check the cache: stop -> re-start
+		stopRegistry();
+		simpleRegistry = startRegistry();
+
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> results = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				results.add(executor.submit(() -> {
+					checkRegistry(contributor.getName());
+					return null;
+				}));
+			}
+			for (Future<?> result : results) {
+				result.get();
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void checkRegistry(String namespace) {
+		IExtensionPoint extensionPoint = simpleRegistry.getExtensionPoint(qualifiedName(namespace, "MappedExtPoint")); //$NON-NLS-1$
+		assertNotNull(extensionPoint);
+		assertEquals("Mapped Extension Point", extensionPoint.getLabel()); //$NON-NLS-1$
+		IExtension[] extensions = extensionPoint.getExtensions();
+		assertEquals(1, extensions.length);
+		assertEquals("Mapped Extension", extensions[0].getLabel()); //$NON-NLS-1$
+		IConfigurationElement[] configElements = extensions[0].getConfigurationElements();
+		assertEquals(1, configElements.length);
+		assertEquals("theShienneMountain", configElements[0].getAttribute("deviceURL")); //$NON-NLS-1$ //$NON-NLS-2$
+		IConfigurationElement[] backupDevices = configElements[0].getChildren();
+		assertEquals(2, backupDevices.length);
+		assertEquals("SkyLab", backupDevices[0].getAttribute("backupURL")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("low", backupDevices[0].getChildren()[0].getAttribute("orbit")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("OceanFloor", backupDevices[1].getAttribute("backupURL")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("deep", backupDevices[1].getChildren()[0].getAttribute("depth")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
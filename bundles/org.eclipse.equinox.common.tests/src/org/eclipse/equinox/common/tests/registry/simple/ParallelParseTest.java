@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.common.tests.registry.simple;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.core.internal.registry.ExtensionRegistry;
+import org.eclipse.core.internal.registry.ParsedContribution;
+import org.eclipse.core.runtime.ContributorFactorySimple;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IContributor;
+import org.eclipse.core.runtime.IExtension;
+import org.eclipse.core.runtime.IExtensionPoint;
+import org.junit.Test;
+
+/**
+ * Tests contributions parsed concurrently and then added in a given order. The
+ * result must not depend on the order in which the parses complete.
+ */
+public class ParallelParseTest extends BaseExtensionRegistryRun {
+
+	@Test
+	public void testParallelParse() throws Exception {
+		IContributor contributor1 = ContributorFactorySimple.createContributor("1"); //$NON-NLS-1$
+		IContributor contributor2 = ContributorFactorySimple.createContributor("2"); //$NON-NLS-1$
+		IContributor contributor3 = ContributorFactorySimple.createContributor("3"); //$NON-NLS-1$
+
+		// parse in reverse order, add in contributor order
+		List<ParsedContribution> contributions = parse(Arrays.asList(contributor3, contributor2, contributor1),
+				Arrays.asList(getXML("MappedCache.xml"), getXML("DuplicatePoints2.xml"), //$NON-NLS-1$ //$NON-NLS-2$
+						getXML("DuplicatePoints1.xml"))); //$NON-NLS-1$
+		((ExtensionRegistry) simpleRegistry)
+				.addContributions(Arrays.asList(contributions.get(2), contributions.get(1), contributions.get(0)));
+		checkRegistry(contributor3.getName());
+
+		// check the cache: stop -> re-start
+		stopRegistry();
+		simpleRegistry = startRegistry();
+		checkRegistry(contributor3.getName());
+	}
+
+	/*
+	 * A contribution added while another contribution of the same contributor is
+	 * parsed must not be added twice.
+	 */
+	@Test
+	public void testAddedWhileParsed() throws Exception {
+		IContributor contributor = ContributorFactorySimple.createContributor("1"); //$NON-NLS-1$
+		List<ParsedContribution> contributions = parse(Arrays.asList(contributor),
+				Arrays.asList(getXML("DuplicatePoints2.xml"))); //$NON-NLS-1$
+		processXMLContribution(contributor, getXML("DuplicatePoints2.xml")); //$NON-NLS-1$
+		((ExtensionRegistry) simpleRegistry).addContributions(contributions);
+
+		assertEquals(2, simpleRegistry.getExtensionPoints("testDuplicates").length); //$NON-NLS-1$
+		assertEquals(2, simpleRegistry.getExtensions("testDuplicates").length); //$NON-NLS-1$
+		IExtensionPoint duplicatePoint = simpleRegistry
+				.getExtensionPoint(qualifiedName("testDuplicates", "duplicateExtensionPoint")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(2, duplicatePoint.getExtensions().length);
+	}
+
+	/*
+	 * A contribution whose contributor was removed while it was parsed must not be
+	 * added, and its contributor must not be left behind.
+	 */
+	@Test
+	public void testRemovedWhileParsed() throws Exception {
+		IContributor contributor1 = ContributorFactorySimple.createContributor("1"); //$NON-NLS-1$
+		IContributor contributor2 = ContributorFactorySimple.createContributor("2"); //$NON-NLS-1$
+		List<ParsedContribution> contributions = parse(Arrays.asList(contributor1, contributor2),
+				Arrays.asList(getXML("DuplicatePoints1.xml"), getXML("DuplicatePoints2.xml"))); //$NON-NLS-1$ //$NON-NLS-2$
+		((ExtensionRegistry) simpleRegistry).addContributions(contributions, "1"::equals); //$NON-NLS-1$
+
+		ExtensionRegistry registry = (ExtensionRegistry) simpleRegistry;
+		assertTrue(registry.hasContributor("1")); //$NON-NLS-1$
+		assertFalse(registry.hasContributor("2")); //$NON-NLS-1$
+		assertEquals(1, simpleRegistry.getExtensionPoints("testDuplicates").length); //$NON-NLS-1$
+		assertEquals(1, simpleRegistry.getExtensions("testDuplicates").length); //$NON-NLS-1$
+		assertNull(simpleRegistry
+				.getExtensionPoint(qualifiedName("testDuplicates", "nonDuplicateExtensionPoint"))); //$NON-NLS-1$ //$NON-NLS-2$
+
+		// the removed contributor can be added again
+		processXMLContribution(contributor2, getXML("DuplicatePoints2.xml")); //$NON-NLS-1$
+		assertTrue(registry.hasContributor("2")); //$NON-NLS-1$
+		assertEquals(2, simpleRegistry.getExtensionPoints("testDuplicates").length); //$NON-NLS-1$
+		assertEquals(3, simpleRegistry.getExtensions("testDuplicates").length); //$NON-NLS-1$
+	}
+
+	private List<ParsedContribution> parse(List<IContributor> contributors, List<URL> urls) throws Exception {
+		ExtensionRegistry registry = (ExtensionRegistry) simpleRegistry;
+		ExecutorService executor = Executors.newFixedThreadPool(contributors.size());
+		try {
+			List<Future<ParsedContribution>> results = new ArrayList<>();
+			for (int i = 0; i < contributors.size(); i++) {
+				IContributor contributor = contributors.get(i);
+				URL url = urls.get(i);
+				results.add(executor.submit(() -> registry.parseContribution(url.openStream(), contributor, true,
+						url.getFile(), null, masterToken, 0)));
+			}
+			List<ParsedContribution> contributions = new ArrayList<>();
+			for (Future<ParsedContribution> result : results) {
+				contributions.add(result.get());
+			}
+			return contributions;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private void checkRegistry(String namespace) {
+		// the extension point of the first contribution wins
+		IExtensionPoint duplicatePoint = simpleRegistry
+				.getExtensionPoint(qualifiedName("testDuplicates", "duplicateExtensionPoint")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotNull(duplicatePoint);
+		assertEquals("Test11", duplicatePoint.getLabel()); //$NON-NLS-1$
+		assertEquals("1", duplicatePoint.getContributor().getName()); //$NON-NLS-1$
+		assertEquals(3, duplicatePoint.getExtensions().length);
+		assertEquals(2, simpleRegistry.getExtensionPoints("testDuplicates").length); //$NON-NLS-1$
+		assertEquals(3, simpleRegistry.getExtensions("testDuplicates").length); //$NON-NLS-1$
+
+		IExtensionPoint extensionPoint = simpleRegistry.getExtensionPoint(qualifiedName(namespace, "MappedExtPoint")); //$NON-NLS-1$
+		assertNotNull(extensionPoint);
+		IExtension[] extensions = extensionPoint.getExtensions();
+		assertEquals(1, extensions.length);
+		IConfigurationElement[] configElements = extensions[0].getConfigurationElements();
+		assertEquals(1, configElements.length);
+		assertEquals("theShienneMountain", configElements[0].getAttribute("deviceURL")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(extensions[0], configElements[0].getDeclaringExtension());
+		IConfigurationElement[] backupDevices = configElements[0].getChildren();
+		assertEquals(2, backupDevices.length);
+		assertEquals("SkyLab", backupDevices[0].getAttribute("backupURL")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(configElements[0], backupDevices[0].getParent());
+		IConfigurationElement orbit = backupDevices[0].getChildren()[0];
+		assertEquals("low", orbit.getAttribute("orbit")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals(backupDevices[0], orbit.getParent());
+		assertEquals("deep", backupDevices[1].getChildren()[0].getAttribute("depth")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.common.tests.registry.simple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.core.internal.registry.ExtensionRegistry;
+import org.eclipse.core.internal.registry.spi.ConfigurationElementAttribute;
+import org.eclipse.core.internal.registry.spi.ConfigurationElementDescription;
+import org.eclipse.core.runtime.ContributorFactorySimple;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.eclipse.core.runtime.IContributor;
+import org.eclipse.core.runtime.IExtensionRegistry;
+import org.eclipse.core.runtime.RegistryFactory;
+import org.eclipse.core.runtime.spi.RegistryStrategy;
+
+/**
+ * This is a manual benchmark; it is not a test and no test suite refers to it.
+ * It measures the throughput of concurrent extension point lookups and handle
+ * dereferencing with 1 to 32 threads. Run its main method with the registry
+ * bundle and its dependencies on the class path.
+ */
+public class RegistryContentionBenchmark {
+
+	private static final int[] THREADS = { 1, 2, 4, 8, 16, 32 };
+	private static final long DURATION = TimeUnit.SECONDS.toNanos(2);
+	private static final int EXTENSION_POINTS = 100;
+	private static final int EXTENSIONS = 10;
+
+	public static void main(String[] args) throws Exception {
+		Object masterToken = new Object();
+		Object userToken = new Object();
+		// no cache, all objects stay in memory
+		IExtensionRegistry registry = RegistryFactory.createRegistry(new RegistryStrategy(null, null), masterToken,
+				userToken);
+		try {
+			IContributor contributor = ContributorFactorySimple.createContributor("benchmark"); //$NON-NLS-1$
+			for (int i = 0; i < EXTENSION_POINTS; i++) {
+				if (!((ExtensionRegistry) registry).addExtensionPoint("point" + i, contributor, false, null, null, //$NON-NLS-1$
+						userToken))
+					throw new IllegalStateException("Extension point not added"); //$NON-NLS-1$
+				for (int j = 0; j < EXTENSIONS; j++) {
+					ConfigurationElementDescription description = new ConfigurationElementDescription("element", //$NON-NLS-1$
+							new ConfigurationElementAttribute("class", "Class" + j), null, null); //$NON-NLS-1$ //$NON-NLS-2$
+					if (!((ExtensionRegistry) registry).addExtension("extension" + j, contributor, false, null, //$NON-NLS-1$
+							"point" + i, description, userToken)) //$NON-NLS-1$
+						throw new IllegalStateException("Extension not added"); //$NON-NLS-1$
+				}
+			}
+
+			// warm up
+			run(registry, contributor.getName(), 1);
+
+			for (int threads : THREADS) {
+				long operations = run(registry, contributor.getName(), threads);
+				System.out.println(threads + " thread(s): " + (operations * TimeUnit.SECONDS.toNanos(1) / DURATION) //$NON-NLS-1$
+						+ " lookups/s"); //$NON-NLS-1$
+			}
+		} finally {
+			registry.stop(masterToken);
+		}
+	}
+
+	private static long run(IExtensionRegistry registry, String namespace, int threads) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> results = new ArrayList<>();
+			long end = System.nanoTime() + DURATION;
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					long count = 0;
+					while (System.nanoTime() - end < 0) {
+						IConfigurationElement[] elements = registry
+								.getConfigurationElementsFor(namespace + ".point" + (count % EXTENSION_POINTS)); //$NON-NLS-1$
+						if (elements.length != EXTENSIONS)
+							throw new IllegalStateException("Wrong number of configuration elements"); //$NON-NLS-1$
+						for (IConfigurationElement element : elements) {
+							element.getAttribute("class"); //$NON-NLS-1$
+						}
+						count++;
+					}
+					return count;
+				}));
+			}
+			long total = 0;
+			for (Future<Long> result : results) {
+				total += result.get();
+			}
+			return total;
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -18,7 +18,8 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ CoordinationMaxTimeoutTest.class, ReverseParticipantOrderNotifyTest.class, BugTests.class })
+@SuiteClasses({ CoordinationMaxTimeoutTest.class, ReverseParticipantOrderNotifyTest.class, BugTests.class,
+		CoordinationTimerTest.class })
 public class AllTests {
 	// see @SuiteClasses
 }
@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.coordinator.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.service.coordinator.*;
+
+/*
+ * Ensures coordinations time out at their deadline. The timer places timeouts
+ * into the buckets of a wheel of 512 ticks of 10 milliseconds each.
+ */
+public class CoordinationTimerTest extends CoordinatorTest {
+	private static final String PROPERTY_NAME = "org.eclipse.equinox.coordinator.timeout"; //$NON-NLS-1$
+	// The time covered by one rotation of the timer wheel.
+	private static final long WHEEL_DURATION = 5120;
+
+	private static class TestParticipant implements Participant {
+		volatile boolean ended;
+		volatile boolean failed;
+
+		public void ended(Coordination coordination) throws Exception {
+			ended = true;
+		}
+
+		public void failed(Coordination coordination) throws Exception {
+			failed = true;
+		}
+	}
+
+	private String maxTimeout;
+
+	@Test
+	public void testTimeoutInFarBucket() throws Exception {
+		// The timer visits the bucket of the timeout one rotation before it is due.
+		long timeout = WHEEL_DURATION + 500;
+		Coordination c = coordinator.create("c", timeout); //$NON-NLS-1$
+		try {
+			long deadline = c.extendTimeout(0);
+			c.join(timeout + 10000);
+			assertTimedOut(c, deadline);
+		} finally {
+			end(c);
+		}
+	}
+
+	@Test
+	public void testExtendTimeoutAcrossBuckets() throws Exception {
+		Coordination c = coordinator.create("c", 200); //$NON-NLS-1$
+		try {
+			long deadline = c.extendTimeout(1000);
+			c.join(10000);
+			// The canceled timeout of the first bucket must not fail the coordination.
+			assertTimedOut(c, deadline);
+		} finally {
+			end(c);
+		}
+	}
+
+	@Test
+	public void testEndBeforeTimeout() throws Exception {
+		TestParticipant p = new TestParticipant();
+		Coordination c = coordinator.create("c", 200); //$NON-NLS-1$
+		c.addParticipant(p);
+		c.end();
+		awaitTimeout(400);
+		assertTrue("Participant not ended", p.ended); //$NON-NLS-1$
+		assertFalse("Participant failed", p.failed); //$NON-NLS-1$
+		assertNull("Ended coordination failed", c.getFailure()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testFailBeforeTimeout() throws Exception {
+		TestParticipant p = new TestParticipant();
+		Exception failure = new Exception();
+		Coordination c = coordinator.create("c", 200); //$NON-NLS-1$
+		c.addParticipant(p);
+		c.fail(failure);
+		awaitTimeout(400);
+		assertTrue("Participant not failed", p.failed); //$NON-NLS-1$
+		assertSame("Wrong failure", failure, c.getFailure()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testEarlierTimeoutWakesTimer() throws Exception {
+		// The timer waits for the bucket of the later timeout.
+		Coordination later = coordinator.create("later", 5000); //$NON-NLS-1$
+		try {
+			Coordination earlier = coordinator.create("earlier", 100); //$NON-NLS-1$
+			try {
+				long deadline = earlier.extendTimeout(0);
+				earlier.join(2000);
+				assertTimedOut(earlier, deadline);
+				assertFalse("Later coordination terminated", later.isTerminated()); //$NON-NLS-1$
+			} finally {
+				end(earlier);
+			}
+		} finally {
+			end(later);
+		}
+	}
+
+	@Before
+	@Override
+	public void setUp() throws Exception {
+		// Use no maximum timeout.
+		maxTimeout = System.setProperty(PROPERTY_NAME, String.valueOf(0));
+		super.setUp();
+	}
+
+	@After
+	@Override
+	public void tearDown() throws Exception {
+		try {
+			super.tearDown();
+		} finally {
+			if (maxTimeout == null)
+				System.clearProperty(PROPERTY_NAME);
+			else
+				System.setProperty(PROPERTY_NAME, maxTimeout);
+		}
+	}
+
+	/*
+	 * Waits until a coordination with the specified timeout timed out. The timer
+	 * processes buckets in order, so it has processed every earlier timeout by
+	 * then.
+	 */
+	private void awaitTimeout(long timeout) throws Exception {
+		Coordination marker = coordinator.create("marker", timeout); //$NON-NLS-1$
+		try {
+			marker.join(10000);
+			assertEquals("Marker coordination not timed out", Coordination.TIMEOUT, marker.getFailure()); //$NON-NLS-1$
+		} finally {
+			end(marker);
+		}
+	}
+
+	private void assertTimedOut(Coordination c, long deadline) {
+		assertTrue("Not terminated", c.isTerminated()); //$NON-NLS-1$
+		assertSame("Wrong failure", Coordination.TIMEOUT, c.getFailure()); //$NON-NLS-1$
+		assertTrue("Timed out before the deadline", System.currentTimeMillis() >= deadline); //$NON-NLS-1$
+	}
+
+	private void end(Coordination c) {
+		try {
+			c.end();
+		} catch (CoordinationException e) {
+			// noop
+		}
+	}
+}
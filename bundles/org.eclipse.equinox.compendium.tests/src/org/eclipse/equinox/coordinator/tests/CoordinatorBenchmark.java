@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.coordinator.tests;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.framework.*;
+import org.osgi.framework.launch.Framework;
+import org.osgi.framework.launch.FrameworkFactory;
+import org.osgi.service.coordinator.Coordination;
+import org.osgi.service.coordinator.Coordinator;
+import org.osgi.service.coordinator.Participant;
+
+/*
+ * A manual benchmark of the coordinator throughput with request scoped
+ * coordinations; it is not a test and no test suite refers to it. Each
+ * operation creates a coordination with a timeout, begins it, adds a
+ * participant and either ends or fails it.
+ *
+ * The main method launches a framework and installs and starts the bundles
+ * given as arguments, which must include the coordinator implementation. The
+ * framework and the coordinator API must be on the class path.
+ */
+public class CoordinatorBenchmark {
+	private static final int[] THREADS = { 1, 2, 4, 8, 16, 32 };
+	private static final long DURATION = TimeUnit.SECONDS.toNanos(2);
+	private static final Exception FAILURE = new Exception();
+
+	private static class TestParticipant implements Participant {
+		public void ended(Coordination coordination) throws Exception {
+			// nothing
+		}
+
+		public void failed(Coordination coordination) throws Exception {
+			// nothing
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			System.err.println("Usage: CoordinatorBenchmark <bundle file>..."); //$NON-NLS-1$
+			return;
+		}
+		Map<String, String> configuration = new HashMap<String, String>();
+		configuration.put(Constants.FRAMEWORK_STORAGE,
+				Files.createTempDirectory("coordinator-benchmark").toString()); //$NON-NLS-1$
+		// The coordinator implementation must use the API of the class path.
+		configuration.put(Constants.FRAMEWORK_SYSTEMPACKAGES_EXTRA, "org.osgi.service.coordinator;version=1.0.2"); //$NON-NLS-1$
+		Framework framework = ServiceLoader.load(FrameworkFactory.class).iterator().next()
+				.newFramework(configuration);
+		framework.start();
+		try {
+			BundleContext context = framework.getBundleContext();
+			List<Bundle> bundles = new ArrayList<Bundle>();
+			for (String location : args)
+				bundles.add(context.installBundle(new File(location).toURI().toString()));
+			for (Bundle bundle : bundles) {
+				if (bundle.getHeaders("").get(Constants.FRAGMENT_HOST) == null) //$NON-NLS-1$
+					bundle.start();
+			}
+			ServiceReference<Coordinator> reference = context.getServiceReference(Coordinator.class);
+			if (reference == null)
+				throw new IllegalStateException("No coordinator service registered"); //$NON-NLS-1$
+			Coordinator coordinator = context.getService(reference);
+
+			// warm up
+			run(coordinator, 1);
+
+			for (int threads : THREADS) {
+				long operations = run(coordinator, threads);
+				System.out.println(threads + " thread(s): " + (operations * TimeUnit.SECONDS.toNanos(1) / DURATION) //$NON-NLS-1$
+						+ " coordinations/s"); //$NON-NLS-1$
+			}
+		} finally {
+			framework.stop();
+			framework.waitForStop(10000);
+		}
+	}
+
+	private static long run(Coordinator coordinator, int threads) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> results = new ArrayList<Future<Long>>();
+			long end = System.nanoTime() + DURATION;
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					long count = 0;
+					while (System.nanoTime() - end < 0) {
+						Coordination c = coordinator.create("benchmark", 30000); //$NON-NLS-1$
+						c.push();
+						c.addParticipant(new TestParticipant());
+						if ((count & 1) == 0) {
+							c.end();
+						} else {
+							c.fail(FAILURE);
+							c.pop();
+						}
+						count++;
+					}
+					return count;
+				}));
+			}
+			long total = 0;
+			for (Future<Long> result : results) {
+				total += result.get();
+			}
+			return total;
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
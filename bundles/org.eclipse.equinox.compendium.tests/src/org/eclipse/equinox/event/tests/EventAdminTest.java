@@ -13,17 +13,29 @@
  *******************************************************************************/
 package org.eclipse.equinox.event.tests;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.eclipse.equinox.compendium.tests.Activator;
 import org.junit.*;
 import org.osgi.framework.*;
 import org.osgi.service.event.*;
 
 public class EventAdminTest {
+	private static final String INDEX = "index"; //$NON-NLS-1$
+
 	private EventAdmin eventAdmin;
 	private ServiceReference<EventAdmin> eventAdminReference;
 
@@ -175,4 +187,240 @@ public class EventAdminTest {
 				handler.lastEvent());
 		handlerRegistration.unregister();
 	}
+
+	/*
+	 * Ensures each handler receives posted events in the order they were posted
+	 * while the handlers are called concurrently.
+	 */
+	@Test
+	public void testPostEventOrderPerHandler() throws InterruptedException {
+		final int eventCount = 500;
+		// released once two handlers are handling an event at the same time
+		CountDownLatch concurrent = new CountDownLatch(2);
+		BundleContext bundleContext = Activator.getBundleContext();
+		List<OrderedHandler> handlers = new ArrayList<>();
+		List<ServiceRegistration<EventHandler>> registrations = new ArrayList<>();
+		try {
+			for (int i = 0; i < 4; i++) {
+				OrderedHandler handler = new OrderedHandler(eventCount, concurrent);
+				handlers.add(handler);
+				registrations.add(bundleContext.registerService(EventHandler.class, handler,
+						topicProperties("org/eclipse/equinox/event/tests/order"))); //$NON-NLS-1$
+			}
+			for (int i = 0; i < eventCount; i++) {
+				eventAdmin.postEvent(new Event("org/eclipse/equinox/event/tests/order", //$NON-NLS-1$
+						Collections.singletonMap(INDEX, i)));
+			}
+			for (OrderedHandler handler : handlers) {
+				assertTrue("Not all posted events were delivered", handler.await()); //$NON-NLS-1$
+				assertEquals("Posted events were delivered out of order", expectedIndexes(eventCount), //$NON-NLS-1$
+						handler.getIndexes());
+				assertFalse("The handlers were not called concurrently", handler.isCalledAlone()); //$NON-NLS-1$
+			}
+		} finally {
+			registrations.forEach(ServiceRegistration::unregister);
+		}
+	}
+
+	/*
+	 * Ensures a handler which blocks while handling a posted event does not delay
+	 * the delivery of posted events to other handlers.
+	 */
+	@Test
+	public void testPostEventSlowHandler() throws InterruptedException {
+		final int eventCount = 10;
+		CountDownLatch release = new CountDownLatch(1);
+		OrderedHandler slowHandler = new OrderedHandler(eventCount, null) {
+			@Override
+			public void handleEvent(Event event) {
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				super.handleEvent(event);
+			}
+		};
+		OrderedHandler fastHandler = new OrderedHandler(eventCount, null);
+		BundleContext bundleContext = Activator.getBundleContext();
+		ServiceRegistration<EventHandler> slowRegistration = bundleContext.registerService(EventHandler.class,
+				slowHandler, topicProperties("org/eclipse/equinox/event/tests/slow")); //$NON-NLS-1$
+		ServiceRegistration<EventHandler> fastRegistration = bundleContext.registerService(EventHandler.class,
+				fastHandler, topicProperties("org/eclipse/equinox/event/tests/slow")); //$NON-NLS-1$
+		try {
+			for (int i = 0; i < eventCount; i++) {
+				eventAdmin.postEvent(new Event("org/eclipse/equinox/event/tests/slow", //$NON-NLS-1$
+						Collections.singletonMap(INDEX, i)));
+			}
+			assertTrue("Delivery was blocked by a slow handler", fastHandler.await()); //$NON-NLS-1$
+			assertEquals("The slow handler was not blocked", 0, slowHandler.getIndexes().size()); //$NON-NLS-1$
+			release.countDown();
+			assertTrue("Not all posted events were delivered", slowHandler.await()); //$NON-NLS-1$
+			assertEquals("Posted events were delivered out of order", expectedIndexes(eventCount), //$NON-NLS-1$
+					slowHandler.getIndexes());
+		} finally {
+			release.countDown();
+			slowRegistration.unregister();
+			fastRegistration.unregister();
+		}
+	}
+
+	/*
+	 * Ensures the handlers cached for a topic are updated when handlers are
+	 * registered, modified and unregistered.
+	 */
+	@Test
+	public void testHandlerCacheInvalidation() {
+		BundleContext bundleContext = Activator.getBundleContext();
+		Event event = new Event("org/eclipse/equinox/event/tests/cache", (Dictionary<String, Object>) null); //$NON-NLS-1$
+		EventHandlerHelper handler1 = new EventHandlerHelper();
+		EventHandlerHelper handler2 = new EventHandlerHelper();
+		EventHandlerHelper handler3 = new EventHandlerHelper();
+		ServiceRegistration<EventHandler> registration1 = bundleContext.registerService(EventHandler.class, handler1,
+				topicProperties("org/eclipse/equinox/event/tests/cache")); //$NON-NLS-1$
+		ServiceRegistration<EventHandler> registration2 = null;
+		ServiceRegistration<EventHandler> registration3 = null;
+		try {
+			// caches the handlers of the topic
+			eventAdmin.sendEvent(event);
+			assertNotNull("Did not receive event", handler1.clearLastEvent()); //$NON-NLS-1$
+
+			registration2 = bundleContext.registerService(EventHandler.class, handler2,
+					topicProperties("org/eclipse/equinox/event/tests/*")); //$NON-NLS-1$
+			registration3 = bundleContext.registerService(EventHandler.class, handler3,
+					topicProperties("org/eclipse/equinox/event/tests/cache")); //$NON-NLS-1$
+			eventAdmin.sendEvent(event);
+			assertNotNull("Did not receive event", handler1.clearLastEvent()); //$NON-NLS-1$
+			assertNotNull("Added wildcard handler did not receive event", handler2.clearLastEvent()); //$NON-NLS-1$
+			assertNotNull("Added handler did not receive event", handler3.clearLastEvent()); //$NON-NLS-1$
+
+			registration1.unregister();
+			registration1 = null;
+			eventAdmin.sendEvent(event);
+			assertNull("Removed handler received event", handler1.clearLastEvent()); //$NON-NLS-1$
+			assertNotNull("Did not receive event", handler2.clearLastEvent()); //$NON-NLS-1$
+			assertNotNull("Did not receive event", handler3.clearLastEvent()); //$NON-NLS-1$
+
+			registration2.setProperties(topicProperties("org/eclipse/equinox/event/other/*")); //$NON-NLS-1$
+			eventAdmin.sendEvent(event);
+			assertNull("Modified handler received event", handler2.clearLastEvent()); //$NON-NLS-1$
+			assertNotNull("Did not receive event", handler3.clearLastEvent()); //$NON-NLS-1$
+		} finally {
+			if (registration1 != null) {
+				registration1.unregister();
+			}
+			if (registration2 != null) {
+				registration2.unregister();
+			}
+			if (registration3 != null) {
+				registration3.unregister();
+			}
+		}
+	}
+
+	/*
+	 * Ensures the events posted to a handler are still delivered after the
+	 * delivery of one of its events failed outside of the handler.
+	 */
+	@Test
+	public void testPostEventAfterFailedDelivery() throws InterruptedException {
+		final int eventCount = 10;
+		OrderedHandler handler = new OrderedHandler(eventCount, null);
+		Dictionary<String, Object> properties = topicProperties("org/eclipse/equinox/event/tests/failed"); //$NON-NLS-1$
+		properties.put(EventConstants.EVENT_FILTER, "(" + INDEX + ">=0)"); //$NON-NLS-1$ //$NON-NLS-2$
+		ServiceRegistration<EventHandler> registration = Activator.getBundleContext()
+				.registerService(EventHandler.class, handler, properties);
+		try {
+			// matching the handler filter against this event throws
+			eventAdmin.postEvent(new Event("org/eclipse/equinox/event/tests/failed", //$NON-NLS-1$
+					Collections.singletonMap(INDEX, new FailingCollection())));
+			for (int i = 0; i < eventCount; i++) {
+				eventAdmin.postEvent(new Event("org/eclipse/equinox/event/tests/failed", //$NON-NLS-1$
+						Collections.singletonMap(INDEX, i)));
+			}
+			assertTrue("Posted events were not delivered after a failed delivery", handler.await()); //$NON-NLS-1$
+			assertEquals("Posted events were delivered out of order", expectedIndexes(eventCount), //$NON-NLS-1$
+					handler.getIndexes());
+		} finally {
+			registration.unregister();
+		}
+	}
+
+	private static Dictionary<String, Object> topicProperties(String topic) {
+		Dictionary<String, Object> properties = new Hashtable<String, Object>();
+		properties.put(EventConstants.EVENT_TOPIC, topic);
+		return properties;
+	}
+
+	private static List<Integer> expectedIndexes(int eventCount) {
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < eventCount; i++) {
+			expected.add(i);
+		}
+		return expected;
+	}
+
+	/*
+	 * A collection which cannot be iterated.
+	 */
+	static class FailingCollection extends AbstractCollection<Object> {
+		@Override
+		public Iterator<Object> iterator() {
+			throw new IllegalStateException("Cannot iterate"); //$NON-NLS-1$
+		}
+
+		@Override
+		public int size() {
+			return 1;
+		}
+	}
+
+	/*
+	 * Records the index property of the events it receives.
+	 */
+	static class OrderedHandler implements EventHandler {
+		private final List<Integer> indexes = new ArrayList<>();
+		private final CountDownLatch received;
+		private final CountDownLatch concurrent;
+		// a handler is never called concurrently
+		private boolean waited;
+		private volatile boolean calledAlone;
+
+		OrderedHandler(int eventCount, CountDownLatch concurrent) {
+			this.received = new CountDownLatch(eventCount);
+			this.concurrent = concurrent;
+		}
+
+		@Override
+		public void handleEvent(Event event) {
+			if (concurrent != null && !waited) {
+				// wait for another handler to be called with its first event
+				waited = true;
+				concurrent.countDown();
+				try {
+					calledAlone = !concurrent.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			synchronized (indexes) {
+				indexes.add((Integer) event.getProperty(INDEX));
+			}
+			received.countDown();
+		}
+
+		boolean isCalledAlone() {
+			return calledAlone;
+		}
+
+		boolean await() throws InterruptedException {
+			return received.await(10, TimeUnit.SECONDS);
+		}
+
+		List<Integer> getIndexes() {
+			synchronized (indexes) {
+				return new ArrayList<>(indexes);
+			}
+		}
+	}
 }
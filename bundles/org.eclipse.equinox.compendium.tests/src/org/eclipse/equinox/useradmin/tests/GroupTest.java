@@ -14,6 +14,7 @@
 package org.eclipse.equinox.useradmin.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -79,4 +80,33 @@ public class GroupTest {
 		assertNull(userAdmin.getRole("testRole1")); //$NON-NLS-1$
 	}
 
+	@Test
+	public void testNestedGroupAuthorization() throws Exception {
+		try {
+			Group outer = (Group) userAdmin.createRole("testNestedOuter", Role.GROUP); //$NON-NLS-1$
+			Group inner = (Group) userAdmin.createRole("testNestedInner", Role.GROUP); //$NON-NLS-1$
+			User user = (User) userAdmin.createRole("testNestedUser", Role.USER); //$NON-NLS-1$
+			assertTrue(outer.addMember(inner));
+			assertTrue(inner.addMember(user));
+
+			Authorization authorization = userAdmin.getAuthorization(user);
+			assertTrue(authorization.hasRole("testNestedInner")); //$NON-NLS-1$
+			assertTrue(authorization.hasRole("testNestedOuter")); //$NON-NLS-1$
+
+			// membership changes are seen by existing authorizations
+			assertTrue(inner.removeMember(user));
+			assertFalse(authorization.hasRole("testNestedInner")); //$NON-NLS-1$
+			assertFalse(authorization.hasRole("testNestedOuter")); //$NON-NLS-1$
+
+			assertTrue(outer.addMember(user));
+			assertTrue(authorization.hasRole("testNestedOuter")); //$NON-NLS-1$
+			assertTrue(userAdmin.removeRole("testNestedOuter")); //$NON-NLS-1$
+			assertFalse(authorization.hasRole("testNestedOuter")); //$NON-NLS-1$
+		} finally {
+			userAdmin.removeRole("testNestedOuter"); //$NON-NLS-1$
+			userAdmin.removeRole("testNestedInner"); //$NON-NLS-1$
+			userAdmin.removeRole("testNestedUser"); //$NON-NLS-1$
+		}
+	}
+
 }
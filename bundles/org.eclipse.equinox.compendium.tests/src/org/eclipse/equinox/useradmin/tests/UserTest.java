@@ -98,6 +98,29 @@ public class UserTest {
 		}
 	}
 
+	@Test
+	public void testGetUserAfterPropertyChange() throws Exception {
+		try {
+			User user1 = (User) userAdmin.createRole("testGetUser1", Role.USER); //$NON-NLS-1$
+			User user2 = (User) userAdmin.createRole("testGetUser2", Role.USER); //$NON-NLS-1$
+			user1.getProperties().put("testGetUserKey", "a"); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals(user1, userAdmin.getUser("testGetUserKey", "a")); //$NON-NLS-1$ //$NON-NLS-2$
+
+			user2.getProperties().put("testGetUserKey", "a"); //$NON-NLS-1$ //$NON-NLS-2$
+			assertNull(userAdmin.getUser("testGetUserKey", "a")); //$NON-NLS-1$ //$NON-NLS-2$
+
+			user1.getProperties().put("testGetUserKey", "b"); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals(user2, userAdmin.getUser("testGetUserKey", "a")); //$NON-NLS-1$ //$NON-NLS-2$
+			assertEquals(user1, userAdmin.getUser("testGetUserKey", "b")); //$NON-NLS-1$ //$NON-NLS-2$
+
+			userAdmin.removeRole("testGetUser2"); //$NON-NLS-1$
+			assertNull(userAdmin.getUser("testGetUserKey", "a")); //$NON-NLS-1$ //$NON-NLS-2$
+		} finally {
+			userAdmin.removeRole("testGetUser1"); //$NON-NLS-1$
+			userAdmin.removeRole("testGetUser2"); //$NON-NLS-1$
+		}
+	}
+
 	@Test
 	public void testUserCreateAndRemove() throws Exception {
 		User user = (User) userAdmin.createRole("testUserCreateAndRemove", Role.USER); //$NON-NLS-1$
@@ -19,7 +19,6 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TimerTask;
 
 import org.eclipse.osgi.util.NLS;
 import org.osgi.framework.Bundle;
@@ -41,7 +40,7 @@ public class CoordinationImpl {
 	private CoordinationImpl enclosingCoordination;
 	private Thread thread;
 	private long totalTimeout;
-	private TimerTask timerTask;
+	private CoordinationTimerTask timerTask;
 
 	private final CoordinatorImpl coordinator;
 	private final long id;
@@ -407,7 +406,7 @@ public class CoordinationImpl {
 		return referent;
 	}
 
-	synchronized void setTimerTask(TimerTask timerTask) {
+	synchronized void setTimerTask(CoordinationTimerTask timerTask) {
 		this.timerTask = timerTask;
 		deadline = new Date(System.currentTimeMillis() + totalTimeout);
 		coordinator.schedule(timerTask, deadline);
@@ -438,10 +437,9 @@ public class CoordinationImpl {
 	private void terminate() throws CoordinationException {
 		checkTerminated();
 		terminated = true;
-		// Cancel the timeout. Purge the task if it was, in fact, canceled.
-		if (timerTask != null && timerTask.cancel()) {
-			coordinator.purge();
-		}
+		// Cancel the timeout. The timer drops canceled tasks by itself.
+		if (timerTask != null)
+			timerTask.cancel();
 		coordinator.terminate(this, participants);
 	}
 
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.coordinator;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * A hashed timing wheel running coordination timeouts on a single daemon
+ * thread. Scheduling and canceling a task take constant time and do not
+ * contend on a lock. Canceled tasks are dropped the next time the timer
+ * thread visits their bucket, so no purging is necessary.
+ *
+ * Timeouts are rounded up to the next tick. The timer thread parks until the
+ * next occupied bucket is due, or until a task is scheduled when the wheel is
+ * empty, so an idle timer does not wake up on every tick.
+ */
+public class CoordinationTimer {
+	private static final long TICK = TimeUnit.MILLISECONDS.toNanos(10);
+	// Must be a power of two.
+	private static final int WHEEL_SIZE = 512;
+
+	// Tasks scheduled since the last tick. Only the timer thread places tasks
+	// into the wheel.
+	private final Queue<CoordinationTimerTask> pending = new ConcurrentLinkedQueue<>();
+	private final ArrayDeque<CoordinationTimerTask>[] wheel;
+	private final long start = System.nanoTime();
+	private final Thread thread;
+
+	private volatile boolean canceled;
+	// The time the timer thread is parked until, in nanoseconds since the timer
+	// started. A task due earlier unparks the timer thread when it is scheduled.
+	private volatile long wakeTime = Long.MAX_VALUE;
+	// The tick the timer thread processes next. Only accessed by the timer thread.
+	private long tick;
+	// The number of tasks in the wheel. Only accessed by the timer thread.
+	private int size;
+
+	@SuppressWarnings("unchecked")
+	public CoordinationTimer() {
+		wheel = new ArrayDeque[WHEEL_SIZE];
+		for (int i = 0; i < WHEEL_SIZE; i++)
+			wheel[i] = new ArrayDeque<>();
+		thread = new Thread(this::run, "Coordination Timer"); //$NON-NLS-1$
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	public void cancel() {
+		canceled = true;
+		LockSupport.unpark(thread);
+	}
+
+	/*
+	 * Schedules a task to run at the specified time, in milliseconds since the
+	 * epoch.
+	 */
+	public void schedule(CoordinationTimerTask task, long deadline) {
+		if (canceled)
+			throw new IllegalStateException("Timer already cancelled."); //$NON-NLS-1$
+		long delay = Math.max(0, deadline - System.currentTimeMillis());
+		task.deadline = System.nanoTime() - start + TimeUnit.MILLISECONDS.toNanos(delay);
+		pending.add(task);
+		// The timer thread checks for pending tasks after setting the wake time.
+		if (task.deadline < wakeTime)
+			LockSupport.unpark(thread);
+	}
+
+	private void run() {
+		while (!canceled) {
+			long now = System.nanoTime() - start;
+			if (size == 0) {
+				// Skip the ticks that elapsed while the empty wheel was parked.
+				tick = Math.max(tick, now / TICK);
+			}
+			transferPending();
+			// Process every tick that has elapsed, catching up if the thread was late.
+			while (tick * TICK <= now) {
+				transferPending();
+				expire(wheel[(int) (tick & (WHEEL_SIZE - 1))]);
+				tick++;
+			}
+			long next = nextOccupiedTick();
+			wakeTime = next < 0 ? Long.MAX_VALUE : next * TICK;
+			if (!pending.isEmpty())
+				continue;
+			if (next < 0)
+				LockSupport.park(this);
+			else
+				LockSupport.parkNanos(this, next * TICK - (System.nanoTime() - start));
+		}
+	}
+
+	/*
+	 * Returns the next tick whose bucket holds a task, or -1 if the wheel is
+	 * empty. The tasks of the bucket may be due in a later rotation of the wheel,
+	 * in which case the timer thread wakes up once without running them.
+	 */
+	private long nextOccupiedTick() {
+		if (size == 0)
+			return -1;
+		for (long t = tick; t < tick + WHEEL_SIZE; t++) {
+			if (!wheel[(int) (t & (WHEEL_SIZE - 1))].isEmpty())
+				return t;
+		}
+		return -1;
+	}
+
+	private void transferPending() {
+		CoordinationTimerTask task;
+		while ((task = pending.poll()) != null) {
+			if (task.isCanceled())
+				continue;
+			// Round up to the next tick, but never into a tick already processed.
+			task.tick = Math.max(tick, (task.deadline + TICK - 1) / TICK);
+			wheel[(int) (task.tick & (WHEEL_SIZE - 1))].add(task);
+			size++;
+		}
+	}
+
+	private void expire(ArrayDeque<CoordinationTimerTask> bucket) {
+		for (Iterator<CoordinationTimerTask> i = bucket.iterator(); i.hasNext();) {
+			CoordinationTimerTask task = i.next();
+			if (task.isCanceled()) {
+				i.remove();
+				size--;
+			} else if (task.tick <= tick) {
+				i.remove();
+				size--;
+				// The task catches everything it throws.
+				if (task.start())
+					task.run();
+			}
+		}
+	}
+}
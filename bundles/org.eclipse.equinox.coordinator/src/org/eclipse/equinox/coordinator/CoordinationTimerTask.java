@@ -13,13 +13,24 @@
  *******************************************************************************/
 package org.eclipse.equinox.coordinator;
 
-import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.osgi.util.NLS;
 import org.osgi.service.coordinator.Coordination;
 
-public class CoordinationTimerTask extends TimerTask {
+public class CoordinationTimerTask implements Runnable {
+	private static final int SCHEDULED = 0;
+	private static final int STARTED = 1;
+	private static final int CANCELED = 2;
+
 	private final CoordinationImpl coordination;
+	private final AtomicInteger state = new AtomicInteger(SCHEDULED);
+
+	// The time this task is due, in nanoseconds since the timer started.
+	long deadline;
+	// The tick of the timer wheel this task was placed in. Only accessed by the
+	// timer thread.
+	long tick;
 
 	public CoordinationTimerTask(CoordinationImpl coordination) {
 		if (coordination == null)
@@ -27,6 +38,13 @@ public class CoordinationTimerTask extends TimerTask {
 		this.coordination = coordination;
 	}
 
+	/*
+	 * Cancels this task. Returns true if this prevented the task from running.
+	 */
+	public boolean cancel() {
+		return state.compareAndSet(SCHEDULED, CANCELED);
+	}
+
 	@Override
 	public void run() {
 		// Catch all exceptions and errors in order to prevent the timer
@@ -38,4 +56,15 @@ public class CoordinationTimerTask extends TimerTask {
 					new Object[] { coordination.getName(), coordination.getId(), Thread.currentThread() }), t);
 		}
 	}
+
+	boolean isCanceled() {
+		return state.get() == CANCELED;
+	}
+
+	/*
+	 * Marks this task as running. Returns false if it was canceled.
+	 */
+	boolean start() {
+		return state.compareAndSet(SCHEDULED, STARTED);
+	}
 }
@@ -16,15 +16,14 @@ package org.eclipse.equinox.coordinator;
 import java.security.Permission;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.osgi.util.NLS;
 import org.osgi.framework.Bundle;
@@ -36,20 +35,32 @@ import org.osgi.service.coordinator.Participant;
 
 public class CoordinatorImpl implements Coordinator {
 	// IDs must be positive integers and monotonically increasing.
-	private static long lastId;
+	private static final AtomicLong lastId = new AtomicLong();
 
-	private synchronized static long getNextId() {
-		if (Long.MAX_VALUE == lastId)
-			throw new IllegalStateException(NLS.bind(Messages.MaxCoordinationIdExceeded, lastId));
+	private static long getNextId() {
+		long id = lastId.getAndUpdate(last -> last == Long.MAX_VALUE ? last : last + 1);
+		if (Long.MAX_VALUE == id)
+			throw new IllegalStateException(NLS.bind(Messages.MaxCoordinationIdExceeded, id));
 		// First ID will be 1.
-		return ++lastId;
+		return id + 1;
 	}
 
 	// Coordination IDs must be unique across all using bundles.
-	private static final Map<Long, CoordinationImpl> idToCoordination = new HashMap<>();
+	private static final Map<Long, CoordinationImpl> idToCoordination = new ConcurrentHashMap<>();
 	// Coordination participation must be tracked across all using bundles.
-	private static final Map<Participant, CoordinationImpl> participantToCoordination = Collections
-			.synchronizedMap(new IdentityHashMap<Participant, CoordinationImpl>());
+	// Participants are compared by identity, so the map is striped by identity
+	// hash code rather than concurrent. Each stripe is guarded by itself.
+	private static final int PARTICIPANT_STRIPES = 32;
+	@SuppressWarnings("unchecked")
+	private static final Map<Participant, CoordinationImpl>[] participantToCoordination = new Map[PARTICIPANT_STRIPES];
+	static {
+		for (int i = 0; i < PARTICIPANT_STRIPES; i++)
+			participantToCoordination[i] = new IdentityHashMap<>();
+	}
+
+	private static Map<Participant, CoordinationImpl> getParticipantStripe(Participant participant) {
+		return participantToCoordination[System.identityHashCode(participant) & (PARTICIPANT_STRIPES - 1)];
+	}
 
 	private static ThreadLocal<WeakCoordinationStack> coordinationStack = new ThreadLocal<WeakCoordinationStack>() {
 		@Override
@@ -96,18 +107,18 @@ public class CoordinatorImpl implements Coordinator {
 	}
 
 	private final Bundle bundle;
-	private final List<CoordinationImpl> coordinations;
+	private final Set<CoordinationImpl> coordinations;
 	private final LogTracker logTracker;
 	private final long maxTimeout;
-	private final Timer timer;
+	private final CoordinationTimer timer;
 
-	private boolean shutdown;
+	private volatile boolean shutdown;
 
-	public CoordinatorImpl(Bundle bundle, LogTracker logService, Timer timer, long maxTimeout) {
+	public CoordinatorImpl(Bundle bundle, LogTracker logService, CoordinationTimer timer, long maxTimeout) {
 		this.bundle = bundle;
 		this.logTracker = logService;
 		this.timer = timer;
-		coordinations = new ArrayList<>();
+		coordinations = ConcurrentHashMap.newKeySet();
 		if (maxTimeout < 0)
 			throw new IllegalArgumentException(NLS.bind(Messages.InvalidTimeInterval, maxTimeout));
 		this.maxTimeout = maxTimeout;
@@ -151,16 +162,17 @@ public class CoordinatorImpl implements Coordinator {
 		// by the coordination in order to avoid garbage collection. It serves no other
 		// purpose. Just "set it and forget it".
 		coordination.reference = new CoordinationWeakReference(referent, coordination);
-		synchronized (this) {
-			if (shutdown)
-				throw new IllegalStateException(NLS.bind(Messages.CoordinatorShutdown, name, timeout));
-			synchronized (CoordinatorImpl.class) {
-				coordinations.add(coordination);
-				idToCoordination.put(Long.valueOf(coordination.getId()), coordination);
-			}
+		// Add first and check for shutdown afterwards. Either this method sees the
+		// shutdown, or shutdown() sees the coordination and fails it.
+		coordinations.add(coordination);
+		idToCoordination.put(Long.valueOf(coordination.getId()), coordination);
+		if (shutdown) {
+			coordinations.remove(coordination);
+			idToCoordination.remove(Long.valueOf(coordination.getId()));
+			throw new IllegalStateException(NLS.bind(Messages.CoordinatorShutdown, name, timeout));
 		}
 		if (timeout > 0) {
-			TimerTask timerTask = new CoordinationTimerTask(coordination);
+			CoordinationTimerTask timerTask = new CoordinationTimerTask(coordination);
 			coordination.setTimerTask(timerTask);
 		}
 		// Make sure to return the referent targeted towards the initiator here.
@@ -178,11 +190,9 @@ public class CoordinatorImpl implements Coordinator {
 	public Coordination getCoordination(long id) {
 		CoordinationWeakReference.processOrphanedCoordinations();
 		CoordinationReferent result = null;
-		synchronized (CoordinatorImpl.class) {
-			CoordinationImpl c = idToCoordination.get(Long.valueOf(id));
-			if (c != null)
-				result = c.getReferent();
-		}
+		CoordinationImpl c = idToCoordination.get(Long.valueOf(id));
+		if (c != null)
+			result = c.getReferent();
 		if (result != null && !result.isTerminated()) {
 			try {
 				checkPermission(CoordinationPermission.ADMIN, result.getName());
@@ -197,21 +207,18 @@ public class CoordinatorImpl implements Coordinator {
 
 	public Collection<Coordination> getCoordinations() {
 		CoordinationWeakReference.processOrphanedCoordinations();
-		ArrayList<Coordination> result;
-		synchronized (CoordinatorImpl.class) {
-			result = new ArrayList<>(idToCoordination.size());
-			for (CoordinationImpl coordination : idToCoordination.values()) {
-				// Ideally, we're only interested in coordinations that have not terminated.
-				// It's okay, however, if the coordination terminates from this point forward.
-				if (coordination.isTerminated())
-					continue;
-				try {
-					checkPermission(CoordinationPermission.ADMIN, coordination.getName());
-					result.add(coordination.getReferent());
-				} catch (SecurityException e) {
-					logTracker.debug(NLS.bind(Messages.GetCoordinationNotPermitted,
-							new Object[] { Thread.currentThread(), coordination.getName(), coordination.getId() }), e);
-				}
+		ArrayList<Coordination> result = new ArrayList<>(idToCoordination.size());
+		for (CoordinationImpl coordination : idToCoordination.values()) {
+			// Ideally, we're only interested in coordinations that have not terminated.
+			// It's okay, however, if the coordination terminates from this point forward.
+			if (coordination.isTerminated())
+				continue;
+			try {
+				checkPermission(CoordinationPermission.ADMIN, coordination.getName());
+				result.add(coordination.getReferent());
+			} catch (SecurityException e) {
+				logTracker.debug(NLS.bind(Messages.GetCoordinationNotPermitted,
+						new Object[] { Thread.currentThread(), coordination.getName(), coordination.getId() }), e);
 			}
 		}
 		result.trimToSize();
@@ -236,14 +243,10 @@ public class CoordinatorImpl implements Coordinator {
 	}
 
 	CoordinationImpl addParticipant(Participant participant, CoordinationImpl coordination) {
-		CoordinationImpl result = null;
-		synchronized (participantToCoordination) {
-			result = participantToCoordination.get(participant);
-			if (result == null) {
-				participantToCoordination.put(participant, coordination);
-			}
+		Map<Participant, CoordinationImpl> stripe = getParticipantStripe(participant);
+		synchronized (stripe) {
+			return stripe.putIfAbsent(participant, coordination);
 		}
-		return result;
 	}
 
 	void checkPermission(String permissionType, String coordinationName) {
@@ -269,32 +272,20 @@ public class CoordinatorImpl implements Coordinator {
 		return maxTimeout;
 	}
 
-	void purge() {
-		// Purge the timer of all canceled tasks if we're running on a supportive JCL.
-		try {
-			Timer.class.getMethod("purge", (Class<?>[]) null).invoke(timer, (Object[]) null); //$NON-NLS-1$
-		} catch (Exception e) {
-			logTracker.debug(Messages.CanceledTaskNotPurged, e);
-		}
-	}
-
 	void push(CoordinationImpl coordination) throws CoordinationException {
 		coordinationStack.get().push(coordination);
 	}
 
-	void schedule(TimerTask task, Date deadline) {
-		timer.schedule(task, deadline);
+	void schedule(CoordinationTimerTask task, Date deadline) {
+		timer.schedule(task, deadline.getTime());
 	}
 
 	void shutdown() {
 		CoordinationWeakReference.processOrphanedCoordinations();
-		List<CoordinationImpl> coords;
-		synchronized (this) {
-			shutdown = true;
-			// Make a copy so the removal of the coordination from the list during
-			// termination does not interfere with the iteration.
-			coords = new ArrayList<>(this.coordinations);
-		}
+		shutdown = true;
+		// Make a copy so the removal of the coordination from the set during
+		// termination does not interfere with the iteration.
+		List<CoordinationImpl> coords = new ArrayList<>(this.coordinations);
 		for (CoordinationImpl coordination : coords) {
 			coordination.fail(Coordination.RELEASED);
 		}
@@ -306,11 +297,12 @@ public class CoordinatorImpl implements Coordinator {
 	void terminate(CoordinationImpl coordination, List<Participant> participants) {
 		// A coordination has been terminated and needs to be removed from the thread
 		// local stack.
-		synchronized (this) {
-			synchronized (CoordinatorImpl.class) {
-				this.coordinations.remove(coordination);
-				idToCoordination.remove(Long.valueOf(coordination.getId()));
-				participantToCoordination.keySet().removeAll(participants);
+		this.coordinations.remove(coordination);
+		idToCoordination.remove(Long.valueOf(coordination.getId()));
+		for (Participant participant : participants) {
+			Map<Participant, CoordinationImpl> stripe = getParticipantStripe(participant);
+			synchronized (stripe) {
+				stripe.remove(participant, coordination);
 			}
 		}
 	}
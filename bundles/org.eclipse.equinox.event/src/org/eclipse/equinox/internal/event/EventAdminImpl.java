@@ -16,21 +16,36 @@ package org.eclipse.equinox.internal.event;
 
 import java.security.Permission;
 import java.util.Map;
-import java.util.Set;
-import org.eclipse.osgi.framework.eventmgr.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.osgi.util.NLS;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceReference;
 import org.osgi.service.event.*;
 
 /**
- * Implementation of org.osgi.service.event.EventAdmin. EventAdminImpl uses
- * org.eclipse.osgi.framework.eventmgr.EventManager. It is assumed
- * org.eclipse.osgi.framework.eventmgr package is exported by some other bundle.
+ * Implementation of org.osgi.service.event.EventAdmin. Posted events are queued
+ * per handler and delivered by a pool of threads. Each handler receives the
+ * posted events in the order they were posted, but different handlers may
+ * receive events concurrently.
  */
 public class EventAdminImpl implements EventAdmin {
+	/**
+	 * The property used to specify the number of threads delivering posted events
+	 */
+	static final String PROP_ASYNC_THREAD_COUNT = "equinox.event.async.thread.count"; //$NON-NLS-1$
+	// at least two threads so that a blocked handler does not stop the delivery to
+	// other handlers
+	private static final int DEFAULT_ASYNC_THREAD_COUNT = Math.max(2,
+			Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+	private final BundleContext context;
 	private final LogTracker log;
 	private final EventHandlerTracker handlers;
-	private volatile EventManager eventManager;
+	private volatile ExecutorService asyncExecutor;
 
 	/**
 	 * Constructor for EventAdminImpl.
@@ -39,6 +54,7 @@ public class EventAdminImpl implements EventAdmin {
 	 */
 	EventAdminImpl(BundleContext context) {
 		super();
+		this.context = context;
 		log = new LogTracker(context, System.out);
 		handlers = new EventHandlerTracker(context, log);
 	}
@@ -49,17 +65,43 @@ public class EventAdminImpl implements EventAdmin {
 	void start() {
 		log.open();
 		ThreadGroup eventGroup = new ThreadGroup("Equinox Event Admin"); //$NON-NLS-1$
-		eventManager = new EventManager(EventAdminMsg.EVENT_ASYNC_THREAD_NAME, eventGroup);
+		AtomicInteger threadNumber = new AtomicInteger();
+		int threadCount = getAsyncThreadCount();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<>(), r -> {
+					Thread t = new Thread(eventGroup, r,
+							EventAdminMsg.EVENT_ASYNC_THREAD_NAME + ' ' + threadNumber.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				});
+		// do not keep idle threads around
+		executor.allowCoreThreadTimeOut(true);
+		asyncExecutor = executor;
 		handlers.open();
 	}
 
+	private int getAsyncThreadCount() {
+		String prop = context.getProperty(PROP_ASYNC_THREAD_COUNT);
+		if (prop != null) {
+			try {
+				int count = Integer.parseInt(prop);
+				if (count > 0) {
+					return count;
+				}
+			} catch (NumberFormatException e) {
+				// use the default
+			}
+		}
+		return DEFAULT_ASYNC_THREAD_COUNT;
+	}
+
 	/**
 	 * This method should be called after unregistering EventAdmin service
 	 */
 	void stop() {
 		handlers.close();
-		eventManager.close();
-		eventManager = null; // signify we have stopped
+		asyncExecutor.shutdownNow();
+		asyncExecutor = null; // signify we have stopped
 		log.close();
 	}
 
@@ -83,8 +125,8 @@ public class EventAdminImpl implements EventAdmin {
 	 */
 	private void dispatchEvent(Event event, boolean isAsync) {
 		// keep a local copy in case we are stopped in the middle of dispatching
-		EventManager currentManager = eventManager;
-		if (currentManager == null) {
+		ExecutorService currentExecutor = asyncExecutor;
+		if (currentExecutor == null) {
 			// EventAdmin is stopped
 			return;
 		}
@@ -106,32 +148,36 @@ public class EventAdminImpl implements EventAdmin {
 			throw e;
 		}
 
-		Set<EventHandlerWrapper> eventHandlers = handlers.getHandlers(topic);
+		EventHandlerWrapper[] eventHandlers = handlers.getHandlers(topic);
 		// If there are no handlers, then we are done
-		if (eventHandlers.isEmpty()) {
+		if (eventHandlers.length == 0) {
 			return;
 		}
 
 		SecurityManager sm = System.getSecurityManager();
 		Permission perm = (sm == null) ? null : new TopicPermission(topic, TopicPermission.SUBSCRIBE);
 
-		Map<EventHandlerWrapper, Permission> listeners = new CopyOnWriteIdentityMap<>();
-		for (EventHandlerWrapper wrapper : eventHandlers)
-			listeners.put(wrapper, perm);
-
-		// Create the listener queue for this event delivery
-		ListenerQueue<EventHandlerWrapper, Permission, Event> listenerQueue = new ListenerQueue<>(currentManager);
-		// Add the listeners to the queue and associate them with the event
-		// dispatcher
-		listenerQueue.queueListeners(listeners.entrySet(), handlers);
 		// Deliver the event to the listeners.
-		if (isAsync) {
-			listenerQueue.dispatchEventAsynchronous(0, event);
-		} else {
-			listenerQueue.dispatchEventSynchronous(0, event);
+		for (EventHandlerWrapper wrapper : eventHandlers) {
+			if (isAsync) {
+				wrapper.postEvent(event, perm, currentExecutor);
+			} else {
+				wrapper.handleEvent(event, perm);
+			}
 		}
 	}
 
+	/**
+	 * Returns the wrappers of the tracked event handlers. The wrappers provide the
+	 * delivery statistics of each handler.
+	 * 
+	 * @return the wrappers of the tracked event handlers keyed by their service
+	 *         reference
+	 */
+	public Map<ServiceReference<EventHandler>, EventHandlerWrapper> getHandlerWrappers() {
+		return handlers.getTracked();
+	}
+
 	/**
 	 * Checks if the caller bundle has right PUBLISH TopicPermision.
 	 * 
@@ -14,17 +14,17 @@
 
 package org.eclipse.equinox.internal.event;
 
-import java.security.Permission;
 import java.util.*;
-import org.eclipse.osgi.framework.eventmgr.EventDispatcher;
+import java.util.concurrent.ConcurrentHashMap;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
-import org.osgi.service.event.Event;
 import org.osgi.service.event.EventHandler;
 import org.osgi.util.tracker.ServiceTracker;
 
-public class EventHandlerTracker extends ServiceTracker<EventHandler, EventHandlerWrapper>
-		implements EventDispatcher<EventHandlerWrapper, Permission, Event> {
+public class EventHandlerTracker extends ServiceTracker<EventHandler, EventHandlerWrapper> {
+	private static final EventHandlerWrapper[] EMPTY_HANDLERS = new EventHandlerWrapper[0];
+	// the maximum number of topics with cached handlers; the cache is cleared when full
+	private static final int MAX_CACHED_TOPICS = 4096;
 
 	private final LogTracker log;
 	// * List<EventHandlerWrapper> of all handlers with topic of "*"
@@ -33,6 +33,9 @@ public class EventHandlerTracker extends ServiceTracker<EventHandler, EventHandl
 	private final Map<String, List<EventHandlerWrapper>> partialWildcard;
 	// Map<String,List<EventHandlerWrapper>> key is topic name
 	private final Map<String, List<EventHandlerWrapper>> topicName;
+	// Map<String,EventHandlerWrapper[]> key is topic name; replaced each time the
+	// buckets change
+	private volatile Map<String, EventHandlerWrapper[]> topicHandlers = new ConcurrentHashMap<>();
 
 	public EventHandlerTracker(BundleContext context, LogTracker log) {
 		super(context, EventHandler.class.getName(), null);
@@ -82,6 +85,7 @@ public class EventHandlerTracker extends ServiceTracker<EventHandler, EventHandl
 	 * @GuardedBy this
 	 */
 	private void bucket(EventHandlerWrapper wrapper) {
+		topicHandlers = new ConcurrentHashMap<>();
 		final String[] topics = wrapper.getTopics();
 		final int length = (topics == null) ? 0 : topics.length;
 		for (int i = 0; i < length; i++) {
@@ -119,6 +123,7 @@ public class EventHandlerTracker extends ServiceTracker<EventHandler, EventHandl
 	 * @GuardedBy this
 	 */
 	private void unbucket(EventHandlerWrapper wrapper) {
+		topicHandlers = new ConcurrentHashMap<>();
 		final String[] topics = wrapper.getTopics();
 		final int length = (topics == null) ? 0 : topics.length;
 		for (int i = 0; i < length; i++) {
@@ -151,13 +156,37 @@ public class EventHandlerTracker extends ServiceTracker<EventHandler, EventHandl
 		}
 	}
 
+	/**
+	 * Return the handlers which subscribe to the event topic. A handler is only
+	 * included once. The handlers of a topic are cached until the handlers change.
+	 * 
+	 * @return the handlers; the returned array must not be modified
+	 */
+	public EventHandlerWrapper[] getHandlers(final String topic) {
+		EventHandlerWrapper[] result = topicHandlers.get(topic);
+		if (result != null) {
+			return result;
+		}
+		synchronized (this) {
+			Set<EventHandlerWrapper> handlers = findHandlers(topic);
+			result = handlers.isEmpty() ? EMPTY_HANDLERS : handlers.toArray(EMPTY_HANDLERS);
+			Map<String, EventHandlerWrapper[]> current = topicHandlers;
+			if (current.size() >= MAX_CACHED_TOPICS) {
+				current.clear();
+			}
+			current.put(topic, result);
+		}
+		return result;
+	}
+
 	/**
 	 * Return the set of handlers which subscribe to the event topic. A set is used
 	 * to ensure a handler is not called for an event more than once.
 	 * 
 	 * @return a set of handlers
+	 * @GuardedBy this
 	 */
-	public synchronized Set<EventHandlerWrapper> getHandlers(final String topic) {
+	private Set<EventHandlerWrapper> findHandlers(final String topic) {
 		// Use a set to remove duplicates
 		Set<EventHandlerWrapper> handlers = new LinkedHashSet<>();
 
@@ -188,16 +217,4 @@ public class EventHandlerTracker extends ServiceTracker<EventHandler, EventHandl
 
 		return handlers;
 	}
-
-	/**
-	 * Dispatches Event to EventHandlers
-	 * 
-	 * @see org.eclipse.osgi.framework.eventmgr.EventDispatcher#dispatchEvent(java.lang.Object,
-	 *      java.lang.Object, int, java.lang.Object)
-	 */
-	@Override
-	public void dispatchEvent(EventHandlerWrapper eventListener, Permission listenerObject, int eventAction,
-			Event eventObject) {
-		eventListener.handleEvent(eventObject, listenerObject);
-	}
 }
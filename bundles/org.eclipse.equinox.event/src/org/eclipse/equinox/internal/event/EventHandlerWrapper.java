@@ -16,6 +16,14 @@ package org.eclipse.equinox.internal.event;
 
 import java.security.*;
 import java.util.Collection;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import org.eclipse.osgi.util.NLS;
 import org.osgi.framework.*;
 import org.osgi.service.event.*;
@@ -23,8 +31,16 @@ import org.osgi.service.event.*;
 /**
  * A wrapper for EventHandlers. This class caches property values and performs
  * final checks before calling the wrapped handler.
+ * <p>
+ * Events posted to the handler are queued by the wrapper and delivered in the
+ * order they were posted. At most one task delivering the queued events of a
+ * handler is running at any time.
  */
 public class EventHandlerWrapper {
+	// the maximum number of events delivered by one task before another task is
+	// scheduled to let other handlers run
+	private static final int MAX_DELIVERY_BATCH = 64;
+
 	final ServiceReference<EventHandler> reference;
 	private final LogTracker log;
 	final BundleContext context;
@@ -32,6 +48,29 @@ public class EventHandlerWrapper {
 	private String[] topics;
 	private Filter filter;
 
+	private final Queue<PostedEvent> posted = new ConcurrentLinkedQueue<>();
+	private final AtomicBoolean deliveryScheduled = new AtomicBoolean();
+	private final AtomicInteger queueDepth = new AtomicInteger();
+	private final LongAdder deliveredCount = new LongAdder();
+	private final LongAdder totalLatency = new LongAdder();
+	private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+	/**
+	 * An event posted to the handler along with the permission to check and the
+	 * time it was posted.
+	 */
+	private static final class PostedEvent {
+		final Event event;
+		final Permission perm;
+		final long postTime;
+
+		PostedEvent(Event event, Permission perm, long postTime) {
+			this.event = event;
+			this.perm = perm;
+			this.postTime = postTime;
+		}
+	}
+
 	/**
 	 * Create an EventHandlerWrapper.
 	 * 
@@ -217,6 +256,98 @@ public class EventHandlerWrapper {
 		}
 	}
 
+	/**
+	 * Queue an event for asynchronous delivery to the handler. The queued events
+	 * are delivered in order using the executor.
+	 * 
+	 * @param event    The event to deliver
+	 * @param perm     The permission to be checked
+	 * @param executor The executor to deliver the event with
+	 */
+	void postEvent(Event event, Permission perm, Executor executor) {
+		posted.add(new PostedEvent(event, perm, System.nanoTime()));
+		queueDepth.incrementAndGet();
+		scheduleDelivery(executor);
+	}
+
+	private void scheduleDelivery(Executor executor) {
+		if (!deliveryScheduled.compareAndSet(false, true)) {
+			// the running delivery task will deliver the event
+			return;
+		}
+		try {
+			executor.execute(() -> deliverPosted(executor));
+		} catch (RejectedExecutionException e) {
+			// event admin has stopped; discard the queued events
+			posted.clear();
+			queueDepth.set(0);
+			deliveryScheduled.set(false);
+		}
+	}
+
+	private void deliverPosted(Executor executor) {
+		try {
+			for (int i = 0; i < MAX_DELIVERY_BATCH; i++) {
+				PostedEvent next = posted.poll();
+				if (next == null) {
+					break;
+				}
+				queueDepth.decrementAndGet();
+				handleEvent(next.event, next.perm);
+				long latency = System.nanoTime() - next.postTime;
+				deliveredCount.increment();
+				totalLatency.add(latency);
+				maxLatency.accumulate(latency);
+			}
+		} finally {
+			// always allow another task to be scheduled, even if the delivery failed;
+			// otherwise the events posted to the handler are never delivered
+			deliveryScheduled.set(false);
+			// check for events queued after the last poll
+			if (!posted.isEmpty()) {
+				scheduleDelivery(executor);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of posted events waiting to be delivered to the handler.
+	 * 
+	 * @return the number of queued events
+	 */
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	/**
+	 * Returns the number of posted events delivered to the handler.
+	 * 
+	 * @return the number of delivered events
+	 */
+	public long getDeliveredCount() {
+		return deliveredCount.sum();
+	}
+
+	/**
+	 * Returns the total time in nanoseconds between posting the delivered events
+	 * and the handler returning from handling them.
+	 * 
+	 * @return the total latency in nanoseconds
+	 */
+	public long getTotalLatency() {
+		return totalLatency.sum();
+	}
+
+	/**
+	 * Returns the maximum time in nanoseconds between posting an event and the
+	 * handler returning from handling it.
+	 * 
+	 * @return the maximum latency in nanoseconds
+	 */
+	public long getMaxLatency() {
+		return maxLatency.get();
+	}
+
 	static class LogTopicException extends RuntimeException {
 		private static final long serialVersionUID = -2386940335620739632L;
 
@@ -55,6 +55,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceRegistration;
 import org.osgi.framework.Version;
 import org.osgi.framework.namespace.ExecutionEnvironmentNamespace;
 import org.osgi.framework.wiring.BundleWiring;
@@ -1708,4 +1709,42 @@ public class DispatchingTest extends BaseTest {
 
 		Assert.assertEquals("/Bug%20497510/a%20b%20c", result);
 	}
+
+	@Test
+	public void test_dispatchTargetsAfterRegistrationChange() throws Exception {
+		class PathServlet extends HttpServlet {
+			private static final long serialVersionUID = 1L;
+			private final String name;
+
+			PathServlet(String name) {
+				this.name = name;
+			}
+
+			@Override
+			protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				response.getWriter().write(name + "|" + request.getServletPath() + "|" + request.getPathInfo() + "|"
+						+ request.getQueryString());
+			}
+		}
+
+		Dictionary<String, Object> props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN, "/a/*");
+		registrations.add(getBundleContext().registerService(Servlet.class, new PathServlet("a"), props));
+
+		Assert.assertEquals("a|/a|/b/c|x=1", requestAdvisor.request("a/b/c?x=1"));
+		Assert.assertEquals("a|/a|/b/c|x=2", requestAdvisor.request("a/b/c?x=2"));
+
+		props = new Hashtable<>();
+		props.put(HttpWhiteboardConstants.HTTP_WHITEBOARD_SERVLET_PATTERN, "/a/b/*");
+		ServiceRegistration<Servlet> registration = getBundleContext().registerService(Servlet.class,
+				new PathServlet("b"), props);
+
+		try {
+			Assert.assertEquals("b|/a/b|/c|x=3", requestAdvisor.request("a/b/c?x=3"));
+		} finally {
+			registration.unregister();
+		}
+
+		Assert.assertEquals("a|/a|/b/c|null", requestAdvisor.request("a/b/c"));
+	}
 }
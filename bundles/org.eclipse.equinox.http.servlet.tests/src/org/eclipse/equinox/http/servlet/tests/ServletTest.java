@@ -18,13 +18,18 @@ package org.eclipse.equinox.http.servlet.tests;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -32,6 +37,7 @@ import java.net.CookieHandler;
 import java.net.CookieManager;
 import java.net.CookiePolicy;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -46,9 +52,15 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -112,6 +124,7 @@ import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceReference;
 import org.osgi.framework.ServiceRegistration;
 import org.osgi.framework.hooks.service.FindHook;
+import org.osgi.framework.wiring.FrameworkWiring;
 import org.osgi.service.http.HttpContext;
 import org.osgi.service.http.HttpService;
 import org.osgi.service.http.NamespaceException;
@@ -2004,6 +2017,143 @@ public class ServletTest extends BaseTest {
 		assertEquals("Content-Range", EXPECTED_MP4_CONTENT_RANGE, actual.get("Content-Range"));
 	}
 
+	@Test
+	public void test_ResourceCache() throws Exception {
+		startJettyWithResourceCache();
+		try {
+			HttpService extendedHttpService = getHttpService();
+			extendedHttpService.registerResources("/cached", "/org/eclipse/equinox/http/servlet/tests", null);
+
+			Map<String, List<String>> actual = requestAdvisor.request("cached/resource1.txt", null);
+			assertEquals("Response Code", Collections.singletonList("200"), actual.get("responseCode"));
+			String etag = actual.get("ETag").get(0);
+			assertFalse("Weak ETag: " + etag, etag.startsWith("W/"));
+
+			Map<String, List<String>> requestHeader = new HashMap<>();
+			requestHeader.put("If-None-Match", Collections.singletonList(etag));
+			actual = requestAdvisor.request("cached/resource1.txt", requestHeader);
+			assertEquals("Response Code", Collections.singletonList("304"), actual.get("responseCode"));
+
+			requestHeader = new HashMap<>();
+			requestHeader.put("Range", Collections.singletonList("bytes=0-0"));
+			actual = requestAdvisor.request("cached/resource1.txt", requestHeader);
+			assertEquals("Response Code", Collections.singletonList("206"), actual.get("responseCode"));
+			assertEquals("Content-Length", Collections.singletonList("1"), actual.get("Content-Length"));
+			assertEquals("Response Body", Collections.singletonList("a"), actual.get("responseBody"));
+		} finally {
+			stopJettyWithResourceCache();
+		}
+	}
+
+	@Test
+	public void test_ResourceCache_Gzip() throws Exception {
+		String content = String.join("", Collections.nCopies(64, "compressible content\n"));
+		Bundle bundle = getBundleContext().installBundle("resource.cache.gzip",
+				createResourceBundle("resource.cache.gzip", null, content));
+		try {
+			startJettyWithResourceCache();
+			bundle.start();
+			getHttpService().registerResources("/cached", "/resources", new ResourceContext(bundle, false));
+
+			Map<String, List<String>> actual = requestAdvisor.request("cached/content.txt", null);
+			assertEquals("Response Code", Collections.singletonList("200"), actual.get("responseCode"));
+			assertNull("Content-Encoding", actual.get("Content-Encoding"));
+			assertEquals("Vary", Collections.singletonList("Accept-Encoding"), actual.get("Vary"));
+			assertEquals("Content-Length", Collections.singletonList(String.valueOf(content.length())),
+					actual.get("Content-Length"));
+			assertEquals("Response Body", Collections.singletonList(content), actual.get("responseBody"));
+			String etag = actual.get("ETag").get(0);
+
+			Map<String, List<String>> requestHeader = new HashMap<>();
+			requestHeader.put("Accept-Encoding", Collections.singletonList("deflate, gzip"));
+			actual = requestAdvisor.request("cached/content.txt", requestHeader);
+			assertEquals("Response Code", Collections.singletonList("200"), actual.get("responseCode"));
+			assertEquals("Content-Encoding", Collections.singletonList("gzip"), actual.get("Content-Encoding"));
+			assertEquals("Vary", Collections.singletonList("Accept-Encoding"), actual.get("Vary"));
+			assertTrue("Content not compressed",
+					Integer.parseInt(actual.get("Content-Length").get(0)) < content.length());
+			String gzipEtag = actual.get("ETag").get(0);
+			assertNotEquals("Same ETag for the gzip content", etag, gzipEtag);
+
+			requestHeader.put("If-None-Match", Collections.singletonList(gzipEtag));
+			actual = requestAdvisor.request("cached/content.txt", requestHeader);
+			assertEquals("Response Code", Collections.singletonList("304"), actual.get("responseCode"));
+
+			requestHeader = new HashMap<>();
+			requestHeader.put("Accept-Encoding", Collections.singletonList("gzip;q=0"));
+			actual = requestAdvisor.request("cached/content.txt", requestHeader);
+			assertEquals("Response Code", Collections.singletonList("200"), actual.get("responseCode"));
+			assertNull("Content-Encoding", actual.get("Content-Encoding"));
+			assertEquals("Response Body", Collections.singletonList(content), actual.get("responseBody"));
+		} finally {
+			try {
+				stopJettyWithResourceCache();
+			} finally {
+				bundle.uninstall();
+			}
+		}
+	}
+
+	@Test
+	public void test_ResourceCache_BundleUpdate() throws Exception {
+		Bundle bundle = getBundleContext().installBundle("resource.cache.update",
+				createResourceBundle("resource.cache.update", null, "version 1"));
+		try {
+			startJettyWithResourceCache();
+			bundle.start();
+			getHttpService().registerResources("/cached", "/resources", new ResourceContext(bundle, false));
+
+			Map<String, List<String>> actual = requestAdvisor.request("cached/content.txt", null);
+			assertEquals("Response Body", Collections.singletonList("version 1"), actual.get("responseBody"));
+			String etag = actual.get("ETag").get(0);
+
+			bundle.update(createResourceBundle("resource.cache.update", null, "version 2"));
+
+			actual = requestAdvisor.request("cached/content.txt", null);
+			assertEquals("Response Body", Collections.singletonList("version 2"), actual.get("responseBody"));
+			assertNotEquals("Same ETag after update", etag, actual.get("ETag").get(0));
+		} finally {
+			try {
+				stopJettyWithResourceCache();
+			} finally {
+				bundle.uninstall();
+			}
+		}
+	}
+
+	@Test
+	public void test_ResourceCache_FragmentUpdate() throws Exception {
+		Bundle host = getBundleContext().installBundle("resource.cache.host",
+				createResourceBundle("resource.cache.host", null, null));
+		Bundle fragment = getBundleContext().installBundle("resource.cache.fragment",
+				createResourceBundle("resource.cache.fragment", "resource.cache.host", "version 1"));
+		try {
+			startJettyWithResourceCache();
+			host.start();
+			// the resources of the fragment are found through the class loader of the host
+			getHttpService().registerResources("/cached", "/resources", new ResourceContext(host, true));
+
+			Map<String, List<String>> actual = requestAdvisor.request("cached/content.txt", null);
+			assertEquals("Response Body", Collections.singletonList("version 1"), actual.get("responseBody"));
+			String etag = actual.get("ETag").get(0);
+
+			// the host is not updated, it only gets a new wiring
+			fragment.update(createResourceBundle("resource.cache.fragment", "resource.cache.host", "version 2"));
+			refreshBundles(fragment);
+
+			actual = requestAdvisor.request("cached/content.txt", null);
+			assertEquals("Response Body", Collections.singletonList("version 2"), actual.get("responseBody"));
+			assertNotEquals("Same ETag after refresh", etag, actual.get("ETag").get(0));
+		} finally {
+			try {
+				stopJettyWithResourceCache();
+			} finally {
+				fragment.uninstall();
+				host.uninstall();
+			}
+		}
+	}
+
 	@Test
 	public void test_ResourceRangeRequest_WithRange() throws Exception {
 		Map<String, List<String>> actual;
@@ -4511,4 +4661,87 @@ public class ServletTest extends BaseTest {
 			stopJettyWithSSL();
 		}
 	}
+
+	private void startJettyWithResourceCache() throws Exception {
+		try {
+			stopJetty();
+			System.setProperty("equinox.http.resource.cache.size", "1048576");
+		} finally {
+			startJetty();
+		}
+	}
+
+	private void stopJettyWithResourceCache() throws Exception {
+		try {
+			stopJetty();
+			System.clearProperty("equinox.http.resource.cache.size");
+		} finally {
+			startJetty();
+		}
+	}
+
+	/*
+	 * Creates a bundle with the specified content as resources/content.txt, or
+	 * without resources if the content is null.
+	 */
+	private static InputStream createResourceBundle(String symbolicName, String fragmentHost, String content)
+			throws IOException {
+		Manifest manifest = new Manifest();
+		Attributes attributes = manifest.getMainAttributes();
+		attributes.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		attributes.putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+		attributes.putValue(Constants.BUNDLE_SYMBOLICNAME, symbolicName);
+		if (fragmentHost != null) {
+			attributes.putValue(Constants.FRAGMENT_HOST, fragmentHost);
+		}
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (JarOutputStream jar = new JarOutputStream(bytes, manifest)) {
+			if (content != null) {
+				jar.putNextEntry(new JarEntry("resources/content.txt"));
+				jar.write(content.getBytes(StandardCharsets.UTF_8));
+				jar.closeEntry();
+			}
+		}
+		return new ByteArrayInputStream(bytes.toByteArray());
+	}
+
+	private void refreshBundles(Bundle bundle) throws InterruptedException {
+		CountDownLatch refreshed = new CountDownLatch(1);
+		FrameworkWiring frameworkWiring = getBundleContext().getBundle(Constants.SYSTEM_BUNDLE_LOCATION)
+				.adapt(FrameworkWiring.class);
+		frameworkWiring.refreshBundles(Collections.singleton(bundle), event -> refreshed.countDown());
+		assertTrue("Bundles not refreshed", refreshed.await(10, TimeUnit.SECONDS));
+	}
+
+	/*
+	 * Serves text resources from the entries of a bundle, or from its class
+	 * loader.
+	 */
+	private static class ResourceContext implements HttpContext {
+		private final Bundle bundle;
+		private final boolean classLoader;
+
+		ResourceContext(Bundle bundle, boolean classLoader) {
+			this.bundle = bundle;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public boolean handleSecurity(HttpServletRequest request, HttpServletResponse response) {
+			return true;
+		}
+
+		@Override
+		public URL getResource(String name) {
+			if (name.startsWith("/")) {
+				name = name.substring(1);
+			}
+			return classLoader ? bundle.getResource(name) : bundle.getEntry(name);
+		}
+
+		@Override
+		public String getMimeType(String name) {
+			return "text/plain";
+		}
+	}
 }
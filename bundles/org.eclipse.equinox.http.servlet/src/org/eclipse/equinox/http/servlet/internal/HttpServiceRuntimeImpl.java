@@ -37,6 +37,7 @@ import org.eclipse.equinox.http.servlet.internal.error.*;
 import org.eclipse.equinox.http.servlet.internal.registration.PreprocessorRegistration;
 import org.eclipse.equinox.http.servlet.internal.servlet.HttpSessionTracker;
 import org.eclipse.equinox.http.servlet.internal.servlet.Match;
+import org.eclipse.equinox.http.servlet.internal.servlet.ResourceCache;
 import org.eclipse.equinox.http.servlet.internal.util.*;
 import org.eclipse.equinox.http.servlet.session.HttpSessionInvalidator;
 import org.osgi.framework.*;
@@ -97,6 +98,14 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 				});
 		loggerFactoryTracker.open();
 
+		long resourceCacheSize = getResourceCacheSize();
+		if (resourceCacheSize > 0) {
+			this.resourceCache = new ResourceCache(consumingContext, resourceCacheSize);
+			consumingContext.addBundleListener(this.resourceCache);
+		} else {
+			this.resourceCache = null;
+		}
+
 		contextServiceTracker = new ServiceTracker<>(trackingContext, ServletContextHelper.class, this);
 
 		preprocessorServiceTracker = new ServiceTracker<>(trackingContext, Preprocessor.class,
@@ -136,6 +145,7 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 					serviceReference, parentServletContext, this);
 
 			controllerMap.put(serviceReference, contextController);
+			invalidateDispatchTargets();
 
 			result.set(contextController);
 		} catch (HttpWhiteboardFailureException hwfe) {
@@ -234,6 +244,7 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		preprocessorServiceTracker.close();
 
 		controllerMap.clear();
+		invalidateDispatchTargets();
 		preprocessorMap.clear();
 		registeredObjects.clear();
 		legacyContextMap.clear();
@@ -250,12 +261,82 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		registeredObjects.clear();
 		scheduledExecutor.shutdown();
 		loggerFactoryTracker.close();
+
+		if (resourceCache != null) {
+			try {
+				consumingContext.removeBundleListener(resourceCache);
+			} catch (IllegalStateException ise) {
+				// ignore
+			}
+			resourceCache.clear();
+		}
 	}
 
 	public DispatchTargets getDispatchTargets(String pathString, RequestInfoDTO requestInfoDTO) {
 
 		Path path = new Path(pathString);
 
+		// the request info records the registrations of a full resolution
+		// and the context root only matches a path without query or parameters
+		if ((requestInfoDTO != null)
+				|| (Const.SLASH.equals(path.getRequestURI()) && !Const.SLASH.equals(pathString))) {
+
+			return getDispatchTargets(pathString, path, requestInfoDTO);
+		}
+
+		long generation = dispatchGeneration.get();
+		ResolvedDispatchTargets resolved = resolvedDispatchTargets;
+
+		if ((resolved != null) && (resolved.generation == generation)) {
+			DispatchTargets dispatchTargets = resolved.get(path.getRequestURI());
+
+			if (dispatchTargets != null) {
+				return dispatchTargets.copy(path.getQueryString());
+			}
+		}
+
+		DispatchTargets dispatchTargets = getDispatchTargets(pathString, path, null);
+
+		if (dispatchTargets == null) {
+			return null;
+		}
+
+		if ((resolved == null) || (resolved.generation != generation)
+				|| (resolved.size() >= DISPATCH_TARGETS_CACHE_SIZE)) {
+
+			if ((resolved != null) && (resolved.generation > generation)) {
+				// the registrations changed during the resolution
+				return dispatchTargets;
+			}
+
+			resolved = new ResolvedDispatchTargets(generation);
+			resolvedDispatchTargets = resolved;
+		}
+
+		resolved.put(path.getRequestURI(), dispatchTargets.copy(null));
+
+		return dispatchTargets;
+	}
+
+	/**
+	 * Returns the generation of the registrations used to dispatch requests. It
+	 * is incremented whenever a context, endpoint or filter is added or removed.
+	 */
+	public long getDispatchGeneration() {
+		return dispatchGeneration.get();
+	}
+
+	/**
+	 * Discards the resolved dispatch targets and the compiled dispatch tables of
+	 * all contexts. Must be called after a context, endpoint or filter is added
+	 * or removed.
+	 */
+	public void invalidateDispatchTargets() {
+		dispatchGeneration.incrementAndGet();
+	}
+
+	private DispatchTargets getDispatchTargets(String pathString, Path path, RequestInfoDTO requestInfoDTO) {
+
 		String queryString = path.getQueryString();
 		String requestURI = path.getRequestURI();
 
@@ -292,6 +373,14 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		return dispatchTargets;
 	}
 
+	/**
+	 * Returns the cache of resources served from bundles, or {@code null} if
+	 * resources are not cached.
+	 */
+	public ResourceCache getResourceCache() {
+		return resourceCache;
+	}
+
 	public HttpSessionTracker getHttpSessionTracker() {
 		return httpSessionTracker;
 	}
@@ -440,6 +529,7 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 			}
 			failedServletContextDTOs.remove(serviceReference);
 			controllerMap.remove(serviceReference);
+			invalidateDispatchTargets();
 			trackingContext.ungetService(serviceReference);
 		} finally {
 			incrementServiceChangecount();
@@ -1245,6 +1335,23 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 		return semaphore;
 	}
 
+	private long getResourceCacheSize() {
+		// an init parameter of the servlet takes precedence over the framework property
+		Object value = attributes.get(Const.EQUINOX_HTTP_RESOURCE_CACHE_SIZE);
+		if (value == null) {
+			value = consumingContext.getProperty(Const.EQUINOX_HTTP_RESOURCE_CACHE_SIZE);
+		}
+		if (value == null) {
+			return 0;
+		}
+		try {
+			return Long.parseLong(String.valueOf(value).trim());
+		} catch (NumberFormatException nfe) {
+			debug("Invalid " + Const.EQUINOX_HTTP_RESOURCE_CACHE_SIZE + ": " + value, nfe); //$NON-NLS-1$ //$NON-NLS-2$
+			return 0;
+		}
+	}
+
 	private String decode(String urlEncoded) {
 		try {
 			return URLDecoder.decode(urlEncoded, StandardCharsets.UTF_8.name());
@@ -1254,6 +1361,7 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 	}
 
 	private final Map<String, Object> attributes;
+	private final ResourceCache resourceCache;
 	private final String targetFilter;
 	final ServiceRegistration<ServletContextHelper> defaultContextReg;
 	private final ServletContext parentServletContext;
@@ -1297,9 +1405,29 @@ public class HttpServiceRuntimeImpl implements HttpServiceRuntime,
 	private final AtomicReference<ServiceRegistration<HttpServiceRuntime>> hsrRegistration = new AtomicReference<>();
 
 	private final AtomicLong serviceChangecount = new AtomicLong();
+	/**
+	 * The maximum number of request URIs with resolved dispatch targets; the
+	 * cache is cleared when full
+	 */
+	private static final int DISPATCH_TARGETS_CACHE_SIZE = 1024;
+	private final AtomicLong dispatchGeneration = new AtomicLong();
+	private volatile ResolvedDispatchTargets resolvedDispatchTargets;
 	private final ScheduledExecutorService scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
 	private final Semaphore semaphore = new Semaphore(1);
 
+	/**
+	 * The dispatch targets resolved for request URIs while the dispatch
+	 * generation had a given value.
+	 */
+	static class ResolvedDispatchTargets extends ConcurrentHashMap<String, DispatchTargets> {
+		private static final long serialVersionUID = 1L;
+		final long generation;
+
+		ResolvedDispatchTargets(long generation) {
+			this.generation = generation;
+		}
+	}
+
 	class ChangeCountTimer implements Callable<Void> {
 		@Override
 		public Void call() {
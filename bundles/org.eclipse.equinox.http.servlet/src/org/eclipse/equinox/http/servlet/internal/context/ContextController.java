@@ -158,6 +158,7 @@ public class ContextController {
 		recordErrorPageShadowing(errorPageRegistration);
 
 		endpointRegistrations.add(errorPageRegistration);
+		httpServiceRuntime.invalidateDispatchTargets();
 
 		return errorPageRegistration;
 	}
@@ -259,6 +260,7 @@ public class ContextController {
 		newRegistration.init(filterConfig);
 
 		filterRegistrations.add(newRegistration);
+		httpServiceRuntime.invalidateDispatchTargets();
 		return newRegistration;
 	}
 
@@ -355,7 +357,8 @@ public class ContextController {
 
 		Bundle bundle = resourceRef.getBundle();
 		ServletContextHelper curServletContextHelper = getServletContextHelper(bundle);
-		Servlet servlet = new ResourceServlet(prefix, curServletContextHelper, AccessController.getContext());
+		Servlet servlet = new ResourceServlet(prefix, curServletContextHelper, AccessController.getContext(),
+				httpServiceRuntime.getResourceCache());
 
 		ResourceDTO resourceDTO = new ResourceDTO();
 
@@ -382,6 +385,7 @@ public class ContextController {
 		recordEndpointShadowing(resourceRegistration);
 
 		endpointRegistrations.add(resourceRegistration);
+		httpServiceRuntime.invalidateDispatchTargets();
 
 		return resourceRegistration;
 	}
@@ -458,6 +462,7 @@ public class ContextController {
 		recordEndpointShadowing(servletRegistration);
 
 		endpointRegistrations.add(servletRegistration);
+		httpServiceRuntime.invalidateDispatchTargets();
 
 		return servletRegistration;
 	}
@@ -568,6 +573,7 @@ public class ContextController {
 
 		endpointRegistrations.clear();
 		filterRegistrations.clear();
+		httpServiceRuntime.invalidateDispatchTargets();
 		listenerRegistrations.clear();
 		eventListeners.clear();
 		proxyContext.destroy();
@@ -675,14 +681,8 @@ public class ContextController {
 
 		checkShutdown();
 
-		EndpointRegistration<?> endpointRegistration = null;
-		for (EndpointRegistration<?> curEndpointRegistration : endpointRegistrations) {
-			if (curEndpointRegistration.match(servletName, servletPath, pathInfo, extension, match) != null) {
-				endpointRegistration = curEndpointRegistration;
-
-				break;
-			}
-		}
+		EndpointRegistration<?> endpointRegistration = getDispatchTable().match(servletName, servletPath, pathInfo,
+				extension, match);
 
 		if (endpointRegistration == null) {
 			return null;
@@ -719,6 +719,19 @@ public class ContextController {
 				servletPath, pathInfo, queryString);
 	}
 
+	private DispatchTable getDispatchTable() {
+		long generation = httpServiceRuntime.getDispatchGeneration();
+		DispatchTable current = dispatchTable;
+
+		if ((current == null) || (current.getGeneration() != generation)) {
+			// registrations changed since the table was compiled
+			current = new DispatchTable(endpointRegistrations, generation);
+			dispatchTable = current;
+		}
+
+		return current;
+	}
+
 	private void collectFilters(List<FilterRegistration> matchingFilterRegistrations, String servletName,
 			String requestURI, String servletPath, String pathInfo, String extension) {
 
@@ -1382,6 +1395,7 @@ public class ContextController {
 	private final String contextPath;
 	private volatile String fullContextPath;
 	private final long contextServiceId;
+	private volatile DispatchTable dispatchTable;
 	private final Set<EndpointRegistration<?>> endpointRegistrations = new ConcurrentSkipListSet<>();
 	private final EventListeners eventListeners = new EventListeners();
 	private final Set<FilterRegistration> filterRegistrations = new ConcurrentSkipListSet<>();
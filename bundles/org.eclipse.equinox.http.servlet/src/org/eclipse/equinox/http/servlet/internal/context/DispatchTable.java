@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.equinox.http.servlet.internal.context;
+
+import java.util.*;
+import org.eclipse.equinox.http.servlet.internal.registration.EndpointRegistration;
+import org.eclipse.equinox.http.servlet.internal.registration.ErrorPageRegistration;
+import org.eclipse.equinox.http.servlet.internal.servlet.Match;
+import org.eclipse.equinox.http.servlet.internal.util.Const;
+
+/**
+ * An immutable snapshot of the endpoint registrations of a context, compiled
+ * into lookup tables keyed by the servlet path each pattern matches. A lookup
+ * returns the same registration as scanning the registrations in order and
+ * calling
+ * {@link EndpointRegistration#match(String, String, String, String, Match)}.
+ * Path wildcard patterns are keyed by their prefix, so the caller stripping
+ * one segment at a time walks the path trie of the context. Named and error
+ * dispatches scan the registrations.
+ */
+class DispatchTable {
+
+	DispatchTable(Collection<EndpointRegistration<?>> endpointRegistrations, long generation) {
+		this.generation = generation;
+		this.registrations = endpointRegistrations.toArray(new EndpointRegistration<?>[0]);
+
+		for (EndpointRegistration<?> registration : registrations) {
+			String[] patterns = registration.getPatterns();
+
+			if ((patterns == null) || (registration instanceof ErrorPageRegistration)) {
+				continue;
+			}
+
+			for (String pattern : patterns) {
+				compile(registration, pattern);
+			}
+		}
+	}
+
+	long getGeneration() {
+		return generation;
+	}
+
+	EndpointRegistration<?> match(String servletName, String servletPath, String pathInfo, String extension,
+			Match match) {
+
+		if ((servletName != null) || (match == Match.ERROR)
+				|| ((match == Match.EXTENSION) && (extension != null) && (extension.indexOf('.') != -1))) {
+
+			return scan(servletName, servletPath, pathInfo, extension, match);
+		}
+
+		switch (match) {
+			case EXACT :
+				return exact.get(servletPath);
+			case REGEX :
+				return wildcard.get(servletPath);
+			case EXTENSION :
+				Map<String, EndpointRegistration<?>> extensions = this.extensions.get(servletPath);
+
+				if (extensions == null) {
+					return null;
+				}
+
+				// a null extension matches patterns ending in ".null"
+				return extensions.get(String.valueOf(extension));
+			case DEFAULT_SERVLET :
+				if (servletPath.isEmpty() || (pathInfo != null)) {
+					return null;
+				}
+
+				return defaultServlet;
+			case CONTEXT_ROOT :
+				if (!Const.BLANK.equals(servletPath) || !Const.SLASH.equals(pathInfo)) {
+					return null;
+				}
+
+				return contextRoot;
+			default :
+				return scan(servletName, servletPath, pathInfo, extension, match);
+		}
+	}
+
+	private void compile(EndpointRegistration<?> registration, String pattern) {
+		exact.putIfAbsent(pattern, registration);
+
+		if (Const.BLANK.equals(pattern)) {
+			if (contextRoot == null) {
+				contextRoot = registration;
+			}
+
+			return;
+		}
+
+		if (Const.SLASH.equals(pattern)) {
+			if (defaultServlet == null) {
+				defaultServlet = registration;
+			}
+
+			return;
+		}
+
+		if (pattern.indexOf(Const.SLASH_STAR_DOT) == 0) {
+			pattern = pattern.substring(1);
+		} else if ((pattern.charAt(0) == '/') && pattern.endsWith(Const.SLASH_STAR)) {
+			wildcard.putIfAbsent(pattern.substring(0, pattern.length() - 2), registration);
+		}
+
+		int index = pattern.lastIndexOf(Const.STAR_DOT);
+
+		if (index != -1) {
+			String prefix = (index > 0) ? pattern.substring(0, index - 1) : Const.BLANK;
+			String extension = pattern.substring(pattern.lastIndexOf('.') + 1);
+
+			extensions.computeIfAbsent(prefix, k -> new HashMap<>()).putIfAbsent(extension, registration);
+		}
+	}
+
+	private EndpointRegistration<?> scan(String servletName, String servletPath, String pathInfo, String extension,
+			Match match) {
+
+		for (EndpointRegistration<?> registration : registrations) {
+			if (registration.match(servletName, servletPath, pathInfo, extension, match) != null) {
+				return registration;
+			}
+		}
+
+		return null;
+	}
+
+	private EndpointRegistration<?> contextRoot;
+	private EndpointRegistration<?> defaultServlet;
+	private final Map<String, EndpointRegistration<?>> exact = new HashMap<>();
+	private final Map<String, Map<String, EndpointRegistration<?>>> extensions = new HashMap<>();
+	private final long generation;
+	private final EndpointRegistration<?>[] registrations;
+	private final Map<String, EndpointRegistration<?>> wildcard = new HashMap<>();
+
+}
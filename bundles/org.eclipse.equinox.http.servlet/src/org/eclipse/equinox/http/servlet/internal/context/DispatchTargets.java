@@ -58,6 +58,15 @@ public class DispatchTargets {
 		currentRequest = request;
 	}
 
+	/**
+	 * Returns new dispatch targets for the same endpoint, filters and path with
+	 * a different query string. None of the per request state is copied.
+	 */
+	public DispatchTargets copy(String queryString) {
+		return new DispatchTargets(contextController, endpointRegistration, matchingFilterRegistrations, servletName,
+				requestURI, servletPath, pathInfo, queryString);
+	}
+
 	public void doDispatch(HttpServletRequest originalRequest, HttpServletResponse response, String path,
 			DispatcherType requestedDispatcherType) throws ServletException, IOException {
 
@@ -60,6 +60,7 @@ public abstract class EndpointRegistration<D extends DTO> extends MatchableRegis
 			Thread.currentThread().setContextClassLoader(classLoader);
 
 			contextController.getEndpointRegistrations().remove(this);
+			contextController.getHttpServiceRuntime().invalidateDispatchTargets();
 			contextController.getHttpServiceRuntime().getRegisteredObjects().remove(this.getT());
 			contextController.ungetServletContextHelper(servletHolder.getBundle());
 
@@ -98,6 +98,7 @@ public class FilterRegistration extends MatchableRegistration<Filter, FilterDTO>
 			Thread.currentThread().setContextClassLoader(classLoader);
 			contextController.getHttpServiceRuntime().getRegisteredObjects().remove(this.getT());
 			contextController.getFilterRegistrations().remove(this);
+			contextController.getHttpServiceRuntime().invalidateDispatchTargets();
 			contextController.ungetServletContextHelper(filterHolder.getBundle());
 			super.destroy();
 			getT().destroy();
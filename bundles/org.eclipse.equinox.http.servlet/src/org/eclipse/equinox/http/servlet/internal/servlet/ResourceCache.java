@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.http.servlet.internal.servlet;
+
+import java.io.*;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+import org.osgi.framework.*;
+import org.osgi.framework.wiring.BundleWiring;
+
+/**
+ * A bounded cache of the content of resources served from bundles. Only
+ * {@code bundleentry} and {@code bundleresource} URLs are cached; their
+ * content cannot change while the bundle wiring they were read from is
+ * current. A {@code bundleresource} URL may refer to the content of a fragment
+ * of the bundle, which only changes when the bundle is refreshed and gets a new
+ * wiring. An entry read from a previous wiring is discarded on access, and all
+ * entries of a bundle are evicted when it is updated, unresolved or
+ * uninstalled.
+ * <p>
+ * Each entry holds the content, a gzip compressed copy for compressible
+ * content types and strong entity tags for both. When the total size exceeds
+ * the maximum size the least recently used entries are evicted.
+ */
+public class ResourceCache implements BundleListener {
+
+	private static final String BUNDLEENTRY = "bundleentry"; //$NON-NLS-1$
+	private static final String BUNDLERESOURCE = "bundleresource"; //$NON-NLS-1$
+	private static final String GZIP_SUFFIX = "-gzip"; //$NON-NLS-1$
+	/**
+	 * Resources larger than this are streamed from the bundle
+	 */
+	private static final int MAX_ENTRY_SIZE = 1 << 20;
+	/**
+	 * Resources smaller than this are not worth compressing
+	 */
+	private static final int MIN_COMPRESS_SIZE = 256;
+
+	static final class Entry {
+		final long bundleId;
+		final BundleWiring wiring;
+		final long lastModified;
+		final byte[] content;
+		final String etag;
+		final byte[] gzipContent;
+		final String gzipEtag;
+
+		Entry(long bundleId, BundleWiring wiring, long lastModified, byte[] content, byte[] gzipContent) {
+			this.bundleId = bundleId;
+			this.wiring = wiring;
+			this.lastModified = lastModified;
+			this.content = content;
+			this.gzipContent = gzipContent;
+			String hash = hash(content);
+			this.etag = '"' + hash + '"';
+			this.gzipEtag = (gzipContent == null) ? null : '"' + hash + GZIP_SUFFIX + '"';
+		}
+
+		long size() {
+			return content.length + ((gzipContent == null) ? 0 : gzipContent.length);
+		}
+	}
+
+	private final BundleContext context;
+	private final long maxSize;
+	/* @GuardedBy("entries") */
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/* @GuardedBy("entries") */
+	private long size;
+
+	public ResourceCache(BundleContext context, long maxSize) {
+		this.context = context;
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public void bundleChanged(BundleEvent event) {
+		if ((event.getType() != BundleEvent.UPDATED) && (event.getType() != BundleEvent.UNRESOLVED)
+				&& (event.getType() != BundleEvent.UNINSTALLED)) {
+			return;
+		}
+
+		long bundleId = event.getBundle().getBundleId();
+
+		synchronized (entries) {
+			for (Iterator<Entry> iterator = entries.values().iterator(); iterator.hasNext();) {
+				Entry entry = iterator.next();
+				if (entry.bundleId == bundleId) {
+					size -= entry.size();
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+			size = 0;
+		}
+	}
+
+	/**
+	 * Returns the cached entry for a resource, reading the resource if it is not
+	 * cached yet.
+	 *
+	 * @param resourceURL the resource URL
+	 * @param contentType the content type of the resource, or {@code null}
+	 * @return the entry, or {@code null} if the resource cannot be cached
+	 * @throws IOException if the resource cannot be read
+	 */
+	Entry getEntry(URL resourceURL, String contentType) throws IOException {
+		long bundleId = getBundleId(resourceURL);
+		if (bundleId < 0) {
+			return null;
+		}
+
+		Bundle bundle = context.getBundle(bundleId);
+		BundleWiring wiring = (bundle == null) ? null : bundle.adapt(BundleWiring.class);
+		if (wiring == null) {
+			return null;
+		}
+
+		String key = resourceURL.toExternalForm();
+		synchronized (entries) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				if (entry.wiring == wiring) {
+					return entry;
+				}
+				size -= entry.size();
+				entries.remove(key);
+			}
+		}
+
+		Entry entry = readEntry(resourceURL, bundleId, wiring, contentType);
+		if (entry == null || entry.size() > maxSize) {
+			return entry;
+		}
+
+		synchronized (entries) {
+			Entry previous = entries.put(key, entry);
+			if (previous != null) {
+				size -= previous.size();
+			}
+			size += entry.size();
+			for (Iterator<Entry> iterator = entries.values().iterator(); (size > maxSize) && iterator.hasNext();) {
+				size -= iterator.next().size();
+				iterator.remove();
+			}
+		}
+		return entry;
+	}
+
+	private static Entry readEntry(URL resourceURL, long bundleId, BundleWiring wiring, String contentType)
+			throws IOException {
+		URLConnection connection = resourceURL.openConnection();
+		int contentLength = connection.getContentLength();
+		if (contentLength > MAX_ENTRY_SIZE) {
+			return null;
+		}
+		long lastModified = connection.getLastModified();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream(contentLength > 0 ? contentLength : 8192);
+		try (InputStream is = connection.getInputStream()) {
+			byte[] buffer = new byte[8192];
+			int bytesRead;
+			while ((bytesRead = is.read(buffer)) != -1) {
+				if (out.size() + bytesRead > MAX_ENTRY_SIZE) {
+					return null;
+				}
+				out.write(buffer, 0, bytesRead);
+			}
+		}
+		byte[] content = out.toByteArray();
+
+		byte[] gzipContent = null;
+		if ((content.length >= MIN_COMPRESS_SIZE) && isCompressible(contentType)) {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+				gzip.write(content);
+			}
+			if (compressed.size() < content.length) {
+				gzipContent = compressed.toByteArray();
+			}
+		}
+		return new Entry(bundleId, wiring, lastModified, content, gzipContent);
+	}
+
+	private static long getBundleId(URL resourceURL) {
+		String protocol = resourceURL.getProtocol();
+		if (!BUNDLEENTRY.equals(protocol) && !BUNDLERESOURCE.equals(protocol)) {
+			return -1;
+		}
+		// the host is the bundle id followed by the framework id
+		String host = resourceURL.getHost();
+		int dot = host.indexOf('.');
+		try {
+			return Long.parseLong(dot < 0 ? host : host.substring(0, dot));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private static boolean isCompressible(String contentType) {
+		if (contentType == null) {
+			return false;
+		}
+		int semi = contentType.indexOf(';');
+		String type = (semi < 0 ? contentType : contentType.substring(0, semi)).trim().toLowerCase(Locale.ENGLISH);
+		return type.startsWith("text/") || type.endsWith("+xml") || type.endsWith("+json") //$NON-NLS-1$//$NON-NLS-2$ //$NON-NLS-3$
+				|| type.equals("application/javascript") || type.equals("application/x-javascript") //$NON-NLS-1$ //$NON-NLS-2$
+				|| type.equals("application/json") || type.equals("application/xml"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content); //$NON-NLS-1$
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+		} catch (NoSuchAlgorithmException e) {
+			// every Java platform supports SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -37,18 +37,29 @@ public class ResourceServlet extends HttpServlet {
 	private static final String ACCEPT_RANGES = "Accept-Ranges"; //$NON-NLS-1$
 	private static final String RANGE_UNIT_BYTES = "bytes"; //$NON-NLS-1$
 	private static final String CONTENT_RANGE = "Content-Range"; //$NON-NLS-1$
+	private static final String ACCEPT_ENCODING = "Accept-Encoding"; //$NON-NLS-1$
+	private static final String CONTENT_ENCODING = "Content-Encoding"; //$NON-NLS-1$
+	private static final String VARY = "Vary"; //$NON-NLS-1$
+	private static final String GZIP = "gzip"; //$NON-NLS-1$
 
 	private final String internalName;
 	final ServletContextHelper servletContextHelper;
 	private final AccessControlContext acc;
+	private final ResourceCache resourceCache;
 
 	public ResourceServlet(String internalName, ServletContextHelper servletContextHelper, AccessControlContext acc) {
+		this(internalName, servletContextHelper, acc, null);
+	}
+
+	public ResourceServlet(String internalName, ServletContextHelper servletContextHelper, AccessControlContext acc,
+			ResourceCache resourceCache) {
 		if (internalName.equals(Const.SLASH)) {
 			internalName = Const.BLANK;
 		}
 		this.internalName = internalName;
 		this.servletContextHelper = servletContextHelper;
 		this.acc = acc;
+		this.resourceCache = resourceCache;
 	}
 
 	public void service(HttpServletRequest req, final HttpServletResponse resp) throws IOException {
@@ -72,6 +83,21 @@ public class ResourceServlet extends HttpServlet {
 			final URL resourceURL) throws IOException {
 		try {
 			AccessController.doPrivileged((PrivilegedExceptionAction<Boolean>) () -> {
+				if (resourceCache != null) {
+					String contentType = getContentType(resourcePath);
+					ResourceCache.Entry entry;
+					try {
+						entry = resourceCache.getEntry(resourceURL, contentType);
+					} catch (FileNotFoundException | SecurityException e) {
+						sendError(resp, HttpServletResponse.SC_FORBIDDEN);
+						return Boolean.TRUE;
+					}
+					if (entry != null) {
+						writeCachedResource(req, resp, entry, contentType);
+						return Boolean.TRUE;
+					}
+				}
+
 				URLConnection connection = resourceURL.openConnection();
 				long lastModified = connection.getLastModified();
 				int contentLength = connection.getContentLength();
@@ -115,11 +141,7 @@ public class ResourceServlet extends HttpServlet {
 				if (contentLength != -1)
 					resp.setContentLength(contentLength);
 
-				String filename = new File(resourcePath).getName();
-				String contentType = servletContextHelper.getMimeType(filename);
-				if (contentType == null)
-					contentType = getServletConfig().getServletContext().getMimeType(filename);
-
+				String contentType = getContentType(resourcePath);
 				if (contentType != null)
 					resp.setContentType(contentType);
 
@@ -177,6 +199,147 @@ public class ResourceServlet extends HttpServlet {
 		}
 	}
 
+	private void writeCachedResource(HttpServletRequest req, HttpServletResponse resp, ResourceCache.Entry entry,
+			String contentType) throws IOException {
+		String rangeHeader = req.getHeader(RANGE);
+
+		OutputStream os = null;
+		try {
+			os = resp.getOutputStream();
+		} catch (IllegalStateException e) {
+			// the response output is already open as a Writer
+		}
+
+		byte[] content = entry.content;
+		String etag = entry.etag;
+		if (entry.gzipContent != null) {
+			resp.addHeader(VARY, ACCEPT_ENCODING);
+			// ranges refer to the uncompressed content
+			if (os != null && rangeHeader == null && acceptsGzip(req.getHeader(ACCEPT_ENCODING))) {
+				content = entry.gzipContent;
+				etag = entry.gzipEtag;
+			}
+		}
+
+		String ifNoneMatch = req.getHeader(IF_NONE_MATCH);
+		if (ifNoneMatch != null && ifNoneMatch.indexOf(etag) != -1) {
+			resp.setHeader(ETAG, etag);
+			resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		long ifModifiedSince = req.getDateHeader(IF_MODIFIED_SINCE);
+		if (ifModifiedSince > -1 && entry.lastModified > 0 && entry.lastModified <= (ifModifiedSince + 999)) {
+			resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		Range range = null;
+		if (rangeHeader != null) {
+			range = Range.createFromRangeHeader(rangeHeader);
+			range.completeLength = content.length;
+			range.updateBytePos();
+
+			if (!range.isValid() || range.contentLength() <= 0) {
+				resp.setHeader(ACCEPT_RANGES, RANGE_UNIT_BYTES);
+				resp.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+				return;
+			}
+		}
+
+		resp.setContentLength(content.length);
+
+		if (contentType != null)
+			resp.setContentType(contentType);
+
+		if (entry.lastModified > 0)
+			resp.setDateHeader(LAST_MODIFIED, entry.lastModified);
+
+		resp.setHeader(ETAG, etag);
+
+		if (content == entry.gzipContent)
+			resp.setHeader(CONTENT_ENCODING, GZIP);
+
+		if (range == null && content == entry.content
+				&& (servletContextHelper instanceof RangeAwareServletContextHelper)
+				&& ((RangeAwareServletContextHelper) servletContextHelper).rangeableContentType(contentType,
+						req.getHeader("User-Agent")) //$NON-NLS-1$
+				&& content.length > 0) {
+
+			range = new Range();
+			range.firstBytePos = 0;
+			range.completeLength = content.length;
+			range.updateBytePos();
+		}
+
+		if (range != null) {
+			resp.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			resp.setHeader(ACCEPT_RANGES, RANGE_UNIT_BYTES);
+			resp.setContentLength(range.contentLength());
+			resp.setHeader(CONTENT_RANGE, RANGE_UNIT_BYTES + " " + range.firstBytePos + "-" + range.lastBytePos //$NON-NLS-1$ //$NON-NLS-2$
+					+ "/" + range.completeLength); //$NON-NLS-1$
+		}
+
+		if (content.length == 0) {
+			return;
+		}
+
+		if (os != null) {
+			if (range != null) {
+				os.write(content, range.firstBytePos, range.contentLength());
+			} else {
+				os.write(content);
+			}
+		} else {
+			writeResourceToWriter(new ByteArrayInputStream(content), resp.getWriter(), range);
+		}
+	}
+
+	private String getContentType(String resourcePath) {
+		String filename = new File(resourcePath).getName();
+		String contentType = servletContextHelper.getMimeType(filename);
+		if (contentType == null)
+			contentType = getServletConfig().getServletContext().getMimeType(filename);
+		return contentType;
+	}
+
+	/*
+	 * Returns true if the Accept-Encoding header accepts gzip, either by name or
+	 * through the * wildcard, with a non zero quality value.
+	 */
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+
+		Boolean gzip = null;
+		Boolean any = null;
+		for (String coding : acceptEncoding.split(",")) { //$NON-NLS-1$
+			String[] params = coding.split(";"); //$NON-NLS-1$
+			String name = params[0].trim();
+			boolean accepted = true;
+			for (int i = 1; i < params.length; i++) {
+				String param = params[i].trim();
+				if (param.startsWith("q=")) { //$NON-NLS-1$
+					try {
+						accepted = Double.parseDouble(param.substring(2)) > 0;
+					} catch (NumberFormatException e) {
+						accepted = false;
+					}
+				}
+			}
+			if (GZIP.equalsIgnoreCase(name)) {
+				gzip = accepted;
+			} else if ("*".equals(name)) { //$NON-NLS-1$
+				any = accepted;
+			}
+		}
+		if (gzip != null) {
+			return gzip;
+		}
+		return any != null && any;
+	}
+
 	void sendError(final HttpServletResponse resp, int sc) throws IOException {
 
 		try {
@@ -282,6 +282,42 @@ public class RegionServiceFindHookTests {
 		assertTrue(this.candidates.contains(serviceReference(BUNDLE_X)));
 	}
 
+	@Test
+	public void testFindAfterConnect() throws BundleException, InvalidSyntaxException {
+		this.candidates.add(serviceReference(BUNDLE_B));
+		this.bundleFindHook.find(bundleContext(BUNDLE_A), "", "", false, this.candidates);
+		assertFalse(this.candidates.contains(serviceReference(BUNDLE_B)));
+
+		region(REGION_A).connectRegion(region(REGION_B), createFilter(BUNDLE_B));
+
+		this.candidates.add(serviceReference(BUNDLE_B));
+		this.bundleFindHook.find(bundleContext(BUNDLE_A), "", "", false, this.candidates);
+		assertTrue(this.candidates.contains(serviceReference(BUNDLE_B)));
+	}
+
+	@Test
+	public void testFindAfterServiceModified() throws BundleException, InvalidSyntaxException {
+		RegionFilterBuilder builder = digraph.createRegionFilterBuilder();
+		builder.allow(RegionFilter.VISIBLE_SERVICE_NAMESPACE, "(tenant=a)");
+		region(REGION_A).connectRegion(region(REGION_B), builder.build());
+
+		StubServiceReference<Object> reference = (StubServiceReference<Object>) serviceReference(BUNDLE_B);
+		this.candidates.add(reference);
+		this.bundleFindHook.find(bundleContext(BUNDLE_A), "", "", false, this.candidates);
+		assertFalse(this.candidates.contains(reference));
+
+		Dictionary<String, Object> properties = new Hashtable<>();
+		properties.put("tenant", "a");
+		reference.getServiceRegistration().setProperties(properties);
+		Collection<BundleContext> contexts = new ArrayList<>(Collections.singleton(bundleContext(BUNDLE_A)));
+		digraph.getServiceEventHook().event(new ServiceEvent(ServiceEvent.MODIFIED, reference), contexts);
+		assertTrue(contexts.contains(bundleContext(BUNDLE_A)));
+
+		this.candidates.add(reference);
+		this.bundleFindHook.find(bundleContext(BUNDLE_A), "", "", false, this.candidates);
+		assertTrue(this.candidates.contains(reference));
+	}
+
 	@Test
 	public void testFindFromSystemBundle() {
 		this.candidates.add(serviceReference(BUNDLE_A));
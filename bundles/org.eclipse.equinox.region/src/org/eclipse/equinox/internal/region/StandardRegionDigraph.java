@@ -70,6 +70,8 @@ public final class StandardRegionDigraph implements BundleIdToRegionMapping, Reg
 	private final org.osgi.framework.hooks.service.FindHook serviceFindHook;
 	private final ResolverHookFactory resolverHookFactory;
 	private final StandardRegionDigraph origin;
+	// null for digraphs whose hooks are not registered, such as copies
+	private final RegionVisibilityCache visibilityCache;
 	// Guarded by the origin monitor
 	private long originUpdateCount;
 	private final AtomicLong updateCount = new AtomicLong();
@@ -91,6 +93,7 @@ public final class StandardRegionDigraph implements BundleIdToRegionMapping, Reg
 		this.bundleIdToRegionMapping = new StandardBundleIdToRegionMapping();
 		this.bundleContext = bundleContext;
 		this.threadLocal = threadLocal;
+		this.visibilityCache = bundleContext == null ? null : new RegionVisibilityCache();
 
 		// Note we are safely escaping this only because we know the hook impls
 		// do not escape the digraph to other threads on construction.
@@ -566,6 +569,16 @@ public final class StandardRegionDigraph implements BundleIdToRegionMapping, Reg
 		return serviceFindHook;
 	}
 
+	/**
+	 * Returns the cache of region visibility used by the hooks of this digraph.
+	 * 
+	 * @return the cache, or <code>null</code> if this digraph does not cache
+	 *         visibility
+	 */
+	public RegionVisibilityCache getVisibilityCache() {
+		return visibilityCache;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -609,6 +622,9 @@ public final class StandardRegionDigraph implements BundleIdToRegionMapping, Reg
 	private void incrementUpdateCount() {
 		synchronized (this.monitor) {
 			this.updateCount.incrementAndGet();
+			if (this.visibilityCache != null) {
+				this.visibilityCache.invalidate();
+			}
 		}
 
 	}
@@ -14,16 +14,19 @@
 
 package org.eclipse.equinox.internal.region;
 
+import java.util.*;
 import org.eclipse.equinox.region.Region;
-import org.eclipse.equinox.region.RegionDigraphVisitor;
 import org.eclipse.equinox.region.RegionDigraph.FilteredRegion;
-
-import java.util.HashSet;
-import java.util.Set;
+import org.eclipse.equinox.region.RegionDigraphVisitor;
+import org.eclipse.equinox.region.RegionFilter;
 
 /**
  * {@link SubgraphTraverser} is a utility for traversing a subgraph of a
  * {@link RegionDigraph} calling a {@link RegionDigraphVisitor} on the way.
+ * <p>
+ * The traversal is depth first and visits a region once for every path from the
+ * starting region that does not contain a cycle. It is iterative and keeps the
+ * regions on the current path in a single set.
  * <p />
  * 
  * <strong>Concurrent Semantics</strong><br />
@@ -31,34 +34,58 @@ import java.util.Set;
  */
 final class SubgraphTraverser {
 
-	void visitSubgraph(Region startingRegion, RegionDigraphVisitor visitor) {
-		visitRemainingSubgraph(startingRegion, visitor, new HashSet<Region>());
-	}
+	private static final class Step {
+		final Region region;
+		// the filter of the edge traversed to reach the region, if any
+		final RegionFilter filter;
+		Iterator<FilteredRegion> edges;
 
-	private void visitRemainingSubgraph(Region r, RegionDigraphVisitor visitor, Set<Region> path) {
-		if (!path.contains(r)) {
-			if (visitor.visit(r)) {
-				traverseEdges(r, visitor, path);
-			}
+		Step(Region region, RegionFilter filter) {
+			this.region = region;
+			this.filter = filter;
 		}
 	}
 
-	private void traverseEdges(Region r, RegionDigraphVisitor visitor, Set<Region> path) {
-		for (FilteredRegion fr : r.getEdges()) {
-			if (visitor.preEdgeTraverse(fr.getFilter())) {
-				try {
-					visitRemainingSubgraph(fr.getRegion(), visitor, extendPath(r, path));
-				} finally {
-					visitor.postEdgeTraverse(fr.getFilter());
+	void visitSubgraph(Region startingRegion, RegionDigraphVisitor visitor) {
+		Set<Region> path = new HashSet<>();
+		Deque<Step> steps = new ArrayDeque<>();
+		steps.push(new Step(startingRegion, null));
+		try {
+			while (!steps.isEmpty()) {
+				Step step = steps.peek();
+				if (step.edges == null) {
+					// first arrival at the region on this path
+					if (!path.contains(step.region) && visitor.visit(step.region)) {
+						path.add(step.region);
+						step.edges = step.region.getEdges().iterator();
+					} else {
+						finish(steps, visitor);
+						continue;
+					}
+				}
+				if (step.edges.hasNext()) {
+					FilteredRegion fr = step.edges.next();
+					if (visitor.preEdgeTraverse(fr.getFilter())) {
+						steps.push(new Step(fr.getRegion(), fr.getFilter()));
+					}
+				} else {
+					path.remove(step.region);
+					finish(steps, visitor);
 				}
 			}
+		} finally {
+			// balance the edges traversed before a visitor failed
+			while (!steps.isEmpty()) {
+				finish(steps, visitor);
+			}
 		}
 	}
 
-	private Set<Region> extendPath(Region r, Set<Region> path) {
-		Set<Region> newPath = new HashSet<>(path);
-		newPath.add(r);
-		return newPath;
+	private void finish(Deque<Step> steps, RegionDigraphVisitor visitor) {
+		Step step = steps.pop();
+		if (step.filter != null) {
+			visitor.postEdgeTraverse(step.filter);
+		}
 	}
 
 }
@@ -40,10 +40,13 @@ public final class RegionBundleEventHook implements EventHook {
 
 	private final long hookImplID;
 
+	private final RegionVisibilityCache visibilityCache;
+
 	public RegionBundleEventHook(RegionDigraph regionDigraph, ThreadLocal<Region> threadLocal, long hookImplID) {
 		this.regionDigraph = regionDigraph;
 		this.threadLocal = threadLocal;
 		this.hookImplID = hookImplID;
+		this.visibilityCache = RegionVisibilityCache.getCache(regionDigraph);
 	}
 
 	/**
@@ -54,6 +57,9 @@ public final class RegionBundleEventHook implements EventHook {
 		Bundle eventBundle = event.getBundle();
 		if (event.getType() == BundleEvent.INSTALLED) {
 			bundleInstalled(eventBundle, event.getOrigin());
+		} else if (event.getType() == BundleEvent.UPDATED && this.visibilityCache != null) {
+			// the symbolic name, version and capabilities may have changed
+			this.visibilityCache.invalidate();
 		}
 		Map<Region, Boolean> regionAccess = new HashMap<>();
 		Iterator<BundleContext> i = contexts.iterator();
@@ -94,7 +100,7 @@ public final class RegionBundleEventHook implements EventHook {
 	private boolean isAccessible(Region region, Bundle candidateBundle) {
 		Collection<Bundle> candidates = new ArrayList<>(1);
 		candidates.add(candidateBundle);
-		RegionBundleFindHook.find(region, candidates);
+		RegionBundleFindHook.find(region, candidates, this.visibilityCache);
 		return !candidates.isEmpty();
 	}
 
@@ -34,9 +34,12 @@ public final class RegionBundleFindHook implements FindHook {
 
 	private final long hookImplID;
 
+	private final RegionVisibilityCache visibilityCache;
+
 	public RegionBundleFindHook(RegionDigraph regionDigraph, long hookImplID) {
 		this.regionDigraph = regionDigraph;
 		this.hookImplID = hookImplID;
+		this.visibilityCache = RegionVisibilityCache.getCache(regionDigraph);
 	}
 
 	/**
@@ -57,15 +60,23 @@ public final class RegionBundleFindHook implements FindHook {
 		}
 
 		Region finderRegion = this.regionDigraph.getRegion(finderBundle);
-		RegionBundleFindHook.find(finderRegion, bundles);
+		RegionBundleFindHook.find(finderRegion, bundles, this.visibilityCache);
 	}
 
-	static void find(Region finderRegion, Collection<Bundle> bundles) {
+	static void find(Region finderRegion, Collection<Bundle> bundles, RegionVisibilityCache visibilityCache) {
 		if (finderRegion == null) {
 			bundles.clear();
 			return;
 		}
 
+		if (visibilityCache == null) {
+			find(finderRegion, bundles);
+		} else {
+			visibilityCache.find(finderRegion, RegionVisibilityCache.BUNDLES, bundles, RegionBundleFindHook::find);
+		}
+	}
+
+	private static void find(Region finderRegion, Collection<Bundle> bundles) {
 		Visitor visitor = new Visitor(bundles);
 		finderRegion.visitSubgraph(visitor);
 		Collection<Bundle> allowed = visitor.getAllowed();
@@ -36,8 +36,11 @@ public final class RegionResolverHook implements ResolverHook {
 
 	private final RegionDigraph regionDigraph;
 
+	private final RegionVisibilityCache visibilityCache;
+
 	public RegionResolverHook(RegionDigraph regionDigraph) {
 		this.regionDigraph = regionDigraph;
+		this.visibilityCache = RegionVisibilityCache.getCache(regionDigraph);
 	}
 
 	@Override
@@ -64,11 +67,11 @@ public final class RegionResolverHook implements ResolverHook {
 				return;
 			}
 
-			Visitor visitor = new Visitor(candidates);
-			requirerRegion.visitSubgraph(visitor);
-			Collection<BundleCapability> allowed = visitor.getAllowed();
-
-			candidates.retainAll(allowed);
+			if (this.visibilityCache == null) {
+				find(requirerRegion, candidates);
+			} else {
+				this.visibilityCache.find(requirerRegion, RegionVisibilityCache.CAPABILITIES, candidates, this::find);
+			}
 		} finally {
 			if (DEBUG) {
 				debugExit(requirer, candidates);
@@ -76,6 +79,14 @@ public final class RegionResolverHook implements ResolverHook {
 		}
 	}
 
+	private void find(Region requirerRegion, Collection<BundleCapability> candidates) {
+		Visitor visitor = new Visitor(candidates);
+		requirerRegion.visitSubgraph(visitor);
+		Collection<BundleCapability> allowed = visitor.getAllowed();
+
+		candidates.retainAll(allowed);
+	}
+
 	class Visitor extends RegionDigraphVisitorBase<BundleCapability> {
 
 		Visitor(Collection<BundleCapability> candidates) {
@@ -37,8 +37,11 @@ public final class RegionServiceEventHook implements EventHook {
 
 	private final RegionDigraph regionDigraph;
 
+	private final RegionVisibilityCache visibilityCache;
+
 	public RegionServiceEventHook(RegionDigraph regionDigraph) {
 		this.regionDigraph = regionDigraph;
+		this.visibilityCache = RegionVisibilityCache.getCache(regionDigraph);
 	}
 
 	/**
@@ -46,6 +49,10 @@ public final class RegionServiceEventHook implements EventHook {
 	 */
 	public void event(ServiceEvent event, Collection<BundleContext> contexts) {
 		ServiceReference<?> eventService = event.getServiceReference();
+		if (this.visibilityCache != null && event.getType() != ServiceEvent.REGISTERED) {
+			// the service properties may have changed
+			this.visibilityCache.invalidate(eventService);
+		}
 		Map<Region, Boolean> regionAccess = new HashMap<>();
 		Iterator<BundleContext> i = contexts.iterator();
 		while (i.hasNext()) {
@@ -75,12 +82,15 @@ public final class RegionServiceEventHook implements EventHook {
 				}
 			}
 		}
+		if (this.visibilityCache != null && event.getType() == ServiceEvent.UNREGISTERING) {
+			this.visibilityCache.invalidate(eventService);
+		}
 	}
 
 	private Boolean isAccessible(Region region, ServiceReference<?> candidateServiceReference) {
 		Collection<ServiceReference<?>> candidates = new ArrayList<>(1);
 		candidates.add(candidateServiceReference);
-		RegionServiceFindHook.find(region, candidates);
+		RegionServiceFindHook.find(region, candidates, this.visibilityCache);
 		return !candidates.isEmpty();
 	}
 
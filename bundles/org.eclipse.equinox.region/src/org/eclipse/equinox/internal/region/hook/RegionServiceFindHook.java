@@ -31,8 +31,11 @@ public final class RegionServiceFindHook implements FindHook {
 
 	private final RegionDigraph regionDigraph;
 
+	private final RegionVisibilityCache visibilityCache;
+
 	public RegionServiceFindHook(RegionDigraph regionDigraph) {
 		this.regionDigraph = regionDigraph;
+		this.visibilityCache = RegionVisibilityCache.getCache(regionDigraph);
 	}
 
 	/**
@@ -51,15 +54,25 @@ public final class RegionServiceFindHook implements FindHook {
 		}
 
 		Region finderRegion = this.regionDigraph.getRegion(finderBundle);
-		RegionServiceFindHook.find(finderRegion, references);
+		RegionServiceFindHook.find(finderRegion, references, this.visibilityCache);
 	}
 
-	static void find(Region finderRegion, Collection<ServiceReference<?>> references) {
+	static void find(Region finderRegion, Collection<ServiceReference<?>> references,
+			RegionVisibilityCache visibilityCache) {
 		if (finderRegion == null) {
 			references.clear();
 			return;
 		}
 
+		if (visibilityCache == null) {
+			find(finderRegion, references);
+		} else {
+			visibilityCache.find(finderRegion, RegionVisibilityCache.SERVICES, references,
+					RegionServiceFindHook::find);
+		}
+	}
+
+	private static void find(Region finderRegion, Collection<ServiceReference<?>> references) {
 		Visitor visitor = new Visitor(references);
 		finderRegion.visitSubgraph(visitor);
 		Collection<ServiceReference<?>> allowed = visitor.getAllowed();
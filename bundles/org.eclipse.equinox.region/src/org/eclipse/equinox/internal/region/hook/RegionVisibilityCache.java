@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.equinox.internal.region.hook;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import org.eclipse.equinox.internal.region.StandardRegionDigraph;
+import org.eclipse.equinox.region.Region;
+import org.eclipse.equinox.region.RegionDigraph;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * {@link RegionVisibilityCache} memoizes whether a bundle, capability or
+ * service is visible from a region so that the hooks only traverse the digraph
+ * for candidates they have not seen before.
+ * <p>
+ * The whole cache is discarded when the digraph changes or a bundle is updated.
+ * The entries of a single service are discarded when its properties are
+ * modified or it is unregistered.
+ * <p />
+ *
+ * <strong>Concurrent Semantics</strong><br />
+ * Thread safe.
+ */
+public final class RegionVisibilityCache {
+
+	static final int BUNDLES = 0;
+	static final int CAPABILITIES = 1;
+	static final int SERVICES = 2;
+
+	private static final class Entries {
+		@SuppressWarnings("unchecked")
+		final Map<Region, Map<Object, Boolean>>[] visibility = new Map[] { new ConcurrentHashMap<>(),
+				new ConcurrentHashMap<>(), new ConcurrentHashMap<>() };
+
+		Map<Object, Boolean> get(Region region, int namespace) {
+			return visibility[namespace].computeIfAbsent(region, r -> new ConcurrentHashMap<>());
+		}
+	}
+
+	// Replaced as a whole to discard every entry at once. A result computed
+	// against an older digraph can only be stored into a discarded instance.
+	private volatile Entries entries = new Entries();
+
+	// Incremented before the entries of a single service are discarded.
+	private final AtomicLong serviceModifications = new AtomicLong();
+
+	/**
+	 * Returns the cache of the given digraph, or <code>null</code> if the digraph
+	 * has none.
+	 *
+	 * @param digraph the {@link RegionDigraph}
+	 * @return the cache or <code>null</code>
+	 */
+	static RegionVisibilityCache getCache(RegionDigraph digraph) {
+		return digraph instanceof StandardRegionDigraph ? ((StandardRegionDigraph) digraph).getVisibilityCache()
+				: null;
+	}
+
+	/**
+	 * Discards all entries.
+	 */
+	public void invalidate() {
+		entries = new Entries();
+	}
+
+	void invalidate(ServiceReference<?> service) {
+		serviceModifications.incrementAndGet();
+		for (Map<Object, Boolean> visibility : entries.visibility[SERVICES].values()) {
+			visibility.remove(service);
+		}
+	}
+
+	/**
+	 * Removes the candidates that are not visible from the given region. The
+	 * finder traverses the digraph for the candidates not in the cache and retains
+	 * the visible ones.
+	 */
+	<C> void find(Region finderRegion, int namespace, Collection<C> candidates,
+			BiConsumer<Region, Collection<C>> finder) {
+		Entries current = entries;
+		long modifications = serviceModifications.get();
+		Map<Object, Boolean> visibility = current.get(finderRegion, namespace);
+
+		Collection<C> unknown = null;
+		for (Iterator<C> i = candidates.iterator(); i.hasNext();) {
+			C candidate = i.next();
+			Object key = getKey(namespace, candidate);
+			Boolean visible = key == null ? null : visibility.get(key);
+			if (visible == null) {
+				if (unknown == null) {
+					unknown = new ArrayList<>();
+				}
+				unknown.add(candidate);
+			} else if (!visible.booleanValue()) {
+				i.remove();
+			}
+		}
+		if (unknown == null) {
+			return;
+		}
+
+		Set<C> visibleCandidates = new HashSet<>(unknown);
+		finder.accept(finderRegion, visibleCandidates);
+		Set<C> hidden = new HashSet<>();
+		for (C candidate : unknown) {
+			boolean visible = visibleCandidates.contains(candidate);
+			if (!visible) {
+				hidden.add(candidate);
+			}
+			Object key = getKey(namespace, candidate);
+			if (key != null) {
+				visibility.put(key, Boolean.valueOf(visible));
+			}
+		}
+		if (namespace == SERVICES && serviceModifications.get() != modifications) {
+			// a service may have been modified while it was being checked
+			for (C candidate : unknown) {
+				Object key = getKey(namespace, candidate);
+				if (key != null) {
+					visibility.remove(key);
+				}
+			}
+		}
+		if (!hidden.isEmpty()) {
+			candidates.removeIf(hidden::contains);
+		}
+	}
+
+	private static Object getKey(int namespace, Object candidate) {
+		if (namespace == SERVICES && ((ServiceReference<?>) candidate).getBundle() == null) {
+			// do not remember anything about unregistered services
+			return null;
+		}
+		return candidate;
+	}
+}
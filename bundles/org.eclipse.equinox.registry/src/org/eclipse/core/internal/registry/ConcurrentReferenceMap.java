@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.registry;
+
+import java.lang.ref.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread safe map with integer keys that allows values to be removed by the
+ * garbage collector. It offers the same operations as {@link ReferenceMap}, but
+ * {@link #get(int)} does not lock, so that readers neither block each other nor
+ * block on writers.
+ * <P>
+ *
+ * This map does <I>not</I> allow null values. Attempting to add a null value to
+ * the map will raise a <Code>NullPointerException</Code>.
+ *
+ * @see ReferenceMap
+ */
+public class ConcurrentReferenceMap {
+
+	/**
+	 * Soft reference remembering its key, so that the mapping can be purged once
+	 * the value has been collected.
+	 */
+	private static class SoftRef extends SoftReference<Object> {
+		final Integer key;
+
+		SoftRef(Integer key, Object value, ReferenceQueue<Object> q) {
+			super(value, q);
+			this.key = key;
+		}
+	}
+
+	/**
+	 * Constant indicating that hard references should be used.
+	 */
+	final public static int HARD = ReferenceMap.HARD;
+
+	/**
+	 * Constant indiciating that soft references should be used.
+	 */
+	final public static int SOFT = ReferenceMap.SOFT;
+
+	/**
+	 * ReferenceQueue used to eliminate stale mappings.
+	 */
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+	/**
+	 * Key: Integer, value: the value itself for {@link #HARD} maps or a
+	 * {@link SoftRef} for {@link #SOFT} maps.
+	 */
+	private final ConcurrentHashMap<Integer, Object> map;
+
+	/**
+	 * The reference type for values. Must be HARD or SOFT.
+	 */
+	private final int valueType;
+
+	/**
+	 * Constructs a new <Code>ConcurrentReferenceMap</Code> with the specified
+	 * reference type, load factor and initial capacity.
+	 *
+	 * @param referenceType the type of reference to use for values; must be
+	 *                      {@link #HARD} or {@link #SOFT}
+	 * @param capacity      the initial capacity for the map
+	 * @param loadFactor    the load factor for the map
+	 */
+	public ConcurrentReferenceMap(int referenceType, int capacity, float loadFactor) {
+		if (referenceType != HARD && referenceType != SOFT)
+			throw new IllegalArgumentException(" must be HARD or SOFT."); //$NON-NLS-1$
+		if (capacity <= 0)
+			throw new IllegalArgumentException("capacity must be positive"); //$NON-NLS-1$
+		if ((loadFactor <= 0.0f) || (loadFactor >= 1.0f))
+			throw new IllegalArgumentException("Load factor must be greater than 0 and less than 1."); //$NON-NLS-1$
+
+		this.valueType = referenceType;
+		this.map = new ConcurrentHashMap<>(capacity, loadFactor);
+	}
+
+	/**
+	 * Returns the value associated with the given key, if any.
+	 *
+	 * @return the value associated with the given key, or <Code>null</Code> if the
+	 *         key maps to no value
+	 */
+	public Object get(int key) {
+		Object value = map.get(Integer.valueOf(key));
+		if (value == null || valueType == HARD)
+			return value;
+		value = ((SoftRef) value).get();
+		if (value == null)
+			purge();
+		return value;
+	}
+
+	/**
+	 * Purges stale mappings from this map. A mapping is only removed if it still
+	 * holds the collected reference, so that a value added again with the same key
+	 * is kept (see bug 205117).
+	 */
+	private void purge() {
+		Reference<?> ref;
+		while ((ref = queue.poll()) != null)
+			map.remove(((SoftRef) ref).key, ref);
+	}
+
+	/**
+	 * Associates the given key with the given value.
+	 * <P>
+	 * Neither the key nor the value may be null.
+	 *
+	 * @param key   the key of the mapping
+	 * @param value the value of the mapping
+	 * @throws NullPointerException if either the key or value is null
+	 */
+	public void put(int key, Object value) {
+		if (value == null)
+			throw new NullPointerException("null values not allowed"); //$NON-NLS-1$
+		purge();
+		Integer boxedKey = Integer.valueOf(key);
+		map.put(boxedKey, valueType == HARD ? value : new SoftRef(boxedKey, value, queue));
+	}
+
+	/**
+	 * Removes the key and its associated value from this map.
+	 *
+	 * @param key the key to remove
+	 * @return the value associated with that key, or null if the key was not in the
+	 *         map
+	 */
+	public Object remove(int key) {
+		purge();
+		Object value = map.remove(Integer.valueOf(key));
+		if (value == null || valueType == HARD)
+			return value;
+		return ((SoftRef) value).get();
+	}
+}
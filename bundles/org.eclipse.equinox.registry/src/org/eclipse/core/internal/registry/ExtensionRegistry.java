@@ -17,6 +17,7 @@ package org.eclipse.core.internal.registry;
 import java.io.*;
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.function.Predicate;
 import javax.xml.parsers.ParserConfigurationException;
 import org.eclipse.core.internal.registry.spi.ConfigurationElementAttribute;
 import org.eclipse.core.internal.registry.spi.ConfigurationElementDescription;
@@ -428,12 +429,8 @@ public class ExtensionRegistry implements IExtensionRegistry, IDynamicExtensionR
 	 */
 	@Override
 	public IExtensionPoint getExtensionPoint(String xptUniqueId) {
-		access.enterRead();
-		try {
-			return registryObjects.getExtensionPointHandle(xptUniqueId);
-		} finally {
-			access.exitRead();
-		}
+		// the object manager looks up extension points without locking
+		return registryObjects.getExtensionPointHandle(xptUniqueId);
 	}
 
 	/*
@@ -444,12 +441,8 @@ public class ExtensionRegistry implements IExtensionRegistry, IDynamicExtensionR
 	 */
 	@Override
 	public IExtensionPoint getExtensionPoint(String elementName, String xpt) {
-		access.enterRead();
-		try {
-			return registryObjects.getExtensionPointHandle(elementName + '.' + xpt);
-		} finally {
-			access.exitRead();
-		}
+		// the object manager looks up extension points without locking
+		return registryObjects.getExtensionPointHandle(elementName + '.' + xpt);
 	}
 
 	/*
@@ -1174,6 +1167,159 @@ public class ExtensionRegistry implements IExtensionRegistry, IDynamicExtensionR
 		return true;
 	}
 
+	/**
+	 * Parses a contribution without adding it to the registry; only its
+	 * contributor is registered. This method may be called concurrently; the
+	 * parsed contributions are added afterwards by
+	 * {@link #addContributions(List)}, in the order that determines the result.
+	 * Problems found while parsing are logged when the contribution is added.
+	 *
+	 * @return the parsed contribution
+	 */
+	public ParsedContribution parseContribution(InputStream is, IContributor contributor, boolean persist,
+			String contributionName, ResourceBundle translationBundle, Object key, long timestamp) {
+		if (!checkReadWriteAccess(key, persist))
+			throw new IllegalArgumentException(
+					"Unauthorized access to the ExtensionRegistry.parseContribution() method. Check if proper access token is supplied."); //$NON-NLS-1$
+		if (contributionName == null)
+			contributionName = ""; //$NON-NLS-1$
+
+		RegistryContributor internalContributor = (RegistryContributor) contributor;
+		registryObjects.addContributor(internalContributor); // only adds a contributor if it is not already present
+
+		String ownerName = internalContributor.getActualName();
+		String message = NLS.bind(RegistryMessages.parse_problems, ownerName);
+		MultiStatus problems = new MultiStatus(RegistryMessages.OWNER_NAME, ExtensionsParser.PARSE_PROBLEM, message,
+				null);
+		ExtensionsParser parser = new ExtensionsParser(problems, this);
+		Contribution contribution = getElementFactory().createContribution(internalContributor.getActualId(), persist);
+		List<RegistryObject> objects = new ArrayList<>();
+
+		try {
+			parser.parseDetachedManifest(strategy.getXMLParser(), new InputSource(is), contributionName, objects,
+					contribution, translationBundle);
+			int status = problems.getSeverity();
+			if (status == IStatus.ERROR || status == IStatus.CANCEL)
+				contribution = null;
+			return new ParsedContribution(internalContributor.getActualId(), contribution, objects,
+					status != IStatus.OK ? problems : null, timestamp);
+		} catch (ParserConfigurationException | SAXException | IOException e) {
+			String failure = NLS.bind(RegistryMessages.parse_failedParsingManifest, ownerName + "/" + contributionName); //$NON-NLS-1$
+			return new ParsedContribution(internalContributor.getActualId(), null, objects,
+					new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, 0, failure, e), timestamp);
+		} finally {
+			try {
+				is.close();
+			} catch (IOException ioe) {
+				// nothing to do
+			}
+		}
+	}
+
+	/**
+	 * Adds contributions returned by
+	 * {@link #parseContribution(InputStream, IContributor, boolean, String, ResourceBundle, Object, long)}
+	 * in the given order, in a single write section. Object ids are assigned and
+	 * duplicate extension points are dropped in that order, so the result does not
+	 * depend on the order in which the contributions were parsed.
+	 * <p>
+	 * A contribution is skipped if a contribution of its contributor was added
+	 * while it was parsed.
+	 * </p>
+	 */
+	public void addContributions(List<ParsedContribution> contributions) {
+		addContributions(contributions, contributorId -> true);
+	}
+
+	/**
+	 * Same as {@link #addContributions(List)}, but a contribution is also skipped,
+	 * and its contributor removed, if its contributor is no longer accepted by
+	 * <code>isContributing</code>; for instance because it was removed while the
+	 * contribution was parsed. Both checks are done in the write section, so a
+	 * contributor added or removed concurrently is either seen by them or added
+	 * or removed after the contribution.
+	 *
+	 * @param contributions  the parsed contributions
+	 * @param isContributing tests if the contributor with the given id still
+	 *                       contributes
+	 */
+	public void addContributions(List<ParsedContribution> contributions, Predicate<String> isContributing) {
+		access.enterWrite();
+		try {
+			for (ParsedContribution parsed : contributions) {
+				// the contributor was added concurrently
+				if (registryObjects.hasContribution(parsed.contributorId))
+					continue;
+				if (!isContributing.test(parsed.contributorId)) {
+					// remove the contributor registered when the contribution was parsed
+					registryObjects.removeContributor(parsed.contributorId);
+					continue;
+				}
+				if (parsed.problems != null)
+					log(parsed.problems);
+				if (parsed.contribution != null) {
+					attach(parsed);
+					eventDelta = CombinedEventDelta.recordAddition();
+					basicAdd(parsed.contribution, true);
+					fireRegistryChangeEvent();
+					eventDelta = null;
+				}
+				if (parsed.timestamp != 0)
+					aggregatedTimestamp.add(parsed.timestamp);
+			}
+		} finally {
+			access.exitWrite();
+		}
+	}
+
+	/**
+	 * Assigns ids to the detached objects of the parsed contribution and adds them
+	 * to the object manager.
+	 */
+	private void attach(ParsedContribution parsed) {
+		List<RegistryObject> objects = parsed.objects;
+		int base = registryObjects.reserveIds(objects.size());
+		for (RegistryObject object : objects) {
+			object.setObjectId(object.getObjectId() + base);
+			int[] children = object.getRawChildren();
+			for (int i = 0; i < children.length; i++) {
+				children[i] += base;
+			}
+			if (object instanceof ConfigurationElement)
+				((ConfigurationElement) object).setParentId(((ConfigurationElement) object).parentId + base);
+		}
+
+		Contribution contribution = parsed.contribution;
+		int[] children = contribution.getRawChildren();
+		int[] attached = new int[children.length];
+		int extensionPoints = 0;
+		int position = 2;
+		for (int i = 0; i < children[Contribution.EXTENSION_POINT]; i++) {
+			ExtensionPoint extensionPoint = (ExtensionPoint) objects.get(children[2 + i]);
+			if (registryObjects.addExtensionPoint(extensionPoint, true)) {
+				attached[position++] = extensionPoint.getObjectId();
+				extensionPoints++;
+			} else if (debug()) {
+				// avoid adding extension point second time as it might cause
+				// extensions associated with the existing extension point to
+				// become inaccessible.
+				String msg = NLS.bind(RegistryMessages.parse_duplicateExtensionPoint,
+						extensionPoint.getUniqueIdentifier(), contribution.getDefaultNamespace());
+				log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, 0, msg, null));
+			}
+		}
+		for (RegistryObject object : objects) {
+			if (!(object instanceof ExtensionPoint))
+				registryObjects.add(object, true);
+		}
+		for (int i = 2 + children[Contribution.EXTENSION_POINT]; i < children.length; i++) {
+			attached[position++] = children[i] + base;
+		}
+		attached[Contribution.EXTENSION_POINT] = extensionPoints;
+		attached[Contribution.EXTENSION] = children[Contribution.EXTENSION];
+		contribution.setRawChildren(position == attached.length ? attached : Arrays.copyOf(attached, position));
+	}
+
 	private void logError(String owner, String contributionName, Exception e) {
 		String message = NLS.bind(RegistryMessages.parse_failedParsingManifest, owner + "/" + contributionName); //$NON-NLS-1$
 		log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, 0, message, e));
@@ -17,6 +17,7 @@ package org.eclipse.core.internal.registry;
 import java.io.IOException;
 import java.util.*;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
 import org.eclipse.core.runtime.*;
 import org.eclipse.osgi.util.NLS;
@@ -153,6 +154,10 @@ public class ExtensionsParser extends DefaultHandler {
 	// and need to rollback
 	private final ArrayList<RegistryObject> addedRegistryObjects = new ArrayList<>(5);
 
+	// Objects of a detached parse, which does not touch the registry manager. The
+	// id of each object is its index in this list.
+	private List<RegistryObject> detachedObjects = null;
+
 	public ExtensionsParser(MultiStatus status, ExtensionRegistry registry) {
 		super();
 		this.status = status;
@@ -364,8 +369,17 @@ public class ExtensionsParser extends DefaultHandler {
 		// property with the name/value pair of the attribute. Note there will be one
 		// configuration property for each attribute
 		parseConfigurationElementAttributes(attributes);
-		objectManager.add(currentConfigurationElement, true);
-		addedRegistryObjects.add(currentConfigurationElement);
+		addObject(currentConfigurationElement);
+	}
+
+	private void addObject(RegistryObject object) {
+		if (detachedObjects != null) {
+			object.setObjectId(detachedObjects.size());
+			detachedObjects.add(object);
+			return;
+		}
+		objectManager.add(object, true);
+		addedRegistryObjects.add(object);
 	}
 
 	private void handleInitialState(String elementName, Attributes attributes) {
@@ -416,9 +430,28 @@ public class ExtensionsParser extends DefaultHandler {
 	public Contribution parseManifest(SAXParserFactory factory, InputSource in, String manifestName,
 			RegistryObjectManager registryObjects, Contribution currentNamespace, ResourceBundle bundle)
 			throws ParserConfigurationException, SAXException, IOException {
+		this.objectManager = registryObjects;
+		return parse(factory, in, manifestName, currentNamespace, bundle);
+	}
+
+	/**
+	 * Parses the manifest without adding anything to the registry, so that several
+	 * manifests can be parsed concurrently. The parsed objects are added to the
+	 * given list; their ids are their indexes in the list. Extension points are not
+	 * checked for duplicates.
+	 */
+	public Contribution parseDetachedManifest(SAXParserFactory factory, InputSource in, String manifestName,
+			List<RegistryObject> objects, Contribution currentNamespace, ResourceBundle bundle)
+			throws ParserConfigurationException, SAXException, IOException {
+		this.detachedObjects = objects;
+		return parse(factory, in, manifestName, currentNamespace, bundle);
+	}
+
+	private Contribution parse(SAXParserFactory factory, InputSource in, String manifestName,
+			Contribution currentNamespace, ResourceBundle bundle)
+			throws ParserConfigurationException, SAXException, IOException {
 		long start = 0;
 		this.resources = bundle;
-		this.objectManager = registryObjects;
 		// initialize the parser with this object
 		this.contribution = currentNamespace;
 		if (registry.debug())
@@ -431,14 +464,19 @@ public class ExtensionsParser extends DefaultHandler {
 			locationName = in.getSystemId();
 			if (locationName == null)
 				locationName = manifestName;
-			factory.setNamespaceAware(true);
-			try {
-				factory.setFeature("http://xml.org/sax/features/string-interning", true); //$NON-NLS-1$
-			} catch (SAXException se) {
-				// ignore; we can still operate without string-interning
+			SAXParser parser;
+			// the factory is shared by concurrent parses
+			synchronized (factory) {
+				factory.setNamespaceAware(true);
+				try {
+					factory.setFeature("http://xml.org/sax/features/string-interning", true); //$NON-NLS-1$
+				} catch (SAXException se) {
+					// ignore; we can still operate without string-interning
+				}
+				factory.setValidating(false);
+				parser = factory.newSAXParser();
 			}
-			factory.setValidating(false);
-			factory.newSAXParser().parse(in, this);
+			parser.parse(in, this);
 			return (Contribution) objectStack.pop();
 		} finally {
 			if (registry.debug()) {
@@ -539,8 +577,7 @@ public class ExtensionsParser extends DefaultHandler {
 			processedExtensionIds.add(uniqueId);
 		}
 
-		objectManager.add(currentExtension, true);
-		addedRegistryObjects.add(currentExtension);
+		addObject(currentExtension);
 	}
 
 	// todo: Are all three methods needed??
@@ -607,7 +644,10 @@ public class ExtensionsParser extends DefaultHandler {
 			stateStack.push(Integer.valueOf(IGNORED_ELEMENT_STATE));
 			return;
 		}
-		if (!objectManager.addExtensionPoint(currentExtPoint, true)) {
+		if (detachedObjects != null) {
+			// duplicates are detected when the contribution is added
+			addObject(currentExtPoint);
+		} else if (!objectManager.addExtensionPoint(currentExtPoint, true)) {
 			// avoid adding extension point second time as it might cause
 			// extensions associated with the existing extension point to
 			// become inaccessible.
@@ -623,7 +663,8 @@ public class ExtensionsParser extends DefaultHandler {
 		if (currentExtPoint.getNamespace() == null)
 			currentExtPoint.setNamespace(contribution.getDefaultNamespace());
 		currentExtPoint.setContributorId(contribution.getContributorId());
-		addedRegistryObjects.add(currentExtPoint);
+		if (detachedObjects == null)
+			addedRegistryObjects.add(currentExtPoint);
 
 		// Now populate the the vector just below us on the objectStack with this
 		// extension point
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.core.internal.registry;
+
+import java.util.List;
+import org.eclipse.core.runtime.IStatus;
+
+/**
+ * A contribution parsed by
+ * {@link ExtensionRegistry#parseContribution(java.io.InputStream, org.eclipse.core.runtime.IContributor, boolean, String, java.util.ResourceBundle, Object, long)}
+ * but not yet added to the registry.
+ * <p>
+ * The parsed objects are detached: they are not known to the object manager
+ * and their ids are indexes into {@link #objects}. Their extension points have
+ * not been checked for duplicates either. Both happens when the contribution is
+ * added by {@link ExtensionRegistry#addContributions(List)}.
+ * </p>
+ */
+public final class ParsedContribution {
+
+	final String contributorId;
+
+	// null if the contribution could not be parsed
+	final Contribution contribution;
+
+	// the detached objects; the id of each object is its index
+	final List<RegistryObject> objects;
+
+	// problems found while parsing, logged when the contribution is added;
+	// null if there is nothing to log
+	final IStatus problems;
+
+	final long timestamp;
+
+	ParsedContribution(String contributorId, Contribution contribution, List<RegistryObject> objects,
+			IStatus problems, long timestamp) {
+		this.contributorId = contributorId;
+		this.contribution = contribution;
+		this.objects = objects;
+		this.problems = problems;
+		this.timestamp = timestamp;
+	}
+}
@@ -20,8 +20,9 @@ package org.eclipse.core.internal.registry;
 public abstract class RegistryObject implements KeyedElement {
 	// Object identifier
 	private int objectId = RegistryObjectManager.UNKNOWN;
-	// The children of the element
-	protected int[] children = RegistryObjectManager.EMPTY_INT_ARRAY;
+	// The children of the element. Volatile as the objects are read without
+	// locking while extensions are linked to their extension point.
+	protected volatile int[] children = RegistryObjectManager.EMPTY_INT_ARRAY;
 
 	// The field combines offset, persistence flag, and no offset flag
 	private int extraDataOffset = EMPTY_MASK;
@@ -15,6 +15,7 @@ package org.eclipse.core.internal.registry;
 
 import java.lang.ref.SoftReference;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.runtime.IContributor;
 import org.eclipse.core.runtime.InvalidRegistryObjectException;
 import org.eclipse.core.runtime.spi.RegistryContributor;
@@ -23,6 +24,11 @@ import org.eclipse.core.runtime.spi.RegistryContributor;
  * This class manage all the object from the registry but does not deal with
  * their dependencies. It serves the objects which are either directly obtained
  * from memory or read from a cache. It also returns handles for objects.
+ * <p>
+ * Objects already in memory and extension point handles are served without
+ * locking. Loading objects from the cache is serialized on the manager unless
+ * the cache files are memory mapped; all modifications are serialized.
+ * </p>
  */
 public class RegistryObjectManager implements IObjectManager {
 	// Constants used to get the objects and their handles
@@ -45,8 +51,11 @@ public class RegistryObjectManager implements IObjectManager {
 	// key: extensionPointName, value: object id
 	private HashtableOfStringAndInt extensionPoints; // This is loaded on startup. Then entries can be added when
 														// loading a new plugin from the xml.
+	// key: extensionPointName, value: object id. A copy of extensionPoints that is
+	// read without locking. Both are only modified while synchronized.
+	private final Map<String, Integer> extensionPointIds = new ConcurrentHashMap<>();
 	// key: object id, value: an object
-	private ReferenceMap cache; // Entries are added by getter. The structure is not thread safe.
+	private final ConcurrentReferenceMap cache; // Entries are added by getter. Read without locking.
 	// key: int, value: int
 	private OffsetTable fileOffsets = null; // This is read once on startup when loading from the cache. Entries are
 											// never added here. They are only removed to prevent "removed" objects to
@@ -89,9 +98,9 @@ public class RegistryObjectManager implements IObjectManager {
 	public RegistryObjectManager(ExtensionRegistry registry) {
 		extensionPoints = new HashtableOfStringAndInt();
 		if ("true".equalsIgnoreCase(RegistryProperties.getProperty(PROP_NO_REGISTRY_FLUSHING))) { //$NON-NLS-1$
-			cache = new ReferenceMap(ReferenceMap.HARD, CACHE_INITIAL_SIZE, DEFAULT_LOADFACTOR);
+			cache = new ConcurrentReferenceMap(ConcurrentReferenceMap.HARD, CACHE_INITIAL_SIZE, DEFAULT_LOADFACTOR);
 		} else {
-			cache = new ReferenceMap(ReferenceMap.SOFT, CACHE_INITIAL_SIZE, DEFAULT_LOADFACTOR);
+			cache = new ConcurrentReferenceMap(ConcurrentReferenceMap.SOFT, CACHE_INITIAL_SIZE, DEFAULT_LOADFACTOR);
 		}
 		newContributions = new KeyedHashSet();
 
@@ -110,6 +119,9 @@ public class RegistryObjectManager implements IObjectManager {
 		}
 		fileOffsets = (OffsetTable) results[0];
 		extensionPoints = (HashtableOfStringAndInt) results[1];
+		extensionPointIds.clear();
+		for (String uniqueId : extensionPoints.getKeys())
+			extensionPointIds.put(uniqueId, Integer.valueOf(extensionPoints.get(uniqueId)));
 		nextId = ((Integer) results[2]).intValue();
 		fromCache = true;
 
@@ -256,6 +268,29 @@ public class RegistryObjectManager implements IObjectManager {
 			hold(registryObject);
 	}
 
+	/**
+	 * Reserves a range of consecutive ids for objects that have been created
+	 * detached from this manager.
+	 *
+	 * @return the first id of the range
+	 */
+	synchronized int reserveIds(int count) {
+		int first = nextId;
+		nextId += count;
+		return first;
+	}
+
+	/**
+	 * Adds an object read from the registry cache along with the object being
+	 * loaded, unless the object is already in memory or has been removed.
+	 */
+	synchronized void addLoaded(RegistryObject registryObject, boolean hold) {
+		int id = registryObject.getObjectId();
+		if (cache.get(id) != null || (fileOffsets != null && fileOffsets.get(id) == Integer.MIN_VALUE))
+			return;
+		add(registryObject, hold);
+	}
+
 	private void remove(RegistryObject registryObject, boolean release) {
 		cache.remove(registryObject.getObjectId());
 		if (release)
@@ -279,8 +314,31 @@ public class RegistryObjectManager implements IObjectManager {
 	}
 
 	@Override
-	public synchronized Object getObject(int id, byte type) {
-		return basicGetObject(id, type);
+	public Object getObject(int id, byte type) {
+		Object result = cache.get(id);
+		if (result != null)
+			return result;
+		return loadObject(id, type);
+	}
+
+	private Object loadObject(int id, byte type) {
+		if (!fromCache || !registry.getTableReader().isMapped()) {
+			synchronized (this) {
+				return basicGetObject(id, type);
+			}
+		}
+		// Objects are decoded from the mapped cache files without locking, so that
+		// threads faulting in different objects do not wait for each other
+		Object result = load(id, type);
+		synchronized (this) {
+			Object loaded = cache.get(id);
+			if (loaded != null)
+				return loaded;
+			if (result == null || fileOffsets.get(id) == Integer.MIN_VALUE) // removed meanwhile
+				throw new InvalidRegistryObjectException();
+			cache.put(id, result);
+			return result;
+		}
 	}
 
 	private Object basicGetObject(int id, byte type) {
@@ -314,7 +372,7 @@ public class RegistryObjectManager implements IObjectManager {
 	}
 
 	@Override
-	public synchronized RegistryObject[] getObjects(int[] values, byte type) {
+	public RegistryObject[] getObjects(int[] values, byte type) {
 		if (values.length == 0) {
 			switch (type) {
 			case EXTENSION_POINT:
@@ -341,16 +399,16 @@ public class RegistryObjectManager implements IObjectManager {
 			break;
 		}
 		for (int i = 0; i < values.length; i++) {
-			results[i] = (RegistryObject) basicGetObject(values[i], type);
+			results[i] = (RegistryObject) getObject(values[i], type);
 		}
 		return results;
 	}
 
-	synchronized ExtensionPoint getExtensionPointObject(String xptUniqueId) {
-		int id;
-		if ((id = extensionPoints.get(xptUniqueId)) == HashtableOfStringAndInt.MISSING_ELEMENT)
+	ExtensionPoint getExtensionPointObject(String xptUniqueId) {
+		Integer id = extensionPointIds.get(xptUniqueId);
+		if (id == null)
 			return null;
-		return (ExtensionPoint) getObject(id, EXTENSION_POINT);
+		return (ExtensionPoint) getObject(id.intValue(), EXTENSION_POINT);
 	}
 
 	@Override
@@ -419,11 +477,11 @@ public class RegistryObjectManager implements IObjectManager {
 		return (ExtensionPointHandle[]) getHandles(extensionPoints.getValues(), EXTENSION_POINT);
 	}
 
-	synchronized ExtensionPointHandle getExtensionPointHandle(String xptUniqueId) {
-		int id = extensionPoints.get(xptUniqueId);
-		if (id == HashtableOfStringAndInt.MISSING_ELEMENT)
+	ExtensionPointHandle getExtensionPointHandle(String xptUniqueId) {
+		Integer id = extensionPointIds.get(xptUniqueId);
+		if (id == null)
 			return null;
-		return (ExtensionPointHandle) getHandle(id, EXTENSION_POINT);
+		return (ExtensionPointHandle) getHandle(id.intValue(), EXTENSION_POINT);
 	}
 
 	private Object load(int id, byte type) {
@@ -464,6 +522,7 @@ public class RegistryObjectManager implements IObjectManager {
 			return false;
 		add(currentExtPoint, hold);
 		extensionPoints.put(uniqueId, currentExtPoint.getObjectId());
+		extensionPointIds.put(uniqueId, Integer.valueOf(currentExtPoint.getObjectId()));
 		return true;
 	}
 
@@ -471,6 +530,7 @@ public class RegistryObjectManager implements IObjectManager {
 		int pointId = extensionPoints.removeKey(extensionPointId);
 		if (pointId == HashtableOfStringAndInt.MISSING_ELEMENT)
 			return;
+		extensionPointIds.remove(extensionPointId);
 		remove(pointId, true);
 	}
 
@@ -15,9 +15,12 @@ package org.eclipse.core.internal.registry;
 
 import java.io.*;
 import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.spi.RegistryContributor;
@@ -45,11 +48,15 @@ public class TableReader {
 	static final String MAIN = ".mainData"; //$NON-NLS-1$
 	BufferedRandomInputStream mainDataFile = null;
 	DataInputStream mainInput = null;
+	// The MAIN file mapped in memory, null unless the cache is mapped
+	private ByteBuffer mainData = null;
 
 	// Informations representing the EXTRA file
 	static final String EXTRA = ".extraData"; //$NON-NLS-1$
 	BufferedRandomInputStream extraDataFile = null;
 	DataInputStream extraInput = null;
+	// The EXTRA file mapped in memory, null unless the cache is mapped
+	private ByteBuffer extraData = null;
 
 	// The table file
 	static final String TABLE = ".table"; //$NON-NLS-1$
@@ -79,16 +86,60 @@ public class TableReader {
 
 	private final ExtensionRegistry registry;
 
-	private SoftReference<Map<String, String>> stringPool;
+	// Objects are decoded from independent views of the mapped files instead of
+	// seeking the shared streams, so lazy loading does not need to synchronize
+	private final boolean mapFiles;
+
+	private volatile SoftReference<Map<String, String>> stringPool;
 
 	void setMainDataFile(File main) throws IOException {
 		mainDataFile = new BufferedRandomInputStream(main);
 		mainInput = new DataInputStream(mainDataFile);
+		mainData = mapFiles ? map(main) : null;
 	}
 
 	void setExtraDataFile(File extra) throws IOException {
 		extraDataFile = new BufferedRandomInputStream(extra);
 		extraInput = new DataInputStream(extraDataFile);
+		extraData = mapFiles ? map(extra) : null;
+	}
+
+	// Returns null if the file can not be mapped; it is then read through a stream
+	private static ByteBuffer map(File file) {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) { //$NON-NLS-1$
+			FileChannel channel = raf.getChannel();
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE)
+				return null;
+			// the mapping remains valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Returns whether objects are loaded from memory mapped files. Loading is then
+	 * thread safe without holding any lock.
+	 */
+	boolean isMapped() {
+		return mainData != null && extraData != null;
+	}
+
+	private DataInputStream mainInputAt(int offset) throws IOException {
+		ByteBuffer view = mainData.duplicate();
+		if (offset < 0 || offset > view.limit())
+			throw new EOFException();
+		view.position(offset);
+		return new DataInputStream(new ByteBufferInputStream(view));
+	}
+
+	private DataInputStream extraInputAt(int offset) throws IOException {
+		ByteBuffer view = extraData.duplicate();
+		if (offset < 0 || offset > view.limit())
+			throw new EOFException();
+		view.position(offset);
+		return new DataInputStream(new ByteBufferInputStream(view));
 	}
 
 	void setTableFile(File table) {
@@ -113,6 +164,7 @@ public class TableReader {
 
 	public TableReader(ExtensionRegistry registry) {
 		this.registry = registry;
+		this.mapFiles = "true".equalsIgnoreCase(RegistryProperties.getProperty(IRegistryConstants.PROP_MAPPED_CACHE)); //$NON-NLS-1$
 	}
 
 	// Don't need to synchronize - called only from a synchronized method
@@ -196,6 +248,8 @@ public class TableReader {
 
 	public Object loadConfigurationElement(int offset) {
 		try {
+			if (mainData != null)
+				return basicLoadConfigurationElement(mainInputAt(offset), null);
 			synchronized (mainDataFile) {
 				goToInputFile(offset);
 				return basicLoadConfigurationElement(mainInput, null);
@@ -256,6 +310,9 @@ public class TableReader {
 
 	public Object loadThirdLevelConfigurationElements(int offset, RegistryObjectManager objectManager) {
 		try {
+			if (extraData != null)
+				return loadConfigurationElementAndChildren(null, extraInputAt(offset), 3, Integer.MAX_VALUE,
+						objectManager, null);
 			synchronized (extraDataFile) {
 				goToExtraFile(offset);
 				return loadConfigurationElementAndChildren(null, extraInput, 3, Integer.MAX_VALUE, objectManager, null);
@@ -288,7 +345,7 @@ public class TableReader {
 		for (int i = 0; i < children.length; i++) {
 			ConfigurationElement tmp = loadConfigurationElementAndChildren(currentStream, extraIs, depth + 1, maxDepth,
 					objectManager, namespaceOwnerId);
-			objectManager.add(tmp, holdObjects);
+			objectManager.addLoaded(tmp, holdObjects);
 		}
 		return ce;
 	}
@@ -306,6 +363,8 @@ public class TableReader {
 
 	public Object loadExtension(int offset) {
 		try {
+			if (mainData != null)
+				return basicLoadExtension(mainInputAt(offset));
 			synchronized (mainDataFile) {
 				goToInputFile(offset);
 				return basicLoadExtension(mainInput);
@@ -322,34 +381,20 @@ public class TableReader {
 
 	private Extension basicLoadExtension(DataInputStream inputStream) throws IOException {
 		int self = inputStream.readInt();
-		String simpleId = readStringOrNull(mainInput);
-		String namespace = readStringOrNull(mainInput);
-		int[] children = readArray(mainInput);
-		int extraData = mainInput.readInt();
-		return getObjectFactory().createExtension(self, simpleId, namespace, children, extraData, true);
+		String simpleId = readStringOrNull(inputStream);
+		String namespace = readStringOrNull(inputStream);
+		int[] children = readArray(inputStream);
+		int extraDataOffset = inputStream.readInt();
+		return getObjectFactory().createExtension(self, simpleId, namespace, children, extraDataOffset, true);
 	}
 
 	public ExtensionPoint loadExtensionPointTree(int offset, RegistryObjectManager objects) {
 		try {
+			if (mainData != null)
+				return basicLoadExtensionPointTree(mainInputAt(offset), objects);
 			synchronized (mainDataFile) {
-				ExtensionPoint xpt = (ExtensionPoint) loadExtensionPoint(offset);
-				int[] children = xpt.getRawChildren();
-				int nbrOfExtension = children.length;
-				for (int i = 0; i < nbrOfExtension; i++) {
-					Extension loaded = basicLoadExtension(mainInput);
-					objects.add(loaded, holdObjects);
-				}
-
-				for (int i = 0; i < nbrOfExtension; i++) {
-					int nbrOfCe = mainInput.readInt();
-					for (int j = 0; j < nbrOfCe; j++) {
-						// note that max depth is set to 2 and extra input is never going to
-						// be used in this call to the loadConfigurationElementAndChildren().
-						objects.add(loadConfigurationElementAndChildren(mainInput, null, 1, 2, objects, null),
-								holdObjects);
-					}
-				}
-				return xpt;
+				goToInputFile(offset);
+				return basicLoadExtensionPointTree(mainInput, objects);
 			}
 		} catch (IOException e) {
 			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, mainDataFile);
@@ -361,25 +406,32 @@ public class TableReader {
 		}
 	}
 
-	private Object loadExtensionPoint(int offset) {
-		try {
-			goToInputFile(offset);
-			return basicLoadExtensionPoint();
-		} catch (IOException e) {
-			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, mainDataFile);
-			log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError, message, e));
-			if (DEBUG)
-				log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, fileError,
-						"Error reading an extension point (" + offset + ") from the registry cache", e)); //$NON-NLS-1$ //$NON-NLS-2$
-			return null;
+	private ExtensionPoint basicLoadExtensionPointTree(DataInputStream is, RegistryObjectManager objects)
+			throws IOException {
+		ExtensionPoint xpt = basicLoadExtensionPoint(is);
+		int[] children = xpt.getRawChildren();
+		int nbrOfExtension = children.length;
+		for (int i = 0; i < nbrOfExtension; i++) {
+			Extension loaded = basicLoadExtension(is);
+			objects.addLoaded(loaded, holdObjects);
 		}
+
+		for (int i = 0; i < nbrOfExtension; i++) {
+			int nbrOfCe = is.readInt();
+			for (int j = 0; j < nbrOfCe; j++) {
+				// note that max depth is set to 2 and extra input is never going to
+				// be used in this call to the loadConfigurationElementAndChildren().
+				objects.addLoaded(loadConfigurationElementAndChildren(is, null, 1, 2, objects, null), holdObjects);
+			}
+		}
+		return xpt;
 	}
 
-	private ExtensionPoint basicLoadExtensionPoint() throws IOException {
-		int self = mainInput.readInt();
-		int[] children = readArray(mainInput);
-		int extraData = mainInput.readInt();
-		return getObjectFactory().createExtensionPoint(self, children, extraData, true);
+	private ExtensionPoint basicLoadExtensionPoint(DataInputStream is) throws IOException {
+		int self = is.readInt();
+		int[] children = readArray(is);
+		int extraDataOffset = is.readInt();
+		return getObjectFactory().createExtensionPoint(self, children, extraDataOffset, true);
 	}
 
 	private int[] readArray(DataInputStream in) throws IOException {
@@ -410,9 +462,11 @@ public class TableReader {
 
 	public String[] loadExtensionExtraData(int dataPosition) {
 		try {
+			if (extraData != null)
+				return basicLoadExtensionExtraData(extraInputAt(dataPosition));
 			synchronized (extraDataFile) {
 				goToExtraFile(dataPosition);
-				return basicLoadExtensionExtraData();
+				return basicLoadExtensionExtraData(extraInput);
 			}
 		} catch (IOException e) {
 			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, extraDataFile);
@@ -424,16 +478,17 @@ public class TableReader {
 		}
 	}
 
-	private String[] basicLoadExtensionExtraData() throws IOException {
-		return new String[] { readStringOrNull(extraInput), readStringOrNull(extraInput),
-				readStringOrNull(extraInput) };
+	private String[] basicLoadExtensionExtraData(DataInputStream is) throws IOException {
+		return new String[] { readStringOrNull(is), readStringOrNull(is), readStringOrNull(is) };
 	}
 
 	public String[] loadExtensionPointExtraData(int offset) {
 		try {
+			if (extraData != null)
+				return basicLoadExtensionPointExtraData(extraInputAt(offset));
 			synchronized (extraDataFile) {
 				goToExtraFile(offset);
-				return basicLoadExtensionPointExtraData();
+				return basicLoadExtensionPointExtraData(extraInput);
 			}
 		} catch (IOException e) {
 			String message = NLS.bind(RegistryMessages.meta_regCacheIOExceptionReading, extraDataFile);
@@ -445,13 +500,13 @@ public class TableReader {
 		}
 	}
 
-	private String[] basicLoadExtensionPointExtraData() throws IOException {
+	private String[] basicLoadExtensionPointExtraData(DataInputStream is) throws IOException {
 		String[] result = new String[5];
-		result[0] = readStringOrNull(extraInput); // the label
-		result[1] = readStringOrNull(extraInput); // the schema
-		result[2] = readStringOrNull(extraInput); // the fully qualified name
-		result[3] = readStringOrNull(extraInput); // the namespace
-		result[4] = readStringOrNull(extraInput); // the contributor Id
+		result[0] = readStringOrNull(is); // the label
+		result[1] = readStringOrNull(is); // the schema
+		result[2] = readStringOrNull(is); // the fully qualified name
+		result[3] = readStringOrNull(is); // the namespace
+		result[4] = readStringOrNull(is); // the contributor Id
 		return result;
 	}
 
@@ -600,8 +655,8 @@ public class TableReader {
 	}
 
 	private ExtensionPoint loadFullExtensionPoint() throws IOException { // TODO I don't like this.
-		ExtensionPoint xpt = basicLoadExtensionPoint();
-		String[] tmp = basicLoadExtensionPointExtraData();
+		ExtensionPoint xpt = basicLoadExtensionPoint(mainInput);
+		String[] tmp = basicLoadExtensionPointExtraData(extraInput);
 		xpt.setLabel(tmp[0]);
 		xpt.setSchema(tmp[1]);
 		xpt.setUniqueIdentifier(tmp[2]);
@@ -613,11 +668,11 @@ public class TableReader {
 	private Extension loadFullExtension(RegistryObjectManager objectManager) throws IOException {
 		String[] tmp;
 		Extension loaded = basicLoadExtension(mainInput);
-		tmp = basicLoadExtensionExtraData();
+		tmp = basicLoadExtensionExtraData(extraInput);
 		loaded.setLabel(tmp[0]);
 		loaded.setExtensionPointIdentifier(tmp[1]);
 		loaded.setContributorId(tmp[2]);
-		objectManager.add(loaded, holdObjects);
+		objectManager.addLoaded(loaded, holdObjects);
 		return loaded;
 	}
 
@@ -689,21 +744,15 @@ public class TableReader {
 			value = in.readUTF();
 		}
 
-		Map<String, String> map = null;
-		if (stringPool != null) {
-			map = stringPool.get();
-		}
+		// the pool is shared by threads loading objects from mapped files
+		SoftReference<Map<String, String>> pool = stringPool;
+		Map<String, String> map = pool == null ? null : pool.get();
 		if (map == null) {
-			map = new HashMap<>();
+			map = new ConcurrentHashMap<>();
 			stringPool = new SoftReference<>(map);
 		}
 
-		String pooledString = map.get(value);
-		if (pooledString == null) {
-			map.put(value, value);
-			return value;
-		}
-
-		return pooledString;
+		String pooledString = map.putIfAbsent(value, value);
+		return pooledString == null ? value : pooledString;
 	}
 }
@@ -16,7 +16,9 @@ package org.eclipse.core.internal.registry.osgi;
 import java.io.*;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.*;
 import org.eclipse.core.internal.registry.ExtensionRegistry;
+import org.eclipse.core.internal.registry.ParsedContribution;
 import org.eclipse.core.internal.registry.RegistryMessages;
 import org.eclipse.core.internal.runtime.ResourceTranslator;
 import org.eclipse.core.internal.runtime.RuntimeLog;
@@ -88,14 +90,74 @@ public class EclipseBundleListener implements SynchronousBundleListener {
 		}
 	}
 
+	/**
+	 * Adds the resolved bundles and removes the others. The contributions of the
+	 * added bundles are parsed in parallel and then added to the registry in
+	 * bundle id order, so that the result does not depend on the order in which
+	 * the parses complete.
+	 */
 	public void processBundles(Bundle[] bundles) {
+		bundles = bundles.clone();
+		Arrays.sort(bundles, Comparator.comparingLong(Bundle::getBundleId));
+		List<Callable<ParsedContribution>> parses = new ArrayList<>();
+		Map<String, Bundle> parsedBundles = new HashMap<>();
 		for (Bundle bundle : bundles) {
 			if (isBundleResolved(bundle)) {
-				addBundle(bundle, false);
+				Callable<ParsedContribution> parse = prepareBundle(bundle);
+				if (parse != null) {
+					parses.add(parse);
+					parsedBundles.put(Long.toString(bundle.getBundleId()), bundle);
+				}
 			} else {
 				removeBundle(bundle);
 			}
 		}
+		if (parses.isEmpty())
+			return;
+
+		List<ParsedContribution> contributions = new ArrayList<>(parses.size());
+		int threads = Math.min(Runtime.getRuntime().availableProcessors(), parses.size());
+		if (threads <= 1) {
+			for (Callable<ParsedContribution> parse : parses) {
+				addParsed(contributions, parse);
+			}
+		} else {
+			ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+				Thread thread = new Thread(runnable, "Registry parser"); //$NON-NLS-1$
+				thread.setDaemon(true);
+				return thread;
+			});
+			try {
+				List<Future<ParsedContribution>> results = new ArrayList<>(parses.size());
+				for (Callable<ParsedContribution> parse : parses) {
+					results.add(executor.submit(parse));
+				}
+				for (Future<ParsedContribution> result : results) {
+					addParsed(contributions, result::get);
+				}
+			} finally {
+				executor.shutdown();
+			}
+		}
+		// skip the bundles unresolved while they were parsed; the events removing
+		// them may have been processed before their contributions are added
+		registry.addContributions(contributions, contributorId -> {
+			Bundle bundle = parsedBundles.get(contributorId);
+			return bundle != null && isBundleResolved(bundle);
+		});
+	}
+
+	private static void addParsed(List<ParsedContribution> contributions, Callable<ParsedContribution> parse) {
+		try {
+			ParsedContribution contribution = parse.call();
+			if (contribution != null)
+				contributions.add(contribution);
+		} catch (Exception e) {
+			if (e instanceof InterruptedException)
+				Thread.currentThread().interrupt();
+			Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+			RuntimeLog.log(new Status(IStatus.ERROR, RegistryMessages.OWNER_NAME, 0, cause.getMessage(), cause));
+		}
 	}
 
 	private boolean isBundleResolved(Bundle bundle) {
@@ -168,25 +230,59 @@ public class EclipseBundleListener implements SynchronousBundleListener {
 		URL pluginManifest = getExtensionURL(bundle, true);
 		if (pluginManifest == null)
 			return;
+		InputStream is = openManifest(pluginManifest);
+		if (is == null)
+			return;
+		registry.addContribution(is, contributor, true, pluginManifest.getPath(), getTranslationBundle(bundle), token,
+				getTimestamp(bundle, pluginManifest));
+	}
+
+	/**
+	 * Same checks as {@link #addBundle(Bundle, boolean)}, but rather than adding
+	 * the contribution of the bundle returns a task parsing it, or
+	 * <code>null</code> if there is nothing to parse.
+	 */
+	private Callable<ParsedContribution> prepareBundle(Bundle bundle) {
+		IContributor contributor = ContributorFactoryOSGi.createContributor(bundle);
+		if (registry.hasContributor(contributor))
+			return null;
+		URL pluginManifest = getExtensionURL(bundle, true);
+		if (pluginManifest == null)
+			return null;
+		return () -> {
+			InputStream is = openManifest(pluginManifest);
+			if (is == null)
+				return null;
+			return registry.parseContribution(is, contributor, true, pluginManifest.getPath(),
+					getTranslationBundle(bundle), token, getTimestamp(bundle, pluginManifest));
+		};
+	}
+
+	private static InputStream openManifest(URL pluginManifest) {
 		InputStream is;
 		try {
 			is = new BufferedInputStream(pluginManifest.openStream());
 		} catch (IOException ex) {
 			is = null;
 		}
-		if (is == null)
-			return;
+		return is;
+	}
 
+	private static ResourceBundle getTranslationBundle(Bundle bundle) {
 		ResourceBundle translationBundle = null;
 		try {
 			translationBundle = ResourceTranslator.getResourceBundle(bundle);
 		} catch (MissingResourceException e) {
 			// Ignore the exception
 		}
+		return translationBundle;
+	}
+
+	private long getTimestamp(Bundle bundle, URL pluginManifest) {
 		long timestamp = 0;
 		if (strategy.checkContributionsTimestamp())
 			timestamp = strategy.getExtendedTimestamp(bundle, pluginManifest);
-		registry.addContribution(is, contributor, true, pluginManifest.getPath(), translationBundle, token, timestamp);
+		return timestamp;
 	}
 
 	private void checkForNLSFragment(Bundle bundle) {
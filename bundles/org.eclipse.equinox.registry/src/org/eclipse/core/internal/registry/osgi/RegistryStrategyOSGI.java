@@ -18,8 +18,6 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.Locale;
 import java.util.ResourceBundle;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.xml.parsers.SAXParserFactory;
 import org.eclipse.core.internal.registry.*;
 import org.eclipse.core.internal.runtime.ResourceTranslator;
@@ -154,10 +152,8 @@ public class RegistryStrategyOSGI extends RegistryStrategy {
 	 * object is stored as a weak reference to facilitate GC in case the bundle was
 	 * uninstalled during the Eclipse run.
 	 */
-	private final ReferenceMap bundleMap = new ReferenceMap(ReferenceMap.SOFT, DEFAULT_BUNDLECACHE_SIZE,
-			DEFAULT_BUNDLECACHE_LOADFACTOR);
-
-	private final ReadWriteLock bundleMapLock = new ReentrantReadWriteLock();
+	private final ConcurrentReferenceMap bundleMap = new ConcurrentReferenceMap(ConcurrentReferenceMap.SOFT,
+			DEFAULT_BUNDLECACHE_SIZE, DEFAULT_BUNDLECACHE_LOADFACTOR);
 
 	// String Id to OSGi Bundle conversion
 	private Bundle getBundle(String id) {
@@ -172,24 +168,14 @@ public class RegistryStrategyOSGI extends RegistryStrategy {
 		// We assume here that OSGI Id will fit into "int". As the number of
 		// registry elements themselves are expected to fit into "int", this
 		// is a valid assumption for the time being.
-		Bundle bundle;
-		bundleMapLock.readLock().lock();
-		try {
-			bundle = (Bundle) bundleMap.get((int) OSGiId);
-		} finally {
-			bundleMapLock.readLock().unlock();
-		}
+		Bundle bundle = (Bundle) bundleMap.get((int) OSGiId);
 		if (bundle != null)
 			return bundle;
 		// note: we accept that two concurrent threads end up here for the same id,
 		// because they will anyway resolve the same mapping
 		bundle = Activator.getContext().getBundle(OSGiId);
-		bundleMapLock.writeLock().lock();
-		try {
+		if (bundle != null)
 			bundleMap.put((int) OSGiId, bundle);
-		} finally {
-			bundleMapLock.writeLock().unlock();
-		}
 		return bundle;
 	}
 
@@ -373,7 +359,8 @@ public class RegistryStrategyOSGI extends RegistryStrategy {
 	 * @see org.eclipse.core.runtime.spi.RegistryStrategy#getXMLParser()
 	 */
 	@Override
-	public SAXParserFactory getXMLParser() {
+	public synchronized SAXParserFactory getXMLParser() {
+		// synchronized as bundle contributions are parsed concurrently
 		if (xmlTracker == null) {
 			xmlTracker = new ServiceTracker<>(Activator.getContext(), SAXParserFactory.class.getName(), null);
 			xmlTracker.open();
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.equinox.internal.security.tests.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import javax.crypto.spec.PBEKeySpec;
+import org.eclipse.equinox.internal.security.storage.*;
+import org.eclipse.equinox.internal.security.storage.friends.IStorageConstants;
+
+/**
+ * This is a manual benchmark; it is not a test and no test suite refers to it.
+ * It measures the encrypt and decrypt throughput of the secure storage with 1
+ * to 32 threads sharing one password. Run its main method with the security
+ * bundle and its dependencies on the class path.
+ */
+public class EncryptionBenchmark {
+
+	static private final int[] THREADS = {1, 2, 4, 8, 16, 32};
+	static private final long DURATION = TimeUnit.SECONDS.toNanos(2);
+
+	public static void main(String[] args) throws Exception {
+		JavaEncryption encryption = new JavaEncryption();
+		encryption.setAlgorithms(IStorageConstants.DEFAULT_CIPHER, IStorageConstants.DEFAULT_KEY_FACTORY);
+		PasswordExt password = new PasswordExt(new PBEKeySpec("uYTIU689_~@@/".toCharArray()), "benchmark"); //$NON-NLS-1$ //$NON-NLS-2$
+		byte[] clearText = "cheburashka".getBytes(StandardCharsets.UTF_8); //$NON-NLS-1$
+
+		// warm up
+		run(encryption, password, clearText, 1);
+
+		for (int threads : THREADS) {
+			long operations = run(encryption, password, clearText, threads);
+			System.out.println(threads + " thread(s): " + (operations * TimeUnit.SECONDS.toNanos(1) / DURATION) //$NON-NLS-1$
+					+ " encrypt+decrypt/s"); //$NON-NLS-1$
+		}
+	}
+
+	static private long run(JavaEncryption encryption, PasswordExt password, byte[] clearText, int threads)
+			throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> results = new ArrayList<>();
+			long end = System.nanoTime() + DURATION;
+			for (int i = 0; i < threads; i++) {
+				results.add(executor.submit(() -> {
+					long count = 0;
+					while (System.nanoTime() - end < 0) {
+						CryptoData encrypted = encryption.encrypt(password, clearText);
+						if (!Arrays.equals(clearText, encryption.decrypt(password, encrypted)))
+							throw new IllegalStateException("Decrypted text differs from the clear text"); //$NON-NLS-1$
+						count++;
+					}
+					return count;
+				}));
+			}
+			long total = 0;
+			for (Future<Long> result : results) {
+				total += result.get();
+			}
+			return total;
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -19,6 +19,7 @@ import java.security.*;
 import java.security.spec.*;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 import javax.crypto.*;
 import javax.crypto.spec.*;
 import org.eclipse.core.runtime.jobs.ILock;
@@ -48,10 +49,44 @@ public class JavaEncryption {
 
 	static private final int SALT_ITERATIONS = 10;
 
-	private String keyFactoryAlgorithm = null;
-	private String cipherAlgorithm = null;
+	/**
+	 * How long a secret key generated for a password is reused
+	 */
+	static private final long KEY_LIFETIME = TimeUnit.MINUTES.toNanos(5);
+
+	static private final class CachedKey {
+		final String keyFactoryAlgorithm;
+		final SecretKey key;
+		final long expires;
+
+		CachedKey(String keyFactoryAlgorithm, SecretKey key, long expires) {
+			this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+			this.key = key;
+			this.expires = expires;
+		}
+	}
+
+	/**
+	 * Secret keys by password; passwords are compared by identity and the entry
+	 * goes away with the password
+	 */
+	/* @GuardedBy("secretKeys") */
+	static private final Map<PBEKeySpec, CachedKey> secretKeys = new WeakHashMap<>();
+
+	/**
+	 * Key factories and ciphers are not thread safe; each thread keeps its own
+	 * instance per algorithm
+	 */
+	static private final ThreadLocal<Map<String, SecretKeyFactory>> keyFactories = ThreadLocal
+			.withInitial(HashMap::new);
+	static private final ThreadLocal<Map<String, Cipher>> ciphers = ThreadLocal.withInitial(HashMap::new);
+
+	static private final SecureRandom random = new SecureRandom();
 
-	private boolean initialized = false;
+	private volatile String keyFactoryAlgorithm = null;
+	private volatile String cipherAlgorithm = null;
+
+	private volatile boolean initialized = false;
 
 	private HashMap<String, String> availableCiphers;
 
@@ -80,10 +115,11 @@ public class JavaEncryption {
 	private void init() throws StorageException {
 		if (initialized)
 			return;
-		initialized = true;
 
 		try {
 			lock.acquire(); // avoid multiple simultaneous initializations
+			if (initialized)
+				return;
 			IUICallbacks callback = CallbacksProvider.getDefault().getCallback();
 			if (callback == null)
 				internalInitialize();
@@ -91,6 +127,8 @@ public class JavaEncryption {
 				callback.execute(() -> internalInitialize());
 			}
 		} finally {
+			// publish the algorithms; a failed initialization is not retried
+			initialized = true;
 			lock.release();
 		}
 	}
@@ -130,20 +168,19 @@ public class JavaEncryption {
 
 	public CryptoData encrypt(PasswordExt passwordExt, byte[] clearText) throws StorageException {
 		init();
-		return internalEncrypt(passwordExt, clearText);
+		return internalEncrypt(cipherAlgorithm, keyFactoryAlgorithm, passwordExt, clearText);
 	}
 
-	private CryptoData internalEncrypt(PasswordExt passwordExt, byte[] clearText) throws StorageException {
+	private CryptoData internalEncrypt(String cipherAlg, String keyFactoryAlg, PasswordExt passwordExt,
+			byte[] clearText) throws StorageException {
 		try {
-			SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(keyFactoryAlgorithm);
-			SecretKey key = keyFactory.generateSecret(passwordExt.getPassword());
+			SecretKey key = getSecretKey(keyFactoryAlg, passwordExt.getPassword());
 
 			byte[] salt = new byte[8];
-			SecureRandom random = new SecureRandom();
 			random.nextBytes(salt);
 			PBEParameterSpec entropy = new PBEParameterSpec(salt, SALT_ITERATIONS);
 
-			Cipher c = Cipher.getInstance(cipherAlgorithm);
+			Cipher c = getCipher(cipherAlg);
 			c.init(Cipher.ENCRYPT_MODE, key, entropy);
 			byte[] iv = null;
 
@@ -173,14 +210,14 @@ public class JavaEncryption {
 	public byte[] decrypt(PasswordExt passwordExt, CryptoData encryptedData)
 			throws StorageException, IllegalStateException, IllegalBlockSizeException, BadPaddingException {
 		init();
-		return internalDecrypt(passwordExt, encryptedData);
+		return internalDecrypt(cipherAlgorithm, keyFactoryAlgorithm, passwordExt, encryptedData);
 	}
 
-	private byte[] internalDecrypt(PasswordExt passwordExt, CryptoData encryptedData)
+	private byte[] internalDecrypt(String cipherAlg, String keyFactoryAlg, PasswordExt passwordExt,
+			CryptoData encryptedData)
 			throws StorageException, IllegalStateException, IllegalBlockSizeException, BadPaddingException {
 		try {
-			SecretKeyFactory keyFactory = SecretKeyFactory.getInstance(keyFactoryAlgorithm);
-			SecretKey key = keyFactory.generateSecret(passwordExt.getPassword());
+			SecretKey key = getSecretKey(keyFactoryAlg, passwordExt.getPassword());
 
 			IvParameterSpec ivParamSpec = null;
 			if (encryptedData.getIV() != null) {
@@ -194,7 +231,7 @@ public class JavaEncryption {
 				entropy = new PBEParameterSpec(encryptedData.getSalt(), SALT_ITERATIONS);
 			}
 
-			Cipher c = Cipher.getInstance(cipherAlgorithm);
+			Cipher c = getCipher(cipherAlg);
 			c.init(Cipher.DECRYPT_MODE, key, entropy);
 
 			byte[] result = c.doFinal(encryptedData.getData());
@@ -206,6 +243,47 @@ public class JavaEncryption {
 		}
 	}
 
+	private static SecretKey getSecretKey(String keyFactoryAlg, PBEKeySpec password)
+			throws NoSuchAlgorithmException, InvalidKeySpecException {
+		long now = System.nanoTime();
+		synchronized (secretKeys) {
+			CachedKey cached = secretKeys.get(password);
+			if (cached != null && cached.keyFactoryAlgorithm.equals(keyFactoryAlg) && now - cached.expires < 0)
+				return cached.key;
+		}
+
+		SecretKeyFactory keyFactory = keyFactories.get().get(keyFactoryAlg);
+		if (keyFactory == null) {
+			keyFactory = SecretKeyFactory.getInstance(keyFactoryAlg);
+			keyFactories.get().put(keyFactoryAlg, keyFactory);
+		}
+		SecretKey key = keyFactory.generateSecret(password);
+
+		synchronized (secretKeys) {
+			secretKeys.put(password, new CachedKey(keyFactoryAlg, key, now + KEY_LIFETIME));
+		}
+		return key;
+	}
+
+	private static Cipher getCipher(String cipherAlg) throws NoSuchAlgorithmException, NoSuchPaddingException {
+		Cipher c = ciphers.get().get(cipherAlg);
+		if (c == null) {
+			c = Cipher.getInstance(cipherAlg);
+			ciphers.get().put(cipherAlg, c);
+		}
+		return c;
+	}
+
+	/**
+	 * Discards the secret keys generated for passwords. Called when the cached
+	 * passwords are cleared.
+	 */
+	public static void clearKeyCache() {
+		synchronized (secretKeys) {
+			secretKeys.clear();
+		}
+	}
+
 	private void handle(Exception e, int internalCode) throws StorageException {
 		if (AuthPlugin.DEBUG_LOGIN_FRAMEWORK)
 			e.printStackTrace();
@@ -280,25 +358,16 @@ public class JavaEncryption {
 	}
 
 	private boolean roundtrip(String testCipher, String testKeyFactory) {
-		boolean storeInitState = initialized;
-		String storedCipherAlgorithm = cipherAlgorithm;
-		String storedKeyAlgorithm = keyFactoryAlgorithm;
-		initialized = true;
 		try {
-			cipherAlgorithm = testCipher;
-			keyFactoryAlgorithm = testKeyFactory;
-			CryptoData encrypted = internalEncrypt(samplePassword, StorageUtils.getBytes(sampleText));
-			byte[] roundtripBytes = internalDecrypt(samplePassword, encrypted);
+			CryptoData encrypted = internalEncrypt(testCipher, testKeyFactory, samplePassword,
+					StorageUtils.getBytes(sampleText));
+			byte[] roundtripBytes = internalDecrypt(testCipher, testKeyFactory, samplePassword, encrypted);
 			String result = StorageUtils.getString(roundtripBytes);
 			return sampleText.equals(result);
 		} catch (Exception e) {
 			// internal implementation throws both checked and unchecked
 			// exceptions (without much documentation to go on), so have to use catch-all
 			return false;
-		} finally { // reset back
-			cipherAlgorithm = storedCipherAlgorithm;
-			keyFactoryAlgorithm = storedKeyAlgorithm;
-			initialized = storeInitState;
 		}
 	}
 
@@ -229,9 +229,16 @@ public class SecurePreferencesRoot extends SecurePreferences implements IStorage
 		boolean setupPasswordRecovery = false;
 		boolean addedNoPrompt = false;
 
+		// Quick check first: it is cached? Avoids the global lock once a password is known
+		synchronized (passwordCache) {
+			PasswordExt cachedPassword = passwordCache.get(key);
+			if (cachedPassword != null)
+				return cachedPassword;
+		}
+
 		try {
 			lock.acquire(); // make sure process of password creation is not re-entered by another thread
-			// Quick check first: it is cached?
+			// check again: another thread may have created the password
 			synchronized (passwordCache) {
 				if (passwordCache.containsKey(key))
 					return passwordCache.get(key);
@@ -379,6 +386,7 @@ public class SecurePreferencesRoot extends SecurePreferences implements IStorage
 		synchronized (passwordCache) {
 			passwordCache.clear();
 		}
+		JavaEncryption.clearKeyCache();
 	}
 
 	private long getLastModified() {
@@ -103,13 +103,11 @@ public class Authorization implements org.osgi.service.useradmin.Authorization {
 	@Override
 	public boolean hasRole(String name_) {
 		useradmin.checkAlive();
-		synchronized (useradmin) {
-			Role checkRole = (org.eclipse.equinox.internal.useradmin.Role) useradmin.getRole(name_);
-			if (checkRole == null) {
-				return (false);
-			}
-			return checkRole.isImpliedBy(user, new Vector<>());
+		Role checkRole = (org.eclipse.equinox.internal.useradmin.Role) useradmin.getRole(name_);
+		if (checkRole == null) {
+			return (false);
 		}
+		return useradmin.isImpliedBy(checkRole, user);
 	}
 
 	/**
@@ -130,7 +128,7 @@ public class Authorization implements org.osgi.service.useradmin.Authorization {
 			Vector<String> result = new Vector<>(length);
 			for (int i = 0; i < length; i++) {
 				Role role = useradmin.roles.elementAt(i);
-				if (role.isImpliedBy(user, new Vector<>())) {
+				if (useradmin.isImpliedBy(role, user)) {
 					String roleName = role.getName();
 					// exclude user.anyone from the list
 					if (!roleName.equals(Role.anyoneString)) {
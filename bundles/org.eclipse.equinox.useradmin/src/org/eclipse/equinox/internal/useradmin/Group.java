@@ -133,6 +133,7 @@ public class Group extends User implements org.osgi.service.useradmin.Group {
 			}
 		}
 		basicMembers.addElement(role);
+		useradmin.membershipChanged();
 		return (true);
 	}
 
@@ -174,6 +175,7 @@ public class Group extends User implements org.osgi.service.useradmin.Group {
 			}
 		}
 		requiredMembers.addElement(role);
+		useradmin.membershipChanged();
 		return (true);
 	}
 
@@ -214,6 +216,7 @@ public class Group extends User implements org.osgi.service.useradmin.Group {
 			// simply try to remove it from both.
 			boolean removeRequired = requiredMembers.removeElement(role);
 			boolean removeBasic = basicMembers.removeElement(role);
+			useradmin.membershipChanged();
 			return (removeRequired || removeBasic);
 		}
 	}
@@ -14,6 +14,7 @@
 package org.eclipse.equinox.internal.useradmin;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import org.osgi.framework.*;
 import org.osgi.service.prefs.BackingStoreException;
 import org.osgi.service.prefs.PreferencesService;
@@ -55,6 +56,24 @@ public class UserAdmin implements org.osgi.service.useradmin.UserAdmin {
 	protected ServiceReference reference;
 	protected LogTracker log;
 
+	/**
+	 * Roles by name
+	 */
+	private final Map<String, Role> roleNames = new ConcurrentHashMap<>();
+	/**
+	 * The result of checking if a role is implied by a user, by user and role.
+	 * Replaced when a group membership changes or a role is removed.
+	 */
+	private volatile Map<Role, Map<Role, Boolean>> impliedRoles = new ConcurrentHashMap<>();
+	/**
+	 * Users by the String value of a property, by property key. A value of
+	 * <code>null</code> means more than one user has the property value.
+	 */
+	/* @GuardedBy("userProperties") */
+	private final Map<String, Map<String, User>> userProperties = new ConcurrentHashMap<>();
+	/* @GuardedBy("userProperties") */
+	private long propertyGeneration;
+
 	protected UserAdmin(PreferencesService preferencesService, BundleContext context) throws Exception {
 		roles = new Vector<>();
 		users = new Vector<>();
@@ -147,6 +166,7 @@ public class UserAdmin implements org.osgi.service.useradmin.UserAdmin {
 			users.addElement(newRole);
 		}
 		roles.addElement(newRole);
+		roleNames.put(name, newRole);
 		return (newRole);
 	}
 
@@ -184,7 +204,10 @@ public class UserAdmin implements org.osgi.service.useradmin.UserAdmin {
 				}
 				roles.removeElement(role);
 				users.removeElement(role);
+				roleNames.remove(name);
 				role.destroy();
+				membershipChanged();
+				propertyChanged(null);
 				eventProducer.generateEvent(UserAdminEvent.ROLE_REMOVED, role);
 				role = null;
 				return (true);
@@ -207,16 +230,7 @@ public class UserAdmin implements org.osgi.service.useradmin.UserAdmin {
 		if (name == null) {
 			return (null);
 		}
-		synchronized (this) {
-			Enumeration<Role> e = roles.elements();
-			while (e.hasMoreElements()) {
-				Role role = e.nextElement();
-				if (role.getName().equals(name)) {
-					return (role);
-				}
-			}
-			return (null);
-		}
+		return (roleNames.get(name));
 	}
 
 	/**
@@ -234,31 +248,33 @@ public class UserAdmin implements org.osgi.service.useradmin.UserAdmin {
 	@Override
 	public org.osgi.service.useradmin.Role[] getRoles(String filterString) throws InvalidSyntaxException {
 		checkAlive();
-		Vector<Role> returnedRoles;
+		Filter filter = null;
+		if (filterString != null) {
+			filter = context.createFilter(filterString); // We do this first so an
+			// InvalidSyntaxException will be
+			// thrown even if there are no roles
+			// present.
+		}
+		Role[] roleArray;
 		synchronized (this) {
-			if (filterString == null) {
-				returnedRoles = roles;
-			} else {
-				Filter filter = context.createFilter(filterString); // We do this first so an
-				// InvalidSyntaxException will be
-				// thrown even if there are no roles
-				// present.
-				returnedRoles = new Vector<>();
-				for (int i = 0; i < roles.size(); i++) {
-					Role role = roles.elementAt(i);
-					if (filter.match(role.getProperties())) {
-						returnedRoles.addElement(role);
-					}
+			roleArray = new Role[roles.size()];
+			roles.copyInto(roleArray);
+		}
+		if (filter != null) {
+			// match outside of the lock; the role properties are synchronized
+			int size = 0;
+			for (Role role : roleArray) {
+				Dictionary<String, Object> properties = role.getProperties();
+				if ((properties != null) && filter.match(properties)) { // null if removed meanwhile
+					roleArray[size++] = role;
 				}
 			}
-			int size = returnedRoles.size();
-			if (size == 0) {
-				return (null);
-			}
-			Role[] roleArray = new Role[size];
-			returnedRoles.copyInto(roleArray);
-			return (roleArray);
+			roleArray = Arrays.copyOf(roleArray, size);
 		}
+		if (roleArray.length == 0) {
+			return (null);
+		}
+		return (roleArray);
 	}
 
 	/**
@@ -279,27 +295,86 @@ public class UserAdmin implements org.osgi.service.useradmin.UserAdmin {
 		if (key == null) {
 			return (null);
 		}
-		User user;
-		User foundUser = null;
-		Dictionary<String, Object> props;
-		String keyValue;
+		Map<String, User> index = userProperties.get(key);
+		if (index == null) {
+			index = indexUsers(key);
+		}
+		return (index.get(value)); // null if we found more than one match
+	}
+
+	private Map<String, User> indexUsers(String key) {
+		Map<String, User> index = new HashMap<>();
 		synchronized (this) {
+			long generation;
+			synchronized (userProperties) {
+				generation = propertyGeneration;
+			}
 			Enumeration<Role> e = users.elements();
 			while (e.hasMoreElements()) {
-				user = (User) e.nextElement();
-				props = user.getProperties();
-				keyValue = (String) props.get(key);
-				if (keyValue != null && keyValue.equals(value)) {
-					if (foundUser != null) {
-						return (null); // we found more than one match
-					}
-					foundUser = user;
+				User user = (User) e.nextElement();
+				Object keyValue = user.getProperties().get(key);
+				if (keyValue instanceof String) {
+					index.put((String) keyValue, index.containsKey(keyValue) ? null : user);
 				}
 			}
-			return (foundUser);
+			synchronized (userProperties) {
+				// do not publish an index that missed a property change
+				if (generation == propertyGeneration) {
+					userProperties.put(key, index);
+				}
+			}
+		}
+		return (index);
+	}
+
+	/**
+	 * Called after a property of a role changed.
+	 *
+	 * @param key The property key, or <code>null</code> if any property may have
+	 *            changed.
+	 */
+	protected void propertyChanged(String key) {
+		synchronized (userProperties) {
+			propertyGeneration++;
+			if (key == null) {
+				userProperties.clear();
+			} else {
+				userProperties.remove(key);
+			}
 		}
 	}
 
+	/**
+	 * Checks if a role is implied by a user. The result is remembered until a group
+	 * membership changes.
+	 *
+	 * @param role The role to check for.
+	 * @param user The user to check.
+	 *
+	 * @return <code>true</code> if the user implies the role, otherwise
+	 *         <code>false</code>.
+	 */
+	protected boolean isImpliedBy(Role role, Role user) {
+		Map<Role, Boolean> implied = impliedRoles.get(user);
+		Boolean result = (implied == null) ? null : implied.get(role);
+		if (result != null) {
+			return (result.booleanValue());
+		}
+		synchronized (this) {
+			// memberships only change while holding this lock
+			boolean isImplied = role.isImpliedBy(user, new Vector<>());
+			impliedRoles.computeIfAbsent(user, u -> new ConcurrentHashMap<>()).put(role, Boolean.valueOf(isImplied));
+			return (isImplied);
+		}
+	}
+
+	/**
+	 * Called after a group membership changed or a role was removed.
+	 */
+	protected void membershipChanged() {
+		impliedRoles = new ConcurrentHashMap<>();
+	}
+
 	/**
 	 * Creates an Authorization object that encapsulates the specified user and the
 	 * roles it possesses. The <code>null</code> user is interpreted as the
@@ -67,6 +67,9 @@ public class UserAdminHashtable extends Hashtable<String, Object> {
 			}
 		}
 		Object retVal = super.put(key, value);
+		if (propertyType == UserAdminHashtable.PROPERTIES) {
+			userAdmin.propertyChanged(key);
+		}
 		return retVal;
 	}
 
@@ -117,7 +120,11 @@ public class UserAdminHashtable extends Hashtable<String, Object> {
 			break;
 		}
 
-		return super.remove(name);
+		Object retVal = super.remove(name);
+		if (propertyType == PROPERTIES) {
+			userAdmin.propertyChanged(name);
+		}
+		return retVal;
 	}
 
 	@Override
@@ -157,6 +164,9 @@ public class UserAdminHashtable extends Hashtable<String, Object> {
 		}
 
 		super.clear();
+		if (propertyType == PROPERTIES) {
+			userAdmin.propertyChanged(null);
+		}
 	}
 
 	@Override
@@ -13,12 +13,14 @@
  *******************************************************************************/
 package org.eclipse.osgi.tests.classloader.hooks.a;
 
+import java.io.FileNotFoundException;
 import java.net.URL;
 import java.util.NoSuchElementException;
 import org.eclipse.osgi.container.Module;
 import org.eclipse.osgi.internal.hookregistry.ClassLoaderHook;
 import org.eclipse.osgi.internal.hookregistry.HookConfigurator;
 import org.eclipse.osgi.internal.hookregistry.HookRegistry;
+import org.eclipse.osgi.internal.loader.ModuleClassLoader;
 import org.eclipse.osgi.internal.loader.classpath.ClasspathEntry;
 import org.eclipse.osgi.internal.loader.classpath.ClasspathManager;
 import org.eclipse.osgi.storage.bundlefile.BundleEntry;
@@ -31,6 +33,9 @@ public class TestHookConfigurator implements HookConfigurator {
 	private static final String FILTER_CLASS_PATHS = "classloader.hooks.a.filter.class.paths";
 	private static final String PREVENT_RESOURCE_LOAD_PRE = "classloader.hooks.a.fail.resource.load.pre";
 	private static final String PREVENT_RESOURCE_LOAD_POST = "classloader.hooks.a.fail.resource.load.post";
+	private static final String FIND_HOOKED = "classloader.hooks.a.find.hooked";
+	private static final String HOOKED_CLASSNAME = "substitutes.x.Hooked";
+	private static final String HOOKED_RESOURCE = "substitutes/x/Hooked.class";
 	final ThreadLocal<Boolean> doingRecursionLoad = new ThreadLocal<>() {
 		@Override
 		protected Boolean initialValue() {
@@ -102,6 +107,22 @@ public class TestHookConfigurator implements HookConfigurator {
 					throw new NoSuchElementException();
 				}
 			}
+
+			@Override
+			public Class<?> preFindClass(String name, ModuleClassLoader classLoader) throws ClassNotFoundException {
+				if (Boolean.getBoolean(FIND_HOOKED) && HOOKED_CLASSNAME.equals(name)) {
+					return classLoader.loadClass("substitutes.x.Ax");
+				}
+				return null;
+			}
+
+			@Override
+			public URL preFindResource(String name, ModuleClassLoader classLoader) throws FileNotFoundException {
+				if (Boolean.getBoolean(FIND_HOOKED) && HOOKED_RESOURCE.equals(name)) {
+					return classLoader.getResource("substitutes/x/Ax.class");
+				}
+				return null;
+			}
 		});
 	}
 }
@@ -107,6 +107,20 @@ public class AddDynamicImportTests extends AbstractBundleTests {
 		});
 	}
 
+	@Test
+	public void testAddDynamicImportAfterCachedMiss() throws Exception {
+		ManifestElement[] packageImport = parseHeader(Constants.DYNAMICIMPORT_PACKAGE, "org.osgi.framework");
+		runTest(1, (a, b, threadPool) -> {
+			BundleLoader bl = ((ModuleClassLoader) a.adapt(BundleWiring.class).getClassLoader()).getBundleLoader();
+			long hits = bl.getClassMissCacheHits();
+			assertThrows(ClassNotFoundException.class, () -> a.loadClass("org.osgi.framework.Bundle"));
+			assertEquals("Wrong number of cached misses.", hits + 1, bl.getClassMissCacheHits());
+
+			bl.addDynamicImportPackage(packageImport);
+			assertEquals("Wrong class.", Bundle.class, a.loadClass("org.osgi.framework.Bundle"));
+		});
+	}
+
 	private void refresh(BundleLoader bl) {
 		Module module = bl.getWiring().getRevision().getRevisions().getModule();
 		module.getContainer().refresh(Collections.singletonList(module));
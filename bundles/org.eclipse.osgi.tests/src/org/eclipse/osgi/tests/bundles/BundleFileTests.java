@@ -0,0 +1,558 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.osgi.tests.bundles;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import org.eclipse.osgi.container.Module;
+import org.eclipse.osgi.internal.debug.Debug;
+import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
+import org.eclipse.osgi.launch.Equinox;
+import org.eclipse.osgi.service.debug.DebugOptions;
+import org.eclipse.osgi.storage.BundleInfo.Generation;
+import org.eclipse.osgi.storage.StorageUtil;
+import org.eclipse.osgi.storage.bundlefile.BundleEntry;
+import org.eclipse.osgi.storage.bundlefile.BundleFile;
+import org.eclipse.osgi.storage.bundlefile.MappedZipBundleFile;
+import org.eclipse.osgi.storage.bundlefile.ZipBundleFile;
+import org.eclipse.osgi.tests.OSGiTestsActivator;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.hooks.weaving.WeavingHook;
+
+public class BundleFileTests {
+	@Rule
+	public TestName testName = new TestName();
+
+	private Debug debug;
+	private File dataDir;
+
+	@Before
+	public void setUp() {
+		BundleContext context = OSGiTestsActivator.getContext();
+		ServiceReference<DebugOptions> ref = context.getServiceReference(DebugOptions.class);
+		debug = new Debug(context.getService(ref));
+		context.ungetService(ref);
+		dataDir = context.getDataFile(testName.getMethodName());
+		dataDir.mkdirs();
+	}
+
+	@Test
+	public void testDirectoryIndex() throws IOException {
+		// META-INF/, a/b/, a/b/c/ and g/ have no entry of their own
+		File zip = createZip("index.jar", //
+				"META-INF/MANIFEST.MF", //
+				"a/", //
+				"a/b/c/d.txt", //
+				"a/x.txt", //
+				"e.txt", //
+				"a/b/y.txt", //
+				"f/", //
+				"g/h/", //
+				"g/h/i.txt", //
+				"a/b/c/z.txt");
+		List<String> paths = getZipPaths(zip);
+		String[] dirs = { "", "/", "META-INF", "/META-INF/", "a", "a/", "/a/b", "a/b/c", "a/b/c/", "f", "g", "g/h",
+				"g/h/i.txt", "e.txt", "a/x", "b", "c/", "missing/" };
+
+		ZipBundleFile bundleFile = new ZipBundleFile(zip, null, null, debug, false);
+		try {
+			for (int i = 0; i < 2; i++) {
+				for (String dir : dirs) {
+					assertEquals("Wrong containsDir: " + dir, scanContainsDir(paths, dir), bundleFile.containsDir(dir));
+					assertEquals("Wrong entry paths: " + dir, scanEntryPaths(paths, dir, false),
+							toList(bundleFile.getEntryPaths(dir, false)));
+					assertEquals("Wrong recursive entry paths: " + dir, scanEntryPaths(paths, dir, true),
+							toList(bundleFile.getEntryPaths(dir, true)));
+				}
+				// the index is dropped on close and built again when reopened
+				bundleFile.close();
+			}
+		} finally {
+			bundleFile.close();
+		}
+	}
+
+	@Test
+	public void testDirectoryIndexContent() throws IOException {
+		File zip = createZip("content.jar", //
+				"a/b/c/d.txt", //
+				"a/x.txt", //
+				"a/b/y.txt", //
+				"a/b/c/z.txt");
+		ZipBundleFile bundleFile = new ZipBundleFile(zip, null, null, debug, false);
+		try {
+			assertEquals("Wrong root entry paths.", Collections.singletonList("a/"),
+					toList(bundleFile.getEntryPaths("", false)));
+			assertEquals("Wrong entry paths.", Arrays.asList("a/b/", "a/x.txt"),
+					toList(bundleFile.getEntryPaths("a", false)));
+			// recursive paths are in archive order
+			assertEquals("Wrong recursive entry paths.",
+					Arrays.asList("a/b/", "a/b/c/", "a/b/c/d.txt", "a/x.txt", "a/b/y.txt", "a/b/c/z.txt"),
+					toList(bundleFile.getEntryPaths("a", true)));
+			assertEquals("Wrong recursive entry paths.", Arrays.asList("a/b/c/d.txt", "a/b/c/z.txt"),
+					toList(bundleFile.getEntryPaths("a/b/c", true)));
+			assertNull("Found entry paths of a file.", bundleFile.getEntryPaths("a/x.txt", false));
+		} finally {
+			bundleFile.close();
+		}
+	}
+
+	@Test
+	public void testMappedContent() throws IOException {
+		File zip = new File(dataDir, "mapped.jar");
+		try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(zip))) {
+			putStoredEntry(zos, "stored/");
+			putStoredEntry(zos, "stored/a.txt");
+			zos.putNextEntry(new ZipEntry("deflated/b.txt"));
+			zos.write(getContent("deflated/b.txt"));
+			zos.closeEntry();
+			putStoredEntry(zos, "stored/c.txt");
+		}
+		MappedZipBundleFile bundleFile = new MappedZipBundleFile(zip, null, null, debug, false);
+		try {
+			for (int i = 0; i < 2; i++) {
+				assertMapped(bundleFile, "stored/a.txt");
+				assertMapped(bundleFile, "stored/c.txt");
+				// deflated content is read from the zip file
+				assertNotMapped(bundleFile, "deflated/b.txt");
+				assertNull("Found content of a directory.", bundleFile.getEntry("stored/").getByteBuffer());
+				// the mapping is released on close and mapped again when reopened
+				bundleFile.close();
+			}
+		} finally {
+			bundleFile.close();
+		}
+
+		ZipBundleFile zipBundleFile = new ZipBundleFile(zip, null, null, debug, false);
+		try {
+			assertNotMapped(zipBundleFile, "stored/a.txt");
+		} finally {
+			zipBundleFile.close();
+		}
+	}
+
+	@Test
+	public void testMappedDataDescriptor() throws IOException {
+		// stored entries with the sizes in a data descriptor after the content
+		File zip = createRawZip("descriptor.jar", true, false, "a.txt", "b/c.txt");
+		MappedZipBundleFile bundleFile = new MappedZipBundleFile(zip, null, null, debug, false);
+		try {
+			assertMapped(bundleFile, "a.txt");
+			assertMapped(bundleFile, "b/c.txt");
+		} finally {
+			bundleFile.close();
+		}
+	}
+
+	@Test
+	public void testMappedZip64() throws IOException {
+		// zip64 archives are read from the zip file
+		File zip = createRawZip("zip64.jar", false, true, "a.txt", "b/c.txt");
+		MappedZipBundleFile bundleFile = new MappedZipBundleFile(zip, null, null, debug, false);
+		try {
+			assertNotMapped(bundleFile, "a.txt");
+			assertNotMapped(bundleFile, "b/c.txt");
+		} finally {
+			bundleFile.close();
+		}
+	}
+
+	@Test
+	public void testMappedPrefixedArchive() throws IOException {
+		// the offsets of an archive with a prefix, e.g. a self extracting archive, are
+		// relative to the start of the archive; it is read from the zip file
+		File zip = createRawZip("prefix.jar", false, false, "a.txt");
+		byte[] content = Files.readAllBytes(zip.toPath());
+		byte[] prefixed = new byte[content.length + 100];
+		System.arraycopy(content, 0, prefixed, 100, content.length);
+		Files.write(zip.toPath(), prefixed);
+		MappedZipBundleFile bundleFile = new MappedZipBundleFile(zip, null, null, debug, false);
+		try {
+			assertNotMapped(bundleFile, "a.txt");
+		} finally {
+			bundleFile.close();
+		}
+	}
+
+	@Test
+	public void testMappedCorruptArchive() throws IOException {
+		File zip = createRawZip("corrupt.jar", false, false, "a.txt", "b.txt");
+		byte[] content = Files.readAllBytes(zip.toPath());
+
+		// a local header offset beyond the end of the archive
+		ByteBuffer buffer = ByteBuffer.wrap(content.clone()).order(ByteOrder.LITTLE_ENDIAN);
+		int end = content.length - 22;
+		int cenOffset = buffer.getInt(end + 16);
+		buffer.putInt(cenOffset + 42, 0x80000000);
+		Files.write(zip.toPath(), buffer.array());
+		MappedZipBundleFile bundleFile = new MappedZipBundleFile(zip, null, null, debug, false);
+		try {
+			BundleEntry entry = bundleFile.getEntry("a.txt");
+			assertNull("Found mapped content.", entry.getByteBuffer());
+			assertMapped(bundleFile, "b.txt");
+		} finally {
+			bundleFile.close();
+		}
+
+		// a truncated archive can not be opened
+		Files.write(zip.toPath(), Arrays.copyOf(content, content.length - 10));
+		bundleFile = new MappedZipBundleFile(zip, null, null, debug, false);
+		try {
+			assertNull("Found entry.", bundleFile.getEntry("a.txt"));
+		} finally {
+			bundleFile.close();
+		}
+	}
+
+	@Test
+	public void testDefineMappedClass() throws Exception {
+		Equinox equinox = new Equinox(getMappedConfiguration());
+		try {
+			equinox.start();
+			Bundle bundle = equinox.getBundleContext().installBundle(createMappedClassBundle().toURI().toString());
+			Generation generation = (Generation) bundle.adapt(Module.class).getCurrentRevision().getRevisionInfo();
+			assertNotNull("Class is not mapped.",
+					generation.getBundleFile().getEntry(MAPPED_CLASS_ENTRY).getByteBuffer());
+
+			Class<?> mappedClass = bundle.loadClass(MappedClass.class.getName());
+			assertNotSame("Wrong class.", MappedClass.class, mappedClass);
+			assertEquals("Wrong bundle.", bundle, FrameworkUtil.getBundle(mappedClass));
+			assertEquals("Wrong package.", MappedClass.class.getPackage().getName(),
+					mappedClass.getPackage().getName());
+			assertNotNull("No instance.", mappedClass.getConstructor().newInstance());
+		} finally {
+			equinox.stop();
+			equinox.waitForStop(10000);
+		}
+	}
+
+	@Test
+	public void testDefineMappedClassWoven() throws Exception {
+		List<String> woven = new CopyOnWriteArrayList<>();
+		Equinox equinox = new Equinox(getMappedConfiguration());
+		try {
+			equinox.start();
+			// a weaving hook needs the class bytes
+			equinox.getBundleContext().registerService(WeavingHook.class, c -> woven.add(c.getClassName()), null);
+			Bundle bundle = equinox.getBundleContext().installBundle(createMappedClassBundle().toURI().toString());
+
+			Class<?> mappedClass = bundle.loadClass(MappedClass.class.getName());
+			assertEquals("Wrong bundle.", bundle, FrameworkUtil.getBundle(mappedClass));
+			assertEquals("Class not woven.", Collections.singletonList(MappedClass.class.getName()), woven);
+		} finally {
+			equinox.stop();
+			equinox.waitForStop(10000);
+		}
+	}
+
+	public static class MappedClass {
+		public MappedClass() {
+			// nothing
+		}
+	}
+
+	private static final String MAPPED_CLASS_ENTRY = MappedClass.class.getName().replace('.', '/') + ".class";
+
+	private Map<String, Object> getMappedConfiguration() {
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(Constants.FRAMEWORK_STORAGE, new File(dataDir, "storage").getAbsolutePath());
+		configuration.put(EquinoxConfiguration.PROP_BUNDLE_FILE_MAP, "true");
+		return configuration;
+	}
+
+	private File createMappedClassBundle() throws IOException {
+		byte[] classBytes;
+		try (InputStream in = MappedClass.class.getResourceAsStream("/" + MAPPED_CLASS_ENTRY)) {
+			classBytes = StorageUtil.getBytes(in, -1, 4096);
+		}
+		Manifest manifest = new Manifest();
+		manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+		manifest.getMainAttributes().putValue(Constants.BUNDLE_MANIFESTVERSION, "2");
+		manifest.getMainAttributes().putValue(Constants.BUNDLE_SYMBOLICNAME, "mapped.classes");
+		File file = new File(dataDir, "mapped.classes.jar");
+		try (JarOutputStream jos = new JarOutputStream(new FileOutputStream(file), manifest)) {
+			ZipEntry entry = new ZipEntry(MAPPED_CLASS_ENTRY);
+			entry.setMethod(ZipEntry.STORED);
+			entry.setSize(classBytes.length);
+			CRC32 crc = new CRC32();
+			crc.update(classBytes);
+			entry.setCrc(crc.getValue());
+			jos.putNextEntry(entry);
+			jos.write(classBytes);
+			jos.closeEntry();
+		}
+		return file;
+	}
+
+	private static void assertMapped(BundleFile bundleFile, String path) throws IOException {
+		BundleEntry entry = bundleFile.getEntry(path);
+		ByteBuffer buffer = entry.getByteBuffer();
+		assertNotNull("No mapped content: " + path, buffer);
+		assertTrue("Mapped content is writable: " + path, buffer.isReadOnly());
+		byte[] content = new byte[buffer.remaining()];
+		buffer.get(content);
+		assertArrayEquals("Wrong mapped content: " + path, getContent(path), content);
+		assertArrayEquals("Wrong content: " + path, getContent(path), entry.getBytes());
+		assertArrayEquals("Wrong stream content: " + path, getContent(path),
+				StorageUtil.getBytes(entry.getInputStream(), -1, 4096));
+	}
+
+	private static void assertNotMapped(BundleFile bundleFile, String path) throws IOException {
+		BundleEntry entry = bundleFile.getEntry(path);
+		assertNull("Found mapped content: " + path, entry.getByteBuffer());
+		assertArrayEquals("Wrong content: " + path, getContent(path), entry.getBytes());
+	}
+
+	private static byte[] getContent(String path) {
+		return ("content of " + path).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static void putStoredEntry(ZipOutputStream zos, String path) throws IOException {
+		byte[] content = path.endsWith("/") ? new byte[0] : getContent(path);
+		ZipEntry entry = new ZipEntry(path);
+		entry.setMethod(ZipEntry.STORED);
+		entry.setSize(content.length);
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		entry.setCrc(crc.getValue());
+		zos.putNextEntry(entry);
+		zos.write(content);
+		zos.closeEntry();
+	}
+
+	/*
+	 * Writes a zip file with stored entries. ZipOutputStream neither writes data
+	 * descriptors for stored entries nor zip64 records for small archives.
+	 */
+	private File createRawZip(String name, boolean dataDescriptor, boolean zip64, String... paths)
+			throws IOException {
+		ByteArrayOutputStream local = new ByteArrayOutputStream();
+		ByteArrayOutputStream central = new ByteArrayOutputStream();
+		int flags = dataDescriptor ? 0x08 : 0;
+		for (String path : paths) {
+			byte[] nameBytes = path.getBytes(StandardCharsets.UTF_8);
+			byte[] content = getContent(path);
+			CRC32 crc = new CRC32();
+			crc.update(content);
+			int offset = local.size();
+
+			writeInt(local, 0x04034b50);
+			writeShort(local, 20);
+			writeShort(local, flags);
+			writeShort(local, ZipEntry.STORED);
+			writeInt(local, 0); // time and date
+			writeInt(local, dataDescriptor ? 0 : (int) crc.getValue());
+			writeInt(local, dataDescriptor ? 0 : content.length);
+			writeInt(local, dataDescriptor ? 0 : content.length);
+			writeShort(local, nameBytes.length);
+			writeShort(local, 0);
+			local.write(nameBytes);
+			local.write(content);
+			if (dataDescriptor) {
+				writeInt(local, 0x08074b50);
+				writeInt(local, (int) crc.getValue());
+				writeInt(local, content.length);
+				writeInt(local, content.length);
+			}
+
+			writeInt(central, 0x02014b50);
+			writeShort(central, 20);
+			writeShort(central, 20);
+			writeShort(central, flags);
+			writeShort(central, ZipEntry.STORED);
+			writeInt(central, 0); // time and date
+			writeInt(central, (int) crc.getValue());
+			writeInt(central, content.length);
+			writeInt(central, content.length);
+			writeShort(central, nameBytes.length);
+			writeShort(central, 0); // extra
+			writeShort(central, 0); // comment
+			writeShort(central, 0); // disk
+			writeShort(central, 0); // internal attributes
+			writeInt(central, 0); // external attributes
+			writeInt(central, offset);
+			central.write(nameBytes);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(local.toByteArray());
+		int cenOffset = out.size();
+		out.write(central.toByteArray());
+		int cenSize = central.size();
+		if (zip64) {
+			int zip64End = out.size();
+			writeInt(out, 0x06064b50);
+			writeLong(out, 44);
+			writeShort(out, 45);
+			writeShort(out, 45);
+			writeInt(out, 0);
+			writeInt(out, 0);
+			writeLong(out, paths.length);
+			writeLong(out, paths.length);
+			writeLong(out, cenSize);
+			writeLong(out, cenOffset);
+			// locator
+			writeInt(out, 0x07064b50);
+			writeInt(out, 0);
+			writeLong(out, zip64End);
+			writeInt(out, 1);
+		}
+		writeInt(out, 0x06054b50);
+		writeShort(out, 0);
+		writeShort(out, 0);
+		writeShort(out, zip64 ? 0xFFFF : paths.length);
+		writeShort(out, zip64 ? 0xFFFF : paths.length);
+		writeInt(out, zip64 ? 0xFFFFFFFF : cenSize);
+		writeInt(out, zip64 ? 0xFFFFFFFF : cenOffset);
+		writeShort(out, 0);
+
+		File file = new File(dataDir, name);
+		Files.write(file.toPath(), out.toByteArray());
+		return file;
+	}
+
+	private static void writeShort(ByteArrayOutputStream out, int value) {
+		out.write(value);
+		out.write(value >>> 8);
+	}
+
+	private static void writeInt(ByteArrayOutputStream out, int value) {
+		writeShort(out, value);
+		writeShort(out, value >>> 16);
+	}
+
+	private static void writeLong(ByteArrayOutputStream out, long value) {
+		writeInt(out, (int) value);
+		writeInt(out, (int) (value >>> 32));
+	}
+
+	private File createZip(String name, String... entries) throws IOException {
+		File file = new File(dataDir, name);
+		try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(file))) {
+			for (String entry : entries) {
+				zos.putNextEntry(new ZipEntry(entry));
+				if (!entry.endsWith("/")) {
+					zos.write(entry.getBytes(StandardCharsets.UTF_8));
+				}
+				zos.closeEntry();
+			}
+		}
+		return file;
+	}
+
+	private static List<String> getZipPaths(File file) throws IOException {
+		List<String> result = new ArrayList<>();
+		try (ZipFile zipFile = new ZipFile(file)) {
+			for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements();) {
+				result.add(entries.nextElement().getName());
+			}
+		}
+		return result;
+	}
+
+	private static List<String> toList(Enumeration<String> paths) {
+		return paths == null ? null : Collections.list(paths);
+	}
+
+	/*
+	 * The scan of all paths done by CloseableBundleFile.containsDir before the
+	 * directory index.
+	 */
+	private static boolean scanContainsDir(List<String> paths, String dir) {
+		if (dir.length() == 0)
+			return true;
+		if (dir.charAt(0) == '/') {
+			if (dir.length() == 1)
+				return true;
+			dir = dir.substring(1);
+		}
+		if (dir.length() > 0 && dir.charAt(dir.length() - 1) != '/')
+			dir = dir + '/';
+		for (String entry : paths) {
+			if (entry.startsWith(dir)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/*
+	 * The scan of all paths done by CloseableBundleFile.getEntryPaths before the
+	 * directory index.
+	 */
+	private static List<String> scanEntryPaths(List<String> paths, String path, boolean recurse) {
+		if (path.length() > 0 && path.charAt(0) == '/')
+			path = path.substring(1);
+		if (path.length() > 0 && path.charAt(path.length() - 1) != '/')
+			path = path + '/';
+		LinkedHashSet<String> result = new LinkedHashSet<>();
+		for (String entryPath : paths) {
+			if (entryPath.startsWith(path) && path.length() < entryPath.length()) {
+				scanEntryPaths(path, entryPath.substring(path.length()), recurse, result);
+			}
+		}
+		return result.isEmpty() ? null : new ArrayList<>(result);
+	}
+
+	private static void scanEntryPaths(String path, String entry, boolean recurse, LinkedHashSet<String> entries) {
+		if (entry.length() == 0)
+			return;
+		int slash = entry.indexOf('/');
+		if (slash == -1)
+			entries.add(path + entry);
+		else {
+			path = path + entry.substring(0, slash + 1);
+			entries.add(path);
+			if (recurse)
+				scanEntryPaths(path, entry.substring(slash + 1), true, entries);
+		}
+	}
+}
@@ -32,6 +32,7 @@ import org.junit.runners.Suite;
 		BundleInstallUpdateTests.class, //
 		SystemBundleTests.class, //
 		BundleExceptionTests.class, //
+		BundleFileTests.class, //
 		SubstituteExportsBundleTests.class, //
 		PackageAdminBundleTests.class, //
 		ExtensionBundleTests.class, //
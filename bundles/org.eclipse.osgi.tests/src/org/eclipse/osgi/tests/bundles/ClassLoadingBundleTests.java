@@ -1820,6 +1820,121 @@ public class ClassLoadingBundleTests extends AbstractBundleTests {
 		global.loadClass("org.osgi.framework.Bundle");
 	}
 
+	@Test
+	public void testBuddyClassLoadingDependentSplitPackage() throws Exception {
+		File config = OSGiTestsActivator.getContext().getDataFile(getName());
+		config.mkdirs();
+		Map<String, String> hostHeaders = new HashMap<>();
+		hostHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		hostHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName() + ".host");
+		hostHeaders.put(Constants.EXPORT_PACKAGE, "buddy.split.host");
+		hostHeaders.put("Eclipse-BuddyPolicy", "dependent");
+		File hostFile = SystemBundleTests.createBundle(config, getName() + ".host", hostHeaders,
+				Collections.singletonMap("buddy/split/host/", null));
+
+		Map<String, String> dependentHeaders = new HashMap<>();
+		dependentHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		dependentHeaders.put(Constants.IMPORT_PACKAGE, "buddy.split.host");
+		dependentHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName() + ".dependent1");
+		File dependent1File = SystemBundleTests.createBundle(config, getName() + ".dependent1", dependentHeaders,
+				Collections.singletonMap("buddy/split/b.txt", "dependent1"));
+		dependentHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName() + ".dependent2");
+		Map<String, String> dependent2Content = new HashMap<>();
+		dependent2Content.put("buddy/split/a.txt", "dependent2");
+		dependent2Content.put("buddy/split/b.txt", "dependent2");
+		File dependent2File = SystemBundleTests.createBundle(config, getName() + ".dependent2", dependentHeaders,
+				dependent2Content);
+
+		FrameworkWiring frameworkWiring = getContext().getBundle(Constants.SYSTEM_BUNDLE_LOCATION)
+				.adapt(FrameworkWiring.class);
+		Bundle host = getContext().installBundle(hostFile.toURI().toString());
+		Bundle dependent1 = null;
+		Bundle dependent2 = null;
+		try {
+			assertTrue("Host not resolved.", frameworkWiring.resolveBundles(Collections.singleton(host)));
+			// resolve the dependents one at a time so dependent1 is searched first
+			dependent1 = getContext().installBundle(dependent1File.toURI().toString());
+			assertTrue("Dependent not resolved.", frameworkWiring.resolveBundles(Collections.singleton(dependent1)));
+			dependent2 = getContext().installBundle(dependent2File.toURI().toString());
+			assertTrue("Dependent not resolved.", frameworkWiring.resolveBundles(Collections.singleton(dependent2)));
+
+			assertEquals("Wrong a.txt", "dependent2", readURL(host.getResource("buddy/split/a.txt")));
+			// dependent2 provided a resource from the same package but dependent1 is first
+			assertEquals("Wrong b.txt", "dependent1", readURL(host.getResource("buddy/split/b.txt")));
+			assertEquals("Wrong b.txt", "dependent1", readURL(host.getResource("buddy/split/b.txt")));
+			assertEquals("Wrong a.txt", "dependent2", readURL(host.getResource("buddy/split/a.txt")));
+		} finally {
+			host.uninstall();
+			if (dependent1 != null) {
+				dependent1.uninstall();
+			}
+			if (dependent2 != null) {
+				dependent2.uninstall();
+			}
+			refreshBundles(null);
+		}
+	}
+
+	@Test
+	public void testBuddyClassLoadingGlobalResolveEvents() throws Exception {
+		File config = OSGiTestsActivator.getContext().getDataFile(getName());
+		config.mkdirs();
+		Map<String, String> globalHeaders = new HashMap<>();
+		globalHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		globalHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName() + ".global");
+		globalHeaders.put("Eclipse-BuddyPolicy", "global");
+		File globalFile = SystemBundleTests.createBundle(config, getName() + ".global", globalHeaders);
+
+		Map<String, String> exporterHeaders = new HashMap<>();
+		exporterHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		exporterHeaders.put(Constants.EXPORT_PACKAGE, "buddy.global.exported");
+		exporterHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName() + ".exporter1");
+		File exporter1File = SystemBundleTests.createBundle(config, getName() + ".exporter1", exporterHeaders,
+				Collections.singletonMap("buddy/global/exported/test.txt", "exporter1"));
+		exporterHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName() + ".exporter2");
+		File exporter2File = SystemBundleTests.createBundle(config, getName() + ".exporter2", exporterHeaders,
+				Collections.singletonMap("buddy/global/exported/test.txt", "exporter2"));
+
+		FrameworkWiring frameworkWiring = getContext().getBundle(Constants.SYSTEM_BUNDLE_LOCATION)
+				.adapt(FrameworkWiring.class);
+		Bundle global = getContext().installBundle(globalFile.toURI().toString());
+		Bundle exporter1 = null;
+		Bundle exporter2 = null;
+		try {
+			assertTrue("Global not resolved.", frameworkWiring.resolveBundles(Collections.singleton(global)));
+			// caches that the package has no exporter
+			assertNull("Found resource.", global.getResource("buddy/global/exported/test.txt"));
+
+			// the RESOLVED event discards the cached exporters
+			exporter1 = getContext().installBundle(exporter1File.toURI().toString());
+			assertTrue("Exporter not resolved.", frameworkWiring.resolveBundles(Collections.singleton(exporter1)));
+			URL resource = global.getResource("buddy/global/exported/test.txt");
+			assertNotNull("Missing resource.", resource);
+			assertEquals("Wrong resource.", "exporter1", readURL(resource));
+
+			// the UNRESOLVED event discards the cached exporters
+			exporter1.uninstall();
+			refreshBundles(Collections.singleton(exporter1));
+			exporter1 = null;
+			assertNull("Found resource.", global.getResource("buddy/global/exported/test.txt"));
+
+			exporter2 = getContext().installBundle(exporter2File.toURI().toString());
+			assertTrue("Exporter not resolved.", frameworkWiring.resolveBundles(Collections.singleton(exporter2)));
+			resource = global.getResource("buddy/global/exported/test.txt");
+			assertNotNull("Missing resource.", resource);
+			assertEquals("Wrong resource.", "exporter2", readURL(resource));
+		} finally {
+			global.uninstall();
+			if (exporter1 != null) {
+				exporter1.uninstall();
+			}
+			if (exporter2 != null) {
+				exporter2.uninstall();
+			}
+			refreshBundles(null);
+		}
+	}
+
 	@Test
 	public void testUnitTestForcompoundEnumerations() {
 		Enumeration<Object> result = BundleLoader.compoundEnumerations(null, Collections.emptyEnumeration());
@@ -18,10 +18,15 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.Hashtable;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import junit.framework.AssertionFailedError;
 import org.eclipse.core.internal.runtime.RuntimeLog;
 import org.eclipse.core.runtime.ILog;
@@ -34,8 +39,12 @@ import org.eclipse.equinox.log.ExtendedLogReaderService;
 import org.eclipse.equinox.log.ExtendedLogService;
 import org.eclipse.equinox.log.LogFilter;
 import org.eclipse.equinox.log.Logger;
+import org.eclipse.osgi.container.Module;
 import org.eclipse.osgi.framework.log.FrameworkLog;
 import org.eclipse.osgi.framework.log.FrameworkLogEntry;
+import org.eclipse.osgi.internal.log.EquinoxLogServices;
+import org.eclipse.osgi.launch.Equinox;
+import org.eclipse.osgi.storage.BundleInfo.Generation;
 import org.junit.Test;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
@@ -474,4 +483,191 @@ public class LoggingTests extends AbstractBundleTests {
 			Platform.removeLogListener(recurseLog);
 		}
 	}
+
+	@Test
+	public void testAsyncLogOverflowBlock() throws Exception {
+		BlockingWriter writer = new BlockingWriter();
+		Equinox equinox = startAsyncLog("block", writer);
+		try {
+			EquinoxLogServices logServices = getLogServices(equinox);
+			FrameworkLog fwkLog = getFrameworkLog(equinox);
+			fwkLog.log(newEntry("first"));
+			assertTrue("The drainer did not write.", writer.blocked.await(5, TimeUnit.SECONDS));
+			// the queue holds one entry
+			fwkLog.log(newEntry("second"));
+			Thread blockedLogger = new Thread(() -> fwkLog.log(newEntry("third")));
+			blockedLogger.start();
+			blockedLogger.join(500);
+			assertTrue("The logging thread did not block.", blockedLogger.isAlive());
+
+			writer.release.countDown();
+			blockedLogger.join(5000);
+			assertFalse("The logging thread is still blocked.", blockedLogger.isAlive());
+			stop(equinox);
+			assertEquals("Wrong dropped count.", 0, logServices.getDroppedLogEntryCount());
+			assertLogged(writer, "first", "second", "third");
+			assertFalse("Unexpected dropped warning.", writer.toString().contains("were dropped"));
+		} finally {
+			writer.release.countDown();
+			stopQuietly(equinox);
+		}
+		assertNoDrainer();
+	}
+
+	@Test
+	public void testAsyncLogOverflowDrop() throws Exception {
+		BlockingWriter writer = new BlockingWriter();
+		Equinox equinox = startAsyncLog("drop", writer);
+		try {
+			EquinoxLogServices logServices = getLogServices(equinox);
+			fillAsyncLog(getFrameworkLog(equinox), writer);
+			assertEquals("Wrong dropped count.", 2, logServices.getDroppedLogEntryCount());
+
+			writer.release.countDown();
+			stop(equinox);
+			assertLogged(writer, "first", "second");
+			assertNotLogged(writer, "third", "fourth");
+			assertFalse("Unexpected dropped warning.", writer.toString().contains("were dropped"));
+		} finally {
+			writer.release.countDown();
+			stopQuietly(equinox);
+		}
+		assertNoDrainer();
+	}
+
+	@Test
+	public void testAsyncLogOverflowCount() throws Exception {
+		BlockingWriter writer = new BlockingWriter();
+		Equinox equinox = startAsyncLog("count", writer);
+		try {
+			EquinoxLogServices logServices = getLogServices(equinox);
+			fillAsyncLog(getFrameworkLog(equinox), writer);
+			assertEquals("Wrong dropped count.", 2, logServices.getDroppedLogEntryCount());
+
+			writer.release.countDown();
+			stop(equinox);
+			assertLogged(writer, "first", "second");
+			assertNotLogged(writer, "third", "fourth");
+			assertTrue("Missing dropped warning: " + writer,
+					writer.toString().contains("2 log entries were dropped because the log queue was full."));
+		} finally {
+			writer.release.countDown();
+			stopQuietly(equinox);
+		}
+		assertNoDrainer();
+	}
+
+	@Test
+	public void testAsyncLogStop() throws Exception {
+		BlockingWriter writer = new BlockingWriter();
+		writer.release.countDown();
+		Equinox equinox = startAsyncLog("block", writer);
+		try {
+			FrameworkLog fwkLog = getFrameworkLog(equinox);
+			for (int i = 0; i < 10; i++) {
+				fwkLog.log(newEntry("entry" + i));
+			}
+			stop(equinox);
+			assertNoDrainer();
+			for (int i = 0; i < 10; i++) {
+				assertLogged(writer, "entry" + i);
+			}
+		} finally {
+			stopQuietly(equinox);
+		}
+		assertNoDrainer();
+	}
+
+	/*
+	 * Logs an entry which blocks the drainer while it is written, then one entry
+	 * which fills the queue and two entries which overflow it.
+	 */
+	private void fillAsyncLog(FrameworkLog fwkLog, BlockingWriter writer) throws InterruptedException {
+		fwkLog.log(newEntry("first"));
+		assertTrue("The drainer did not write.", writer.blocked.await(5, TimeUnit.SECONDS));
+		fwkLog.log(newEntry("second"));
+		fwkLog.log(newEntry("third"));
+		fwkLog.log(newEntry("fourth"));
+	}
+
+	private Equinox startAsyncLog(String overflow, Writer writer) throws BundleException {
+		Map<String, Object> configuration = createConfiguration();
+		configuration.put("eclipse.log.async", "true");
+		configuration.put("eclipse.log.async.queue.size", "1");
+		configuration.put("eclipse.log.async.overflow", overflow);
+		Equinox equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		getFrameworkLog(equinox).setWriter(writer, true);
+		return equinox;
+	}
+
+	private FrameworkLog getFrameworkLog(Equinox equinox) {
+		BundleContext bc = equinox.getBundleContext();
+		return bc.getService(bc.getServiceReference(FrameworkLog.class));
+	}
+
+	private EquinoxLogServices getLogServices(Equinox equinox) {
+		Generation generation = (Generation) equinox.adapt(Module.class).getCurrentRevision().getRevisionInfo();
+		return generation.getBundleInfo().getStorage().getLogServices();
+	}
+
+	private FrameworkLogEntry newEntry(String message) {
+		return new FrameworkLogEntry(getName(), FrameworkLogEntry.ERROR, 0, message, 0, null, null);
+	}
+
+	private void assertLogged(BlockingWriter writer, String... messages) {
+		String content = writer.toString();
+		for (String message : messages) {
+			assertTrue("Missing entry " + message + ": " + content, content.contains("!MESSAGE " + message));
+		}
+	}
+
+	private void assertNotLogged(BlockingWriter writer, String... messages) {
+		String content = writer.toString();
+		for (String message : messages) {
+			assertFalse("Unexpected entry " + message + ": " + content, content.contains("!MESSAGE " + message));
+		}
+	}
+
+	private void assertNoDrainer() {
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			assertFalse("The drainer is still running: " + thread,
+					thread.isAlive() && thread.getName().startsWith("Equinox Log Writer: "));
+		}
+	}
+
+	/*
+	 * Blocks the first write until it is released
+	 */
+	static class BlockingWriter extends Writer {
+		final CountDownLatch blocked = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		private final StringBuffer content = new StringBuffer();
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			blocked.countDown();
+			try {
+				release.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			content.append(cbuf, off, len);
+		}
+
+		@Override
+		public void flush() {
+			// nothing
+		}
+
+		@Override
+		public void close() {
+			// keep the content
+		}
+
+		@Override
+		public String toString() {
+			return content.toString();
+		}
+	}
 }
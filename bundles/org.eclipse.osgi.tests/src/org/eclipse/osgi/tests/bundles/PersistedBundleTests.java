@@ -13,12 +13,32 @@
  *******************************************************************************/
 package org.eclipse.osgi.tests.bundles;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
 import org.eclipse.osgi.launch.Equinox;
+import org.eclipse.osgi.storage.Storage;
 import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.Version;
+import org.osgi.framework.namespace.PackageNamespace;
+import org.osgi.framework.startlevel.BundleStartLevel;
+import org.osgi.framework.wiring.BundleWire;
+import org.osgi.framework.wiring.BundleWiring;
+import org.osgi.framework.wiring.FrameworkWiring;
 
 /*
  * The framework must persist data according to the value of the
@@ -140,4 +160,245 @@ public class PersistedBundleTests extends AbstractBundleTests {
 		}
 	}
 
+	/*
+	 * Test that start level changes are saved to the journal of framework.info and
+	 * replayed on restart.
+	 */
+	@Test
+	public void testJournaledStartLevels() throws Exception {
+		final int numBundles = 10;
+		Map<String, Object> configuration = createConfiguration();
+		configuration.put(ECLIPSE_STATESAVEDELAYINTERVAL, IMMEDIATE_PERSISTENCE);
+		installBundles(configuration, numBundles);
+		setStartLevels(configuration, numBundles, 2);
+		assertTrue("Start levels were not journaled", readJournal(configuration).length > 0);
+		assertStartLevels(configuration, numBundles, 2);
+	}
+
+	/*
+	 * Test that installs, updates and uninstalls of bundles and the wirings are
+	 * saved to the journal of framework.info and replayed on restart.
+	 */
+	@Test
+	public void testJournaledInstallUpdate() throws Exception {
+		Map<String, Object> configuration = createConfiguration();
+		configuration.put(ECLIPSE_STATESAVEDELAYINTERVAL, IMMEDIATE_PERSISTENCE);
+		File bundlesDir = new File((String) configuration.get(Constants.FRAMEWORK_STORAGE), "bundles");
+		bundlesDir.mkdirs();
+		Map<String, String> providerHeaders = new HashMap<>();
+		providerHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		providerHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName() + ".provider");
+		providerHeaders.put(Constants.BUNDLE_VERSION, "1.0.0");
+		providerHeaders.put(Constants.EXPORT_PACKAGE, "provider");
+		Map<String, String> consumerHeaders = new HashMap<>();
+		consumerHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		consumerHeaders.put(Constants.BUNDLE_SYMBOLICNAME, getName() + ".consumer");
+		consumerHeaders.put(Constants.IMPORT_PACKAGE, "provider");
+
+		Equinox equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			BundleContext context = equinox.getBundleContext();
+			Bundle provider = context.installBundle("provider",
+					new FileInputStream(SystemBundleTests.createBundle(bundlesDir, "provider", providerHeaders)));
+			Bundle consumer = context.installBundle("consumer",
+					new FileInputStream(SystemBundleTests.createBundle(bundlesDir, "consumer", consumerHeaders)));
+			context.installBundle("uninstalled", new BundleBuilder().symbolicName(getName() + ".uninstalled").build())
+					.uninstall();
+			providerHeaders.put(Constants.BUNDLE_VERSION, "2.0.0");
+			provider.update(new FileInputStream(SystemBundleTests.createBundle(bundlesDir, "provider", providerHeaders)));
+			provider.adapt(BundleStartLevel.class).setStartLevel(3);
+			assertTrue("Bundles are not resolved",
+					equinox.adapt(FrameworkWiring.class).resolveBundles(Arrays.asList(provider, consumer)));
+		} finally {
+			stop(equinox);
+		}
+		assertTrue("Changes were not journaled", readJournal(configuration).length > 0);
+
+		equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			BundleContext context = equinox.getBundleContext();
+			Bundle provider = context.getBundle("provider");
+			assertNotNull("Provider does not exist", provider);
+			assertEquals("Wrong version", Version.valueOf("2.0.0"), provider.getVersion());
+			assertEquals("Wrong start level", 3, provider.adapt(BundleStartLevel.class).getStartLevel());
+			assertNull("Uninstalled bundle exists", context.getBundle("uninstalled"));
+			Bundle consumer = context.getBundle("consumer");
+			assertNotNull("Consumer does not exist", consumer);
+			BundleWiring wiring = consumer.adapt(BundleWiring.class);
+			assertNotNull("Consumer is not resolved", wiring);
+			List<BundleWire> wires = wiring.getRequiredWires(PackageNamespace.PACKAGE_NAMESPACE);
+			assertEquals("Wrong number of wires", 1, wires.size());
+			assertEquals("Wrong provider", provider, wires.get(0).getProvider().getBundle());
+		} finally {
+			stop(equinox);
+		}
+
+		// the bundles only got saved to the journal
+		assertTrue("Journal not deleted", getJournalFile(configuration).delete());
+		equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			assertNull("Provider exists", equinox.getBundleContext().getBundle("provider"));
+			assertNull("Consumer exists", equinox.getBundleContext().getBundle("consumer"));
+		} finally {
+			stop(equinox);
+		}
+	}
+
+	/*
+	 * Test that the journal of framework.info is compacted into framework.info once
+	 * it grows over equinox.storage.journal.size.
+	 */
+	@Test
+	public void testJournalCompaction() throws Exception {
+		final int numBundles = 10;
+		final int journalSize = 128;
+		Map<String, Object> configuration = createConfiguration();
+		configuration.put(ECLIPSE_STATESAVEDELAYINTERVAL, IMMEDIATE_PERSISTENCE);
+		configuration.put(EquinoxConfiguration.PROP_STORAGE_JOURNAL_SIZE, Integer.toString(journalSize));
+		installBundles(configuration, numBundles);
+		// the settings of all the bundles do not fit into the journal
+		setStartLevels(configuration, numBundles, 2);
+		byte[] journal = readJournal(configuration);
+		assertTrue("Journal was not compacted: " + journal.length, journal.length < journalSize);
+		assertStartLevels(configuration, numBundles, 2);
+
+		// journal on top of the compacted framework.info
+		setStartLevels(configuration, 1, 20);
+		Equinox equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			assertEquals("Wrong start level", 20, getStartLevel(equinox, 0));
+			for (int i = 1; i < numBundles; i++) {
+				assertEquals("Wrong start level", i + 2, getStartLevel(equinox, i));
+			}
+		} finally {
+			stop(equinox);
+		}
+	}
+
+	/*
+	 * Test that an incomplete record of the journal and a journal of another
+	 * framework.info are discarded.
+	 */
+	@Test
+	public void testDiscardedJournal() throws Exception {
+		final int numBundles = 10;
+		Map<String, Object> configuration = createConfiguration();
+		configuration.put(ECLIPSE_STATESAVEDELAYINTERVAL, IMMEDIATE_PERSISTENCE);
+		installBundles(configuration, numBundles);
+		setStartLevels(configuration, numBundles, 2);
+		byte[] journal = readJournal(configuration);
+		assertTrue("Start levels were not journaled", journal.length > 0);
+
+		// the records before an incomplete record are replayed
+		writeJournal(configuration, Arrays.copyOf(journal, journal.length - 1));
+		Equinox equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			for (int i = 0; i < numBundles - 1; i++) {
+				assertEquals("Wrong start level", i + 2, getStartLevel(equinox, i));
+			}
+			assertEquals("Wrong start level", 1, getStartLevel(equinox, numBundles - 1));
+		} finally {
+			stop(equinox);
+		}
+
+		// the complete journal is replayed
+		writeJournal(configuration, journal);
+		// compact the journal into a new framework.info on shutdown
+		configuration.put(EquinoxConfiguration.PROP_STORAGE_JOURNAL_SIZE, "1");
+		equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			for (int i = 0; i < numBundles; i++) {
+				assertEquals("Wrong start level", i + 2, getStartLevel(equinox, i));
+			}
+			equinox.getBundleContext().getBundle(getName() + 0).adapt(BundleStartLevel.class).setStartLevel(20);
+			equinox.getBundleContext().installBundle(getName() + "new",
+					new BundleBuilder().symbolicName(getName() + "new").build());
+		} finally {
+			stop(equinox);
+		}
+
+		// the journal of the previous framework.info is discarded
+		assertEquals("Journal was not compacted", 0, readJournal(configuration).length);
+		configuration.remove(EquinoxConfiguration.PROP_STORAGE_JOURNAL_SIZE);
+		writeJournal(configuration, journal);
+		equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			assertEquals("Wrong start level", 20, getStartLevel(equinox, 0));
+			for (int i = 1; i < numBundles; i++) {
+				assertEquals("Wrong start level", i + 2, getStartLevel(equinox, i));
+			}
+		} finally {
+			stop(equinox);
+		}
+	}
+
+	private void installBundles(Map<String, Object> configuration, int numBundles) throws Exception {
+		Equinox equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			for (int i = 0; i < numBundles; i++) {
+				equinox.getBundleContext().installBundle(getName() + i,
+						new BundleBuilder().symbolicName(getName() + i).build());
+			}
+		} finally {
+			stop(equinox);
+		}
+	}
+
+	private void setStartLevels(Map<String, Object> configuration, int numBundles, int startLevel)
+			throws Exception {
+		Equinox equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			for (int i = 0; i < numBundles; i++) {
+				equinox.getBundleContext().getBundle(getName() + i).adapt(BundleStartLevel.class)
+						.setStartLevel(startLevel + i);
+			}
+		} finally {
+			stop(equinox);
+		}
+	}
+
+	private void assertStartLevels(Map<String, Object> configuration, int numBundles, int startLevel)
+			throws Exception {
+		Equinox equinox = new Equinox(configuration);
+		initAndStart(equinox);
+		try {
+			for (int i = 0; i < numBundles; i++) {
+				assertEquals("Wrong start level", startLevel + i, getStartLevel(equinox, i));
+			}
+		} finally {
+			stop(equinox);
+		}
+	}
+
+	private int getStartLevel(Equinox equinox, int index) {
+		Bundle bundle = equinox.getBundleContext().getBundle(getName() + index);
+		assertNotNull("Bundle does not exist", bundle);
+		return bundle.adapt(BundleStartLevel.class).getStartLevel();
+	}
+
+	private static File getFrameworkInfoDir(Map<String, Object> configuration) {
+		return new File((String) configuration.get(Constants.FRAMEWORK_STORAGE), "org.eclipse.osgi"); //$NON-NLS-1$
+	}
+
+	private static File getJournalFile(Map<String, Object> configuration) {
+		return new File(getFrameworkInfoDir(configuration), Storage.FRAMEWORK_INFO_JOURNAL);
+	}
+
+	private static byte[] readJournal(Map<String, Object> configuration) throws IOException {
+		File journal = getJournalFile(configuration);
+		return journal.isFile() ? Files.readAllBytes(journal.toPath()) : new byte[0];
+	}
+
+	private static void writeJournal(Map<String, Object> configuration, byte[] content) throws IOException {
+		Files.write(getJournalFile(configuration).toPath(), content);
+	}
 }
@@ -3331,6 +3331,76 @@ public class SystemBundleTests extends AbstractBundleTests {
 		stop(equinox);
 	}
 
+	@Test
+	public void testManifestLocalizationCache() throws Exception {
+		File config = OSGiTestsActivator.getContext().getDataFile(getName());
+		config.mkdirs();
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(Constants.FRAMEWORK_STORAGE, config.getAbsolutePath());
+		configuration.put(EquinoxConfiguration.PROP_MANIFEST_LOCALIZATION_CACHE, "true");
+
+		Map<String, String> hostHeaders = new HashMap<>();
+		hostHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		hostHeaders.put(Constants.BUNDLE_SYMBOLICNAME, "l10n.host");
+		hostHeaders.put(Constants.BUNDLE_NAME, "%name");
+		hostHeaders.put(Constants.BUNDLE_VENDOR, "vendor");
+		Map<String, String> hostEntries = new HashMap<>();
+		hostEntries.put("OSGI-INF/l10n/bundle.properties", "name=Default");
+		hostEntries.put("OSGI-INF/l10n/bundle_fr.properties", "name=Nom");
+		File hostFile = createBundle(config, "l10n.host", hostHeaders, hostEntries);
+
+		Equinox equinox = new Equinox(configuration);
+		equinox.start();
+		BundleContext systemContext = equinox.getBundleContext();
+		Bundle host = systemContext.installBundle(hostFile.toURI().toString());
+		assertEquals("Wrong name.", "Nom", host.getHeaders("fr").get(Constants.BUNDLE_NAME));
+		assertEquals("Wrong vendor.", "vendor", host.getHeaders("fr").get(Constants.BUNDLE_VENDOR));
+		File persisted = new File(config, "org.eclipse.osgi/" + host.getBundleId() + "/0/.l10n/fr.headers");
+		assertTrue("Missing persisted headers: " + persisted, persisted.isFile());
+		stop(equinox);
+
+		// the persisted headers are used after a restart
+		equinox = new Equinox(configuration);
+		equinox.start();
+		systemContext = equinox.getBundleContext();
+		host = systemContext.getBundle(host.getBundleId());
+		assertEquals("Wrong name.", "Nom", host.getHeaders("fr").get(Constants.BUNDLE_NAME));
+		assertEquals("Wrong vendor.", "vendor", host.getHeaders("fr").get(Constants.BUNDLE_VENDOR));
+		assertEquals("Wrong name.", "Default", host.getHeaders("de").get(Constants.BUNDLE_NAME));
+		stop(equinox);
+
+		// attaching a fragment invalidates the persisted headers
+		equinox = new Equinox(configuration);
+		equinox.start();
+		systemContext = equinox.getBundleContext();
+		host = systemContext.getBundle(host.getBundleId());
+		Map<String, String> fragmentHeaders = new HashMap<>();
+		fragmentHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		fragmentHeaders.put(Constants.BUNDLE_SYMBOLICNAME, "l10n.fragment");
+		fragmentHeaders.put(Constants.FRAGMENT_HOST, "l10n.host");
+		Map<String, String> fragmentEntries = new HashMap<>();
+		fragmentEntries.put("OSGI-INF/l10n/bundle_de.properties", "name=Name");
+		File fragmentFile = createBundle(config, "l10n.fragment", fragmentHeaders, fragmentEntries);
+		Bundle fragment = systemContext.installBundle(fragmentFile.toURI().toString());
+		assertTrue("Could not resolve bundles.",
+				equinox.adapt(FrameworkWiring.class).resolveBundles(Arrays.asList(host, fragment)));
+		assertEquals("Wrong name.", "Name", host.getHeaders("de").get(Constants.BUNDLE_NAME));
+		stop(equinox);
+
+		equinox = new Equinox(configuration);
+		equinox.start();
+		systemContext = equinox.getBundleContext();
+		host = systemContext.getBundle(host.getBundleId());
+		assertEquals("Wrong name.", "Name", host.getHeaders("de").get(Constants.BUNDLE_NAME));
+
+		// an update localizes the headers of the new content
+		hostEntries.put("OSGI-INF/l10n/bundle_fr.properties", "name=Nouveau");
+		hostFile = createBundle(config, "l10n.host", hostHeaders, hostEntries);
+		host.update(new FileInputStream(hostFile));
+		assertEquals("Wrong name.", "Nouveau", host.getHeaders("fr").get(Constants.BUNDLE_NAME));
+		stop(equinox);
+	}
+
 	@Test
 	public void testGetBundleAfterShutdown() throws BundleException {
 		File config = OSGiTestsActivator.getContext().getDataFile(getName());
@@ -3355,4 +3425,79 @@ public class SystemBundleTests extends AbstractBundleTests {
 		assertEquals("Unexpected bundle count", 0, testContext.getBundles().length);
 	}
 
+	@Test
+	public void testResolutionCacheWithResolverHook() throws Exception {
+		File config = OSGiTestsActivator.getContext().getDataFile(getName());
+		config.mkdirs();
+		Map<String, String> exporterHeaders = new HashMap<>();
+		exporterHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		exporterHeaders.put(Constants.BUNDLE_SYMBOLICNAME, "exporter");
+		exporterHeaders.put(Constants.EXPORT_PACKAGE, "exporter");
+		File exporterFile = createBundle(config, "exporter", exporterHeaders);
+		Map<String, String> importerHeaders = new HashMap<>();
+		importerHeaders.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+		importerHeaders.put(Constants.BUNDLE_SYMBOLICNAME, "importer");
+		importerHeaders.put(Constants.IMPORT_PACKAGE, "exporter");
+		File importerFile = createBundle(config, "importer", importerHeaders);
+
+		Map<String, Object> configuration = new HashMap<>();
+		configuration.put(EquinoxConfiguration.PROP_RESOLVER_CACHE,
+				new File(config, "resolution.cache").getAbsolutePath());
+
+		// resolve without hooks to populate the cache
+		configuration.put(Constants.FRAMEWORK_STORAGE, new File(config, "storage1").getAbsolutePath());
+		Equinox equinox = new Equinox(configuration);
+		equinox.start();
+		try {
+			BundleContext systemContext = equinox.getBundleContext();
+			systemContext.installBundle(exporterFile.toURI().toString());
+			Bundle importer = systemContext.installBundle(importerFile.toURI().toString());
+			assertTrue("Could not resolve importer.",
+					equinox.adapt(FrameworkWiring.class).resolveBundles(Collections.singleton(importer)));
+		} finally {
+			stop(equinox);
+		}
+
+		// the same modules with a hook that hides the export must not use the cached
+		// result
+		configuration.put(Constants.FRAMEWORK_STORAGE, new File(config, "storage2").getAbsolutePath());
+		equinox = new Equinox(configuration);
+		equinox.start();
+		try {
+			BundleContext systemContext = equinox.getBundleContext();
+			AtomicInteger filterMatchesCalls = new AtomicInteger();
+			systemContext.registerService(ResolverHookFactory.class, triggers -> new ResolverHook() {
+				@Override
+				public void filterResolvable(Collection<BundleRevision> candidates) {
+					// nothing
+				}
+
+				@Override
+				public void filterSingletonCollisions(BundleCapability singleton,
+						Collection<BundleCapability> collisionCandidates) {
+					// nothing
+				}
+
+				@Override
+				public void filterMatches(BundleRequirement requirement, Collection<BundleCapability> candidates) {
+					filterMatchesCalls.incrementAndGet();
+					if (PackageNamespace.PACKAGE_NAMESPACE.equals(requirement.getNamespace())) {
+						candidates.clear();
+					}
+				}
+
+				@Override
+				public void end() {
+					// nothing
+				}
+			}, null);
+			systemContext.installBundle(exporterFile.toURI().toString());
+			Bundle importer = systemContext.installBundle(importerFile.toURI().toString());
+			assertFalse("Importer resolved from the cache.",
+					equinox.adapt(FrameworkWiring.class).resolveBundles(Collections.singleton(importer)));
+			assertTrue("Resolver hook not called.", filterMatchesCalls.get() > 0);
+		} finally {
+			stop(equinox);
+		}
+	}
 }
@@ -26,6 +26,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.net.URL;
@@ -2095,6 +2096,123 @@ public class TestModuleContainer extends AbstractTest {
 		System.gc();
 	}
 
+	@Test
+	public void testUsesParallelPermutations() throws BundleException {
+		Map<String, String> sequential = resolveUsesPermutations(Collections.emptyMap(), null);
+
+		Map<String, String> configuration = new HashMap<>();
+		configuration.put(EquinoxConfiguration.PROP_RESOLVER_PARALLEL_PERMUTATIONS, "true");
+		configuration.put(EquinoxConfiguration.PROP_EQUINOX_RESOLVER_THREAD_COUNT, "4");
+		ExecutorService executor = new ThreadPoolExecutor(0, 4, 5, TimeUnit.SECONDS, new SynchronousQueue<>(),
+				r -> {
+					Thread t = new Thread(r, "Resolver thread - UNIT TEST"); //$NON-NLS-1$
+					t.setDaemon(true);
+					return t;
+				}, (r, exe) -> r.run());
+		try {
+			Map<String, String> parallel = resolveUsesPermutations(configuration, executor);
+			assertEquals("Parallel permutations resolved differently.", sequential, parallel);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private Map<String, String> resolveUsesPermutations(Map<String, String> configuration, ExecutorService executor)
+			throws BundleException {
+		DummyContainerAdaptor adaptor = new DummyContainerAdaptor(new DummyCollisionHook(false), configuration);
+		if (executor != null) {
+			adaptor.setResolverExecutor(executor);
+		}
+		ModuleContainer container = adaptor.getContainer();
+		for (int i = 1; i <= 20; i++) {
+			for (Map<String, String> manifest : getUsesTimeoutManifests("test" + i)) {
+				installDummyModule(manifest, manifest.get(Constants.BUNDLE_SYMBOLICNAME), container);
+			}
+		}
+		ResolutionReport report = container.resolve(container.getModules(), true);
+		assertNull("Found resolution errors.", report.getResolutionException());
+		return getPackageWires(container);
+	}
+
+	private Map<String, String> getPackageWires(ModuleContainer container) {
+		Map<String, String> wires = new TreeMap<>();
+		for (Module module : container.getModules()) {
+			assertEquals("Wrong state of module: " + module, State.RESOLVED, module.getState());
+			ModuleWiring wiring = module.getCurrentRevision().getWiring();
+			List<String> providers = new ArrayList<>();
+			for (ModuleWire wire : wiring.getRequiredModuleWires(PackageNamespace.PACKAGE_NAMESPACE)) {
+				providers.add(wire.getCapability().getAttributes().get(PackageNamespace.PACKAGE_NAMESPACE) + "->"
+						+ wire.getProvider().getSymbolicName());
+			}
+			Collections.sort(providers);
+			wires.put(module.getCurrentRevision().getSymbolicName(), providers.toString());
+		}
+		return wires;
+	}
+
+	@Test
+	public void testResolutionCache() throws BundleException, IOException {
+		File cacheFile = File.createTempFile("resolution", ".cache");
+		assertTrue("Could not delete cache file.", cacheFile.delete());
+		Map<String, String> configuration = new HashMap<>();
+		configuration.put(EquinoxConfiguration.PROP_RESOLVER_CACHE, cacheFile.getAbsolutePath());
+		AtomicInteger filterMatchesCalls = new AtomicInteger();
+		ResolverHook hook = new ResolverHook() {
+			@Override
+			public void filterResolvable(Collection<BundleRevision> candidates) {
+				// nothing
+			}
+
+			@Override
+			public void filterSingletonCollisions(BundleCapability singleton,
+					Collection<BundleCapability> collisionCandidates) {
+				// nothing
+			}
+
+			@Override
+			public void filterMatches(BundleRequirement requirement, Collection<BundleCapability> candidates) {
+				filterMatchesCalls.incrementAndGet();
+			}
+
+			@Override
+			public void end() {
+				// nothing
+			}
+		};
+		try {
+			Map<String, String> resolved = resolveWithCache(configuration, hook);
+			assertTrue("No cache file written.", cacheFile.isFile());
+			assertNotEquals("Resolver did not call the hook.", 0, filterMatchesCalls.getAndSet(0));
+
+			// a new container with the same modules uses the cached result
+			Map<String, String> cached = resolveWithCache(configuration, hook);
+			assertEquals("Cached resolution is different.", resolved, cached);
+			assertEquals("Resolver called the hook.", 0, filterMatchesCalls.get());
+		} finally {
+			cacheFile.delete();
+		}
+	}
+
+	private Map<String, String> resolveWithCache(Map<String, String> configuration, ResolverHook hook)
+			throws BundleException {
+		DummyContainerAdaptor adaptor = new DummyContainerAdaptor(new DummyCollisionHook(false), configuration,
+				new DummyResolverHookFactory(hook)) {
+			@Override
+			public String getResolverHookKey(ResolverHook resolverHook) {
+				return "test"; //$NON-NLS-1$
+			}
+		};
+		ModuleContainer container = adaptor.getContainer();
+		for (int i = 1; i <= 5; i++) {
+			for (Map<String, String> manifest : getUsesTimeoutManifests("test" + i)) {
+				installDummyModule(manifest, manifest.get(Constants.BUNDLE_SYMBOLICNAME), container);
+			}
+		}
+		ResolutionReport report = container.resolve(container.getModules(), true);
+		assertNull("Found resolution errors.", report.getResolutionException());
+		return getPackageWires(container);
+	}
+
 	private List<Map<String, String>> getUsesTimeoutManifests(String prefix) {
 		List<Map<String, String>> result = new ArrayList<>();
 		// x1 bundle
@@ -2840,6 +2958,78 @@ public class TestModuleContainer extends AbstractTest {
 		assertEquals("Wrong requirer attrs", attrs, requirerAttrs);
 	}
 
+	@Test
+	public void testPersistDelta() throws BundleException, IOException {
+		DummyContainerAdaptor adaptor = createDummyAdaptor();
+		ModuleContainer container = adaptor.getContainer();
+
+		Module systemBundle = installDummyModule("system.bundle.MF", Constants.SYSTEM_BUNDLE_LOCATION, container);
+		container.resolve(Arrays.asList(systemBundle), true);
+		Module c1 = installDummyModule("c1_v1.MF", "c1_v1", container);
+		Module c2 = installDummyModule("c2_v1.MF", "c2_v1", container);
+		container.resolve(Arrays.asList(c1, c2), true);
+
+		ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+		adaptor.getDatabase().store(new DataOutputStream(snapshot), true);
+		long snapshotTimestamp = adaptor.getDatabase().getTimestamp();
+
+		// a delta of settings
+		c1.setStartLevel(5);
+		c2.setParallelActivation(true);
+		container.getFrameworkStartLevel().setInitialBundleStartLevel(3);
+		ByteArrayOutputStream settingsDelta = new ByteArrayOutputStream();
+		adaptor.getDatabase().storeDelta(new DataOutputStream(settingsDelta), snapshotTimestamp);
+		long settingsTimestamp = adaptor.getDatabase().getTimestamp();
+
+		// a delta of installs, updates, uninstalls and wirings
+		Module b1 = installDummyModule("b1_v1.MF", "b1", container);
+		Module c3 = installDummyModule("c3_v1.MF", "c3_v1", container);
+		container.update(b1, OSGiManifestBuilderFactory.createBuilder(getManifest("b1_v2.MF")), null);
+		container.uninstall(c2);
+		container.refresh(Arrays.asList(c2));
+		container.resolve(Arrays.asList(b1, c3), true);
+		ByteArrayOutputStream moduleDelta = new ByteArrayOutputStream();
+		adaptor.getDatabase().storeDelta(new DataOutputStream(moduleDelta), settingsTimestamp);
+
+		// reload the snapshot into a new container and apply the deltas in order
+		DummyContainerAdaptor reloaded = createDummyAdaptor();
+		reloaded.getDatabase().load(new DataInputStream(new ByteArrayInputStream(snapshot.toByteArray())));
+		assertFalse("Delta applied out of order.", reloaded.getDatabase()
+				.loadDelta(new DataInputStream(new ByteArrayInputStream(moduleDelta.toByteArray()))));
+		assertTrue("Delta not applied.", reloaded.getDatabase()
+				.loadDelta(new DataInputStream(new ByteArrayInputStream(settingsDelta.toByteArray()))));
+		assertFalse("Delta applied twice.", reloaded.getDatabase()
+				.loadDelta(new DataInputStream(new ByteArrayInputStream(settingsDelta.toByteArray()))));
+
+		ModuleContainer reloadedContainer = reloaded.getContainer();
+		assertEquals("Wrong startlevel.", 5, reloadedContainer.getModule("c1_v1").getStartLevel());
+		assertTrue("Not parallel activated.", reloadedContainer.getModule("c2_v1").isParallelActivated());
+		assertEquals("Wrong initial startlevel.", 3,
+				reloadedContainer.getFrameworkStartLevel().getInitialBundleStartLevel());
+
+		assertTrue("Delta not applied.", reloaded.getDatabase()
+				.loadDelta(new DataInputStream(new ByteArrayInputStream(moduleDelta.toByteArray()))));
+		assertNull("Uninstalled module exists.", reloadedContainer.getModule("c2_v1"));
+		Module reloadedB1 = reloadedContainer.getModule("b1");
+		assertNotNull("Installed module does not exist.", reloadedB1);
+		assertEquals("Wrong id.", b1.getId(), reloadedB1.getId());
+		assertEquals("Wrong version.", Version.valueOf("2.0.0"), reloadedB1.getCurrentRevision().getVersion());
+		assertEquals("Wrong state.", State.RESOLVED, reloadedB1.getState());
+
+		Module reloadedC1 = reloadedContainer.getModule("c1_v1");
+		ModuleWiring c3Wiring = reloadedContainer.getModule("c3_v1").getCurrentRevision().getWiring();
+		assertNotNull("Wiring not loaded.", c3Wiring);
+		List<ModuleWire> c3Wires = c3Wiring.getRequiredModuleWires(BundleNamespace.BUNDLE_NAMESPACE);
+		assertEquals("Wrong number of wires.", 1, c3Wires.size());
+		assertEquals("Wrong provider.", reloadedC1.getCurrentRevision(), c3Wires.get(0).getProvider());
+		assertEquals("Wrong provided wires.",
+				c1.getCurrentRevision().getWiring().getProvidedModuleWires(null).size(),
+				reloadedC1.getCurrentRevision().getWiring().getProvidedModuleWires(null).size());
+		assertEquals("Wrong timestamp.", adaptor.getDatabase().getTimestamp(), reloaded.getDatabase().getTimestamp());
+		assertEquals("Wrong revisions timestamp.", adaptor.getDatabase().getRevisionsTimestamp(),
+				reloaded.getDatabase().getRevisionsTimestamp());
+	}
+
 	@Test
 	public void testInvalidAttributes() throws IOException, BundleException {
 		DummyContainerAdaptor adaptor = createDummyAdaptor();
@@ -16,6 +16,8 @@ package org.eclipse.osgi.tests.filter;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
@@ -29,6 +31,7 @@ import java.util.Hashtable;
 import java.util.List;
 import java.util.Objects;
 import org.eclipse.osgi.framework.util.CaseInsensitiveDictionaryMap;
+import org.eclipse.osgi.internal.framework.FilterCache;
 import org.eclipse.osgi.tests.OSGiTestsActivator;
 import org.eclipse.osgi.tests.util.MapDictionary;
 import org.junit.Test;
@@ -362,6 +365,105 @@ public class FilterTests {
 				bundleContextFilter.getClass().equals(frameworkUtilFilter.getClass()));
 	}
 
+	@Test
+	public void testOperandConvertedForEachType() throws InvalidSyntaxException {
+		Filter f = createFilter("(number=1)");
+		// the same filter is evaluated against different value types
+		for (int i = 0; i < 2; i++) {
+			assertTrue(f.match(numberProps(Long.valueOf(1))));
+			assertTrue(f.match(numberProps(Double.valueOf(1))));
+			assertTrue(f.match(numberProps(Float.valueOf(1))));
+			assertTrue(f.match(numberProps(new BigInteger("1"))));
+			assertTrue(f.match(numberProps(new SampleComparable("1"))));
+			assertTrue(f.match(numberProps("1")));
+			assertFalse(f.match(numberProps(Long.valueOf(2))));
+		}
+		Filter invalid = createFilter("(number=one)");
+		// a failed conversion must consistently not match
+		for (int i = 0; i < 2; i++) {
+			assertFalse(invalid.match(numberProps(Long.valueOf(1))));
+			assertFalse(invalid.match(numberProps(Double.valueOf(1))));
+			assertTrue(invalid.match(numberProps("one")));
+		}
+	}
+
+	private static Dictionary<String, Object> numberProps(Object number) {
+		Dictionary<String, Object> props = new Hashtable<>();
+		props.put("number", number);
+		return props;
+	}
+
+	@Test
+	public void testCaseInsensitiveDictionaryMatch() throws InvalidSyntaxException {
+		Filter f = createFilter("(&(Room=bedroom)(service.pid=*))");
+		Dictionary<String, Object> props = new CaseInsensitiveDictionaryMap<>();
+		props.put("room", "bedroom");
+		props.put("SERVICE.PID", "pid");
+		assertTrue(f.match(props));
+		props.put("room", "kitchen");
+		assertFalse(f.match(props));
+	}
+
+	// Equinox specific test to make sure parsed filters are shared through the
+	// filter cache
+	@Test
+	public void testFilterCache() throws InvalidSyntaxException {
+		String filterString = "(&(objectClass=" + name + ")(cached.filter=" + System.nanoTime() + "))";
+		assertSame("Filter not cached", createFilter(filterString), createFilter(filterString));
+
+		// use a private cache; the cache of the VM is used concurrently
+		FilterCache cache = new FilterCache(FilterCache.DEFAULT_MAX_MEMORY);
+		Filter f1 = cache.get(filterString);
+		assertEquals("Wrong number of misses", 1, cache.getMisses());
+		Filter f2 = cache.get(filterString);
+		assertSame("Filter not cached", f1, f2);
+		assertEquals("Wrong number of hits", 1, cache.getHits());
+		assertEquals("Wrong cache size", 1, cache.getSize());
+
+		// invalid filters are never cached
+		assertThrows(InvalidSyntaxException.class, () -> cache.get("(cached.filter=invalid"));
+		assertThrows(InvalidSyntaxException.class, () -> cache.get("(cached.filter=invalid"));
+		assertEquals("Wrong number of misses", 3, cache.getMisses());
+		assertEquals("Wrong cache size", 1, cache.getSize());
+
+		cache.setMaxMemory(0);
+		assertEquals("Cache not cleared", 0, cache.getSize());
+		assertEquals("Cache memory not released", 0, cache.getMemory());
+		Filter f3 = cache.get(filterString);
+		assertNotSame("Filter should not be cached", f1, f3);
+		assertEquals("Wrong filter", f1, f3);
+		assertEquals("Cache should be empty", 0, cache.getSize());
+	}
+
+	// Equinox specific test to make sure the filter cache evicts the least
+	// recently used filters once its memory limit is reached
+	@Test
+	public void testFilterCacheEviction() throws InvalidSyntaxException {
+		FilterCache cache = new FilterCache(FilterCache.DEFAULT_MAX_MEMORY);
+		// filters of the same length have the same estimated memory
+		String prefix = "(cached.filter=" + name + "-";
+		Filter a = cache.get(prefix + "a)");
+		long filterMemory = cache.getMemory();
+		cache.setMaxMemory(4 * filterMemory);
+		Filter b = cache.get(prefix + "b)");
+		Filter c = cache.get(prefix + "c)");
+		Filter d = cache.get(prefix + "d)");
+		assertEquals("Wrong cache size", 4, cache.getSize());
+		assertEquals("Wrong cache memory", 4 * filterMemory, cache.getMemory());
+
+		// use a so that b is the least recently used filter
+		assertSame("Filter not cached", a, cache.get(prefix + "a)"));
+		Filter e = cache.get(prefix + "e)");
+		// evicts down to three quarters of the limit
+		assertEquals("Wrong number of evictions", 2, cache.getEvictions());
+		assertEquals("Wrong cache memory", 3 * filterMemory, cache.getMemory());
+		assertSame("Recently used filter evicted", a, cache.get(prefix + "a)"));
+		assertSame("Recently used filter evicted", d, cache.get(prefix + "d)"));
+		assertSame("Recently used filter evicted", e, cache.get(prefix + "e)"));
+		assertNotSame("Least recently used filter not evicted", c, cache.get(prefix + "c)"));
+		assertNotSame("Least recently used filter not evicted", b, cache.get(prefix + "b)"));
+	}
+
 	private static class SampleComparable implements Comparable<SampleComparable> {
 		private int value = -1;
 
@@ -52,6 +52,9 @@ public class ClassLoaderHookTests extends AbstractFrameworkHookTests {
 	private static final String FILTER_CLASS_PATHS = "classloader.hooks.a.filter.class.paths";
 	private static final String PREVENT_RESOURCE_LOAD_PRE = "classloader.hooks.a.fail.resource.load.pre";
 	private static final String PREVENT_RESOURCE_LOAD_POST = "classloader.hooks.a.fail.resource.load.post";
+	private static final String FIND_HOOKED = "classloader.hooks.a.find.hooked";
+	private static final String HOOKED_CLASSNAME = "substitutes.x.Hooked";
+	private static final String HOOKED_RESOURCE = "substitutes/x/Hooked.class";
 
 	private Map<String, String> configuration;
 	private Framework framework;
@@ -67,6 +70,7 @@ public class ClassLoaderHookTests extends AbstractFrameworkHookTests {
 		setFilterClassPaths(false);
 		setPreventResourceLoadPre(false);
 		setPreventResourceLoadPost(false);
+		setFindHooked(false);
 		String loc = bundleInstaller.getBundleLocation(HOOK_CONFIGURATOR_BUNDLE);
 		loc = loc.substring(loc.indexOf("file:"));
 		classLoader.addURL(new URL(loc));
@@ -120,6 +124,10 @@ public class ClassLoaderHookTests extends AbstractFrameworkHookTests {
 		System.setProperty(PREVENT_RESOURCE_LOAD_POST, Boolean.toString(value));
 	}
 
+	private void setFindHooked(boolean value) {
+		System.setProperty(FIND_HOOKED, Boolean.toString(value));
+	}
+
 	@Test
 	public void testRejectTransformationFromWeavingHook() throws Exception {
 		setRejectTransformation(true);
@@ -231,4 +239,22 @@ public class ClassLoaderHookTests extends AbstractFrameworkHookTests {
 		resource = b.getResource(TEST_CLASSNAME_RESOURCE);
 		assertNull("Could find resource.", resource);
 	}
+
+	@Test
+	public void testFindHookAfterMiss() throws Exception {
+		initAndStartFramework();
+		Bundle b = installBundle();
+		try {
+			b.loadClass(HOOKED_CLASSNAME);
+			fail("Expected a ClassNotFoundException.");
+		} catch (ClassNotFoundException e) {
+			// expected
+		}
+		assertNull("Could find resource.", b.getResource(HOOKED_RESOURCE));
+
+		// the misses must not be cached because a hook may find them later
+		setFindHooked(true);
+		assertEquals("Wrong class.", TEST_CLASSNAME, b.loadClass(HOOKED_CLASSNAME).getName());
+		assertNotNull("Could not find resource.", b.getResource(HOOKED_RESOURCE));
+	}
 }
@@ -31,6 +31,7 @@ import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import org.eclipse.osgi.tests.OSGiTestsActivator;
 import org.eclipse.osgi.tests.bundles.AbstractBundleTests;
@@ -672,6 +673,67 @@ public class ServiceRegistryTests extends AbstractBundleTests {
 		}
 	}
 
+	@Test
+	public void testServiceListenerObjectClassIndex() throws InvalidSyntaxException {
+		final String TEST_KEY = "test.key";
+		BundleContext bc = OSGiTestsActivator.getContext();
+		final AtomicInteger runnableEvents = new AtomicInteger();
+		final AtomicInteger callableEvents = new AtomicInteger();
+		final AtomicInteger unindexedEvents = new AtomicInteger();
+		final AtomicInteger orEvents = new AtomicInteger();
+		ServiceListener runnableListener = event -> runnableEvents.incrementAndGet();
+		ServiceListener callableListener = event -> callableEvents.incrementAndGet();
+		ServiceListener unindexedListener = event -> unindexedEvents.incrementAndGet();
+		ServiceListener orListener = event -> orEvents.incrementAndGet();
+		bc.addServiceListener(runnableListener,
+				"(&(objectClass=" + Runnable.class.getName() + ")(" + TEST_KEY + "=*))");
+		bc.addServiceListener(callableListener, "(objectClass=" + Callable.class.getName() + ")");
+		bc.addServiceListener(unindexedListener, "(" + TEST_KEY + "=*)");
+		bc.addServiceListener(orListener, "(|(objectClass=" + Runnable.class.getName() + ")(objectClass="
+				+ Callable.class.getName() + "))");
+		Collection<ServiceRegistration<?>> registrations = new ArrayList<>();
+		try {
+			registerFilteredService(bc, registrations, new TestObjectClassOptimizationService(),
+					Collections.singletonMap(TEST_KEY, Boolean.TRUE), Runnable.class);
+			assertEquals("Wrong runnable events", 1, runnableEvents.get());
+			assertEquals("Wrong callable events", 0, callableEvents.get());
+			assertEquals("Wrong unindexed events", 1, unindexedEvents.get());
+			assertEquals("Wrong or events", 1, orEvents.get());
+
+			registerFilteredService(bc, registrations, new TestObjectClassOptimizationService(),
+					Collections.<String, Object>emptyMap(), Callable.class);
+			assertEquals("Wrong runnable events", 1, runnableEvents.get());
+			assertEquals("Wrong callable events", 1, callableEvents.get());
+			assertEquals("Wrong unindexed events", 1, unindexedEvents.get());
+			assertEquals("Wrong or events", 2, orEvents.get());
+
+			// a service with both classes must reach both indexed listeners exactly once
+			registerFilteredService(bc, registrations, new TestObjectClassOptimizationService(),
+					Collections.singletonMap(TEST_KEY, Boolean.TRUE), Runnable.class, Callable.class);
+			assertEquals("Wrong runnable events", 2, runnableEvents.get());
+			assertEquals("Wrong callable events", 2, callableEvents.get());
+			assertEquals("Wrong unindexed events", 2, unindexedEvents.get());
+			assertEquals("Wrong or events", 3, orEvents.get());
+
+			// replacing a listener moves it to the new bucket
+			bc.addServiceListener(callableListener, "(objectClass=" + Runnable.class.getName() + ")");
+			registerFilteredService(bc, registrations, new TestObjectClassOptimizationService(),
+					Collections.<String, Object>emptyMap(), Callable.class);
+			assertEquals("Wrong callable events", 2, callableEvents.get());
+			registerFilteredService(bc, registrations, new TestObjectClassOptimizationService(),
+					Collections.<String, Object>emptyMap(), Runnable.class);
+			assertEquals("Wrong callable events", 3, callableEvents.get());
+		} finally {
+			bc.removeServiceListener(runnableListener);
+			bc.removeServiceListener(callableListener);
+			bc.removeServiceListener(unindexedListener);
+			bc.removeServiceListener(orListener);
+			for (ServiceRegistration<?> registration : registrations) {
+				registration.unregister();
+			}
+		}
+	}
+
 	private void validateFoundServices(BundleContext bc, String filter, ServiceRegistration<?>... expectedRegs)
 			throws InvalidSyntaxException {
 		ServiceReference<?>[] foundArray = bc.getServiceReferences((String) null, filter);
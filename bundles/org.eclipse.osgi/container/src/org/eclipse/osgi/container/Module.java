@@ -290,6 +290,11 @@ public abstract class Module implements BundleReference, BundleStartLevel, Compa
 		this.startlevel = newStartLevel;
 	}
 
+	final void storeSettings(EnumSet<Settings> newSettings) {
+		settings.retainAll(newSettings);
+		settings.addAll(newSettings);
+	}
+
 	/**
 	 * Returns the time when this module was last modified. A module is considered
 	 * to be modified when it is installed, updated or uninstalled.
@@ -21,6 +21,7 @@ import org.eclipse.osgi.container.Module.Settings;
 import org.eclipse.osgi.service.debug.DebugOptions;
 import org.osgi.framework.Constants;
 import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.hooks.resolver.ResolverHook;
 import org.osgi.framework.hooks.resolver.ResolverHookFactory;
 import org.osgi.framework.startlevel.FrameworkStartLevel;
 
@@ -164,6 +165,25 @@ public abstract class ModuleContainerAdaptor {
 	 */
 	public abstract ResolverHookFactory getResolverHookFactory();
 
+	/**
+	 * Returns a key which identifies the decisions the specified resolver hook
+	 * makes. Two hooks with the same key must make the same decisions when given
+	 * the same input. The key allows the container to reuse a cached resolution
+	 * result instead of calling the resolver and the hook again.
+	 * <p>
+	 * The default implementation returns {@code null} which indicates that the
+	 * decisions of the hook are not known and resolution results must not be
+	 * cached.
+	 * 
+	 * @param hook the resolver hook returned by the {@link #getResolverHookFactory()
+	 *             resolver hook factory} for a resolve operation
+	 * @return the key for the hook or {@code null}
+	 * @since 3.22
+	 */
+	public String getResolverHookKey(ResolverHook hook) {
+		return null;
+	}
+
 	/**
 	 * Publishes the specified container event. No locks are held by the container
 	 * when this method is called
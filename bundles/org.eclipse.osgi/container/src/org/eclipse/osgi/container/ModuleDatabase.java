@@ -133,6 +133,23 @@ public class ModuleDatabase {
 	 */
 	final Map<Long, EnumSet<Settings>> moduleSettings;
 
+	/**
+	 * The {@link #allTimeStamp timestamp} of the last start level or settings
+	 * change keyed by module id.
+	 */
+	private final Map<Long, Long> settingsTimestamps;
+
+	/**
+	 * The {@link #allTimeStamp timestamp} of the last install, update or uninstall
+	 * keyed by module id.
+	 */
+	private final Map<Long, Long> moduleTimestamps;
+
+	/**
+	 * The {@link #allTimeStamp timestamp} of the last change to the wirings.
+	 */
+	private long wiringsTimestamp;
+
 	/**
 	 * The initial module start level.
 	 */
@@ -176,6 +193,9 @@ public class ModuleDatabase {
 		this.revisionsTimeStamp = new AtomicLong(constructionTime);
 		this.allTimeStamp = new AtomicLong(constructionTime);
 		this.moduleSettings = new HashMap<>();
+		this.settingsTimestamps = new HashMap<>();
+		this.moduleTimestamps = new HashMap<>();
+		this.wiringsTimestamp = constructionTime;
 		this.capabilities = new Capabilities();
 	}
 
@@ -243,6 +263,8 @@ public class ModuleDatabase {
 			long currentTime = System.currentTimeMillis();
 			module.setlastModified(currentTime);
 			setSystemLastModified(currentTime);
+			// record the change first; incrementing the timestamps may save the database
+			moduleTimestamps.put(id, allTimeStamp.get() + 1);
 			incrementTimestamps(true);
 			return module;
 		} finally {
@@ -314,6 +336,7 @@ public class ModuleDatabase {
 			modulesByLocations.remove(module.getLocation());
 			modulesById.remove(module.getId());
 			moduleSettings.remove(module.getId());
+			settingsTimestamps.remove(module.getId());
 			// remove the revisions by name
 			List<ModuleRevision> revisions = uninstalling.getModuleRevisions();
 			for (ModuleRevision revision : revisions) {
@@ -323,6 +346,9 @@ public class ModuleDatabase {
 				if (oldWiring == null) {
 					module.getRevisions().removeRevision(revision);
 					removeCapabilities(revision);
+				} else {
+					// the wiring is removal pending now
+					wiringsTimestamp = allTimeStamp.get() + 1;
 				}
 			}
 
@@ -331,6 +357,8 @@ public class ModuleDatabase {
 			long currentTime = System.currentTimeMillis();
 			module.setlastModified(currentTime);
 			setSystemLastModified(currentTime);
+			// record the change first; incrementing the timestamps may save the database
+			moduleTimestamps.put(module.getId(), allTimeStamp.get() + 1);
 			incrementTimestamps(true);
 		} finally {
 			writeUnlock();
@@ -359,6 +387,9 @@ public class ModuleDatabase {
 			if (oldWiring == null) {
 				module.getRevisions().removeRevision(oldRevision);
 				removeCapabilities(oldRevision);
+			} else {
+				// the wiring is removal pending now
+				wiringsTimestamp = allTimeStamp.get() + 1;
 			}
 			// attempt to clean up removal pendings
 			cleanupRemovalPending();
@@ -366,6 +397,8 @@ public class ModuleDatabase {
 			long currentTime = System.currentTimeMillis();
 			module.setlastModified(currentTime);
 			setSystemLastModified(currentTime);
+			// record the change first; incrementing the timestamps may save the database
+			moduleTimestamps.put(module.getId(), allTimeStamp.get() + 1);
 			incrementTimestamps(true);
 		} finally {
 			writeUnlock();
@@ -416,6 +449,7 @@ public class ModuleDatabase {
 					removeCapabilities(pendingRemoval);
 					wirings.remove(pendingRemoval);
 				}
+				wiringsTimestamp = allTimeStamp.get() + 1;
 				// remove any wires from unresolved wirings that got removed
 				for (Map.Entry<ModuleWiring, Collection<ModuleWire>> entry : toRemoveWireLists.entrySet()) {
 					NamespaceList.Builder<ModuleWire> provided = entry.getKey().getProvidedWires().createBuilder();
@@ -538,6 +572,8 @@ public class ModuleDatabase {
 		try {
 			wirings.clear();
 			wirings.putAll(newWiring);
+			// record the change first; incrementing the timestamps may save the database
+			wiringsTimestamp = allTimeStamp.get() + 1;
 			incrementTimestamps(true);
 		} finally {
 			writeUnlock();
@@ -557,6 +593,8 @@ public class ModuleDatabase {
 		writeLock();
 		try {
 			wirings.putAll(deltaWiring);
+			// record the change first; incrementing the timestamps may save the database
+			wiringsTimestamp = allTimeStamp.get() + 1;
 			incrementTimestamps(true);
 		} finally {
 			writeUnlock();
@@ -577,6 +615,10 @@ public class ModuleDatabase {
 		writeLock();
 		try {
 			op.run();
+			if (incrementRevision) {
+				// record the change first; incrementing the timestamps may save the database
+				wiringsTimestamp = allTimeStamp.get() + 1;
+			}
 			incrementTimestamps(incrementRevision);
 		} finally {
 			writeUnlock();
@@ -977,6 +1019,8 @@ public class ModuleDatabase {
 			EnumSet<Settings> existing = moduleSettings.get(module.getId());
 			if (!settings.equals(existing)) {
 				moduleSettings.put(module.getId(), EnumSet.copyOf(settings));
+				// record the change first; incrementing the timestamps may save the database
+				settingsTimestamps.put(module.getId(), allTimeStamp.get() + 1);
 				incrementTimestamps(false);
 			}
 		} finally {
@@ -989,6 +1033,8 @@ public class ModuleDatabase {
 		try {
 			module.checkValid();
 			module.storeStartLevel(startlevel);
+			// record the change first; incrementing the timestamps may save the database
+			settingsTimestamps.put(module.getId(), allTimeStamp.get() + 1);
 			incrementTimestamps(false);
 		} finally {
 			writeUnlock();
@@ -1014,6 +1060,112 @@ public class ModuleDatabase {
 		}
 	}
 
+	/**
+	 * Returns the modules which have been installed or updated since the specified
+	 * {@link #getTimestamp() timestamp}. The modules are ordered by module ID.
+	 * <p>
+	 * A read operation protected by the {@link #readLock() read} lock.
+	 * 
+	 * @param sinceTimestamp the timestamp of the persisted state of this database
+	 * @return the modules installed or updated since the timestamp
+	 * @since 3.22
+	 */
+	public final List<Module> getModulesChanged(long sinceTimestamp) {
+		readLock();
+		try {
+			List<Module> changed = new ArrayList<>();
+			for (Map.Entry<Long, Long> entry : moduleTimestamps.entrySet()) {
+				if (entry.getValue().longValue() > sinceTimestamp) {
+					Module module = modulesById.get(entry.getKey());
+					if (module != null) {
+						changed.add(module);
+					}
+				}
+			}
+			sortModules(changed, Sort.BY_ID);
+			return changed;
+		} finally {
+			readUnlock();
+		}
+	}
+
+	/**
+	 * Writes the changes made to this database since the specified
+	 * {@link #getTimestamp() timestamp} in a format suitable for using the
+	 * {@link #loadDelta(DataInputStream)} method. A delta holds
+	 * <ul>
+	 * <li>the modules installed or updated
+	 * <li>the ids of the modules uninstalled
+	 * <li>the start levels and settings changed for other modules
+	 * <li>the wirings of all revisions if any wiring changed
+	 * </ul>
+	 * The wirings are written as a whole because resolving a module also changes
+	 * the provided wires of the modules it got wired to. Like with
+	 * {@link #store(DataOutputStream, boolean) store} the wirings are not written
+	 * if there are {@link #getRemovalPending() removal pending} revisions.
+	 * <p>
+	 * This method acquires the {@link #readLock() read} lock while writing the
+	 * delta. The output stream remains open after this method returns.
+	 * 
+	 * @param out            the data output steam.
+	 * @param sinceTimestamp the timestamp of the persisted state of this database
+	 *                       which the delta applies to
+	 * @throws IOException if writing to the specified output stream throws an
+	 *                     IOException
+	 * @since 3.22
+	 */
+	public final void storeDelta(DataOutputStream out, long sinceTimestamp) throws IOException {
+		readLock();
+		try {
+			Persistence.storeDelta(this, out, sinceTimestamp);
+		} finally {
+			readUnlock();
+		}
+	}
+
+	/**
+	 * Applies a delta written by {@link #storeDelta(DataOutputStream, long)} to
+	 * this database. The delta is only applied if the {@link #getTimestamp()
+	 * timestamp} of this database is the timestamp the delta was written against.
+	 * Deltas written one after the other can be applied in the same order.
+	 * <p>
+	 * Since this method modifies this database it is considered a write operation.
+	 * This method acquires the {@link #writeLock() write} lock while applying the
+	 * delta.
+	 * 
+	 * @param in the data input stream.
+	 * @return true if the delta was applied; false if the delta does not apply to
+	 *         this database
+	 * @throws IOException if an error occurred when reading from the input stream.
+	 * @since 3.22
+	 */
+	public final boolean loadDelta(DataInputStream in) throws IOException {
+		writeLock();
+		try {
+			return Persistence.loadDelta(this, in);
+		} finally {
+			writeUnlock();
+		}
+	}
+
+	/**
+	 * Removes the specified module and all its revisions from this database
+	 * without marking it uninstalled. Used to replace a module when applying a
+	 * delta.
+	 */
+	void unload(Module module) {
+		// sanity check
+		checkWrite();
+		modulesByLocations.remove(module.getLocation());
+		modulesById.remove(module.getId());
+		moduleSettings.remove(module.getId());
+		settingsTimestamps.remove(module.getId());
+		for (ModuleRevision revision : module.getRevisions().getModuleRevisions()) {
+			removeCapabilities(revision);
+			wirings.remove(revision);
+		}
+	}
+
 	private static class Persistence {
 		private static final int VERSION = 3;
 		private static final byte NULL = 0;
@@ -1066,49 +1218,16 @@ public class ModuleDatabase {
 			out.writeLong(moduleDatabase.getNextId());
 			out.writeInt(moduleDatabase.getInitialModuleStartLevel());
 
-			// prime the object table with all the strings, versions and maps
-			Set<String> allStrings = new HashSet<>();
-			Set<Version> allVersions = new HashSet<>();
-			Set<Map<String, ?>> allMaps = new HashSet<>();
-
-			// first gather all the strings, versions and maps from the modules
-			List<Module> modules = moduleDatabase.getModules();
-			for (Module module : modules) {
-				getStringsVersionsAndMaps(module, moduleDatabase, allStrings, allVersions, allMaps);
-			}
 			// outside of the modules the wirings have 'substituted' packages strings
+			Set<String> allStrings = new HashSet<>();
 			Map<ModuleRevision, ModuleWiring> wirings = moduleDatabase.wirings;
 			for (ModuleWiring wiring : wirings.values()) {
 				Collection<String> substituted = wiring.getSubstitutedNames();
 				allStrings.addAll(substituted);
 			}
 
-			// Now persist all the Strings
 			Map<Object, Integer> objectTable = new HashMap<>();
-			allStrings.remove(null);
-			out.writeInt(allStrings.size());
-			for (String string : allStrings) {
-				writeString(string, out, objectTable);
-				out.writeInt(addToWriteTable(string, objectTable));
-			}
-			// Followed by versions which may reference strings with their qualifier
-			out.writeInt(allVersions.size());
-			for (Version version : allVersions) {
-				writeVersion(version, out, objectTable);
-				out.writeInt(addToWriteTable(version, objectTable));
-			}
-			// Followed by maps which may reference the strings and versions
-			out.writeInt(allMaps.size());
-			for (Map<String, ?> map : allMaps) {
-				writeMap(map, out, objectTable, moduleDatabase);
-				out.writeInt(addToWriteTable(map, objectTable));
-			}
-
-			// Followed by modules which reference the strings, versions, and maps
-			out.writeInt(modules.size());
-			for (Module module : modules) {
-				writeModule(module, moduleDatabase, out, objectTable);
-			}
+			writeModules(moduleDatabase.getModules(), allStrings, moduleDatabase, out, objectTable);
 
 			Collection<ModuleRevision> removalPendings = moduleDatabase.getRemovalPending();
 			// only persist wirings if there are no removals pending
@@ -1138,6 +1257,44 @@ public class ModuleDatabase {
 			out.flush();
 		}
 
+		private static void writeModules(List<Module> modules, Set<String> allStrings, ModuleDatabase moduleDatabase,
+				DataOutputStream out, Map<Object, Integer> objectTable) throws IOException {
+			// prime the object table with all the strings, versions and maps
+			Set<Version> allVersions = new HashSet<>();
+			Set<Map<String, ?>> allMaps = new HashSet<>();
+
+			// first gather all the strings, versions and maps from the modules
+			for (Module module : modules) {
+				getStringsVersionsAndMaps(module, moduleDatabase, allStrings, allVersions, allMaps);
+			}
+
+			// Now persist all the Strings
+			allStrings.remove(null);
+			out.writeInt(allStrings.size());
+			for (String string : allStrings) {
+				writeString(string, out, objectTable);
+				out.writeInt(addToWriteTable(string, objectTable));
+			}
+			// Followed by versions which may reference strings with their qualifier
+			out.writeInt(allVersions.size());
+			for (Version version : allVersions) {
+				writeVersion(version, out, objectTable);
+				out.writeInt(addToWriteTable(version, objectTable));
+			}
+			// Followed by maps which may reference the strings and versions
+			out.writeInt(allMaps.size());
+			for (Map<String, ?> map : allMaps) {
+				writeMap(map, out, objectTable, moduleDatabase);
+				out.writeInt(addToWriteTable(map, objectTable));
+			}
+
+			// Followed by modules which reference the strings, versions, and maps
+			out.writeInt(modules.size());
+			for (Module module : modules) {
+				writeModule(module, moduleDatabase, out, objectTable);
+			}
+		}
+
 		private static void getStringsVersionsAndMaps(Module module, ModuleDatabase moduleDatabase,
 				Set<String> allStrings, Set<Version> allVersions, Set<Map<String, ?>> allMaps) {
 			ModuleRevision current = module.getCurrentRevision();
@@ -1213,29 +1370,11 @@ public class ModuleDatabase {
 			moduleDatabase.setInitialModuleStartLevel(in.readInt());
 
 			List<Object> objectTable = new ArrayList<>();
-
-			if (version >= 2) {
-				int numStrings = in.readInt();
-				for (int i = 0; i < numStrings; i++) {
-					readIndexedString(in, objectTable);
-				}
-				int numVersions = in.readInt();
-				for (int i = 0; i < numVersions; i++) {
-					readIndexedVersion(in, objectTable);
-				}
-				int numMaps = in.readInt();
-				for (int i = 0; i < numMaps; i++) {
-					readIndexedMap(in, objectTable);
-				}
-			}
-			int numModules = in.readInt();
-			ModuleRevisionBuilder builder = new ModuleRevisionBuilder();
-			for (int i = 0; i < numModules; i++) {
-				readModule(builder, moduleDatabase, in, objectTable, version);
-			}
+			readModules(moduleDatabase, in, objectTable, version, false);
 
 			moduleDatabase.revisionsTimeStamp.set(revisionsTimeStamp);
 			moduleDatabase.allTimeStamp.set(allTimeStamp);
+			moduleDatabase.wiringsTimestamp = allTimeStamp;
 			if (!in.readBoolean())
 				return; // no wires persisted
 
@@ -1265,6 +1404,324 @@ public class ModuleDatabase {
 			// Setting the timestamp at the end since some operations increment it
 			moduleDatabase.revisionsTimeStamp.set(revisionsTimeStamp);
 			moduleDatabase.allTimeStamp.set(allTimeStamp);
+			moduleDatabase.wiringsTimestamp = allTimeStamp;
+		}
+
+		private static void readModules(ModuleDatabase moduleDatabase, DataInputStream in, List<Object> objectTable,
+				int version, boolean replace) throws IOException {
+			if (version >= 2) {
+				int numStrings = in.readInt();
+				for (int i = 0; i < numStrings; i++) {
+					readIndexedString(in, objectTable);
+				}
+				int numVersions = in.readInt();
+				for (int i = 0; i < numVersions; i++) {
+					readIndexedVersion(in, objectTable);
+				}
+				int numMaps = in.readInt();
+				for (int i = 0; i < numMaps; i++) {
+					readIndexedMap(in, objectTable);
+				}
+			}
+			int numModules = in.readInt();
+			ModuleRevisionBuilder builder = new ModuleRevisionBuilder();
+			for (int i = 0; i < numModules; i++) {
+				readModule(builder, moduleDatabase, in, objectTable, version, replace);
+			}
+		}
+
+		public static void storeDelta(ModuleDatabase moduleDatabase, DataOutputStream out, long sinceTimestamp)
+				throws IOException {
+			out.writeInt(VERSION);
+			out.writeLong(sinceTimestamp);
+			out.writeLong(moduleDatabase.getRevisionsTimestamp());
+			out.writeLong(moduleDatabase.getTimestamp());
+			out.writeLong(moduleDatabase.getNextId());
+			out.writeInt(moduleDatabase.getInitialModuleStartLevel());
+			// installs and uninstalls also modify the system module
+			Module systemModule = moduleDatabase.modulesById.get(0L);
+			out.writeLong(systemModule == null ? 0 : systemModule.getLastModified());
+
+			List<Long> uninstalled = new ArrayList<>();
+			for (Map.Entry<Long, Long> entry : moduleDatabase.moduleTimestamps.entrySet()) {
+				if (entry.getValue().longValue() > sinceTimestamp
+						&& !moduleDatabase.modulesById.containsKey(entry.getKey())) {
+					uninstalled.add(entry.getKey());
+				}
+			}
+			out.writeInt(uninstalled.size());
+			for (Long id : uninstalled) {
+				out.writeLong(id);
+			}
+
+			// installed and updated modules replace the module with the same id
+			writeModules(moduleDatabase.getModulesChanged(sinceTimestamp), new HashSet<String>(), moduleDatabase, out,
+					new HashMap<Object, Integer>());
+
+			// the settings of installed and updated modules are written with the module
+			List<Module> settingsChanged = new ArrayList<>();
+			for (Map.Entry<Long, Long> entry : moduleDatabase.settingsTimestamps.entrySet()) {
+				Long moduleTimestamp = moduleDatabase.moduleTimestamps.get(entry.getKey());
+				if (entry.getValue().longValue() > sinceTimestamp
+						&& (moduleTimestamp == null || moduleTimestamp.longValue() <= sinceTimestamp)) {
+					Module module = moduleDatabase.modulesById.get(entry.getKey());
+					if (module != null) {
+						settingsChanged.add(module);
+					}
+				}
+			}
+			out.writeInt(settingsChanged.size());
+			for (Module module : settingsChanged) {
+				out.writeLong(module.getId());
+				out.writeInt(module.getStartLevel());
+				EnumSet<Settings> settings = moduleDatabase.moduleSettings.get(module.getId());
+				out.writeInt(settings == null ? 0 : settings.size());
+				if (settings != null) {
+					for (Settings setting : settings) {
+						out.writeUTF(setting.name());
+					}
+				}
+			}
+
+			boolean wiringsChanged = moduleDatabase.wiringsTimestamp > sinceTimestamp;
+			out.writeBoolean(wiringsChanged);
+			if (wiringsChanged) {
+				writeDeltaWirings(moduleDatabase, out);
+			}
+			out.flush();
+		}
+
+		public static boolean loadDelta(ModuleDatabase moduleDatabase, DataInputStream in) throws IOException {
+			int version = in.readInt();
+			if (version > VERSION || VERSION / 1000 != version / 1000)
+				throw new IllegalArgumentException("The version of the persistent framework data is not compatible: " //$NON-NLS-1$
+						+ version + " expecting: " + VERSION); //$NON-NLS-1$
+			if (in.readLong() != moduleDatabase.allTimeStamp.get()) {
+				// the delta was written against another state of the database
+				return false;
+			}
+			long revisionsTimeStamp = in.readLong();
+			long allTimeStamp = in.readLong();
+			moduleDatabase.nextId.set(in.readLong());
+			moduleDatabase.initialModuleStartLevel = in.readInt();
+			long systemLastModified = in.readLong();
+
+			int numUninstalled = in.readInt();
+			for (int i = 0; i < numUninstalled; i++) {
+				Module module = moduleDatabase.modulesById.get(in.readLong());
+				if (module != null) {
+					moduleDatabase.unload(module);
+				}
+			}
+
+			readModules(moduleDatabase, in, new ArrayList<>(), version, true);
+
+			int numSettingsChanged = in.readInt();
+			for (int i = 0; i < numSettingsChanged; i++) {
+				long id = in.readLong();
+				int startlevel = in.readInt();
+				EnumSet<Settings> settings = EnumSet.noneOf(Settings.class);
+				int numSettings = in.readInt();
+				for (int j = 0; j < numSettings; j++) {
+					settings.add(Settings.valueOf(in.readUTF()));
+				}
+				Module module = moduleDatabase.modulesById.get(id);
+				if (module == null) {
+					continue;
+				}
+				module.storeStartLevel(startlevel);
+				module.storeSettings(settings);
+				if (settings.isEmpty()) {
+					moduleDatabase.moduleSettings.remove(id);
+				} else {
+					moduleDatabase.moduleSettings.put(id, settings);
+				}
+			}
+
+			if (in.readBoolean()) {
+				readDeltaWirings(moduleDatabase, in);
+			}
+
+			Module systemModule = moduleDatabase.modulesById.get(0L);
+			if (systemModule != null) {
+				systemModule.setlastModified(systemLastModified);
+			}
+			moduleDatabase.revisionsTimeStamp.set(revisionsTimeStamp);
+			moduleDatabase.allTimeStamp.set(allTimeStamp);
+			return true;
+		}
+
+		private static void writeDeltaWirings(ModuleDatabase moduleDatabase, DataOutputStream out)
+				throws IOException {
+			// only persist wirings if there are no removals pending
+			boolean persistWirings = moduleDatabase.getRemovalPending().isEmpty();
+			out.writeBoolean(persistWirings);
+			if (!persistWirings) {
+				return;
+			}
+
+			// the object table of the delta only holds the modules which changed; other
+			// capabilities and requirements are referenced by their module id and
+			// their index in the current revision of the module
+			Map<Object, Integer> indexes = new HashMap<>();
+			for (Module module : moduleDatabase.modulesById.values()) {
+				ModuleRevision current = module.getCurrentRevision();
+				List<ModuleCapability> capabilities = current.getModuleCapabilities(null);
+				for (int i = 0; i < capabilities.size(); i++) {
+					indexes.put(capabilities.get(i), Integer.valueOf(i));
+				}
+				List<ModuleRequirement> requirements = current.getModuleRequirements(null);
+				for (int i = 0; i < requirements.size(); i++) {
+					indexes.put(requirements.get(i), Integer.valueOf(i));
+				}
+			}
+
+			// write all the required wires first
+			Collection<ModuleWiring> wirings = moduleDatabase.wirings.values();
+			Map<Object, Integer> wireTable = new HashMap<>();
+			out.writeInt(wirings.size());
+			for (ModuleWiring wiring : wirings) {
+				List<ModuleWire> requiredWires = wiring.getPersistentRequiredWires();
+				out.writeInt(requiredWires.size());
+				for (ModuleWire wire : requiredWires) {
+					out.writeInt(addToWriteTable(wire, wireTable));
+					writeReference(wire.getCapability(), wire.getCapability().getRevision(), out, indexes);
+					writeReference(wire.getProvider(), out);
+					writeReference(wire.getRequirement(), wire.getRequirement().getRevision(), out, indexes);
+					writeReference(wire.getRequirer(), out);
+				}
+			}
+
+			// then the wirings referencing the wires by their index
+			for (ModuleWiring wiring : wirings) {
+				writeReference(wiring.getRevision(), out);
+
+				List<ModuleCapability> capabilities = wiring.getModuleCapabilities(null);
+				out.writeInt(capabilities.size());
+				for (ModuleCapability capability : capabilities) {
+					writeReference(capability, capability.getRevision(), out, indexes);
+				}
+
+				List<ModuleRequirement> requirements = wiring.getPersistentRequirements();
+				out.writeInt(requirements.size());
+				for (ModuleRequirement requirement : requirements) {
+					writeReference(requirement, requirement.getRevision(), out, indexes);
+				}
+
+				List<ModuleWire> providedWires = wiring.getPersistentProvidedWires();
+				out.writeInt(providedWires.size());
+				for (ModuleWire wire : providedWires) {
+					writeIndex(wire, out, wireTable);
+				}
+
+				List<ModuleWire> requiredWires = wiring.getPersistentRequiredWires();
+				out.writeInt(requiredWires.size());
+				for (ModuleWire wire : requiredWires) {
+					writeIndex(wire, out, wireTable);
+				}
+
+				Collection<String> substituted = wiring.getSubstitutedNames();
+				out.writeInt(substituted.size());
+				for (String pkgName : substituted) {
+					writeString(pkgName, out, Collections.emptyMap());
+				}
+			}
+		}
+
+		private static void readDeltaWirings(ModuleDatabase moduleDatabase, DataInputStream in) throws IOException {
+			Map<ModuleRevision, ModuleWiring> wirings = new HashMap<>();
+			if (in.readBoolean()) {
+				int numWirings = in.readInt();
+				List<Object> wireTable = new ArrayList<>();
+				for (int i = 0; i < numWirings; i++) {
+					int numWires = in.readInt();
+					for (int j = 0; j < numWires; j++) {
+						int wireIndex = in.readInt();
+						ModuleCapability capability = readRevision(moduleDatabase, in).getModuleCapabilities(null)
+								.get(in.readInt());
+						ModuleRevision provider = readRevision(moduleDatabase, in);
+						ModuleRequirement requirement = readRevision(moduleDatabase, in).getModuleRequirements(null)
+								.get(in.readInt());
+						ModuleRevision requirer = readRevision(moduleDatabase, in);
+						addToReadTable(new ModuleWire(capability, provider, requirement, requirer), wireIndex,
+								wireTable);
+					}
+				}
+
+				for (int i = 0; i < numWirings; i++) {
+					ModuleRevision revision = readRevision(moduleDatabase, in);
+
+					int numCapabilities = in.readInt();
+					NamespaceList.Builder<ModuleCapability> capabilities = Builder.create(NamespaceList.CAPABILITY);
+					for (int j = 0; j < numCapabilities; j++) {
+						capabilities.add(readRevision(moduleDatabase, in).getModuleCapabilities(null).get(in.readInt()));
+					}
+
+					int numRequirements = in.readInt();
+					NamespaceList.Builder<ModuleRequirement> requirements = Builder.create(NamespaceList.REQUIREMENT);
+					for (int j = 0; j < numRequirements; j++) {
+						requirements
+								.add(readRevision(moduleDatabase, in).getModuleRequirements(null).get(in.readInt()));
+					}
+
+					int numProvidedWires = in.readInt();
+					NamespaceList.Builder<ModuleWire> providedWires = Builder.create(NamespaceList.WIRE);
+					for (int j = 0; j < numProvidedWires; j++) {
+						providedWires.add((ModuleWire) wireTable.get(in.readInt()));
+					}
+
+					int numRequiredWires = in.readInt();
+					NamespaceList.Builder<ModuleWire> requiredWires = Builder.create(NamespaceList.WIRE);
+					for (int j = 0; j < numRequiredWires; j++) {
+						requiredWires.add((ModuleWire) wireTable.get(in.readInt()));
+					}
+
+					int numSubstitutedNames = in.readInt();
+					Collection<String> substituted = new ArrayList<>(numSubstitutedNames);
+					for (int j = 0; j < numSubstitutedNames; j++) {
+						substituted.add(readString(in, Collections.emptyList()));
+					}
+
+					wirings.put(revision, new ModuleWiring(revision, capabilities.build(), requirements.build(),
+							providedWires.build(), requiredWires.build(), substituted));
+				}
+			}
+			// the wirings replace the wirings of the database; everything else is
+			// unresolved
+			moduleDatabase.wirings.clear();
+			moduleDatabase.wirings.putAll(wirings);
+			for (Module module : moduleDatabase.modulesById.values()) {
+				module.setState(wirings.containsKey(module.getCurrentRevision()) ? State.RESOLVED : State.INSTALLED);
+			}
+		}
+
+		private static void writeReference(Object object, ModuleRevision revision, DataOutputStream out,
+				Map<Object, Integer> indexes) throws IOException {
+			Integer index = indexes.get(object);
+			if (index == null)
+				throw new NullPointerException("Could not find the expected indexes"); //$NON-NLS-1$
+			writeReference(revision, out);
+			out.writeInt(index);
+		}
+
+		private static void writeReference(ModuleRevision revision, DataOutputStream out) throws IOException {
+			out.writeLong(revision.getRevisions().getModule().getId());
+		}
+
+		private static ModuleRevision readRevision(ModuleDatabase moduleDatabase, DataInputStream in)
+				throws IOException {
+			Module module = moduleDatabase.modulesById.get(in.readLong());
+			if (module == null)
+				throw new NullPointerException("Could not find module for wiring."); //$NON-NLS-1$
+			return module.getCurrentRevision();
+		}
+
+		private static void writeIndex(Object object, DataOutputStream out, Map<Object, Integer> objectTable)
+				throws IOException {
+			Integer index = objectTable.get(object);
+			if (index == null)
+				throw new NullPointerException("Could not find the expected indexes"); //$NON-NLS-1$
+			out.writeInt(index);
 		}
 
 		private static void writeModule(Module module, ModuleDatabase moduleDatabase, DataOutputStream out,
@@ -1314,7 +1771,7 @@ public class ModuleDatabase {
 		}
 
 		private static void readModule(ModuleRevisionBuilder builder, ModuleDatabase moduleDatabase, DataInputStream in,
-				List<Object> objectTable, int version) throws IOException {
+				List<Object> objectTable, int version, boolean replace) throws IOException {
 			builder.clear();
 			int moduleIndex = in.readInt();
 			String location = readString(in, objectTable);
@@ -1349,6 +1806,13 @@ public class ModuleDatabase {
 
 			// startlevel
 			int startlevel = in.readInt();
+			if (replace) {
+				// a delta replaces the module installed with the same id
+				Module existing = moduleDatabase.modulesById.get(id);
+				if (existing != null) {
+					moduleDatabase.unload(existing);
+				}
+			}
 			Object revisionInfo = moduleDatabase.adaptor.getRevisionInfo(location, id);
 			Module module = moduleDatabase.load(location, builder, revisionInfo, id, settings, startlevel);
 
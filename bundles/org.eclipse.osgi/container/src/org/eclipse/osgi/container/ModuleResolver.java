@@ -15,6 +15,7 @@ package org.eclipse.osgi.container;
 
 import static org.eclipse.osgi.internal.container.NamespaceList.WIRE;
 
+import java.io.File;
 import java.security.Permission;
 import java.text.MessageFormat;
 import java.util.ArrayList;
@@ -107,6 +108,8 @@ final class ModuleResolver {
 	private static final int DEFAULT_BATCH_TIMEOUT = (int) TimeUnit.MINUTES.toMillis(2);
 	final int resolverRevisionBatchSize;
 	final int resolverBatchTimeout;
+	final int resolverPermutationParallelism;
+	final ResolutionCache resolutionCache;
 
 	void setDebugOptions() {
 		DebugOptions options = adaptor.getDebugOptions();
@@ -147,7 +150,25 @@ final class ModuleResolver {
 		this.resolverRevisionBatchSize = parseInteger(batchSizeConfig, DEFAULT_BATCH_SIZE, 1);
 		String batchTimeoutConfig = this.adaptor.getProperty(EquinoxConfiguration.PROP_RESOLVER_BATCH_TIMEOUT);
 		this.resolverBatchTimeout = parseInteger(batchTimeoutConfig, DEFAULT_BATCH_TIMEOUT, BATCH_MIN_TIMEOUT);
+		this.resolverPermutationParallelism = getPermutationParallelism();
+		String resolutionCacheConfig = this.adaptor.getProperty(EquinoxConfiguration.PROP_RESOLVER_CACHE);
+		this.resolutionCache = resolutionCacheConfig == null ? null
+				: new ResolutionCache(new File(resolutionCacheConfig), DEBUG_ROOTS);
+	}
 
+	@SuppressWarnings("deprecation")
+	private int getPermutationParallelism() {
+		if (!Boolean.parseBoolean(adaptor.getProperty(EquinoxConfiguration.PROP_RESOLVER_PARALLEL_PERMUTATIONS))) {
+			return 1;
+		}
+		// check the permutations in parallel using the resolver threads
+		String threadCntConfig = adaptor.getProperty(EquinoxConfiguration.PROP_EQUINOX_RESOLVER_THREAD_COUNT);
+		if (threadCntConfig == null) {
+			threadCntConfig = adaptor.getProperty(EquinoxConfiguration.PROP_RESOLVER_THREAD_COUNT);
+		}
+		int threadCnt = parseInteger(threadCntConfig, -1, -1);
+		// use the number of processors when configured value is <=0
+		return threadCnt <= 0 ? Runtime.getRuntime().availableProcessors() : threadCnt;
 	}
 
 	private static int parseInteger(String sInteger, int defaultValue, int minValue) {
@@ -476,6 +497,7 @@ final class ModuleResolver {
 
 		class ResolveLogger extends Logger {
 			private Map<Resource, ResolutionException> errors = null;
+			private int usesConstraintViolationCount = 0;
 			public int totalPerm;
 			public int processedPerm;
 			public int usesPerm;
@@ -492,6 +514,7 @@ final class ModuleResolver {
 					errors = new HashMap<>();
 				}
 				errors.put(resource, error.toException());
+				usesConstraintViolationCount++;
 				if (DEBUG_USES) {
 					Debug.println(new StringBuilder("RESOLVER: Uses constraint violation") //$NON-NLS-1$
 							.append(SEPARATOR).append(TAB) //
@@ -578,6 +601,10 @@ final class ModuleResolver {
 				return errors == null ? Collections.emptyMap() : errors;
 			}
 
+			int getUsesConstraintViolationCount() {
+				return usesConstraintViolationCount;
+			}
+
 			@Override
 			public boolean isDebugEnabled() {
 				return DEBUG_USES;
@@ -637,6 +664,7 @@ final class ModuleResolver {
 		private final Set<ModuleRevision> previouslyResolved;
 		private final DynamicModuleRequirement dynamicReq;
 		private volatile ResolverHook hook = null;
+		private volatile String hookKey = null;
 		private volatile Map<String, Collection<ModuleRevision>> byName = null;
 		private volatile List<Resource> currentlyResolving = null;
 		private volatile boolean currentlyResolvingMandatory = false;
@@ -813,8 +841,12 @@ final class ModuleResolver {
 			}
 		}
 
+		private boolean isPermissionChecked() {
+			return System.getSecurityManager() != null;
+		}
+
 		private void filterPermissions(BundleRequirement requirement, List<ModuleCapability> candidates) {
-			if (System.getSecurityManager() == null) {
+			if (!isPermissionChecked()) {
 				return;
 			}
 
@@ -1024,6 +1056,11 @@ final class ModuleResolver {
 					}
 					throw e;
 				}
+				// the cache is only used if the resolver hooks are known to make the same
+				// decisions for the same input; permission checks are not part of the input
+				if (resolutionCache != null && !isPermissionChecked()) {
+					hookKey = adaptor.getResolverHookKey(hook);
+				}
 				Map<Resource, List<Wire>> result = null;
 				ResolutionException re = null;
 				ModuleResolutionReport report;
@@ -1079,6 +1116,9 @@ final class ModuleResolver {
 					if (hook instanceof ResolutionReport.Listener)
 						((ResolutionReport.Listener) hook).handleResolutionReport(report);
 					hook.end();
+					if (hookKey != null) {
+						resolutionCache.save();
+					}
 				}
 				return report;
 			} finally {
@@ -1182,7 +1222,22 @@ final class ModuleResolver {
 			Map<Resource, List<Wire>> interimResults = null;
 			try {
 				transitivelyResolveFailures.addAll(revisions);
-				interimResults = new ResolverImpl(logger, this).resolve(this);
+				ResolutionCache.Lookup cacheLookup = hookKey == null ? null
+						: resolutionCache.lookup(hookKey, unresolved, wirings, previouslyResolved, disabled,
+								failedToResolve, revisions, isMandatory);
+				interimResults = cacheLookup == null ? null : cacheLookup.get();
+				if (interimResults == null) {
+					int usesConstraintViolations = logger.getUsesConstraintViolationCount();
+					interimResults = new ResolverImpl(logger, this, resolverPermutationParallelism).resolve(this);
+					// only cache complete results; failures need the resolver to populate the
+					// resolution report
+					if (cacheLookup != null && interimResults.keySet().containsAll(revisions)
+							&& logger.getUsesConstraintViolationCount() == usesConstraintViolations) {
+						cacheLookup.put(interimResults);
+					}
+				} else if (DEBUG_ROOTS) {
+					Debug.println("Resolver: using cached resolution of " + interimResults.size() + " bundles."); //$NON-NLS-1$ //$NON-NLS-2$
+				}
 				applyInterimResultToWiringCopy(interimResults);
 				if (DEBUG_ROOTS) {
 					Debug.println("Resolver: resolved " + interimResults.size() + " bundles."); //$NON-NLS-1$ //$NON-NLS-2$
@@ -0,0 +1,509 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.container;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import org.eclipse.osgi.internal.debug.Debug;
+import org.osgi.resource.Resource;
+import org.osgi.resource.Wire;
+
+/**
+ * A persistent cache of resolution results. A result of the resolver is keyed
+ * by a digest of everything the resolver consults to produce it: the content
+ * of all revisions known to the resolve process, the current wirings, the
+ * revisions that are disabled or failed to resolve, the root revisions and a
+ * key identifying the resolver hooks. The wires of a result are stored as
+ * indexes into the revisions ordered by module id so that the result can be
+ * applied by any container with the same input, for example another framework
+ * instance installed from the same image.
+ * <p>
+ * A cached result is validated before it is used by checking that each wire
+ * still refers to matching requirements and capabilities. The cache is stored
+ * in the file specified with the
+ * {@link org.eclipse.osgi.internal.framework.EquinoxConfiguration#PROP_RESOLVER_CACHE}
+ * configuration property.
+ */
+final class ResolutionCache {
+	private static final int VERSION = 1;
+	private static final String DIGEST_ALGORITHM = "SHA-256"; //$NON-NLS-1$
+	private static final int MAX_ENTRIES = 64;
+	/** The number of ints stored for a single wire */
+	private static final int WIRE_SIZE = 6;
+
+	private final File file;
+	private final boolean debug;
+	/* @GuardedBy("this") */
+	private final Map<ByteBuffer, int[]> entries = new LinkedHashMap<ByteBuffer, int[]>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ByteBuffer, int[]> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+	/* @GuardedBy("this") */
+	private final Map<ModuleRevision, byte[]> revisionDigests = new WeakHashMap<>();
+	/* @GuardedBy("this") */
+	private boolean loaded = false;
+	/* @GuardedBy("this") */
+	private boolean dirty = false;
+
+	ResolutionCache(File file, boolean debug) {
+		this.file = file;
+		this.debug = debug;
+	}
+
+	/**
+	 * Creates a lookup for the result of resolving the specified roots with the
+	 * specified resolve process state.
+	 *
+	 * @return the lookup or {@code null} if the state cannot be used as a cache key
+	 */
+	Lookup lookup(String hookKey, Collection<ModuleRevision> unresolved, Map<ModuleRevision, ModuleWiring> wirings,
+			Set<ModuleRevision> previouslyResolved, Collection<ModuleRevision> disabled,
+			Collection<Resource> failedToResolve, List<Resource> roots, boolean mandatory) {
+		Set<ModuleRevision> all = new LinkedHashSet<>(wirings.keySet());
+		all.addAll(unresolved);
+		ModuleRevision[] revisions = all.toArray(new ModuleRevision[0]);
+		long[] order = new long[revisions.length];
+		Map<ModuleRevision, Integer> indexes = new IdentityHashMap<>(revisions.length * 2);
+		for (ModuleRevision revision : revisions) {
+			indexes.put(revision, revision.getRevisions().getModuleRevisions().indexOf(revision));
+		}
+		Arrays.sort(revisions, Comparator.comparingLong((ModuleRevision r) -> r.getRevisions().getModule().getId())
+				.thenComparingInt(indexes::get));
+		for (int i = 0; i < revisions.length; i++) {
+			order[i] = indexes.get(revisions[i]);
+			indexes.put(revisions[i], i);
+		}
+
+		MessageDigest digest = newDigest();
+		try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT, digest))) {
+			out.writeInt(VERSION);
+			out.writeUTF(hookKey);
+			out.writeBoolean(mandatory);
+			out.writeInt(revisions.length);
+			for (int i = 0; i < revisions.length; i++) {
+				ModuleRevision revision = revisions[i];
+				out.writeLong(order[i]);
+				out.write(getDigest(revision));
+				out.writeBoolean(previouslyResolved.contains(revision));
+				out.writeBoolean(disabled.contains(revision));
+				out.writeBoolean(failedToResolve.contains(revision));
+				ModuleWiring wiring = wirings.get(revision);
+				out.writeBoolean(wiring != null);
+				if (wiring != null && !writeWiring(wiring, indexes, out)) {
+					return null;
+				}
+			}
+			out.writeInt(roots.size());
+			for (Resource root : roots) {
+				Integer index = indexes.get(root);
+				if (index == null) {
+					return null;
+				}
+				out.writeInt(index);
+			}
+		} catch (IOException e) {
+			// not expected when writing to a digest
+			return null;
+		}
+		return new Lookup(ByteBuffer.wrap(digest.digest()), revisions, indexes, wirings, disabled);
+	}
+
+	private static boolean writeWiring(ModuleWiring wiring, Map<ModuleRevision, Integer> indexes,
+			DataOutputStream out) throws IOException {
+		List<ModuleCapability> capabilities = wiring.getModuleCapabilities(null);
+		out.writeInt(capabilities.size());
+		for (ModuleCapability capability : capabilities) {
+			if (!writeCapability(capability, indexes, out)) {
+				return false;
+			}
+		}
+		List<ModuleRequirement> requirements = wiring.getModuleRequirements(null);
+		out.writeInt(requirements.size());
+		for (ModuleRequirement requirement : requirements) {
+			if (!writeRequirement(requirement, indexes, out)) {
+				return false;
+			}
+		}
+		List<ModuleWire> wires = wiring.getRequiredModuleWires(null);
+		out.writeInt(wires.size());
+		for (ModuleWire wire : wires) {
+			Integer provider = indexes.get(wire.getProvider());
+			if (provider == null || !writeRequirement(wire.getRequirement(), indexes, out)
+					|| !writeCapability(wire.getCapability(), indexes, out)) {
+				return false;
+			}
+			out.writeInt(provider);
+		}
+		List<String> substituted = new ArrayList<>(wiring.getSubstitutedNames());
+		Collections.sort(substituted);
+		out.writeInt(substituted.size());
+		for (String name : substituted) {
+			out.writeUTF(name);
+		}
+		return true;
+	}
+
+	private static boolean writeCapability(ModuleCapability capability, Map<ModuleRevision, Integer> indexes,
+			DataOutputStream out) throws IOException {
+		Integer revision = indexes.get(capability.getRevision());
+		if (revision == null) {
+			return false;
+		}
+		out.writeInt(revision);
+		out.writeInt(capability.getRevision().getModuleCapabilities(null).indexOf(capability));
+		return true;
+	}
+
+	private static boolean writeRequirement(ModuleRequirement requirement, Map<ModuleRevision, Integer> indexes,
+			DataOutputStream out) throws IOException {
+		Integer revision = indexes.get(requirement.getRevision());
+		if (revision == null) {
+			return false;
+		}
+		out.writeInt(revision);
+		out.writeInt(requirement.getRevision().getModuleRequirements(null).indexOf(requirement));
+		return true;
+	}
+
+	/*
+	 * The digest of the content of a revision that is relevant to the resolver. A
+	 * revision is never modified so the digest is only calculated once.
+	 */
+	private synchronized byte[] getDigest(ModuleRevision revision) throws IOException {
+		byte[] result = revisionDigests.get(revision);
+		if (result != null) {
+			return result;
+		}
+		MessageDigest digest = newDigest();
+		try (DataOutputStream out = new DataOutputStream(new DigestOutputStream(NULL_OUTPUT, digest))) {
+			Module module = revision.getRevisions().getModule();
+			out.writeLong(module.getId());
+			out.writeUTF(String.valueOf(module.getLocation()));
+			out.writeUTF(String.valueOf(revision.getSymbolicName()));
+			out.writeUTF(revision.getVersion().toString());
+			out.writeInt(revision.getTypes());
+			List<ModuleCapability> capabilities = revision.getModuleCapabilities(null);
+			out.writeInt(capabilities.size());
+			for (ModuleCapability capability : capabilities) {
+				out.writeUTF(capability.getNamespace());
+				writeMap(capability.getDirectives(), out);
+				writeMap(capability.getAttributes(), out);
+			}
+			List<ModuleRequirement> requirements = revision.getModuleRequirements(null);
+			out.writeInt(requirements.size());
+			for (ModuleRequirement requirement : requirements) {
+				out.writeUTF(requirement.getNamespace());
+				writeMap(requirement.getDirectives(), out);
+				writeMap(requirement.getAttributes(), out);
+			}
+		}
+		result = digest.digest();
+		revisionDigests.put(revision, result);
+		return result;
+	}
+
+	private static void writeMap(Map<String, ?> map, DataOutputStream out) throws IOException {
+		out.writeInt(map.size());
+		for (Map.Entry<String, ?> entry : new TreeMap<>(map).entrySet()) {
+			Object value = entry.getValue();
+			out.writeUTF(entry.getKey());
+			out.writeUTF(value == null ? "null" : value.getClass().getName()); //$NON-NLS-1$
+			out.writeUTF(String.valueOf(value));
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance(DIGEST_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			// every java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	synchronized int[] get(ByteBuffer key) {
+		load();
+		return entries.get(key);
+	}
+
+	synchronized void put(ByteBuffer key, int[] result) {
+		load();
+		entries.put(key, result);
+		dirty = true;
+	}
+
+	synchronized void remove(ByteBuffer key) {
+		if (entries.remove(key) != null) {
+			dirty = true;
+		}
+	}
+
+	private void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		if (!file.isFile()) {
+			return;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION) {
+				return;
+			}
+			int numEntries = in.readInt();
+			for (int i = 0; i < numEntries; i++) {
+				byte[] key = new byte[in.readInt()];
+				in.readFully(key);
+				int[] result = new int[in.readInt()];
+				for (int j = 0; j < result.length; j++) {
+					result[j] = in.readInt();
+				}
+				entries.put(ByteBuffer.wrap(key), result);
+			}
+		} catch (IOException | RuntimeException e) {
+			// treat a corrupted cache as empty; it is overwritten on the next save
+			entries.clear();
+			if (debug) {
+				Debug.printStackTrace(e);
+			}
+		}
+	}
+
+	/**
+	 * Writes the cache to its file if it has been modified since it was loaded.
+	 */
+	synchronized void save() {
+		if (!dirty) {
+			return;
+		}
+		dirty = false;
+		File parent = file.getAbsoluteFile().getParentFile();
+		File tmp = null;
+		try {
+			if (parent != null) {
+				parent.mkdirs();
+			}
+			tmp = File.createTempFile(file.getName(), ".tmp", parent); //$NON-NLS-1$
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(VERSION);
+				out.writeInt(entries.size());
+				for (Map.Entry<ByteBuffer, int[]> entry : entries.entrySet()) {
+					ByteBuffer key = entry.getKey().duplicate();
+					out.writeInt(key.remaining());
+					while (key.hasRemaining()) {
+						out.write(key.get());
+					}
+					int[] result = entry.getValue();
+					out.writeInt(result.length);
+					for (int i : result) {
+						out.writeInt(i);
+					}
+				}
+			}
+			// replace atomically so other frameworks sharing the file never see a partial
+			// cache
+			try {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			tmp = null;
+		} catch (IOException e) {
+			if (debug) {
+				Debug.printStackTrace(e);
+			}
+		} finally {
+			if (tmp != null) {
+				tmp.delete();
+			}
+		}
+	}
+
+	/**
+	 * A lookup of a resolution result for the state of a resolve process.
+	 */
+	final class Lookup {
+		private final ByteBuffer key;
+		private final ModuleRevision[] revisions;
+		private final Map<ModuleRevision, Integer> indexes;
+		private final Map<ModuleRevision, ModuleWiring> wirings;
+		private final Collection<ModuleRevision> disabled;
+
+		Lookup(ByteBuffer key, ModuleRevision[] revisions, Map<ModuleRevision, Integer> indexes,
+				Map<ModuleRevision, ModuleWiring> wirings, Collection<ModuleRevision> disabled) {
+			this.key = key;
+			this.revisions = revisions;
+			this.indexes = indexes;
+			this.wirings = wirings;
+			this.disabled = disabled;
+		}
+
+		/**
+		 * Returns the cached result for this lookup.
+		 *
+		 * @return the cached result or {@code null} if there is no valid cached result
+		 */
+		Map<Resource, List<Wire>> get() {
+			int[] data = ResolutionCache.this.get(key);
+			if (data == null) {
+				return null;
+			}
+			Map<Resource, List<Wire>> result = decode(data);
+			if (result == null) {
+				// the cached result does not fit the current state
+				ResolutionCache.this.remove(key);
+			}
+			return result;
+		}
+
+		/**
+		 * Caches the specified resolution result for this lookup.
+		 *
+		 * @param result the result of the resolver
+		 */
+		void put(Map<Resource, List<Wire>> result) {
+			int[] data = encode(result);
+			if (data != null) {
+				ResolutionCache.this.put(key, data);
+			}
+		}
+
+		private int[] encode(Map<Resource, List<Wire>> result) {
+			int size = 1;
+			for (List<Wire> wires : result.values()) {
+				size += 2 + wires.size() * WIRE_SIZE;
+			}
+			int[] data = new int[size];
+			int i = 0;
+			data[i++] = result.size();
+			for (Map.Entry<Resource, List<Wire>> entry : result.entrySet()) {
+				Integer requirer = indexes.get(entry.getKey());
+				if (requirer == null) {
+					return null;
+				}
+				data[i++] = requirer;
+				data[i++] = entry.getValue().size();
+				for (Wire wire : entry.getValue()) {
+					if (!(wire.getCapability() instanceof ModuleCapability)
+							|| !(wire.getRequirement() instanceof ModuleRequirement)) {
+						return null;
+					}
+					ModuleCapability capability = (ModuleCapability) wire.getCapability();
+					ModuleRequirement requirement = (ModuleRequirement) wire.getRequirement();
+					Integer capabilityRevision = indexes.get(capability.getRevision());
+					Integer requirementRevision = indexes.get(requirement.getRevision());
+					Integer provider = indexes.get(wire.getProvider());
+					Integer wireRequirer = indexes.get(wire.getRequirer());
+					if (capabilityRevision == null || requirementRevision == null || provider == null
+							|| wireRequirer == null) {
+						return null;
+					}
+					data[i++] = requirementRevision;
+					data[i++] = requirement.getRevision().getModuleRequirements(null).indexOf(requirement);
+					data[i++] = capabilityRevision;
+					data[i++] = capability.getRevision().getModuleCapabilities(null).indexOf(capability);
+					data[i++] = provider;
+					data[i++] = wireRequirer;
+				}
+			}
+			return data;
+		}
+
+		private Map<Resource, List<Wire>> decode(int[] data) {
+			try {
+				int i = 0;
+				int numRequirers = data[i++];
+				Map<Resource, List<Wire>> result = new LinkedHashMap<>(numRequirers * 4 / 3 + 1);
+				for (int r = 0; r < numRequirers; r++) {
+					ModuleRevision requirer = revisions[data[i++]];
+					if (disabled.contains(requirer)) {
+						return null;
+					}
+					int numWires = data[i++];
+					List<Wire> wires = new ArrayList<>(numWires);
+					for (int w = 0; w < numWires; w++) {
+						ModuleRequirement requirement = revisions[data[i++]].getModuleRequirements(null)
+								.get(data[i++]);
+						ModuleCapability capability = revisions[data[i++]].getModuleCapabilities(null).get(data[i++]);
+						ModuleRevision provider = revisions[data[i++]];
+						ModuleRevision wireRequirer = revisions[data[i++]];
+						if (!requirement.getNamespace().equals(capability.getNamespace())
+								|| !requirement.matches(capability)) {
+							return null;
+						}
+						wires.add(new ModuleWire(capability, provider, requirement, wireRequirer));
+					}
+					result.put(requirer, wires);
+				}
+				// all providers must be resolved already or be resolved by this result
+				for (List<Wire> wires : result.values()) {
+					for (Wire wire : wires) {
+						Resource provider = wire.getProvider();
+						if (!wirings.containsKey(provider) && !result.containsKey(provider)) {
+							return null;
+						}
+					}
+				}
+				return i == data.length ? result : null;
+			} catch (IndexOutOfBoundsException e) {
+				return null;
+			}
+		}
+	}
+
+	private static final OutputStream NULL_OUTPUT = new OutputStream() {
+		@Override
+		public void write(int b) {
+			// only used to feed a digest
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			// only used to feed a digest
+		}
+	};
+}
@@ -201,6 +201,23 @@ public class CaseInsensitiveDictionaryMap<K, V> extends Dictionary<K, V> impleme
 		return null;
 	}
 
+	/**
+	 * Returns a key object for the specified String key which can be passed to
+	 * {@link #get(Object)} to locate the key in a case-insensitive manner. Callers
+	 * that look up the same key many times can resolve the key once and avoid
+	 * wrapping it on each lookup.
+	 *
+	 * @param key The String key.
+	 * @return A key object to use with {@link #get(Object)}.
+	 */
+	public static Object caseInsensitiveKey(String key) {
+		CaseInsensitiveKey commonKey = findCommonKeyIndex(key);
+		if (commonKey != null) {
+			return commonKey;
+		}
+		return new CaseInsensitiveKey(key);
+	}
+
 	final Map<Object, V> map;
 
 	/**
@@ -37,6 +37,7 @@ import org.eclipse.osgi.internal.hookregistry.StorageHookFactory;
 import org.eclipse.osgi.internal.hookregistry.StorageHookFactory.StorageHook;
 import org.eclipse.osgi.internal.loader.BundleLoader;
 import org.eclipse.osgi.internal.loader.ModuleClassLoader;
+import org.eclipse.osgi.internal.loader.classpath.ClasspathManager;
 import org.eclipse.osgi.storage.BundleInfo.Generation;
 import org.eclipse.osgi.storage.bundlefile.BundleFile;
 import org.eclipse.osgi.storage.bundlefile.BundleFileWrapperChain;
@@ -161,6 +162,11 @@ public class ConnectHookConfigurator implements HookConfigurator {
 				}
 				return null;
 			}
+
+			@Override
+			public boolean isProcessClassRequired(String name, ClasspathManager manager) {
+				return false;
+			}
 		});
 
 		hookRegistry.addActivatorHookFactory(() -> {
@@ -79,6 +79,10 @@ public class Debug implements DebugOptionsListener {
 	 * Filter Debug option key.
 	 */
 	public static final String OPTION_DEBUG_FILTER = ECLIPSE_OSGI + "/debug/filter"; //$NON-NLS-1$
+	/**
+	 * Filter cache Debug option key.
+	 */
+	public static final String OPTION_DEBUG_FILTER_CACHE = ECLIPSE_OSGI + "/debug/filter/cache"; //$NON-NLS-1$
 	/**
 	 * Security Debug option key.
 	 */
@@ -162,6 +166,10 @@ public class Debug implements DebugOptionsListener {
 	 * Filter debug flag.
 	 */
 	public boolean DEBUG_FILTER = false; // "debug.filter"
+	/**
+	 * Filter cache debug flag.
+	 */
+	public boolean DEBUG_FILTER_CACHE = false; // "debug/filter/cache"
 	/**
 	 * Security debug flag.
 	 */
@@ -218,6 +226,7 @@ public class Debug implements DebugOptionsListener {
 		DEBUG_MANIFEST = dbgOptions.getBooleanOption(OPTION_DEBUG_MANIFEST, false);
 		SupplementDebug.STATIC_DEBUG_MANIFEST = DEBUG_MANIFEST;
 		DEBUG_FILTER = dbgOptions.getBooleanOption(OPTION_DEBUG_FILTER, false);
+		DEBUG_FILTER_CACHE = dbgOptions.getBooleanOption(OPTION_DEBUG_FILTER_CACHE, false);
 		DEBUG_SECURITY = dbgOptions.getBooleanOption(OPTION_DEBUG_SECURITY, false);
 		DEBUG_STARTLEVEL = dbgOptions.getBooleanOption(OPTION_DEBUG_STARTLEVEL, false);
 		DEBUG_PACKAGEADMIN = dbgOptions.getBooleanOption(OPTION_DEBUG_PACKAGEADMIN, false);
@@ -212,6 +212,7 @@ public class EquinoxConfiguration implements EnvironmentInfo {
 
 	public static final String PROP_EQUINOX_SECURITY = "eclipse.security"; //$NON-NLS-1$
 	public static final String PROP_FILE_LIMIT = "osgi.bundlefile.limit"; //$NON-NLS-1$
+	public static final String PROP_BUNDLE_FILE_MAP = "equinox.bundlefile.map"; //$NON-NLS-1$
 
 	public final static String PROP_CLASS_CERTIFICATE_SUPPORT = "osgi.support.class.certificate"; //$NON-NLS-1$
 	public final static String PROP_CLASS_LOADER_TYPE = "osgi.classloader.type"; //$NON-NLS-1$
@@ -233,6 +234,10 @@ public class EquinoxConfiguration implements EnvironmentInfo {
 	public static final String PROP_ALLOW_RESTRICTED_PROVIDES = "osgi.equinox.allow.restricted.provides"; //$NON-NLS-1$
 	public static final String PROP_LOG_HISTORY_MAX = "equinox.log.history.max"; //$NON-NLS-1$
 	public static final String PROP_LOG_CAPTURE_ENTRY_LOCATION = "equinox.log.capture.entry.location"; //$NON-NLS-1$
+	public static final String PROP_FILTER_CACHE_MAX_MEMORY = "equinox.filter.cache.max.memory"; //$NON-NLS-1$
+	public static final String PROP_STORAGE_JOURNAL_SIZE = "equinox.storage.journal.size"; //$NON-NLS-1$
+	public static final String PROP_LOADER_MISS_CACHE_SIZE = "equinox.loader.miss.cache.size"; //$NON-NLS-1$
+	public static final String PROP_MANIFEST_LOCALIZATION_CACHE = "equinox.manifest.localization.cache"; //$NON-NLS-1$
 
 	@Deprecated
 	public static final String PROP_RESOLVER_THREAD_COUNT = "equinox.resolver.thead.count"; //$NON-NLS-1$
@@ -241,6 +246,8 @@ public class EquinoxConfiguration implements EnvironmentInfo {
 	public static final String PROP_EQUINOX_START_LEVEL_RESTRICT_PARALLEL = "equinox.start.level.restrict.parallel"; //$NON-NLS-1$
 	public static final String PROP_RESOLVER_REVISION_BATCH_SIZE = "equinox.resolver.revision.batch.size"; //$NON-NLS-1$
 	public static final String PROP_RESOLVER_BATCH_TIMEOUT = "equinox.resolver.batch.timeout"; //$NON-NLS-1$
+	public static final String PROP_RESOLVER_PARALLEL_PERMUTATIONS = "equinox.resolver.parallel.permutations"; //$NON-NLS-1$
+	public static final String PROP_RESOLVER_CACHE = "equinox.resolver.cache"; //$NON-NLS-1$
 
 	public static final String PROP_SYSTEM_PROVIDE_HEADER = "equinox.system.provide.header"; //$NON-NLS-1$
 	public static final String SYSTEM_PROVIDE_HEADER_ORIGINAL = "original"; //$NON-NLS-1$
@@ -32,6 +32,7 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.osgi.framework.eventmgr.ListenerQueue;
 import org.eclipse.osgi.framework.log.FrameworkLogEntry;
 import org.eclipse.osgi.framework.util.SecureAction;
@@ -39,6 +40,7 @@ import org.eclipse.osgi.internal.connect.ConnectBundleFile;
 import org.eclipse.osgi.internal.debug.Debug;
 import org.eclipse.osgi.internal.hookregistry.ClassLoaderHook;
 import org.eclipse.osgi.internal.hookregistry.HookRegistry;
+import org.eclipse.osgi.internal.loader.ModuleClassLoader;
 import org.eclipse.osgi.internal.location.EquinoxLocations;
 import org.eclipse.osgi.internal.log.EquinoxLogServices;
 import org.eclipse.osgi.internal.messages.Msg;
@@ -62,6 +64,9 @@ import org.osgi.util.tracker.ServiceTracker;
 
 public class EquinoxContainer implements ThreadFactory, Runnable {
 	public static final String NAME = "org.eclipse.osgi"; //$NON-NLS-1$
+	private static final int DEFAULT_LOADER_MISS_CACHE_SIZE = 256;
+	private static final String[] FIND_HOOK_METHODS = { "preFindClass", "postFindClass", "preFindResource", //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			"postFindResource", "preFindResources", "postFindResources" }; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 	static final SecureAction secureAction = AccessController.doPrivileged(SecureAction.createSecureAction());
 
 	private final ConnectModules connectModules;
@@ -72,6 +77,8 @@ public class EquinoxContainer implements ThreadFactory, Runnable {
 	private final String[] bootDelegationStems;
 	private final boolean bootDelegateAll;
 	private final boolean isProcessClassRecursionSupportedByAll;
+	private final int loaderMissCacheSize;
+	private final AtomicLong classSpaceTimestamp = new AtomicLong();
 	private final EquinoxEventPublisher eventPublisher;
 
 	private final Object monitor = new Object();
@@ -145,6 +152,39 @@ public class EquinoxContainer implements ThreadFactory, Runnable {
 			supportRecursion &= hook.isProcessClassRecursionSupported();
 		}
 		isProcessClassRecursionSupportedByAll = supportRecursion;
+
+		// The find methods of class loader hooks can find a class or resource the
+		// delegation did not find; do not cache misses if any hook implements them.
+		loaderMissCacheSize = hasFindHooks(equinoxConfig.getHookRegistry().getClassLoaderHooks()) ? 0
+				: getLoaderMissCacheSize(equinoxConfig);
+	}
+
+	private static boolean hasFindHooks(List<ClassLoaderHook> hooks) {
+		for (ClassLoaderHook hook : hooks) {
+			for (String name : FIND_HOOK_METHODS) {
+				try {
+					Method method = hook.getClass().getMethod(name, String.class, ModuleClassLoader.class);
+					if (method.getDeclaringClass() != ClassLoaderHook.class) {
+						return true;
+					}
+				} catch (NoSuchMethodException e) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static int getLoaderMissCacheSize(EquinoxConfiguration equinoxConfig) {
+		String prop = equinoxConfig.getConfiguration(EquinoxConfiguration.PROP_LOADER_MISS_CACHE_SIZE);
+		if (prop != null) {
+			try {
+				return Integer.parseInt(prop);
+			} catch (NumberFormatException e) {
+				// use the default
+			}
+		}
+		return DEFAULT_LOADER_MISS_CACHE_SIZE;
 	}
 
 	private static void initConnectFramework(ModuleConnector moduleConnector, EquinoxConfiguration equinoxConfig) {
@@ -214,6 +254,40 @@ public class EquinoxContainer implements ThreadFactory, Runnable {
 		return isProcessClassRecursionSupportedByAll;
 	}
 
+	/**
+	 * Returns the maximum number of misses each bundle loader caches, or zero if
+	 * misses are not cached. Misses are not cached if a class loader hook
+	 * implements the find methods called by the bundle loader.
+	 * 
+	 * @return the maximum number of cached misses per bundle loader
+	 */
+	public int getLoaderMissCacheSize() {
+		return loaderMissCacheSize;
+	}
+
+	/**
+	 * Returns the timestamp of the class space. The timestamp changes any time the
+	 * classes or resources a bundle loader is able to find may have changed.
+	 * Misses cached by bundle loaders are only valid for the timestamp read
+	 * before searching.
+	 * 
+	 * @return the timestamp of the class space
+	 */
+	public long getClassSpaceTimestamp() {
+		return classSpaceTimestamp.get();
+	}
+
+	/**
+	 * Changes the {@link #getClassSpaceTimestamp() class space timestamp}. This
+	 * must be called after a change which may allow a bundle loader to find a
+	 * class or resource it could not find before. For example, a class loader
+	 * hook must call this method when a class or resource that it did not find
+	 * before becomes available from one of its find methods.
+	 */
+	public void invalidateClassSpace() {
+		classSpaceTimestamp.incrementAndGet();
+	}
+
 	void init() {
 		eventPublisher.init();
 		synchronized (this.monitor) {
@@ -239,6 +313,9 @@ public class EquinoxContainer implements ThreadFactory, Runnable {
 		// do this outside of the lock to avoid deadlock
 		currentSaver.close();
 		currentStorage.close();
+		if (equinoxConfig.getDebug().DEBUG_FILTER_CACHE) {
+			Debug.println(FilterImpl.getCache().toString());
+		}
 		// Must be done last since it will result in termination of the
 		// framework active thread.
 		currentExecutor.shutdown();
@@ -52,6 +52,7 @@ import org.osgi.framework.BundleEvent;
 import org.osgi.framework.Constants;
 import org.osgi.framework.FrameworkEvent;
 import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.hooks.resolver.ResolverHook;
 import org.osgi.framework.hooks.resolver.ResolverHookFactory;
 import org.osgi.framework.wiring.BundleRevision;
 
@@ -213,6 +214,11 @@ public class EquinoxContainerAdaptor extends ModuleContainerAdaptor {
 		return hooks.getResolverHookFactory();
 	}
 
+	@Override
+	public String getResolverHookKey(ResolverHook hook) {
+		return hooks.getResolverHookKey(hook);
+	}
+
 	@Override
 	public void publishContainerEvent(ContainerEvent type, Module module, Throwable error,
 			FrameworkListener... listeners) {
@@ -228,6 +234,10 @@ public class EquinoxContainerAdaptor extends ModuleContainerAdaptor {
 		if (publisher != null) {
 			publisher.publishBundleEvent(getType(type), module.getBundle(), origin.getBundle());
 		}
+		if (type == ModuleEvent.RESOLVED || type == ModuleEvent.UNRESOLVED) {
+			// buddy policies are reset by synchronous listeners to these events
+			container.invalidateClassSpace();
+		}
 	}
 
 	@Override
@@ -378,6 +388,8 @@ public class EquinoxContainerAdaptor extends ModuleContainerAdaptor {
 
 	@Override
 	public void updatedDatabase() {
+		// the wirings may have changed
+		container.invalidateClassSpace();
 		StorageSaver saver = container.getStorageSaver();
 		if (saver == null)
 			return;
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.internal.framework;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.osgi.framework.InvalidSyntaxException;
+
+/**
+ * A memory bounded cache of parsed filters keyed by the filter string. A parsed
+ * {@link FilterImpl} tree is never modified after parsing so a single instance
+ * can be shared by all callers creating a filter from the same string.
+ * <p>
+ * {@link FilterImpl#newInstance(String)} is static and is used without a
+ * framework (e.g. by {@code FrameworkUtil.createFilter}), so there is a single
+ * cache for the VM. It is configured once, when it is created, from the
+ * {@link EquinoxConfiguration#PROP_FILTER_CACHE_MAX_MEMORY} system property.
+ * The memory used by a cached filter is estimated from the length of its filter
+ * string. When the estimated memory exceeds the maximum the least recently used
+ * filters are evicted until a quarter of the maximum is free again.
+ */
+public final class FilterCache {
+	/** The default maximum estimated memory of the cached filters in bytes. */
+	public static final long DEFAULT_MAX_MEMORY = 1024 * 1024;
+
+	private static final class Entry {
+		final FilterImpl filter;
+		final int weight;
+		volatile long lastAccess;
+
+		Entry(FilterImpl filter, int weight, long lastAccess) {
+			this.filter = filter;
+			this.weight = weight;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	private final ConcurrentMap<String, Entry> filters = new ConcurrentHashMap<>();
+	private final AtomicLong memory = new AtomicLong();
+	// orders the accesses for the least recently used eviction
+	private final AtomicLong clock = new AtomicLong();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private volatile long maxMemory;
+
+	/**
+	 * Creates an empty cache. {@link FilterImpl#newInstance(String)} uses the
+	 * {@link FilterImpl#getCache() cache} for the VM; other caches are independent
+	 * of it.
+	 *
+	 * @param maxMemory the maximum estimated memory of the cached filters in bytes
+	 */
+	public FilterCache(long maxMemory) {
+		this.maxMemory = maxMemory;
+	}
+
+	static FilterCache create() {
+		long maxMemory = DEFAULT_MAX_MEMORY;
+		String prop = System.getProperty(EquinoxConfiguration.PROP_FILTER_CACHE_MAX_MEMORY);
+		if (prop != null) {
+			try {
+				maxMemory = Long.parseLong(prop.trim());
+			} catch (NumberFormatException e) {
+				// use the default
+			}
+		}
+		return new FilterCache(maxMemory);
+	}
+
+	/**
+	 * Returns an estimate of the memory in bytes used by a cached filter. This
+	 * accounts for the key, the parsed tree which holds the attributes and values
+	 * of the filter string, and the normalized filter string.
+	 *
+	 * @param filterString the filter string
+	 * @return the estimated memory of the cached filter
+	 */
+	static int weigh(String filterString) {
+		return 128 + 6 * filterString.length();
+	}
+
+	/**
+	 * Returns the parsed filter for the specified filter string, parsing it if it
+	 * is not already cached.
+	 *
+	 * @param filterString the filter string
+	 * @return the parsed filter
+	 * @throws InvalidSyntaxException if the filter string is invalid
+	 */
+	public FilterImpl get(String filterString) throws InvalidSyntaxException {
+		Entry entry = filters.get(filterString);
+		if (entry != null) {
+			entry.lastAccess = clock.incrementAndGet();
+			hits.increment();
+			return entry.filter;
+		}
+		misses.increment();
+		FilterImpl filter = FilterImpl.parse(filterString, false);
+		long max = maxMemory;
+		int weight = weigh(filterString);
+		if (weight > max) {
+			// also covers a disabled cache
+			return filter;
+		}
+		Entry existing = filters.putIfAbsent(filterString, new Entry(filter, weight, clock.incrementAndGet()));
+		if (existing != null) {
+			return existing.filter;
+		}
+		if (memory.addAndGet(weight) > max) {
+			evict(max);
+		}
+		return filter;
+	}
+
+	private synchronized void evict(long max) {
+		if (memory.get() <= max) {
+			// another thread already evicted
+			return;
+		}
+		// evict down to three quarters so that eviction is not done on every miss
+		long target = max - (max >> 2);
+		List<Map.Entry<String, Entry>> entries = new ArrayList<>(filters.entrySet());
+		entries.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+		for (Map.Entry<String, Entry> e : entries) {
+			if (memory.get() <= target) {
+				break;
+			}
+			if (filters.remove(e.getKey(), e.getValue())) {
+				memory.addAndGet(-e.getValue().weight);
+				evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Sets the maximum estimated memory of the cached filters in bytes. A value
+	 * less than or equal to zero disables the cache.
+	 *
+	 * @param maxMemory the maximum estimated memory in bytes
+	 */
+	public void setMaxMemory(long maxMemory) {
+		this.maxMemory = maxMemory;
+		if (maxMemory <= 0) {
+			for (String filterString : filters.keySet()) {
+				Entry removed = filters.remove(filterString);
+				if (removed != null) {
+					memory.addAndGet(-removed.weight);
+				}
+			}
+		} else if (memory.get() > maxMemory) {
+			evict(maxMemory);
+		}
+	}
+
+	public long getMaxMemory() {
+		return maxMemory;
+	}
+
+	/**
+	 * Returns the estimated memory of the cached filters in bytes.
+	 *
+	 * @return the estimated memory in bytes
+	 */
+	public long getMemory() {
+		return memory.get();
+	}
+
+	public int getSize() {
+		return filters.size();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "FilterCache[size=" + getSize() + ", memory=" + getMemory() + ", maxMemory=" + maxMemory + ", hits=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+				+ getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions() + "]"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+}
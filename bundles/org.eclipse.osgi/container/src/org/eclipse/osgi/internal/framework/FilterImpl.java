@@ -157,6 +157,9 @@ import org.osgi.framework.Version;
  * will evaluate to {@code false} .
  */
 public abstract class FilterImpl implements Filter {
+	/* cache of parsed filters keyed by filter string */
+	private static final FilterCache cache = FilterCache.create();
+
 	/* normalized filter string for Filter object */
 	private transient String filterString;
 
@@ -176,9 +179,26 @@ public abstract class FilterImpl implements Filter {
 	}
 
 	public static FilterImpl newInstance(String filterString, boolean debug) throws InvalidSyntaxException {
+		if (debug) {
+			// debug filters print their evaluation and must not be shared
+			return parse(filterString, debug);
+		}
+		return cache.get(requireNonNull(filterString));
+	}
+
+	static FilterImpl parse(String filterString, boolean debug) throws InvalidSyntaxException {
 		return new Parser(filterString, debug).parse();
 	}
 
+	/**
+	 * Returns the cache of parsed filters used by {@link #newInstance(String)}.
+	 *
+	 * @return the filter cache
+	 */
+	public static FilterCache getCache() {
+		return cache;
+	}
+
 	FilterImpl() {
 		// empty constructor for subclasses
 	}
@@ -213,6 +233,12 @@ public abstract class FilterImpl implements Filter {
 	 */
 	@Override
 	public boolean match(Dictionary<String, ?> dictionary) {
+		if (dictionary instanceof CaseInsensitiveDictionaryMap) {
+			// already case insensitive and cannot contain case variants of a key
+			@SuppressWarnings("unchecked")
+			Map<String, ?> coerced = (Map<String, ?>) dictionary;
+			return matches0(coerced);
+		}
 		return matches0((dictionary != null) ? new CaseInsensitiveDictionaryMap<>(dictionary) : Collections.emptyMap());
 	}
 
@@ -471,15 +497,30 @@ public abstract class FilterImpl implements Filter {
 		/** debug mode */
 		final boolean debug;
 		final String attr;
+		/** the attr resolved once for case insensitive lookups */
+		private final Object caseInsensitiveAttr;
 
 		Item(String attr, boolean debug) {
 			this.attr = attr;
 			this.debug = debug;
+			this.caseInsensitiveAttr = CaseInsensitiveDictionaryMap.caseInsensitiveKey(attr);
 		}
 
 		@Override
 		boolean matches0(Map<String, ?> map) {
-			return compare(map.get(attr));
+			return compare(getValue(map));
+		}
+
+		/**
+		 * Returns the value of the attr from the map. Case insensitive maps are
+		 * searched with the pre-resolved key to avoid wrapping the attr on each
+		 * lookup.
+		 */
+		final Object getValue(Map<String, ?> map) {
+			if (map instanceof CaseInsensitiveDictionaryMap) {
+				return ((CaseInsensitiveDictionaryMap<?, ?>) map).get(caseInsensitiveAttr);
+			}
+			return map.get(attr);
 		}
 
 		abstract String operation();
@@ -737,7 +778,7 @@ public abstract class FilterImpl implements Filter {
 			if (debug) {
 				Debug.println("PRESENT(" + attr + ")"); //$NON-NLS-1$ //$NON-NLS-2$
 			}
-			return map.get(attr) != null;
+			return getValue(map) != null;
 		}
 
 		@Override
@@ -844,22 +885,60 @@ public abstract class FilterImpl implements Filter {
 	}
 
 	static class Equal extends Item {
+		/** marks a value which cannot be converted to a type */
+		private static final Object CONVERSION_FAILED = new Object();
+		private static final Object[] NO_CONVERSIONS = new Object[0];
+		/** maximum number of types for which a converted value is kept */
+		private static final int MAX_CONVERSIONS = 4;
+
 		final String value;
-		private Object cached;
+		/**
+		 * The value converted to each observed type. The array holds pairs of the
+		 * type and the converted value (or CONVERSION_FAILED) and is replaced when a
+		 * type is added. Losing a concurrent update only results in converting again.
+		 */
+		private volatile Object[] conversions = NO_CONVERSIONS;
 
 		Equal(String attr, String value, boolean debug) {
 			super(attr, debug);
 			this.value = value;
 		}
 
-		private <T> T convert(Class<T> type, Function<String, ? extends T> converter) {
-			@SuppressWarnings("unchecked")
-			T converted = (T) cached;
-			if ((converted != null) && type.isInstance(converted)) {
-				return converted;
+		/**
+		 * Returns the value converted to the specified type. The conversion is done
+		 * once per type.
+		 *
+		 * @return the converted value or {@code null} if the value cannot be
+		 *         converted to the type.
+		 */
+		private <T> T convert(Class<? extends T> type, Function<String, ? extends T> converter) {
+			Object[] current = conversions;
+			for (int i = 0; i < current.length; i += 2) {
+				if (current[i] == type) {
+					return converted(current[i + 1]);
+				}
 			}
-			cached = converted = converter.apply(value.trim());
-			return converted;
+			Object converted;
+			try {
+				converted = converter.apply(value.trim());
+			} catch (IllegalArgumentException e) {
+				converted = null;
+			}
+			if (converted == null) {
+				converted = CONVERSION_FAILED;
+			}
+			if (current.length < MAX_CONVERSIONS * 2) {
+				Object[] updated = Arrays.copyOf(current, current.length + 2);
+				updated[current.length] = type;
+				updated[current.length + 1] = converted;
+				conversions = updated;
+			}
+			return converted(converted);
+		}
+
+		@SuppressWarnings("unchecked")
+		private static <T> T converted(Object converted) {
+			return converted == CONVERSION_FAILED ? null : (T) converted;
 		}
 
 		@Override
@@ -883,11 +962,14 @@ public abstract class FilterImpl implements Filter {
 
 		@Override
 		boolean compare_Version(Version value1) {
+			Version version2 = convert(Version.class, Version::valueOf);
+			if (version2 == null) {
+				return false;
+			}
 			try {
-				Version version2 = convert(Version.class, Version::valueOf);
 				return comparison(value1.compareTo(version2));
 			} catch (Exception e) {
-				// if the valueOf or compareTo method throws an exception
+				// if the compareTo method throws an exception
 				return false;
 			}
 		}
@@ -911,35 +993,29 @@ public abstract class FilterImpl implements Filter {
 
 		@Override
 		boolean compare_Double(double doubleval) {
-			double doubleval2;
-			try {
-				doubleval2 = convert(Double.class, Double::valueOf).doubleValue();
-			} catch (IllegalArgumentException e) {
+			Double doubleval2 = convert(Double.class, Double::valueOf);
+			if (doubleval2 == null) {
 				return false;
 			}
-			return comparison(Double.compare(doubleval, doubleval2));
+			return comparison(Double.compare(doubleval, doubleval2.doubleValue()));
 		}
 
 		@Override
 		boolean compare_Float(float floatval) {
-			float floatval2;
-			try {
-				floatval2 = convert(Float.class, Float::valueOf).floatValue();
-			} catch (IllegalArgumentException e) {
+			Float floatval2 = convert(Float.class, Float::valueOf);
+			if (floatval2 == null) {
 				return false;
 			}
-			return comparison(Float.compare(floatval, floatval2));
+			return comparison(Float.compare(floatval, floatval2.floatValue()));
 		}
 
 		@Override
 		boolean compare_Long(long longval) {
-			long longval2;
-			try {
-				longval2 = convert(Long.class, Long::valueOf).longValue();
-			} catch (IllegalArgumentException e) {
+			Long longval2 = convert(Long.class, Long::valueOf);
+			if (longval2 == null) {
 				return false;
 			}
-			return comparison(Long.compare(longval, longval2));
+			return comparison(Long.compare(longval, longval2.longValue()));
 		}
 
 		@Override
@@ -977,52 +1053,12 @@ public abstract class FilterImpl implements Filter {
 		}
 
 		Object valueOf(Class<?> target) {
-			do {
-				Method method;
-				try {
-					method = target.getMethod("valueOf", String.class); //$NON-NLS-1$
-				} catch (NoSuchMethodException e) {
-					break;
-				}
-				if (Modifier.isStatic(method.getModifiers()) && target.isAssignableFrom(method.getReturnType())) {
-					setAccessible(method);
-					try {
-						return method.invoke(null, value.trim());
-					} catch (Error e) {
-						throw e;
-					} catch (Throwable e) {
-						return null;
-					}
-				}
-			} while (false);
-
-			do {
-				Constructor<?> constructor;
-				try {
-					constructor = target.getConstructor(String.class);
-				} catch (NoSuchMethodException e) {
-					break;
-				}
-				setAccessible(constructor);
-				try {
-					return constructor.newInstance(value.trim());
-				} catch (Error e) {
-					throw e;
-				} catch (Throwable e) {
-					return null;
-				}
-			} while (false);
-
-			return null;
-		}
-
-		private static void setAccessible(final AccessibleObject accessible) {
-			if (!accessible.isAccessible()) {
-				AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
-					accessible.setAccessible(true);
-					return null;
-				});
+			StringConverter converter = StringConverter.converters.get(target);
+			if (target.getClassLoader() == null) {
+				// boot types cannot pin a class loader so the converted value is kept
+				return convert(target, converter);
 			}
+			return converter.apply(value.trim());
 		}
 
 		@Override
@@ -1246,6 +1282,78 @@ public abstract class FilterImpl implements Filter {
 		}
 	}
 
+	/**
+	 * Converts a filter value to a type using the public static
+	 * {@code valueOf(String)} method or the public {@code (String)} constructor of
+	 * the type. The reflective lookup is done once per type.
+	 */
+	static final class StringConverter implements Function<String, Object> {
+		static final ClassValue<StringConverter> converters = new ClassValue<StringConverter>() {
+			@Override
+			protected StringConverter computeValue(Class<?> type) {
+				return new StringConverter(type);
+			}
+		};
+
+		private final Method method;
+		private final Constructor<?> constructor;
+
+		StringConverter(Class<?> target) {
+			Method valueOf = null;
+			try {
+				valueOf = target.getMethod("valueOf", String.class); //$NON-NLS-1$
+				if (!Modifier.isStatic(valueOf.getModifiers()) || !target.isAssignableFrom(valueOf.getReturnType())) {
+					valueOf = null;
+				}
+			} catch (NoSuchMethodException e) {
+				// try the constructor
+			}
+			Constructor<?> stringConstructor = null;
+			if (valueOf == null) {
+				try {
+					stringConstructor = target.getConstructor(String.class);
+				} catch (NoSuchMethodException e) {
+					// no conversion possible
+				}
+			}
+			this.method = setAccessible(valueOf);
+			this.constructor = setAccessible(stringConstructor);
+		}
+
+		/**
+		 * Converts the value.
+		 *
+		 * @return the converted value or {@code null} if the value cannot be
+		 *         converted.
+		 */
+		@Override
+		public Object apply(String value) {
+			try {
+				if (method != null) {
+					return method.invoke(null, value);
+				}
+				if (constructor != null) {
+					return constructor.newInstance(value);
+				}
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				// fall through
+			}
+			return null;
+		}
+
+		private static <A extends AccessibleObject> A setAccessible(final A accessible) {
+			if ((accessible != null) && !accessible.isAccessible()) {
+				AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
+					accessible.setAccessible(true);
+					return null;
+				});
+			}
+			return accessible;
+		}
+	}
+
 	/**
 	 * Returns the leftmost required objectClass value for the filter to evaluate to
 	 * true.
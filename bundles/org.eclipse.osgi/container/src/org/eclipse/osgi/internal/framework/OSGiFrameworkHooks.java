@@ -56,6 +56,13 @@ class OSGiFrameworkHooks {
 		return resolverHookFactory;
 	}
 
+	public String getResolverHookKey(ResolverHook hook) {
+		if (hook instanceof CoreResolverHookFactory.CoreResolverHook) {
+			return ((CoreResolverHookFactory.CoreResolverHook) hook).getKey();
+		}
+		return null;
+	}
+
 	public ModuleCollisionHook getModuleCollisionHook() {
 		return collisionHook;
 	}
@@ -234,6 +241,16 @@ class OSGiFrameworkHooks {
 				this.systemModule = systemModule;
 			}
 
+			/*
+			 * Resolver hooks can change their decisions at any time (e.g. the region
+			 * digraph hook when a region is connected) so a key is only known when no
+			 * hooks are registered. The core hook itself only filters the resolvable
+			 * revisions which happens before a cached result is looked up.
+			 */
+			String getKey() {
+				return hooks.isEmpty() ? "" : null; //$NON-NLS-1$
+			}
+
 			@Override
 			public void filterResolvable(Collection<BundleRevision> candidates) {
 				if (debug.DEBUG_HOOKS) {
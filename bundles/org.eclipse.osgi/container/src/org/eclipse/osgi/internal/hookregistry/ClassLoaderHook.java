@@ -29,6 +29,13 @@ import org.eclipse.osgi.storage.bundlefile.BundleEntry;
 
 /**
  * A class loading hook that hooks into a module class loader
+ * <p>
+ * A bundle loader caches the names of classes and resources it could not find.
+ * Misses are not cached if any hook overrides {@link #preFindClass},
+ * {@link #postFindClass}, {@link #preFindResource}, {@link #postFindResource},
+ * {@link #preFindResources} or {@link #postFindResources}. Any other hook
+ * which starts to find a class or resource it did not find before must call
+ * {@link org.eclipse.osgi.internal.framework.EquinoxContainer#invalidateClassSpace()}.
  */
 public abstract class ClassLoaderHook {
 	/**
@@ -364,6 +371,27 @@ public abstract class ClassLoaderHook {
 		return null;
 	}
 
+	/**
+	 * Returns true if this hook needs to be called to process and record the
+	 * definition of the specified class. If all hooks return false then the class
+	 * may be defined directly from the content of its bundle entry, for example
+	 * from a memory mapped bundle file, without reading its bytes into an array.
+	 * In that case neither
+	 * {@link #processClass(String, byte[], ClasspathEntry, BundleEntry, ClasspathManager)
+	 * processClass} nor
+	 * {@link #recordClassDefine(String, Class, byte[], ClasspathEntry, BundleEntry, ClasspathManager)
+	 * recordClassDefine} is called for the class.
+	 * <p>
+	 * The default implementation returns true.
+	 * 
+	 * @param name    the name of the class about to be defined
+	 * @param manager the classpath manager used to define the class
+	 * @return true if the hook needs to process or record the class bytes
+	 */
+	public boolean isProcessClassRequired(String name, ClasspathManager manager) {
+		return true;
+	}
+
 	/**
 	 * Returns true if this hook can support invoking
 	 * {@link ClassLoaderHook#processClass(String, byte[], ClasspathEntry, BundleEntry, ClasspathManager)
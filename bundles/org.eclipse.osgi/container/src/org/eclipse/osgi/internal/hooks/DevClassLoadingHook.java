@@ -157,4 +157,9 @@ public class DevClassLoadingHook extends ClassLoaderHook implements KeyedElement
 		return true;
 	}
 
+	@Override
+	public boolean isProcessClassRequired(String name, ClasspathManager manager) {
+		return false;
+	}
+
 }
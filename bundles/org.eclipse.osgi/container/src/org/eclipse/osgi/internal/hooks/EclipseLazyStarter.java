@@ -211,4 +211,9 @@ public class EclipseLazyStarter extends ClassLoaderHook {
 		return true;
 	}
 
+	@Override
+	public boolean isProcessClassRequired(String name, ClasspathManager manager) {
+		return false;
+	}
+
 }
@@ -128,6 +128,9 @@ public class BundleLoader extends ModuleLoader {
 	private final ClassLoader parent;
 	private final AtomicBoolean triggerClassLoaded = new AtomicBoolean(false);
 	private final AtomicBoolean firstUseOfInvalidLoader = new AtomicBoolean(false);
+	/* cache of class and resource names which could not be found; may be null */
+	private final MissCache classMisses;
+	private final MissCache resourceMisses;
 
 	/**
 	 * Returns the package name from the specified class name. The returned package
@@ -169,6 +172,9 @@ public class BundleLoader extends ModuleLoader {
 		this.container = container;
 		this.debug = container.getConfiguration().getDebug();
 		this.parent = parent;
+		int missCacheSize = container.getLoaderMissCacheSize();
+		this.classMisses = missCacheSize > 0 ? new MissCache(missCacheSize) : null;
+		this.resourceMisses = missCacheSize > 0 ? new MissCache(missCacheSize) : null;
 
 		// init the provided packages set
 		exportSources = new BundleLoaderSources(this);
@@ -326,6 +332,8 @@ public class BundleLoader extends ModuleLoader {
 		addFragmentExports(wiring.getModuleCapabilities(PackageNamespace.PACKAGE_NAMESPACE));
 		loadClassLoaderFragments(fragments);
 		clearManifestLocalizationCache();
+		// the fragments may provide classes and resources that were missing
+		container.invalidateClassSpace();
 	}
 
 	protected void clearManifestLocalizationCache() {
@@ -481,6 +489,24 @@ public class BundleLoader extends ModuleLoader {
 				bootDelegation = true;
 			}
 		}
+		long timestamp = 0;
+		if (classMisses != null) {
+			timestamp = container.getClassSpaceTimestamp();
+			Boolean terminal = classMisses.get(name, timestamp);
+			if (terminal != null) {
+				if (debug.DEBUG_LOADER) {
+					Debug.println("BundleLoader[" + this + "] class is a cached miss: " + name); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				// last ditch find loaded check in case something is reflectively
+				// calling defineClass on our loader.
+				Class<?> result = getModuleClassLoader().publicFindLoaded(name);
+				if (result != null)
+					return result;
+				if (terminal.booleanValue())
+					return generateException(name, generateException);
+				return findClassLastResort(name, parentDelegation, bootDelegation, generateException);
+			}
+		}
 		Class<?> result = null;
 		try {
 			result = (Class<?>) searchHooks(name, PRE_CLASS);
@@ -504,6 +530,8 @@ public class BundleLoader extends ModuleLoader {
 			}
 			if (result != null)
 				return result;
+			if (classMisses != null)
+				classMisses.put(name, true, timestamp);
 			return generateException(name, generateException);
 		}
 		// 4) search the required bundles
@@ -528,6 +556,8 @@ public class BundleLoader extends ModuleLoader {
 				result = source.loadClass(name);
 				if (result != null)
 					return result;
+				if (classMisses != null)
+					classMisses.put(name, true, timestamp);
 				return generateException(name, generateException);
 			}
 		}
@@ -543,6 +573,13 @@ public class BundleLoader extends ModuleLoader {
 			result = policy.doBuddyClassLoading(name);
 		if (result != null)
 			return result;
+		if (classMisses != null)
+			classMisses.put(name, false, timestamp);
+		return findClassLastResort(name, parentDelegation, bootDelegation, generateException);
+	}
+
+	private Class<?> findClassLastResort(String name, boolean parentDelegation, boolean bootDelegation,
+			boolean generateException) throws ClassNotFoundException {
 		// hack to support backwards compatibility for bootdelegation
 		// or last resort; do class context trick to work around VM bugs
 		if (parentDelegation && parent != null && !bootDelegation
@@ -690,6 +727,17 @@ public class BundleLoader extends ModuleLoader {
 			}
 		}
 
+		long timestamp = 0;
+		if (resourceMisses != null) {
+			timestamp = container.getClassSpaceTimestamp();
+			Boolean terminal = resourceMisses.get(name, timestamp);
+			if (terminal != null) {
+				if (debug.DEBUG_LOADER) {
+					Debug.println("BundleLoader[" + this + "] resource is a cached miss: " + name); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				return terminal.booleanValue() ? null : findResourceLastResort(name, bootDelegation);
+			}
+		}
 		URL result = null;
 		try {
 			result = (URL) searchHooks(name, PRE_RESOURCE);
@@ -707,7 +755,10 @@ public class BundleLoader extends ModuleLoader {
 				Debug.println("BundleLoader[" + this + "] loading from import package: " + source); //$NON-NLS-1$ //$NON-NLS-2$
 			}
 			// 3) found import source terminate search at the source
-			return source.getResource(name);
+			result = source.getResource(name);
+			if (result == null && resourceMisses != null)
+				resourceMisses.put(name, true, timestamp);
+			return result;
 		}
 		// 4) search the required bundles
 		source = findRequiredSource(pkgName, null);
@@ -727,9 +778,13 @@ public class BundleLoader extends ModuleLoader {
 		// was not found
 		if (source == null) {
 			source = findDynamicSource(pkgName);
-			if (source != null)
+			if (source != null) {
 				// must return the result of the dynamic import and do not continue
-				return source.getResource(name);
+				result = source.getResource(name);
+				if (result == null && resourceMisses != null)
+					resourceMisses.put(name, true, timestamp);
+				return result;
+			}
 		}
 
 		if (result == null)
@@ -745,13 +800,39 @@ public class BundleLoader extends ModuleLoader {
 			result = policy.doBuddyResourceLoading(name);
 		if (result != null)
 			return result;
+		if (resourceMisses != null)
+			resourceMisses.put(name, false, timestamp);
+		return findResourceLastResort(name, bootDelegation);
+	}
+
+	private URL findResourceLastResort(String name, boolean bootDelegation) {
 		// hack to support backwards compatibility for bootdelegation
 		// or last resort; do class context trick to work around VM bugs
 		if (parent != null && !bootDelegation
 				&& (container.getConfiguration().compatibilityBootDelegation || isRequestFromVM()))
 			// we don't need to continue if the resource is not found here
 			return parent.getResource(name);
-		return result;
+		return null;
+	}
+
+	/**
+	 * Returns the number of class lookups answered from the cache of classes
+	 * this loader could not find.
+	 * 
+	 * @return the number of cached class misses returned
+	 */
+	public long getClassMissCacheHits() {
+		return classMisses == null ? 0 : classMisses.getHits();
+	}
+
+	/**
+	 * Returns the number of resource lookups answered from the cache of resources
+	 * this loader could not find.
+	 * 
+	 * @return the number of cached resource misses returned
+	 */
+	public long getResourceMissCacheHits() {
+		return resourceMisses == null ? 0 : resourceMisses.getHits();
 	}
 
 	/**
@@ -1216,6 +1297,8 @@ public class BundleLoader extends ModuleLoader {
 			// gets added to the wiring first. This avoids issues if another
 			// thread tries to dynamic resolve before all is done here.
 			addDynamicImportPackage(dynamicImports.toArray(new String[dynamicImports.size()]));
+			// the new dynamic imports may provide classes and resources that were missing
+			container.invalidateClassSpace();
 		}
 	}
 
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.internal.loader;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of the names a bundle loader failed to find. Each miss is
+ * recorded with the class space
+ * {@link org.eclipse.osgi.internal.framework.EquinoxContainer#getClassSpaceTimestamp()
+ * timestamp} read before the search started. All misses are discarded
+ * once the timestamp changes. When the cache is full it is cleared.
+ * <p>
+ * The value of a miss indicates whether the search terminated without
+ * continuing to the last resort parent delegation.
+ */
+final class MissCache {
+	private static final class Misses extends ConcurrentHashMap<String, Boolean> {
+		private static final long serialVersionUID = 1L;
+		final long timestamp;
+
+		Misses(long timestamp) {
+			this.timestamp = timestamp;
+		}
+	}
+
+	private final int maxSize;
+	private volatile Misses misses;
+	private final LongAdder hits = new LongAdder();
+
+	MissCache(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the recorded miss for a name.
+	 *
+	 * @param name      the name
+	 * @param timestamp the current class space timestamp
+	 * @return {@code null} if no miss is recorded, otherwise true if the search
+	 *         terminated before the last resort parent delegation.
+	 */
+	Boolean get(String name, long timestamp) {
+		Misses current = misses;
+		if (current == null || current.timestamp != timestamp) {
+			return null;
+		}
+		Boolean terminal = current.get(name);
+		if (terminal != null) {
+			hits.increment();
+		}
+		return terminal;
+	}
+
+	/**
+	 * Records a miss for a name.
+	 *
+	 * @param name      the name
+	 * @param terminal  true if the search terminated before the last resort parent
+	 *                  delegation
+	 * @param timestamp the class space timestamp read before the search started
+	 */
+	void put(String name, boolean terminal, long timestamp) {
+		Misses current = misses;
+		if (current == null || current.timestamp != timestamp || current.size() >= maxSize) {
+			if (current != null && current.timestamp > timestamp) {
+				// the class space changed during the search
+				return;
+			}
+			current = new Misses(timestamp);
+			misses = current;
+		}
+		current.put(name, terminal);
+	}
+
+	long getHits() {
+		return hits.sum();
+	}
+}
@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.security.AllPermission;
 import java.security.CodeSource;
 import java.security.PermissionCollection;
@@ -28,6 +29,7 @@ import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 import org.eclipse.osgi.container.ModuleRevision;
 import org.eclipse.osgi.internal.debug.Debug;
 import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
@@ -277,6 +279,25 @@ public abstract class ModuleClassLoader extends ClassLoader implements BundleRef
 	}
 
 	public DefineClassResult defineClass(String name, byte[] classbytes, ClasspathEntry classpathEntry) {
+		return defineClass(name,
+				() -> defineClass(name, classbytes, 0, classbytes.length, classpathEntry.getDomain()));
+	}
+
+	/**
+	 * Defines the specified class from the remaining content of a byte buffer. This
+	 * avoids copying the class bytes into an array when the buffer is a direct
+	 * buffer, for example a memory mapped bundle file.
+	 * 
+	 * @param name           the name of the class
+	 * @param classbytes     the class bytes
+	 * @param classpathEntry the classpath entry used to load the class bytes
+	 * @return the result of defining the class
+	 */
+	public DefineClassResult defineClass(String name, ByteBuffer classbytes, ClasspathEntry classpathEntry) {
+		return defineClass(name, () -> defineClass(name, classbytes, classpathEntry.getDomain()));
+	}
+
+	private DefineClassResult defineClass(String name, Supplier<Class<?>> definer) {
 		// Note that we must check findLoadedClass again here since no locks are held
 		// between
 		// calling findLoadedClass the first time and defineClass.
@@ -290,7 +311,7 @@ public abstract class ModuleClassLoader extends ClassLoader implements BundleRef
 			try {
 				result = findLoadedClass(name);
 				if (result == null) {
-					result = defineClass(name, classbytes, 0, classbytes.length, classpathEntry.getDomain());
+					result = definer.get();
 					defined = true;
 				}
 			} finally {
@@ -303,7 +324,7 @@ public abstract class ModuleClassLoader extends ClassLoader implements BundleRef
 			synchronized (this) {
 				result = findLoadedClass(name);
 				if (result == null) {
-					result = defineClass(name, classbytes, 0, classbytes.length, classpathEntry.getDomain());
+					result = definer.get();
 					defined = true;
 				}
 			}
@@ -19,7 +19,9 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.osgi.container.ModuleWire;
 import org.eclipse.osgi.container.ModuleWiring;
 import org.eclipse.osgi.internal.loader.BundleLoader;
@@ -30,11 +32,23 @@ import org.osgi.framework.namespace.PackageNamespace;
  * DependentPolicy is an implementation of a buddy policy. It is responsible for
  * looking up a class in the dependents of the bundle to which this policy is
  * attached to.
+ * <p>
+ * The first dependent which provided a class or resource is remembered for the
+ * name of the class or resource. Later lookups for the same name search that
+ * dependent first. Other names, even from the same package, are searched in the
+ * dependents in order because an earlier dependent may provide them.
  */
 public class DependentPolicy implements IBuddyPolicy {
+	// the number of names with a cached dependent; a cache is cleared when full
+	private static final int MAX_CACHED_NAMES = 4096;
+
 	BundleLoader buddyRequester;
 	int lastDependentOfAdded = -1; // remember the index of the bundle for which we last added the dependent
 	List<ModuleWiring> allDependents = null; // the list of all dependents known so far
+	// the index of the first dependent which provided a class
+	private final Map<String, Integer> classDependents = new ConcurrentHashMap<>();
+	// the index of the first dependent which provided a resource
+	private final Map<String, Integer> resourceDependents = new ConcurrentHashMap<>();
 
 	public DependentPolicy(BundleLoader requester) {
 		buddyRequester = requester;
@@ -52,13 +66,24 @@ public class DependentPolicy implements IBuddyPolicy {
 		if (allDependents == null) {
 			return null;
 		}
+		int known = getDependent(classDependents, name);
+		if (known >= 0) {
+			BundleLoader knownLoader = (BundleLoader) allDependents.get(known).getModuleLoader();
+			if (knownLoader != null) {
+				Class<?> result = knownLoader.findClassNoParentNoException(name);
+				if (result != null) {
+					return result;
+				}
+			}
+		}
 		// size may change, so we must check it every time
 		for (int i = 0; i < allDependents.size(); i++) {
 			ModuleWiring searchWiring = allDependents.get(i);
 			BundleLoader searchLoader = (BundleLoader) searchWiring.getModuleLoader();
 			if (searchLoader != null) {
-				Class<?> result = searchLoader.findClassNoParentNoException(name);
+				Class<?> result = i == known ? null : searchLoader.findClassNoParentNoException(name);
 				if (result != null) {
+					putDependent(classDependents, name, i);
 					return result;
 				}
 				addDependent(i, searchWiring);
@@ -67,6 +92,18 @@ public class DependentPolicy implements IBuddyPolicy {
 		return null;
 	}
 
+	private static int getDependent(Map<String, Integer> dependents, String name) {
+		Integer index = dependents.get(name);
+		return index == null ? -1 : index.intValue();
+	}
+
+	private static void putDependent(Map<String, Integer> dependents, String name, int index) {
+		if (dependents.size() >= MAX_CACHED_NAMES) {
+			dependents.clear();
+		}
+		dependents.put(name, Integer.valueOf(index));
+	}
+
 	private synchronized void addDependent(int i, ModuleWiring searchedWiring) {
 		if (i > lastDependentOfAdded) {
 			lastDependentOfAdded = i;
@@ -80,14 +117,26 @@ public class DependentPolicy implements IBuddyPolicy {
 			return null;
 
 		URL result = null;
+		int known = getDependent(resourceDependents, name);
+		if (known >= 0) {
+			BundleLoader knownLoader = (BundleLoader) allDependents.get(known).getModuleLoader();
+			if (knownLoader != null) {
+				result = knownLoader.findResource(name);
+				if (result != null) {
+					return result;
+				}
+			}
+		}
 		// size may change, so we must check it every time
 		for (int i = 0; i < allDependents.size() && result == null; i++) {
 			ModuleWiring searchWiring = allDependents.get(i);
 			BundleLoader searchLoader = (BundleLoader) searchWiring.getModuleLoader();
 			if (searchLoader != null) {
-				result = searchLoader.findResource(name);
+				result = i == known ? null : searchLoader.findResource(name);
 				if (result == null) {
 					addDependent(i, searchWiring);
+				} else {
+					putDependent(resourceDependents, name, i);
 				}
 			}
 		}
@@ -19,7 +19,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.osgi.container.ModuleContainer;
 import org.eclipse.osgi.container.ModuleWire;
 import org.eclipse.osgi.container.ModuleWiring;
@@ -37,9 +39,17 @@ import org.osgi.resource.Namespace;
  * looking up a class within the global set of exported classes. If multiple
  * version of the same package are exported in the system, the exported package
  * with the highest version will be returned.
+ * <p>
+ * The exporters found for a package are cached. A policy handler discards its
+ * policies each time a bundle is resolved or unresolved which discards the
+ * cached exporters along with the policy.
  */
 public class GlobalPolicy implements IBuddyPolicy {
+	// the number of packages with cached exporters; the cache is cleared when full
+	private static final int MAX_CACHED_PACKAGES = 4096;
+
 	private FrameworkWiring frameworkWiring;
+	private final Map<String, List<BundleLoader>> exporters = new ConcurrentHashMap<>();
 
 	public GlobalPolicy(FrameworkWiring frameworkWiring) {
 		this.frameworkWiring = frameworkWiring;
@@ -72,7 +82,19 @@ public class GlobalPolicy implements IBuddyPolicy {
 	}
 
 	private Collection<BundleLoader> getExportingBundles(String pkgName) {
-		Collection<BundleLoader> result = new ArrayList<>();
+		List<BundleLoader> result = exporters.get(pkgName);
+		if (result == null) {
+			result = findExportingBundles(pkgName);
+			if (exporters.size() >= MAX_CACHED_PACKAGES) {
+				exporters.clear();
+			}
+			exporters.put(pkgName, result);
+		}
+		return result;
+	}
+
+	private List<BundleLoader> findExportingBundles(String pkgName) {
+		List<BundleLoader> result = new ArrayList<>();
 		String filter = "(" + PackageNamespace.PACKAGE_NAMESPACE + "=" + pkgName + ")"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 		Map<String, String> directives = Collections.singletonMap(Namespace.REQUIREMENT_FILTER_DIRECTIVE, filter);
 		Map<String, Boolean> attributes = Collections.singletonMap(Capabilities.SYNTHETIC_REQUIREMENT, Boolean.TRUE);
@@ -93,6 +115,6 @@ public class GlobalPolicy implements IBuddyPolicy {
 				}
 			}
 		}
-		return result;
+		return result.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(result);
 	}
 }
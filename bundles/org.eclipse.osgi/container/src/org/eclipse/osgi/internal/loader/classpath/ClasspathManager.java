@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -26,6 +27,7 @@ import java.util.Enumeration;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.function.Supplier;
 import org.eclipse.osgi.container.Module;
 import org.eclipse.osgi.container.ModuleCapability;
 import org.eclipse.osgi.container.ModuleContainerAdaptor.ContainerEvent;
@@ -673,21 +675,32 @@ public class ClasspathManager {
 		if (entry == null)
 			return null;
 
-		byte[] classbytes;
+		// the content of a mapped bundle file is defined without copying it if no hook
+		// needs the class bytes
+		ByteBuffer classbuffer = null;
+		byte[] classbytes = null;
 		try {
-			classbytes = entry.getBytes();
+			if (!isProcessClassRequired(name, hooks)) {
+				classbuffer = entry.getByteBuffer();
+			}
+			if (classbuffer == null) {
+				classbytes = entry.getBytes();
+			}
 		} catch (IOException e) {
 			if (debug.DEBUG_LOADER)
 				Debug.println("  IOException reading " + filename + " from " + classpathEntry.getBundleFile()); //$NON-NLS-1$ //$NON-NLS-2$
 			throw (LinkageError) new LinkageError("Error reading class bytes: " + name).initCause(e); //$NON-NLS-1$
 		}
 		if (debug.DEBUG_LOADER) {
-			Debug.println(
-					"  read " + classbytes.length + " bytes from " + classpathEntry.getBundleFile() + "!/" + filename); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			int length = classbuffer != null ? classbuffer.remaining() : classbytes.length;
+			Debug.println("  read " + length + " bytes from " + classpathEntry.getBundleFile() + "!/" + filename); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
 			Debug.println("  defining class " + name); //$NON-NLS-1$
 		}
 
 		try {
+			if (classbuffer != null) {
+				return defineClass(name, classbuffer, classpathEntry);
+			}
 			return defineClass(name, classbytes, classpathEntry, entry, hooks);
 		} catch (Error e) {
 			if (debug.DEBUG_LOADER)
@@ -696,6 +709,63 @@ public class ClasspathManager {
 		}
 	}
 
+	private boolean isProcessClassRequired(String name, List<ClassLoaderHook> hooks) {
+		for (ClassLoaderHook hook : hooks) {
+			if (hook.isProcessClassRequired(name, this)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Defines the specified class from a byte buffer without calling the class
+	 * loader hooks. Must only be used if no hook requires processing the class.
+	 * 
+	 * @param name           the name of the class to define
+	 * @param classbytes     the class bytes
+	 * @param classpathEntry the classpath entry used to load the class bytes
+	 * @return the defined class
+	 */
+	private Class<?> defineClass(String name, ByteBuffer classbytes, ClasspathEntry classpathEntry) {
+		definePackage(name, classpathEntry);
+		DefineClassResult result = defineClass(name, getDefineContext(),
+				() -> classloader.defineClass(name, classbytes, classpathEntry));
+		return result == null ? null : result.clazz;
+	}
+
+	private DefineContext getDefineContext() {
+		DefineContext context = currentDefineContext.get();
+		if (context == null) {
+			context = new DefineContext();
+			currentDefineContext.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * Defines a class unless the current thread is already defining it.
+	 * 
+	 * @param name    the name of the class to define
+	 * @param context the define context of the current thread
+	 * @param definer defines the class with the class loader
+	 * @return the result of defining the class or {@code null} if the class is
+	 *         already being defined
+	 */
+	private static DefineClassResult defineClass(String name, DefineContext context,
+			Supplier<DefineClassResult> definer) {
+		if (context.currentlyDefining.contains(name)) {
+			// TODO consider thrown a ClassCircularityError here
+			return null; // avoid recursive defines (bug 345500)
+		}
+		context.currentlyDefining.add(name);
+		try {
+			return definer.get();
+		} finally {
+			context.currentlyDefining.remove(name);
+		}
+	}
+
 	static class DefineContext {
 		Collection<String> currentlyProcessing = new ArrayList<>(5);
 		Collection<String> currentlyDefining = new ArrayList<>(5);
@@ -726,11 +796,7 @@ public class ClasspathManager {
 		boolean recursionDetected = false;
 		try {
 			definePackage(name, classpathEntry);
-			DefineContext context = currentDefineContext.get();
-			if (context == null) {
-				context = new DefineContext();
-				currentDefineContext.set(context);
-			}
+			DefineContext context = getDefineContext();
 
 			// First call the hooks that do not handle recursion themselves
 			if (!hookRegistry.getContainer().isProcessClassRecursionSupportedByAll()) {
@@ -739,7 +805,6 @@ public class ClasspathManager {
 				if (context.currentlyProcessing.contains(name)) {
 					// Avoid recursion for the same class name for these hooks
 					recursionDetected = true;
-					// TODO consider thrown a ClassCircularityError here
 					return null;
 				}
 				context.currentlyProcessing.add(name);
@@ -765,16 +830,8 @@ public class ClasspathManager {
 				}
 			}
 
-			if (context.currentlyDefining.contains(name)) {
-				// TODO consider thrown a ClassCircularityError here
-				return null; // avoid recursive defines (bug 345500)
-			}
-			context.currentlyDefining.add(name);
-			try {
-				result = classloader.defineClass(name, classbytes, classpathEntry);
-			} finally {
-				context.currentlyDefining.remove(name);
-			}
+			byte[] processedBytes = classbytes;
+			result = defineClass(name, context, () -> classloader.defineClass(name, processedBytes, classpathEntry));
 		} finally {
 			// only call hooks if we properly called processClass above
 			if (!recursionDetected) {
@@ -115,6 +115,8 @@ public class EquinoxLogServices {
 	private ServiceRegistration<?> perfLogReg;
 
 	public void start(BundleContext context) {
+		logWriter.resumeDrainer();
+		perfWriter.resumeDrainer();
 		logServiceManager.start(context);
 		frameworkLogReg = StorageUtil.register(FrameworkLog.class.getName(), eclipseLogFactory, context);
 		perfLogReg = registerPerformanceLog(context);
@@ -124,6 +126,19 @@ public class EquinoxLogServices {
 		frameworkLogReg.unregister();
 		perfLogReg.unregister();
 		logServiceManager.stop(context);
+		// write the entries queued before stopping and stop the drainer threads
+		logWriter.stopDrainer();
+		perfWriter.stopDrainer();
+	}
+
+	/**
+	 * Returns the number of log entries dropped because the queue of entries
+	 * waiting to be written asynchronously was full.
+	 * 
+	 * @return the number of dropped log entries
+	 */
+	public long getDroppedLogEntryCount() {
+		return logWriter.getDroppedCount() + perfWriter.getDroppedCount();
 	}
 
 	public FrameworkLog getFrameworkLog() {
@@ -25,9 +25,16 @@ import java.io.StringWriter;
 import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.eclipse.core.runtime.adaptor.EclipseStarter;
 import org.eclipse.equinox.log.ExtendedLogEntry;
 import org.eclipse.equinox.log.LogFilter;
@@ -93,6 +100,43 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 	 * the log
 	 */
 	private static final String PROP_LOG_INCLUDE_COMMAND_LINE = "eclipse.log.include.commandline"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify the number of minutes after which a log
+	 * file is rotated
+	 */
+	private static final String PROP_LOG_ROTATE_INTERVAL = "eclipse.log.rotate.interval"; //$NON-NLS-1$
+
+	// Constants for asynchronous logging
+	/**
+	 * The system property used to specify that log entries are written by a
+	 * background thread
+	 */
+	private static final String PROP_LOG_ASYNC = "eclipse.log.async"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify the maximum number of log entries
+	 * waiting to be written by the background thread
+	 */
+	private static final String PROP_LOG_ASYNC_QUEUE_SIZE = "eclipse.log.async.queue.size"; //$NON-NLS-1$
+	/**
+	 * The system property used to specify what happens to a log entry when the
+	 * queue is full; one of block, drop or count
+	 */
+	private static final String PROP_LOG_ASYNC_OVERFLOW = "eclipse.log.async.overflow"; //$NON-NLS-1$
+	/** The overflow policy which waits until the entry can be queued */
+	private static final String OVERFLOW_BLOCK = "block"; //$NON-NLS-1$
+	/** The overflow policy which drops the entry */
+	private static final String OVERFLOW_DROP = "drop"; //$NON-NLS-1$
+	/**
+	 * The overflow policy which drops the entry and logs the number of dropped
+	 * entries once the queue is drained
+	 */
+	private static final String OVERFLOW_COUNT = "count"; //$NON-NLS-1$
+	/** The default number of log entries waiting to be written */
+	private static final int DEFAULT_ASYNC_QUEUE_SIZE = 1024;
+	/** The maximum number of log entries written with one flush */
+	private static final int MAX_BATCH_SIZE = 256;
+	/** The maximum time to wait for the drainer to write the queued entries when it is stopped */
+	private static final long FLUSH_TIMEOUT = 5000;
 	/**
 	 * Indicates if the console messages should be printed to the console
 	 * (System.out)
@@ -123,6 +167,40 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 
 	private LoggerAdmin loggerAdmin = null;
 
+	/** The rotate interval in milliseconds; zero if the log is not rotated by time */
+	private long rotateInterval = 0;
+	/** The time the log file is rotated next; zero if not known yet */
+	private long nextRotateTime = 0;
+
+	/** The queue of entries to write; null if entries are written synchronously */
+	private BlockingQueue<QueuedEntry> queue = null;
+	private String overflowPolicy = OVERFLOW_BLOCK;
+	/*
+	 * A separate monitor because the drainer holds the monitor of the writer while
+	 * writing a batch
+	 */
+	private final Object drainerMonitor = new Object();
+	/* @GuardedBy("drainerMonitor") */
+	private Thread drainer = null;
+	/** True while entries are written synchronously because the drainer is stopped */
+	/* @GuardedBy("drainerMonitor") */
+	private boolean drainerStopped = false;
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong unreportedDropCount = new AtomicLong();
+
+	/**
+	 * A log entry waiting to be written along with the time it was logged.
+	 */
+	private static final class QueuedEntry {
+		final FrameworkLogEntry entry;
+		final long time;
+
+		QueuedEntry(FrameworkLogEntry entry, long time) {
+			this.entry = entry;
+			this.time = time;
+		}
+	}
+
 	/**
 	 * Constructs an EclipseLog which uses the specified File to log messages to
 	 * 
@@ -135,6 +213,7 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		this.enabled = enabled;
 		this.environmentInfo = environmentInfo;
 		readLogProperties();
+		readAsyncProperties();
 	}
 
 	/**
@@ -151,6 +230,7 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		this.loggerName = loggerName;
 		this.enabled = enabled;
 		this.environmentInfo = environmentInfo;
+		readAsyncProperties();
 	}
 
 	private Throwable getRoot(Throwable t) {
@@ -259,6 +339,7 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 	}
 
 	public void close() {
+		stopDrainer();
 		try {
 			if (writer != null) {
 				Writer tmpWriter = writer;
@@ -305,11 +386,19 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		}
 	}
 
-	private synchronized void log(FrameworkLogEntry logEntry) {
+	private void log(FrameworkLogEntry logEntry) {
 		if (logEntry == null)
 			return;
 		if (!isLoggable(logEntry.getSeverity()))
 			return;
+		if (queue != null && enqueue(new QueuedEntry(logEntry, System.currentTimeMillis()))) {
+			return;
+		}
+		logSync(logEntry);
+	}
+
+	private synchronized void logSync(FrameworkLogEntry logEntry) {
+		long time = System.currentTimeMillis();
 		try {
 			checkLogFileSize();
 			openFile();
@@ -317,7 +406,7 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 				writeSession();
 				newSession = false;
 			}
-			writeLog(0, logEntry);
+			writeLog(0, logEntry, time);
 			writer.flush();
 		} catch (Exception e) {
 			// any exceptions during logging should be caught
@@ -327,7 +416,7 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 			// we failed to write, so dump log entry to console instead
 			try {
 				writer = logForErrorStream();
-				writeLog(0, logEntry);
+				writeLog(0, logEntry, time);
 				writer.flush();
 			} catch (Exception e2) {
 				System.err.println("An exception occurred while logging to the console:");//$NON-NLS-1$
@@ -338,6 +427,204 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		}
 	}
 
+	/**
+	 * Queues an entry to be written by the drainer.
+	 * 
+	 * @param queued the entry
+	 * @return false if the drainer is stopped and the entry must be written
+	 *         synchronously
+	 */
+	private boolean enqueue(QueuedEntry queued) {
+		if (!startDrainer()) {
+			return false;
+		}
+		if (OVERFLOW_BLOCK.equals(overflowPolicy)) {
+			try {
+				queue.put(queued);
+				writeIfDrainerStopped();
+				return true;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		} else if (queue.offer(queued)) {
+			writeIfDrainerStopped();
+			return true;
+		}
+		droppedCount.incrementAndGet();
+		if (OVERFLOW_COUNT.equals(overflowPolicy)) {
+			unreportedDropCount.incrementAndGet();
+		}
+		return true;
+	}
+
+	/**
+	 * Starts the drainer thread if it is not running.
+	 * 
+	 * @return false if the drainer is stopped
+	 */
+	private boolean startDrainer() {
+		synchronized (drainerMonitor) {
+			if (drainerStopped) {
+				return false;
+			}
+			if (drainer == null) {
+				drainer = new Thread(this::drain, "Equinox Log Writer: " + loggerName); //$NON-NLS-1$
+				drainer.setDaemon(true);
+				drainer.start();
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Writes the queued entries and stops the drainer thread. Entries logged
+	 * afterwards are written synchronously until {@link #resumeDrainer()} is
+	 * called. Does nothing if entries are written synchronously.
+	 */
+	void stopDrainer() {
+		if (queue == null) {
+			return;
+		}
+		Thread stopping;
+		synchronized (drainerMonitor) {
+			drainerStopped = true;
+			stopping = drainer;
+			drainer = null;
+		}
+		if (stopping != null) {
+			// the drainer writes the queued entries before it exits
+			stopping.interrupt();
+			try {
+				stopping.join(FLUSH_TIMEOUT);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		writeIfDrainerStopped();
+	}
+
+	/**
+	 * Allows the drainer thread to be started again after it was stopped by
+	 * {@link #stopDrainer()}.
+	 */
+	void resumeDrainer() {
+		synchronized (drainerMonitor) {
+			drainerStopped = false;
+		}
+	}
+
+	/*
+	 * Writes the entries queued by threads which raced with stopping the drainer
+	 */
+	private void writeIfDrainerStopped() {
+		synchronized (drainerMonitor) {
+			if (!drainerStopped) {
+				return;
+			}
+		}
+		List<QueuedEntry> batch = new ArrayList<>();
+		queue.drainTo(batch);
+		if (!batch.isEmpty()) {
+			logBatch(batch);
+		}
+	}
+
+	/**
+	 * Writes the queued entries in batches. The log file is kept open between
+	 * batches. The drainer exits once it is interrupted by {@link #stopDrainer()}
+	 * and the queued entries are written.
+	 */
+	private void drain() {
+		List<QueuedEntry> batch = new ArrayList<>(MAX_BATCH_SIZE);
+		while (true) {
+			try {
+				batch.add(queue.take());
+			} catch (InterruptedException e) {
+				// write what is left and exit
+				while (queue.drainTo(batch, MAX_BATCH_SIZE) > 0) {
+					logBatch(batch);
+					batch.clear();
+				}
+				writeDropped();
+				return;
+			}
+			queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+			logBatch(batch);
+			batch.clear();
+			if (queue.isEmpty()) {
+				writeDropped();
+			}
+		}
+	}
+
+	private void writeDropped() {
+		long dropped = unreportedDropCount.getAndSet(0);
+		if (dropped > 0) {
+			FrameworkLogEntry droppedEntry = new FrameworkLogEntry(EquinoxLogServices.EQUINOX_LOGGER_NAME,
+					FrameworkLogEntry.WARNING, 0, dropped + " log entries were dropped because the log queue was full.", //$NON-NLS-1$
+					0, null, null);
+			logBatch(Collections.singletonList(new QueuedEntry(droppedEntry, System.currentTimeMillis())));
+		}
+	}
+
+	private synchronized void logBatch(List<QueuedEntry> batch) {
+		int current = 0;
+		try {
+			checkLogFileSize();
+			openFile();
+			if (newSession) {
+				writeSession();
+				newSession = false;
+			}
+			for (; current < batch.size(); current++) {
+				QueuedEntry queued = batch.get(current);
+				writeLog(0, queued.entry, queued.time);
+			}
+			writer.flush();
+		} catch (Exception e) {
+			// any exceptions during logging should be caught
+			System.err.println("An exception occurred while writing to the platform log:");//$NON-NLS-1$
+			e.printStackTrace(System.err);
+			System.err.println("Logging to the console instead.");//$NON-NLS-1$
+			Writer failedWriter = writer;
+			writer = logForErrorStream();
+			try {
+				for (; current < batch.size(); current++) {
+					QueuedEntry queued = batch.get(current);
+					writeLog(0, queued.entry, queued.time);
+				}
+				writer.flush();
+			} catch (Exception e2) {
+				System.err.println("An exception occurred while logging to the console:");//$NON-NLS-1$
+				e2.printStackTrace(System.err);
+			}
+			if (outFile != null) {
+				// the log file is opened again for the next batch
+				writer = null;
+				if (failedWriter != null) {
+					try {
+						failedWriter.close();
+					} catch (IOException e3) {
+						// it already failed
+					}
+				}
+			} else {
+				// keep the writer that was set
+				writer = failedWriter;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of log entries dropped because the queue of entries
+	 * waiting to be written was full.
+	 * 
+	 * @return the number of dropped log entries
+	 */
+	long getDroppedCount() {
+		return droppedCount.get();
+	}
+
 	public synchronized void setWriter(Writer newWriter, boolean append) {
 		setOutput(null, newWriter, append);
 	}
@@ -489,17 +776,18 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 	 * 
 	 * @param depth the depth of th entry
 	 * @param entry the entry to log
+	 * @param time  the time the entry was logged
 	 * @throws IOException if any error occurs writing to the log
 	 */
-	private void writeLog(int depth, FrameworkLogEntry entry) throws IOException {
-		writeEntry(depth, entry);
+	private void writeLog(int depth, FrameworkLogEntry entry, long time) throws IOException {
+		writeEntry(depth, entry, time);
 		writeMessage(entry);
 		writeStack(entry);
 
 		FrameworkLogEntry[] children = entry.getChildren();
 		if (children != null) {
 			for (FrameworkLogEntry child : children) {
-				writeLog(depth + 1, child);
+				writeLog(depth + 1, child, time);
 			}
 		}
 	}
@@ -511,9 +799,10 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 	 * 
 	 * @param depth the depth of th entry
 	 * @param entry the entry to write the header for
+	 * @param time  the time the entry was logged
 	 * @throws IOException if any error occurs writing to the log
 	 */
-	private void writeEntry(int depth, FrameworkLogEntry entry) throws IOException {
+	private void writeEntry(int depth, FrameworkLogEntry entry, long time) throws IOException {
 		if (depth == 0) {
 			writeln(); // write a blank line before all !ENTRY tags bug #64406
 			write(ENTRY);
@@ -529,7 +818,7 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		writeSpace();
 		write(Integer.toString(entry.getBundleCode()));
 		writeSpace();
-		write(getDate(new Date()));
+		write(getDate(new Date(time)));
 		writeln();
 	}
 
@@ -607,19 +896,20 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 	}
 
 	/**
-	 * Checks the log file size. If the log file size reaches the limit then the log
-	 * is rotated
+	 * Checks the log file size and age. If the log file size reaches the limit or
+	 * the rotate interval has passed then the log is rotated
 	 * 
 	 * @return false if an error occured trying to rotate the log
 	 */
 	private boolean checkLogFileSize() {
-		if (maxLogSize == 0)
-			return true; // no size limitation.
+		if (maxLogSize == 0 && rotateInterval == 0)
+			return true; // no size or time limitation.
 
 		boolean isBackupOK = true;
 		if (outFile != null) {
-			if ((ExtendedLogServiceFactory.secureAction.length(outFile) >> 10) > maxLogSize) { // Use KB as file size
-																								// unit.
+			if (isRotationNeeded()) {
+				// the writer may be kept open when writing asynchronously
+				closeFile();
 				String logFilename = outFile.getAbsolutePath();
 
 				// Delete old backup file that will be replaced.
@@ -670,6 +960,24 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 		return isBackupOK;
 	}
 
+	private boolean isRotationNeeded() {
+		long length = ExtendedLogServiceFactory.secureAction.length(outFile);
+		if (maxLogSize != 0 && (length >> 10) > maxLogSize) { // Use KB as file size unit.
+			return true;
+		}
+		if (rotateInterval != 0) {
+			long now = System.currentTimeMillis();
+			if (nextRotateTime == 0) {
+				nextRotateTime = now + rotateInterval;
+			} else if (now >= nextRotateTime) {
+				nextRotateTime = now + rotateInterval;
+				// do not rotate an empty log
+				return length > 0;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Reads the PROP_LOG_SIZE_MAX and PROP_LOG_FILE_MAX properties.
 	 */
@@ -706,10 +1014,39 @@ class EquinoxLogWriter implements SynchronousLogListener, LogFilter {
 				logLevel = FrameworkLogEntry.OK; // OK (0) means log everything
 		}
 
+		String newRotateInterval = environmentInfo.getConfiguration(PROP_LOG_ROTATE_INTERVAL);
+		if (newRotateInterval != null) {
+			rotateInterval = TimeUnit.MINUTES.toMillis(Math.max(0, Integer.parseInt(newRotateInterval)));
+			nextRotateTime = 0;
+		}
+
 		includeCommandLine = "true".equals(environmentInfo.getConfiguration(PROP_LOG_INCLUDE_COMMAND_LINE, "true")); //$NON-NLS-1$//$NON-NLS-2$
 		applyLogLevel();
 	}
 
+	/**
+	 * Reads the PROP_LOG_ASYNC, PROP_LOG_ASYNC_QUEUE_SIZE and
+	 * PROP_LOG_ASYNC_OVERFLOW properties.
+	 */
+	private void readAsyncProperties() {
+		if (!"true".equals(environmentInfo.getConfiguration(PROP_LOG_ASYNC))) { //$NON-NLS-1$
+			return;
+		}
+		int queueSize = DEFAULT_ASYNC_QUEUE_SIZE;
+		String newQueueSize = environmentInfo.getConfiguration(PROP_LOG_ASYNC_QUEUE_SIZE);
+		if (newQueueSize != null) {
+			queueSize = Integer.parseInt(newQueueSize);
+			if (queueSize < 1) {
+				queueSize = DEFAULT_ASYNC_QUEUE_SIZE;
+			}
+		}
+		String newOverflowPolicy = environmentInfo.getConfiguration(PROP_LOG_ASYNC_OVERFLOW);
+		if (OVERFLOW_DROP.equals(newOverflowPolicy) || OVERFLOW_COUNT.equals(newOverflowPolicy)) {
+			overflowPolicy = newOverflowPolicy;
+		}
+		queue = new ArrayBlockingQueue<>(queueSize);
+	}
+
 	void applyLogLevel() {
 		if (loggerAdmin == null) {
 			return;
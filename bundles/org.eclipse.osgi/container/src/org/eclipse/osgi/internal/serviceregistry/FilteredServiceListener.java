@@ -218,6 +218,17 @@ class FilteredServiceListener implements ServiceListener, ListenerHook.ListenerI
 		return removed;
 	}
 
+	/**
+	 * Returns the objectClass required by the filter of this listener.
+	 *
+	 * @return The interned objectClass required by the filter or
+	 *         <code>null</code> if the listener must be checked for every
+	 *         service event.
+	 */
+	String getObjectClass() {
+		return objectClass;
+	}
+
 	/**
 	 * Mark the service listener registration as removed.
 	 */
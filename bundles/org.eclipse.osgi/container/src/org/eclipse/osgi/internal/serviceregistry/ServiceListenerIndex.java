@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.internal.serviceregistry;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.osgi.framework.eventmgr.CopyOnWriteIdentityMap;
+import org.osgi.framework.ServiceListener;
+
+/**
+ * The service listeners of a single bundle context indexed by the objectClass
+ * required by the listener filter. Listeners which do not have a required
+ * objectClass (no filter, no indexable objectClass or an
+ * UnfilteredServiceListener) are kept in an unindexed bucket which is visited
+ * for every service event.
+ * <p>
+ * All mutating methods must be called while holding the lock of the service
+ * registry's listener map.
+ */
+final class ServiceListenerIndex {
+	/** All listeners of the context in the order they were added. */
+	private final CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> all = new CopyOnWriteIdentityMap<>();
+	/** Listeners without a required objectClass. */
+	private final CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> unindexed = new CopyOnWriteIdentityMap<>();
+	/** Listeners keyed by their required objectClass. */
+	/* @GuardedBy("ServiceRegistry.serviceEventListeners") */
+	private final Map<String, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> byObjectClass = new HashMap<>();
+
+	/**
+	 * Adds the filtered listener for the specified listener replacing any existing
+	 * filtered listener.
+	 *
+	 * @param listener         the listener
+	 * @param filteredListener the filtered listener
+	 * @return the replaced filtered listener or <code>null</code>
+	 */
+	FilteredServiceListener put(ServiceListener listener, FilteredServiceListener filteredListener) {
+		FilteredServiceListener old = remove(listener);
+		all.put(listener, filteredListener);
+		String objectClass = filteredListener.getObjectClass();
+		if (objectClass == null) {
+			unindexed.put(listener, filteredListener);
+		} else {
+			byObjectClass.computeIfAbsent(objectClass, k -> new CopyOnWriteIdentityMap<>()).put(listener,
+					filteredListener);
+		}
+		return old;
+	}
+
+	/**
+	 * Removes the filtered listener for the specified listener.
+	 *
+	 * @param listener the listener
+	 * @return the removed filtered listener or <code>null</code>
+	 */
+	FilteredServiceListener remove(ServiceListener listener) {
+		FilteredServiceListener old = all.remove(listener);
+		if (old == null) {
+			return null;
+		}
+		String objectClass = old.getObjectClass();
+		if (objectClass == null) {
+			unindexed.remove(listener);
+		} else {
+			CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> bucket = byObjectClass.get(objectClass);
+			if (bucket != null) {
+				bucket.remove(listener);
+				if (bucket.isEmpty()) {
+					byObjectClass.remove(objectClass);
+				}
+			}
+		}
+		return old;
+	}
+
+	boolean isEmpty() {
+		return all.isEmpty();
+	}
+
+	/**
+	 * Returns a snapshot of all the filtered listeners of the context.
+	 *
+	 * @return a snapshot of all the filtered listeners.
+	 */
+	Collection<FilteredServiceListener> values() {
+		return all.values();
+	}
+
+	/**
+	 * Returns a snapshot of the listeners which may be interested in an event for
+	 * a service registered under the specified classes. The returned set may be
+	 * shrunk by the caller without affecting this index.
+	 *
+	 * @param classes the interned objectClass values of the service
+	 * @return a snapshot of the listeners or <code>null</code> if no listener of
+	 *         this context can match.
+	 */
+	Set<Map.Entry<ServiceListener, FilteredServiceListener>> getListeners(String[] classes) {
+		CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> result = unindexed.isEmpty() ? null
+				: unindexed;
+		boolean copied = false;
+		if (!byObjectClass.isEmpty()) {
+			for (String clazz : classes) {
+				CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> bucket = byObjectClass.get(clazz);
+				if (bucket == null) {
+					continue;
+				}
+				if (result == null) {
+					result = bucket;
+				} else {
+					// rare case where more than one bucket is interested; merge them
+					if (!copied) {
+						result = new CopyOnWriteIdentityMap<>(result);
+						copied = true;
+					}
+					result.putAll(bucket);
+				}
+			}
+		}
+		return result == null ? null : result.entrySet();
+	}
+}
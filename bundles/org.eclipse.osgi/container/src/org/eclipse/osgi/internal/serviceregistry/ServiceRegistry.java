@@ -18,13 +18,12 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.ProtectionDomain;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -32,7 +31,6 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import org.eclipse.osgi.container.Module;
 import org.eclipse.osgi.container.ModuleRevision;
-import org.eclipse.osgi.framework.eventmgr.CopyOnWriteIdentityMap;
 import org.eclipse.osgi.framework.eventmgr.EventDispatcher;
 import org.eclipse.osgi.framework.eventmgr.ListenerQueue;
 import org.eclipse.osgi.internal.debug.Debug;
@@ -74,21 +72,24 @@ public class ServiceRegistry {
 	static final String listenerHookName = ListenerHook.class.getName();
 
 	/**
-	 * Published services by class name. The
-	 * {@literal List<ServiceRegistrationImpl<?>>}s are both sorted in the natural
-	 * order of ServiceRegistrationImpl and also are sets in that there must be no
-	 * two entries in a List which are equal.
+	 * Published services by class name. The {@literal ServiceRegistrationImpl<?>[]}
+	 * values are immutable snapshots which are both sorted in the natural order of
+	 * ServiceRegistrationImpl and also are sets in that there must be no two
+	 * entries in an array which are equal. Updates replace the array under the
+	 * registry monitor; lookups read the map without locking.
 	 */
-	/* @GuardedBy("this") */
-	private final Map<String, List<ServiceRegistrationImpl<?>>> publishedServicesByClass;
+	/* @GuardedBy("this") for updates */
+	private final ConcurrentMap<String, ServiceRegistrationImpl<?>[]> publishedServicesByClass;
 
 	/**
-	 * All published services. The List is both sorted in the natural order of
-	 * ServiceRegistrationImpl and also is a set in that there must be no two
-	 * entries in the List which are equal.
+	 * All published services. The array is an immutable snapshot which is both
+	 * sorted in the natural order of ServiceRegistrationImpl and also is a set in
+	 * that there must be no two entries in the array which are equal.
 	 */
-	/* @GuardedBy("this") */
-	private final List<ServiceRegistrationImpl<?>> allPublishedServices;
+	/* @GuardedBy("this") for updates */
+	private volatile ServiceRegistrationImpl<?>[] allPublishedServices;
+
+	private static final ServiceRegistrationImpl<?>[] EMPTY_REGISTRATIONS = new ServiceRegistrationImpl<?>[0];
 
 	/**
 	 * Published services by BundleContextImpl. The
@@ -103,11 +104,11 @@ public class ServiceRegistry {
 	private long serviceid;
 
 	/**
-	 * Active Service Listeners.
-	 * {@literal Map<BundleContextImpl,CopyOnWriteIdentityMap<ServiceListener,FilteredServiceListener>>}.
+	 * Active Service Listeners indexed by required objectClass.
+	 * {@literal Map<BundleContextImpl,ServiceListenerIndex>}.
 	 */
 	/* @GuardedBy("serviceEventListeners") */
-	private final Map<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> serviceEventListeners;
+	private final Map<BundleContextImpl, ServiceListenerIndex> serviceEventListeners;
 
 	/** initial capacity of the main data structure */
 	private static final int initialCapacity = 50;
@@ -130,9 +131,9 @@ public class ServiceRegistry {
 		this.container = container;
 		this.debug = container.getConfiguration().getDebug();
 		serviceid = 1;
-		publishedServicesByClass = new HashMap<>(initialCapacity);
+		publishedServicesByClass = new ConcurrentHashMap<>(initialCapacity);
 		publishedServicesByContext = new HashMap<>(initialCapacity);
-		allPublishedServices = new ArrayList<>(initialCapacity);
+		allPublishedServices = EMPTY_REGISTRATIONS;
 		serviceEventListeners = new LinkedHashMap<>(initialCapacity);
 		Module systemModule = container.getStorage().getModuleContainer().getModule(0);
 		systemBundleContext = (BundleContextImpl) systemModule.getBundle().getBundleContext();
@@ -799,10 +800,9 @@ public class ServiceRegistry {
 		FilteredServiceListener filteredListener = new FilteredServiceListener(context, listener, filter);
 		FilteredServiceListener oldFilteredListener;
 		synchronized (serviceEventListeners) {
-			CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> listeners = serviceEventListeners
-					.get(context);
+			ServiceListenerIndex listeners = serviceEventListeners.get(context);
 			if (listeners == null) {
-				listeners = new CopyOnWriteIdentityMap<>();
+				listeners = new ServiceListenerIndex();
 				serviceEventListeners.put(context, listeners);
 			}
 			oldFilteredListener = listeners.put(listener, filteredListener);
@@ -833,7 +833,7 @@ public class ServiceRegistry {
 
 		FilteredServiceListener oldFilteredListener;
 		synchronized (serviceEventListeners) {
-			Map<ServiceListener, FilteredServiceListener> listeners = serviceEventListeners.get(context);
+			ServiceListenerIndex listeners = serviceEventListeners.get(context);
 			if (listeners == null) {
 				return; // this context has no listeners to begin with
 			}
@@ -854,14 +854,14 @@ public class ServiceRegistry {
 	 * @param context Context of bundle removing all listeners.
 	 */
 	public void removeAllServiceListeners(BundleContextImpl context) {
-		Map<ServiceListener, FilteredServiceListener> removedListenersMap;
+		ServiceListenerIndex removedListenersIndex;
 		synchronized (serviceEventListeners) {
-			removedListenersMap = serviceEventListeners.remove(context);
+			removedListenersIndex = serviceEventListeners.remove(context);
 		}
-		if ((removedListenersMap == null) || removedListenersMap.isEmpty()) {
+		if ((removedListenersIndex == null) || removedListenersIndex.isEmpty()) {
 			return;
 		}
-		Collection<FilteredServiceListener> removedListeners = removedListenersMap.values();
+		Collection<FilteredServiceListener> removedListeners = removedListenersIndex.values();
 		for (FilteredServiceListener oldFilteredListener : removedListeners) {
 			oldFilteredListener.markRemoved();
 		}
@@ -900,22 +900,26 @@ public class ServiceRegistry {
 	}
 
 	void publishServiceEventPrivileged(final ServiceEvent event) {
-		/* Build the listener snapshot */
+		/*
+		 * Build the listener snapshot. Only the listeners which can possibly match the
+		 * objectClass of the service are included.
+		 */
+		String[] classes = ((ServiceReferenceImpl<?>) event.getServiceReference()).getClasses();
 		Map<BundleContextImpl, Set<Map.Entry<ServiceListener, FilteredServiceListener>>> listenerSnapshot;
 		Set<Map.Entry<ServiceListener, FilteredServiceListener>> systemServiceListenersOrig = null;
 		BundleContextImpl systemContext = null;
 		synchronized (serviceEventListeners) {
 			listenerSnapshot = new LinkedHashMap<>(serviceEventListeners.size());
-			for (Map.Entry<BundleContextImpl, CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener>> entry : serviceEventListeners
-					.entrySet()) {
-				Map<ServiceListener, FilteredServiceListener> listeners = entry.getValue();
-				if (!listeners.isEmpty()) {
+			for (Map.Entry<BundleContextImpl, ServiceListenerIndex> entry : serviceEventListeners.entrySet()) {
+				ServiceListenerIndex index = entry.getValue();
+				Set<Map.Entry<ServiceListener, FilteredServiceListener>> listeners = index.getListeners(classes);
+				if (listeners != null) {
 					if (entry.getKey().getBundleImpl().getBundleId() == 0) {
 						systemContext = entry.getKey();
 						// make a copy that we can use to discard hook removals later
-						systemServiceListenersOrig = listeners.entrySet();
+						systemServiceListenersOrig = index.getListeners(classes);
 					}
-					listenerSnapshot.put(entry.getKey(), listeners.entrySet());
+					listenerSnapshot.put(entry.getKey(), listeners);
 				}
 			}
 		}
@@ -998,26 +1002,16 @@ public class ServiceRegistry {
 		// The list is NOT sorted, so we just add
 		contextServices.add(registration);
 
-		// Add the ServiceRegistrationImpl to the list of Services published by Class
-		// Name.
-		int insertIndex;
+		// Add the ServiceRegistrationImpl to the snapshot of Services published by
+		// Class Name.
 		for (String clazz : registration.getClasses()) {
-			List<ServiceRegistrationImpl<?>> services = publishedServicesByClass.get(clazz);
-
-			if (services == null) {
-				services = new ArrayList<>(initialSubCapacity);
-				publishedServicesByClass.put(clazz, services);
-			}
-
-			// The list is sorted, so we must find the proper location to insert
-			insertIndex = -Collections.binarySearch(services, registration) - 1;
-			services.add(insertIndex, registration);
+			ServiceRegistrationImpl<?>[] services = publishedServicesByClass.get(clazz);
+			publishedServicesByClass.put(clazz,
+					insertRegistration(services == null ? EMPTY_REGISTRATIONS : services, registration));
 		}
 
-		// Add the ServiceRegistrationImpl to the list of all published Services.
-		// The list is sorted, so we must find the proper location to insert
-		insertIndex = -Collections.binarySearch(allPublishedServices, registration) - 1;
-		allPublishedServices.add(insertIndex, registration);
+		// Add the ServiceRegistrationImpl to the snapshot of all published Services.
+		allPublishedServices = insertRegistration(allPublishedServices, registration);
 	}
 
 	/**
@@ -1035,24 +1029,17 @@ public class ServiceRegistry {
 
 		// If the insert location has changed
 		if (registration.compareTo(previousRanking, registration.getId()) != 0) {
-			// Remove the ServiceRegistrationImpl from the list of Services published by
-			// Class Name
-			// and then add at the correct index.
-			int insertIndex;
+			// Replace the snapshots of Services published by Class Name with ones
+			// that have the ServiceRegistrationImpl at the correct index.
 			for (String clazz : registration.getClasses()) {
-				List<ServiceRegistrationImpl<?>> services = publishedServicesByClass.get(clazz);
-				services.remove(registration);
-				// The list is sorted, so we must find the proper location to insert
-				insertIndex = -1 - Collections.binarySearch(services, registration);
-				services.add(insertIndex, registration);
+				ServiceRegistrationImpl<?>[] services = publishedServicesByClass.get(clazz);
+				publishedServicesByClass.put(clazz,
+						insertRegistration(removeRegistration(services, registration), registration));
 			}
 
-			// Remove the ServiceRegistrationImpl from the list of all published Services
-			// and then add at the correct index.
-			allPublishedServices.remove(registration);
-			// The list is sorted, so we must find the proper location to insert
-			insertIndex = -1 - Collections.binarySearch(allPublishedServices, registration);
-			allPublishedServices.add(insertIndex, registration);
+			// Replace the snapshot of all published Services.
+			allPublishedServices = insertRegistration(removeRegistration(allPublishedServices, registration),
+					registration);
 		}
 	}
 
@@ -1072,18 +1059,63 @@ public class ServiceRegistry {
 			contextServices.remove(registration);
 		}
 
-		// Remove the ServiceRegistrationImpl from the list of Services published by
+		// Remove the ServiceRegistrationImpl from the snapshot of Services published by
 		// Class Name.
 		for (String clazz : registration.getClasses()) {
-			List<ServiceRegistrationImpl<?>> services = publishedServicesByClass.get(clazz);
-			services.remove(registration);
-			if (services.isEmpty()) { // remove empty list
+			ServiceRegistrationImpl<?>[] services = removeRegistration(publishedServicesByClass.get(clazz),
+					registration);
+			if (services.length == 0) { // remove empty snapshot
 				publishedServicesByClass.remove(clazz);
+			} else {
+				publishedServicesByClass.put(clazz, services);
 			}
 		}
 
-		// Remove the ServiceRegistrationImpl from the list of all published Services.
-		allPublishedServices.remove(registration);
+		// Remove the ServiceRegistrationImpl from the snapshot of all published
+		// Services.
+		allPublishedServices = removeRegistration(allPublishedServices, registration);
+	}
+
+	/**
+	 * Returns a copy of the sorted registrations snapshot with the specified
+	 * registration inserted at its sorted position.
+	 *
+	 * @param services     The sorted snapshot.
+	 * @param registration The registration to insert.
+	 * @return A new sorted snapshot.
+	 */
+	private static ServiceRegistrationImpl<?>[] insertRegistration(ServiceRegistrationImpl<?>[] services,
+			ServiceRegistrationImpl<?> registration) {
+		// The array is sorted, so we must find the proper location to insert
+		int insertIndex = -Arrays.binarySearch(services, registration) - 1;
+		ServiceRegistrationImpl<?>[] result = new ServiceRegistrationImpl<?>[services.length + 1];
+		System.arraycopy(services, 0, result, 0, insertIndex);
+		result[insertIndex] = registration;
+		System.arraycopy(services, insertIndex, result, insertIndex + 1, services.length - insertIndex);
+		return result;
+	}
+
+	/**
+	 * Returns a copy of the registrations snapshot without the specified
+	 * registration.
+	 *
+	 * @param services     The snapshot.
+	 * @param registration The registration to remove.
+	 * @return A new snapshot or the specified snapshot if it does not contain the
+	 *         registration.
+	 */
+	private static ServiceRegistrationImpl<?>[] removeRegistration(ServiceRegistrationImpl<?>[] services,
+			ServiceRegistrationImpl<?> registration) {
+		// The ranking may have changed so the array cannot be searched
+		for (int i = 0; i < services.length; i++) {
+			if (services[i] == registration) {
+				ServiceRegistrationImpl<?>[] result = new ServiceRegistrationImpl<?>[services.length - 1];
+				System.arraycopy(services, 0, result, 0, i);
+				System.arraycopy(services, i + 1, result, i, result.length - i);
+				return result;
+			}
+		}
+		return services;
 	}
 
 	/**
@@ -1095,53 +1127,49 @@ public class ServiceRegistry {
 	 * @return List<ServiceRegistrationImpl>
 	 */
 	private List<ServiceRegistrationImpl<?>> lookupServiceRegistrations(String clazz, Filter filter) {
-		List<ServiceRegistrationImpl<?>> result;
-		synchronized (this) {
-			if (clazz == null) {
-				if (filter instanceof FilterImpl) {
-					// check if we can determine the clazz from the filter
-					String filterObjectClazz = ((FilterImpl) filter).getRequiredObjectClass();
-					if (filterObjectClazz != null) {
-						result = publishedServicesByClass.get(filterObjectClazz);
-						if (((FilterImpl) filter).getChildren().isEmpty()) {
-							// this is a simple (objectClass=serviceClass) filter;
-							// no need to evaluate the filter
-							filter = null;
-						}
-					} else {
-						result = allPublishedServices;
+		// The snapshots are immutable so there is no need to lock or copy them
+		ServiceRegistrationImpl<?>[] snapshot;
+		if (clazz == null) {
+			if (filter instanceof FilterImpl) {
+				// check if we can determine the clazz from the filter
+				String filterObjectClazz = ((FilterImpl) filter).getRequiredObjectClass();
+				if (filterObjectClazz != null) {
+					snapshot = publishedServicesByClass.get(filterObjectClazz);
+					if (((FilterImpl) filter).getChildren().isEmpty()) {
+						// this is a simple (objectClass=serviceClass) filter;
+						// no need to evaluate the filter
+						filter = null;
 					}
 				} else {
-					// have to check all services
-					result = allPublishedServices;
+					snapshot = allPublishedServices;
 				}
 			} else {
-				/* services registered under the class name */
-				result = publishedServicesByClass.get(clazz);
-			}
-
-			if ((result == null) || result.isEmpty()) {
-				return Collections.emptyList();
+				// have to check all services
+				snapshot = allPublishedServices;
 			}
+		} else {
+			/* services registered under the class name */
+			snapshot = publishedServicesByClass.get(clazz);
+		}
 
-			result = new LinkedList<>(result); /* make a new list since we don't want to change the real list */
+		if ((snapshot == null) || (snapshot.length == 0)) {
+			return Collections.emptyList();
 		}
 
 		if (filter == null) {
-			return result;
+			return Collections.unmodifiableList(Arrays.asList(snapshot));
 		}
 
-		for (Iterator<ServiceRegistrationImpl<?>> iter = result.iterator(); iter.hasNext();) {
-			ServiceRegistrationImpl<?> registration = iter.next();
+		List<ServiceRegistrationImpl<?>> result = new ArrayList<>();
+		for (ServiceRegistrationImpl<?> registration : snapshot) {
 			ServiceReferenceImpl<?> reference;
 			try {
 				reference = registration.getReferenceImpl();
 			} catch (IllegalStateException e) {
-				iter.remove(); /* service was unregistered after we left the synchronized block above */
-				continue;
+				continue; /* service was unregistered after the snapshot was taken */
 			}
-			if (!filter.match(reference)) {
-				iter.remove();
+			if (filter.match(reference)) {
+				result.add(registration);
 			}
 		}
 		return result;
@@ -1342,6 +1370,18 @@ public class ServiceRegistry {
 		notifyHooksPrivileged(EventListenerHook.class, "event", (hook, r) -> hook.event(event, result)); //$NON-NLS-1$
 	}
 
+	/**
+	 * Returns true if any service is registered under the specified class name.
+	 * 
+	 * @param clazz The class name with which the service was registered.
+	 * @return true if any service is registered under the class name.
+	 */
+	public boolean hasServiceRegistrations(String clazz) {
+		// The snapshots are immutable so there is no need to lock or copy them
+		ServiceRegistrationImpl<?>[] snapshot = publishedServicesByClass.get(clazz);
+		return snapshot != null && snapshot.length > 0;
+	}
+
 	/**
 	 * Calls all hook services of the type specified by the hook context.
 	 * 
@@ -1427,8 +1467,7 @@ public class ServiceRegistry {
 		// snapshot the listeners
 		Collection<ListenerInfo> addedListeners = new ArrayList<>(initialCapacity);
 		synchronized (serviceEventListeners) {
-			for (CopyOnWriteIdentityMap<ServiceListener, FilteredServiceListener> listeners : serviceEventListeners
-					.values()) {
+			for (ServiceListenerIndex listeners : serviceEventListeners.values()) {
 				if (!listeners.isEmpty()) {
 					addedListeners.addAll(listeners.values());
 				}
@@ -29,6 +29,7 @@ import org.eclipse.osgi.storage.bundlefile.BundleEntry;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.FrameworkEvent;
 import org.osgi.framework.ServiceRegistration;
+import org.osgi.framework.hooks.weaving.WeavingHook;
 
 public class WeavingHookConfigurator extends ClassLoaderHook {
 	static class WovenClassContext {
@@ -113,4 +114,12 @@ public class WeavingHookConfigurator extends ClassLoaderHook {
 	public boolean isProcessClassRecursionSupported() {
 		return true;
 	}
+
+	@Override
+	public boolean isProcessClassRequired(String name, ClasspathManager manager) {
+		// weaving hooks and woven class listeners only see classes if a weaving hook is
+		// registered
+		ServiceRegistry registry = getRegistry();
+		return registry != null && registry.hasServiceRegistrations(WeavingHook.class.getName());
+	}
 }
@@ -206,8 +206,11 @@ public final class BundleInfo {
 		private ManifestLocalization getManifestLocalization() {
 			synchronized (genMonitor) {
 				if (headerLocalization == null) {
-					headerLocalization = new ManifestLocalization(this, getHeaders(), getStorage().getConfiguration()
-							.getConfiguration(EquinoxConfiguration.PROP_ROOT_LOCALE, "en")); //$NON-NLS-1$
+					EquinoxConfiguration configuration = getStorage().getConfiguration();
+					headerLocalization = new ManifestLocalization(this, getHeaders(),
+							configuration.getConfiguration(EquinoxConfiguration.PROP_ROOT_LOCALE, "en"), //$NON-NLS-1$
+							Boolean.parseBoolean(
+									configuration.getConfiguration(EquinoxConfiguration.PROP_MANIFEST_LOCALIZATION_CACHE)));
 				}
 				return headerLocalization;
 			}
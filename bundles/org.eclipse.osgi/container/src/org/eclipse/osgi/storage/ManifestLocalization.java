@@ -13,48 +13,88 @@
  *******************************************************************************/
 package org.eclipse.osgi.storage;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.MissingResourceException;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
+import java.util.regex.Pattern;
 import org.eclipse.osgi.container.Module;
 import org.eclipse.osgi.container.ModuleWire;
 import org.eclipse.osgi.container.ModuleWiring;
 import org.eclipse.osgi.framework.util.CaseInsensitiveDictionaryMap;
+import org.eclipse.osgi.internal.debug.Debug;
 import org.eclipse.osgi.storage.BundleInfo.Generation;
+import org.eclipse.osgi.storage.Storage.StorageException;
 import org.osgi.framework.Constants;
 import org.osgi.framework.namespace.HostNamespace;
 import org.osgi.framework.wiring.BundleRevision;
 
 /**
  * This class is used to localize manifest headers for a revision.
+ * <p>
+ * Optionally the localized headers are persisted per locale in the storage
+ * area of the generation. A persisted result is stamped with the default
+ * locale and the generations the localization files are searched in, that is
+ * the host and its attached fragments. It is only used while the stamp
+ * matches, so an update or a fragment attaching or detaching causes the
+ * headers to be localized again. The persisted results of a generation are
+ * deleted with the generation.
  */
 public class ManifestLocalization {
+	private static final int VERSION = 1;
+	private static final String PERSISTENT_DIR = ".l10n"; //$NON-NLS-1$
+	private static final String PERSISTENT_SUFFIX = ".headers"; //$NON-NLS-1$
+	// only locales that are safe to use as a file name are persisted
+	private static final Pattern PERSISTENT_LOCALE = Pattern.compile("[A-Za-z0-9_#-]+"); //$NON-NLS-1$
+
 	final String defaultRoot;
 	private final Generation generation;
 	private final Dictionary<String, String> rawHeaders;
+	private final boolean persistent;
 	private volatile Dictionary<String, String> defaultLocaleHeaders = null;
 	private final Hashtable<String, BundleResourceBundle> cache = new Hashtable<>(5);
+	private final Hashtable<String, Dictionary<String, String>> persistedHeaders = new Hashtable<>(5);
 
 	public ManifestLocalization(Generation generation, Dictionary<String, String> rawHeaders, String defaultRoot) {
+		this(generation, rawHeaders, defaultRoot, false);
+	}
+
+	public ManifestLocalization(Generation generation, Dictionary<String, String> rawHeaders, String defaultRoot,
+			boolean persistent) {
 		this.generation = generation;
 		this.rawHeaders = rawHeaders;
 		this.defaultRoot = defaultRoot;
+		this.persistent = persistent;
 	}
 
 	public void clearCache() {
 		synchronized (cache) {
 			cache.clear();
+			persistedHeaders.clear();
 			defaultLocaleHeaders = null;
 		}
 	}
@@ -75,6 +115,23 @@ public class ManifestLocalization {
 				return currentDefault;
 			return rawHeaders;
 		}
+		boolean persist = persistent && PERSISTENT_LOCALE.matcher(localeString).matches();
+		byte[] stamp = null;
+		if (persist) {
+			Dictionary<String, String> persisted = persistedHeaders.get(localeString);
+			if (persisted != null) {
+				return persisted;
+			}
+			stamp = getStamp();
+			persisted = loadHeaders(localeString, stamp);
+			if (persisted != null) {
+				persistedHeaders.put(localeString, persisted);
+				if (isDefaultLocale) {
+					defaultLocaleHeaders = persisted;
+				}
+				return persisted;
+			}
+		}
 		ResourceBundle localeProperties = getResourceBundle(localeString, isDefaultLocale);
 		CaseInsensitiveDictionaryMap<String, String> localeHeaders = new CaseInsensitiveDictionaryMap<>(
 				this.rawHeaders);
@@ -95,9 +152,139 @@ public class ManifestLocalization {
 		if (isDefaultLocale) {
 			defaultLocaleHeaders = result;
 		}
+		if (persist) {
+			saveHeaders(localeString, stamp, localeHeaders);
+			persistedHeaders.put(localeString, result);
+		}
 		return result;
 	}
 
+	/*
+	 * The stamp of a persisted result. It identifies everything the localized
+	 * headers depend on besides the raw headers of the generation.
+	 */
+	private byte[] getStamp() {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeUTF(Locale.getDefault().toString());
+			out.writeUTF(defaultRoot);
+			List<Generation> sources = new ArrayList<>();
+			ModuleWiring searchWiring = getSearchWiring();
+			if (searchWiring == null) {
+				sources.add(generation);
+			} else {
+				sources.add((Generation) searchWiring.getRevision().getRevisionInfo());
+				List<ModuleWire> fragmentWires = searchWiring.getProvidedModuleWires(HostNamespace.HOST_NAMESPACE);
+				if (fragmentWires != null) {
+					for (ModuleWire fragmentWire : fragmentWires) {
+						sources.add((Generation) fragmentWire.getRequirer().getRevisionInfo());
+					}
+				}
+			}
+			out.writeInt(sources.size());
+			for (Generation source : sources) {
+				out.writeLong(source.getBundleInfo().getBundleId());
+				out.writeLong(source.getGenerationId());
+				out.writeLong(source.getLastModified());
+			}
+		} catch (IOException e) {
+			// not expected when writing to memory
+		}
+		return bytes.toByteArray();
+	}
+
+	private String getPersistentBase() {
+		return generation.getBundleInfo().getBundleId() + "/" + generation.getGenerationId() + '/' + PERSISTENT_DIR; //$NON-NLS-1$
+	}
+
+	private Dictionary<String, String> loadHeaders(String localeString, byte[] stamp) {
+		Storage storage = generation.getBundleInfo().getStorage();
+		File file;
+		try {
+			file = storage.getFile(getPersistentBase(), localeString + PERSISTENT_SUFFIX, true);
+		} catch (StorageException e) {
+			return null;
+		}
+		if (!file.isFile()) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != VERSION) {
+				return null;
+			}
+			byte[] persistedStamp = new byte[in.readInt()];
+			in.readFully(persistedStamp);
+			if (!Arrays.equals(stamp, persistedStamp)) {
+				return null;
+			}
+			Map<String, String> localized = new LinkedHashMap<>();
+			int numHeaders = in.readInt();
+			for (int i = 0; i < numHeaders; i++) {
+				localized.put(in.readUTF(), in.readUTF());
+			}
+			CaseInsensitiveDictionaryMap<String, String> localeHeaders = new CaseInsensitiveDictionaryMap<>(
+					this.rawHeaders);
+			localeHeaders.putAll(localized);
+			return localeHeaders.asUnmodifiableDictionary();
+		} catch (IOException | RuntimeException e) {
+			// a corrupted file is overwritten with the headers localized again
+			if (storage.getConfiguration().getDebug().DEBUG_STORAGE) {
+				Debug.printStackTrace(e);
+			}
+			return null;
+		}
+	}
+
+	private void saveHeaders(String localeString, byte[] stamp, Map<String, String> localeHeaders) {
+		Storage storage = generation.getBundleInfo().getStorage();
+		if (storage.isReadOnly()) {
+			return;
+		}
+		File tmp = null;
+		try {
+			// never write into a parent storage area
+			File file = storage.getFile(getPersistentBase(), localeString + PERSISTENT_SUFFIX, false);
+			File dir = file.getParentFile();
+			if (!dir.mkdirs() && !dir.isDirectory()) {
+				return;
+			}
+			tmp = File.createTempFile(file.getName(), ".tmp", dir); //$NON-NLS-1$
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+				out.writeInt(VERSION);
+				out.writeInt(stamp.length);
+				out.write(stamp);
+				List<Entry<String, String>> localized = new ArrayList<>();
+				for (Entry<String, String> entry : localeHeaders.entrySet()) {
+					String rawValue = rawHeaders.get(entry.getKey());
+					// only the localized headers are persisted
+					if (rawValue != null && rawValue.startsWith("%")) { //$NON-NLS-1$
+						localized.add(entry);
+					}
+				}
+				out.writeInt(localized.size());
+				for (Entry<String, String> entry : localized) {
+					out.writeUTF(entry.getKey());
+					out.writeUTF(entry.getValue());
+				}
+			}
+			try {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+			tmp = null;
+		} catch (IOException | StorageException e) {
+			if (storage.getConfiguration().getDebug().DEBUG_STORAGE) {
+				Debug.printStackTrace(e);
+			}
+		} finally {
+			if (tmp != null) {
+				tmp.delete();
+			}
+		}
+	}
+
 	private String[] buildNLVariants(String nl) {
 		List<String> result = new ArrayList<>();
 		while (nl.length() > 0) {
@@ -217,6 +404,23 @@ public class ManifestLocalization {
 	}
 
 	private URL findResource(String resource) {
+		ModuleWiring searchWiring = getSearchWiring();
+		if (searchWiring != null) {
+			int lastSlash = resource.lastIndexOf('/');
+			String path = lastSlash > 0 ? resource.substring(0, lastSlash) : "/"; //$NON-NLS-1$
+			String fileName = lastSlash != -1 ? resource.substring(lastSlash + 1) : resource;
+			List<URL> result = searchWiring.findEntries(path, fileName, 0);
+			return (result == null || result.isEmpty()) ? null : result.get(0);
+		}
+		// search the raw bundle file for the generation
+		return generation.getEntry(resource);
+	}
+
+	/*
+	 * The wiring to search for localization files; for a fragment this is the
+	 * wiring of its host. Returns null if the raw bundle file is to be searched.
+	 */
+	private ModuleWiring getSearchWiring() {
 		ModuleWiring searchWiring = generation.getRevision().getWiring();
 		if (searchWiring != null) {
 			if ((generation.getRevision().getTypes() & BundleRevision.TYPE_FRAGMENT) != 0) {
@@ -235,15 +439,7 @@ public class ManifestLocalization {
 				}
 			}
 		}
-		if (searchWiring != null) {
-			int lastSlash = resource.lastIndexOf('/');
-			String path = lastSlash > 0 ? resource.substring(0, lastSlash) : "/"; //$NON-NLS-1$
-			String fileName = lastSlash != -1 ? resource.substring(lastSlash + 1) : resource;
-			List<URL> result = searchWiring.findEntries(path, fileName, 0);
-			return (result == null || result.isEmpty()) ? null : result.get(0);
-		}
-		// search the raw bundle file for the generation
-		return generation.getEntry(resource);
+		return searchWiring;
 	}
 
 	private interface BundleResourceBundle {
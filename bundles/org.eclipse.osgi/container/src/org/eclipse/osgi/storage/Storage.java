@@ -23,6 +23,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
@@ -52,8 +53,12 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringTokenizer;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
 import org.eclipse.core.runtime.adaptor.EclipseStarter;
 import org.eclipse.osgi.container.Module;
 import org.eclipse.osgi.container.ModuleCapability;
@@ -95,6 +100,7 @@ import org.eclipse.osgi.storage.bundlefile.BundleFileWrapper;
 import org.eclipse.osgi.storage.bundlefile.BundleFileWrapperChain;
 import org.eclipse.osgi.storage.bundlefile.DirBundleFile;
 import org.eclipse.osgi.storage.bundlefile.MRUBundleFileList;
+import org.eclipse.osgi.storage.bundlefile.MappedZipBundleFile;
 import org.eclipse.osgi.storage.bundlefile.NestedDirBundleFile;
 import org.eclipse.osgi.storage.bundlefile.ZipBundleFile;
 import org.eclipse.osgi.storage.url.reference.Handler;
@@ -149,6 +155,10 @@ public class Storage {
 	public static final String BUNDLE_DATA_DIR = "data"; //$NON-NLS-1$
 	public static final String BUNDLE_FILE_NAME = "bundleFile"; //$NON-NLS-1$
 	public static final String FRAMEWORK_INFO = "framework.info"; //$NON-NLS-1$
+	public static final String FRAMEWORK_INFO_JOURNAL = "framework.journal"; //$NON-NLS-1$
+	private static final int JOURNAL_VERSION = 3;
+	private static final int JOURNAL_HEADER_SIZE = 12;
+	private static final long DEFAULT_JOURNAL_SIZE = 256 * 1024;
 	public static final String ECLIPSE_SYSTEMBUNDLE = "Eclipse-SystemBundle"; //$NON-NLS-1$
 	public static final String DELETE_FLAG = ".delete"; //$NON-NLS-1$
 	public static final String LIB_TEMP = "libtemp"; //$NON-NLS-1$
@@ -172,11 +182,19 @@ public class Storage {
 	private final ModuleContainer moduleContainer;
 	private final Object saveMonitor = new Object();
 	private long lastSavedTimestamp = -1;
+	/* @GuardedBy("saveMonitor") */
+	private long journalBaseTimestamp = -1;
+	/* @GuardedBy("saveMonitor") */
+	private long journalLength = 0;
+	/* @GuardedBy("saveMonitor") */
+	private Future<?> journalCompaction;
+	private final long journalMaxSize;
 	private final MRUBundleFileList mruList;
 	private final FrameworkExtensionInstaller extensionInstaller;
 	private final List<String> cachedHeaderKeys = Arrays.asList(Constants.BUNDLE_SYMBOLICNAME,
 			Constants.BUNDLE_ACTIVATIONPOLICY, "Service-Component"); //$NON-NLS-1$
 	private final boolean allowRestrictedProvides;
+	private final boolean mapBundleFiles;
 	private final AtomicBoolean refreshMRBundles = new AtomicBoolean(false);
 	private final Version runtimeVersion;
 	private final String javaSpecVersion;
@@ -223,10 +241,13 @@ public class Storage {
 		javaSpecVersion = javaSpecVersionProp;
 		mruList = new MRUBundleFileList(getBundleFileLimit(container.getConfiguration()),
 				container.getConfiguration().getDebug());
+		journalMaxSize = getJournalSize(container.getConfiguration());
 		equinoxContainer = container;
 		extensionInstaller = new FrameworkExtensionInstaller(container.getConfiguration());
 		allowRestrictedProvides = Boolean.parseBoolean(
 				container.getConfiguration().getConfiguration(EquinoxConfiguration.PROP_ALLOW_RESTRICTED_PROVIDES));
+		mapBundleFiles = Boolean.parseBoolean(
+				container.getConfiguration().getConfiguration(EquinoxConfiguration.PROP_BUNDLE_FILE_MAP));
 
 		// we need to set the install path as soon as possible so we can determine
 		// the absolute location of install relative URLs
@@ -288,6 +309,8 @@ public class Storage {
 				try {
 					moduleDatabase.load(data);
 					lastSavedTimestamp = moduleDatabase.getTimestamp();
+					journalBaseTimestamp = lastSavedTimestamp;
+					loadJournal(generations);
 				} catch (IllegalArgumentException e) {
 					equinoxContainer.getLogServices().log(EquinoxContainer.NAME, FrameworkLogEntry.WARNING,
 							"Incompatible version.  Starting with empty framework.", e); //$NON-NLS-1$
@@ -317,6 +340,18 @@ public class Storage {
 		return mruList;
 	}
 
+	private long getJournalSize(EquinoxConfiguration configuration) {
+		long propValue = DEFAULT_JOURNAL_SIZE;
+		try {
+			String prop = configuration.getConfiguration(EquinoxConfiguration.PROP_STORAGE_JOURNAL_SIZE);
+			if (prop != null)
+				propValue = Long.parseLong(prop);
+		} catch (NumberFormatException e) {
+			// use default
+		}
+		return propValue;
+	}
+
 	private int getBundleFileLimit(EquinoxConfiguration configuration) {
 		int propValue = 100; // enable to 100 open files by default
 		try {
@@ -526,6 +561,13 @@ public class Storage {
 	public void close() {
 		try {
 			save();
+			synchronized (this.saveMonitor) {
+				if (journalCompaction != null) {
+					journalCompaction.cancel(false);
+				}
+			}
+			// compact a journal which is still too large
+			compactJournal();
 		} catch (IOException e) {
 			getLogServices().log(EquinoxContainer.NAME, FrameworkLogEntry.ERROR, "Error saving on shutdown", e); //$NON-NLS-1$
 		}
@@ -1226,6 +1268,9 @@ public class Storage {
 				boolean strictPath = Boolean.parseBoolean(getConfiguration().getConfiguration(
 						EquinoxConfiguration.PROPERTY_STRICT_BUNDLE_ENTRY_PATH, Boolean.FALSE.toString()));
 				result = new DirBundleFile(content, strictPath);
+			} else if (mapBundleFiles) {
+				result = new MappedZipBundleFile(content, generation, mruList, getConfiguration().getDebug(),
+						getConfiguration().runtimeVerifySignedBundles);
 			} else {
 				result = new ZipBundleFile(content, generation, mruList, getConfiguration().getDebug(),
 						getConfiguration().runtimeVerifySignedBundles);
@@ -1343,44 +1388,273 @@ public class Storage {
 	}
 
 	void save0() throws IOException {
+		moduleDatabase.readLock();
+		synchronized (this.saveMonitor) {
+			try {
+				if (lastSavedTimestamp == moduleDatabase.getTimestamp())
+					return;
+				if (!appendJournal()) {
+					saveFrameworkInfo();
+				}
+			} finally {
+				moduleDatabase.readUnlock();
+			}
+		}
+	}
+
+	/*
+	 * Writes all the data to framework.info which makes the journal stale. Must be
+	 * called while holding the read lock of the database and the save monitor.
+	 */
+	private void saveFrameworkInfo() throws IOException {
 		StorageManager childStorageManager = null;
 		ManagedOutputStream mos = null;
 		DataOutputStream out = null;
 		boolean success = false;
+		try {
+			childStorageManager = getChildStorageManager();
+			mos = childStorageManager.getOutputStream(FRAMEWORK_INFO);
+			out = new DataOutputStream(new BufferedOutputStream(mos));
+			saveGenerations(out);
+			savePermissionData(out);
+			moduleDatabase.store(out, true);
+			out.close();
+			out = null;
+			lastSavedTimestamp = moduleDatabase.getTimestamp();
+			permissionData.setDirty(false);
+			success = true;
+		} finally {
+			if (!success) {
+				if (mos != null) {
+					mos.abort();
+				}
+			}
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException e) {
+					// tried our best
+				}
+			}
+			if (childStorageManager != null) {
+				childStorageManager.close();
+			}
+		}
+		// a journal left behind is discarded on load since it applies to the
+		// previous framework.info
+		journalBaseTimestamp = lastSavedTimestamp;
+		journalLength = 0;
+		Files.deleteIfExists(getJournalFile().toPath());
+	}
+
+	/**
+	 * Appends the changes made since the last save as a record to the journal of
+	 * framework.info. A record holds the generations of the bundles installed or
+	 * updated followed by a {@link ModuleDatabase#storeDelta(DataOutputStream, long)
+	 * delta} of the module database. The journal is replayed on top of
+	 * framework.info on load.
+	 * <p>
+	 * Changes to the permission data and to the system bundle are not journaled;
+	 * they require writing framework.info. Once the journal grows over the
+	 * configured {@link EquinoxConfiguration#PROP_STORAGE_JOURNAL_SIZE size} it is
+	 * compacted into a new framework.info in the background.
+	 *
+	 * @return true if the changes got appended to the journal
+	 */
+	private boolean appendJournal() throws IOException {
+		if (journalMaxSize <= 0 || journalBaseTimestamp == -1 || permissionData.isDirty()) {
+			return false;
+		}
+		List<Module> changed = moduleDatabase.getModulesChanged(lastSavedTimestamp);
+		List<Generation> generations = new ArrayList<>(changed.size());
+		for (Module module : changed) {
+			Generation generation = (Generation) module.getCurrentRevision().getRevisionInfo();
+			if (module.getId() == 0 || generation == null) {
+				// framework.info caches the capabilities of the system bundle
+				return false;
+			}
+			generations.add(generation);
+		}
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream record = new DataOutputStream(bytes)) {
+			record.writeInt(generations.size());
+			if (!generations.isEmpty()) {
+				saveCachedHeaderKeys(record);
+				for (Generation generation : generations) {
+					saveGeneration(record, generation);
+				}
+				saveStorageHookData(record, generations);
+			}
+			moduleDatabase.storeDelta(record, lastSavedTimestamp);
+		}
+		CRC32 checksum = new CRC32();
+		checksum.update(bytes.toByteArray());
+
+		File journal = getJournalFile();
+		// start a new journal if there is none for the current framework.info
+		boolean append = journalLength > 0 && journal.length() >= journalLength;
+		try (FileOutputStream fos = secureAction.getFileOutputStream(journal, append)) {
+			if (append) {
+				// drop an incomplete record of a failed append
+				fos.getChannel().truncate(journalLength);
+			}
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos));
+			if (!append) {
+				out.writeInt(JOURNAL_VERSION);
+				out.writeLong(journalBaseTimestamp);
+			}
+			// prefix with the length and checksum so an incomplete record can be detected
+			out.writeInt(bytes.size());
+			out.writeLong(checksum.getValue());
+			bytes.writeTo(out);
+			out.flush();
+			journalLength = fos.getChannel().position();
+		}
+		lastSavedTimestamp = moduleDatabase.getTimestamp();
+		if (journalLength >= journalMaxSize) {
+			scheduleJournalCompaction();
+		}
+		return true;
+	}
+
+	/*
+	 * Must be called while holding the read lock of the database and the save
+	 * monitor.
+	 */
+	private void scheduleJournalCompaction() throws IOException {
+		if (journalCompaction != null) {
+			return;
+		}
+		ScheduledExecutorService executor = adaptor.getScheduledExecutor();
+		if (executor != null) {
+			try {
+				journalCompaction = executor.submit(() -> {
+					try {
+						compactJournal();
+					} catch (IOException e) {
+						getLogServices().log(EquinoxContainer.NAME, FrameworkLogEntry.ERROR,
+								"Error compacting " + FRAMEWORK_INFO_JOURNAL, e); //$NON-NLS-1$
+					}
+				});
+				return;
+			} catch (RejectedExecutionException e) {
+				// the framework is shutting down
+			}
+		}
+		saveFrameworkInfo();
+	}
+
+	void compactJournal() throws IOException {
+		if (isReadOnly()) {
+			return;
+		}
+		if (System.getSecurityManager() == null) {
+			compactJournal0();
+		} else {
+			try {
+				AccessController.doPrivileged((PrivilegedExceptionAction<Void>) () -> {
+					compactJournal0();
+					return null;
+				});
+			} catch (PrivilegedActionException e) {
+				if (e.getException() instanceof IOException)
+					throw (IOException) e.getException();
+				throw (RuntimeException) e.getException();
+			}
+		}
+	}
+
+	private void compactJournal0() throws IOException {
 		moduleDatabase.readLock();
 		synchronized (this.saveMonitor) {
 			try {
-				if (lastSavedTimestamp == moduleDatabase.getTimestamp())
+				journalCompaction = null;
+				if (journalLength < journalMaxSize || journalBaseTimestamp == -1) {
 					return;
-				childStorageManager = getChildStorageManager();
-				mos = childStorageManager.getOutputStream(FRAMEWORK_INFO);
-				out = new DataOutputStream(new BufferedOutputStream(mos));
-				saveGenerations(out);
-				savePermissionData(out);
-				moduleDatabase.store(out, true);
-				lastSavedTimestamp = moduleDatabase.getTimestamp();
-				success = true;
+				}
+				if (getConfiguration().getDebug().DEBUG_STORAGE) {
+					Debug.println("Compacting " + FRAMEWORK_INFO_JOURNAL + " of size: " + journalLength); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				saveFrameworkInfo();
 			} finally {
 				moduleDatabase.readUnlock();
-				if (!success) {
-					if (mos != null) {
-						mos.abort();
+			}
+		}
+	}
+
+	/*
+	 * Replays the records of the journal which apply to the loaded framework.info.
+	 * The replay stops at the first incomplete record.
+	 */
+	private void loadJournal(Map<Long, Generation> generations) {
+		File journal = getJournalFile();
+		if (!journal.isFile()) {
+			return;
+		}
+		int replayed = 0;
+		long replayedLength = 0;
+		try (DataInputStream in = new DataInputStream(
+				new BufferedInputStream(secureAction.getFileInputStream(journal)))) {
+			long length = journal.length();
+			// a journal of another framework.info is stale
+			if (length >= JOURNAL_HEADER_SIZE && in.readInt() == JOURNAL_VERSION
+					&& in.readLong() == journalBaseTimestamp) {
+				replayedLength = JOURNAL_HEADER_SIZE;
+				while (length - replayedLength > 12) {
+					int recordSize = in.readInt();
+					long recordChecksum = in.readLong();
+					if (recordSize < 0 || recordSize > length - replayedLength - 12) {
+						break;
 					}
-				}
-				if (out != null) {
-					try {
-						out.close();
-					} catch (IOException e) {
-						// tried our best
+					byte[] bytes = new byte[recordSize];
+					in.readFully(bytes);
+					CRC32 checksum = new CRC32();
+					checksum.update(bytes);
+					if (checksum.getValue() != recordChecksum || !loadJournalRecord(bytes, generations)) {
+						break;
 					}
+					replayed++;
+					replayedLength += 12 + recordSize;
+				}
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			if (getConfiguration().getDebug().DEBUG_STORAGE) {
+				Debug.println("Error reading " + FRAMEWORK_INFO_JOURNAL + ": " + e.getMessage()); //$NON-NLS-1$ //$NON-NLS-2$
+				Debug.printStackTrace(e);
+			}
+		}
+		if (getConfiguration().getDebug().DEBUG_STORAGE) {
+			Debug.println("Replayed " + replayed + " records of " + FRAMEWORK_INFO_JOURNAL); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		// the next record is appended after the last replayed record
+		journalLength = replayedLength;
+		lastSavedTimestamp = moduleDatabase.getTimestamp();
+	}
+
+	private boolean loadJournalRecord(byte[] bytes, Map<Long, Generation> generations) throws IOException {
+		try (DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes))) {
+			int numGenerations = record.readInt();
+			if (numGenerations > 0) {
+				List<String> storedCachedHeaderKeys = loadCachedHeaderKeys(record);
+				List<Generation> loaded = new ArrayList<>(numGenerations);
+				for (int i = 0; i < numGenerations; i++) {
+					loaded.add(loadGeneration(record, VERSION, storedCachedHeaderKeys));
 				}
-				if (childStorageManager != null) {
-					childStorageManager.close();
+				connectPersistentBundles(loaded);
+				loadStorageHookData(loaded, record);
+				for (Generation generation : loaded) {
+					generations.put(generation.getBundleInfo().getBundleId(), generation);
 				}
 			}
+			return moduleDatabase.loadDelta(record);
 		}
 	}
 
+	private File getJournalFile() {
+		return new File(childRoot, FRAMEWORK_INFO_JOURNAL);
+	}
+
 	private void savePermissionData(DataOutputStream out) throws IOException {
 		permissionData.savePermissionData(out);
 	}
@@ -1407,52 +1681,60 @@ public class Storage {
 		saveLongString(out, getSystemExtraCapabilities());
 		saveLongString(out, getSystemExtraPackages());
 
+		saveCachedHeaderKeys(out);
+
+		out.writeInt(generations.size());
+		for (Generation generation : generations) {
+			saveGeneration(out, generation);
+		}
+
+		saveStorageHookData(out, generations);
+	}
+
+	private void saveCachedHeaderKeys(DataOutputStream out) throws IOException {
 		out.writeInt(cachedHeaderKeys.size());
 		for (String headerKey : cachedHeaderKeys) {
 			out.writeUTF(headerKey);
 		}
+	}
 
-		out.writeInt(generations.size());
-		for (Generation generation : generations) {
-			BundleInfo bundleInfo = generation.getBundleInfo();
-			out.writeLong(bundleInfo.getBundleId());
-			out.writeUTF(bundleInfo.getLocation());
-			out.writeLong(bundleInfo.getNextGenerationId());
-			out.writeLong(generation.getGenerationId());
-			out.writeBoolean(generation.isDirectory());
-			Type contentType = generation.getContentType();
-			out.writeInt(contentType.ordinal());
-			out.writeBoolean(generation.hasPackageInfo());
-			if (bundleInfo.getBundleId() == 0 || contentType == Type.CONNECT) {
-				// just write empty string for system bundle content and connect content in this
-				// case
-				out.writeUTF(""); //$NON-NLS-1$
+	private void saveGeneration(DataOutputStream out, Generation generation) throws IOException {
+		BundleInfo bundleInfo = generation.getBundleInfo();
+		out.writeLong(bundleInfo.getBundleId());
+		out.writeUTF(bundleInfo.getLocation());
+		out.writeLong(bundleInfo.getNextGenerationId());
+		out.writeLong(generation.getGenerationId());
+		out.writeBoolean(generation.isDirectory());
+		Type contentType = generation.getContentType();
+		out.writeInt(contentType.ordinal());
+		out.writeBoolean(generation.hasPackageInfo());
+		if (bundleInfo.getBundleId() == 0 || contentType == Type.CONNECT) {
+			// just write empty string for system bundle content and connect content in this
+			// case
+			out.writeUTF(""); //$NON-NLS-1$
+		} else {
+			if (contentType == Type.REFERENCE) {
+				// make reference installs relative to the install path
+				out.writeUTF(new FilePath(installPath)
+						.makeRelative(new FilePath(generation.getContent().getAbsolutePath())));
 			} else {
-				if (contentType == Type.REFERENCE) {
-					// make reference installs relative to the install path
-					out.writeUTF(new FilePath(installPath)
-							.makeRelative(new FilePath(generation.getContent().getAbsolutePath())));
-				} else {
-					// make normal installs relative to the storage area
-					out.writeUTF(Storage.getBundleFilePath(bundleInfo.getBundleId(), generation.getGenerationId()));
-				}
+				// make normal installs relative to the storage area
+				out.writeUTF(Storage.getBundleFilePath(bundleInfo.getBundleId(), generation.getGenerationId()));
 			}
-			out.writeLong(generation.getLastModified());
+		}
+		out.writeLong(generation.getLastModified());
 
-			Dictionary<String, String> headers = generation.getHeaders();
-			for (String headerKey : cachedHeaderKeys) {
-				String value = headers.get(headerKey);
-				if (value != null) {
-					out.writeUTF(value);
-				} else {
-					out.writeUTF(NUL);
-				}
+		Dictionary<String, String> headers = generation.getHeaders();
+		for (String headerKey : cachedHeaderKeys) {
+			String value = headers.get(headerKey);
+			if (value != null) {
+				out.writeUTF(value);
+			} else {
+				out.writeUTF(NUL);
 			}
-
-			out.writeBoolean(generation.isMRJar());
 		}
 
-		saveStorageHookData(out, generations);
+		out.writeBoolean(generation.isMRJar());
 	}
 
 	private void saveLongString(DataOutputStream out, String value) throws IOException {
@@ -1518,85 +1800,94 @@ public class Storage {
 		cachedInfo[1] = (version >= CACHED_SYSTEM_CAPS_VERION) ? readLongString(in) : null;
 		cachedInfo[2] = (version >= CACHED_SYSTEM_CAPS_VERION) ? readLongString(in) : null;
 
+		List<String> storedCachedHeaderKeys = loadCachedHeaderKeys(in);
+
+		int numInfos = in.readInt();
+		Map<Long, Generation> result = new HashMap<>(numInfos);
+		List<Generation> generations = new ArrayList<>(numInfos);
+		for (int i = 0; i < numInfos; i++) {
+			Generation generation = loadGeneration(in, version, storedCachedHeaderKeys);
+			result.put(generation.getBundleInfo().getBundleId(), generation);
+			generations.add(generation);
+		}
+
+		connectPersistentBundles(generations);
+		loadStorageHookData(generations, in);
+		return result;
+	}
+
+	private List<String> loadCachedHeaderKeys(DataInputStream in) throws IOException {
 		int numCachedHeaders = in.readInt();
 		List<String> storedCachedHeaderKeys = new ArrayList<>(numCachedHeaders);
 		for (int i = 0; i < numCachedHeaders; i++) {
 			storedCachedHeaderKeys.add(ObjectPool.intern(in.readUTF()));
 		}
+		return storedCachedHeaderKeys;
+	}
 
-		int numInfos = in.readInt();
-		Map<Long, Generation> result = new HashMap<>(numInfos);
-		List<Generation> generations = new ArrayList<>(numInfos);
-		Type[] contentTypes = Type.values();
-		for (int i = 0; i < numInfos; i++) {
-			long infoId = in.readLong();
-			String infoLocation = ObjectPool.intern(in.readUTF());
-			long nextGenId = in.readLong();
-			long generationId = in.readLong();
-			boolean isDirectory = in.readBoolean();
-
-			Type contentType = Type.DEFAULT;
-			if (version >= CONTENT_TYPE_VERSION) {
-				contentType = contentTypes[in.readInt()];
-			} else {
-				if (in.readBoolean()) {
-					contentType = Type.REFERENCE;
-				}
+	private Generation loadGeneration(DataInputStream in, int version, List<String> storedCachedHeaderKeys)
+			throws IOException {
+		long infoId = in.readLong();
+		String infoLocation = ObjectPool.intern(in.readUTF());
+		long nextGenId = in.readLong();
+		long generationId = in.readLong();
+		boolean isDirectory = in.readBoolean();
+
+		Type contentType = Type.DEFAULT;
+		if (version >= CONTENT_TYPE_VERSION) {
+			contentType = Type.values()[in.readInt()];
+		} else {
+			if (in.readBoolean()) {
+				contentType = Type.REFERENCE;
 			}
+		}
 
-			boolean hasPackageInfo = in.readBoolean();
-			String contentPath = in.readUTF();
-			long lastModified = in.readLong();
+		boolean hasPackageInfo = in.readBoolean();
+		String contentPath = in.readUTF();
+		long lastModified = in.readLong();
 
-			Map<String, String> cachedHeaders = new HashMap<>(storedCachedHeaderKeys.size());
-			for (String headerKey : storedCachedHeaderKeys) {
-				String value = in.readUTF();
-				if (NUL.equals(value)) {
-					value = null;
-				} else {
-					value = ObjectPool.intern(value);
-				}
-				cachedHeaders.put(headerKey, value);
-			}
-			boolean isMRJar = (version >= MR_JAR_VERSION) ? in.readBoolean() : false;
-
-			File content = null;
-			if (contentType != Type.CONNECT) {
-				if (infoId == 0) {
-					content = getSystemContent();
-					isDirectory = content != null ? content.isDirectory() : false;
-					// Note that we do not do any checking for absolute paths with
-					// the system bundle. We always take the content as discovered
-					// by getSystemContent()
-				} else {
-					content = new File(contentPath);
-					if (!content.isAbsolute()) {
-						// make sure it has the absolute location instead
-						switch (contentType) {
-						case REFERENCE:
-							// reference installs are relative to the installPath
-							content = new File(installPath, contentPath);
-							break;
-						case DEFAULT:
-							// normal installs are relative to the storage area
-							content = getFile(contentPath, true);
-							break;
-						default:
-							throw new IllegalArgumentException("Unknown type: " + contentType); //$NON-NLS-1$
-						}
+		Map<String, String> cachedHeaders = new HashMap<>(storedCachedHeaderKeys.size());
+		for (String headerKey : storedCachedHeaderKeys) {
+			String value = in.readUTF();
+			if (NUL.equals(value)) {
+				value = null;
+			} else {
+				value = ObjectPool.intern(value);
+			}
+			cachedHeaders.put(headerKey, value);
+		}
+		boolean isMRJar = (version >= MR_JAR_VERSION) ? in.readBoolean() : false;
+
+		File content = null;
+		if (contentType != Type.CONNECT) {
+			if (infoId == 0) {
+				content = getSystemContent();
+				isDirectory = content != null ? content.isDirectory() : false;
+				// Note that we do not do any checking for absolute paths with
+				// the system bundle. We always take the content as discovered
+				// by getSystemContent()
+			} else {
+				content = new File(contentPath);
+				if (!content.isAbsolute()) {
+					// make sure it has the absolute location instead
+					switch (contentType) {
+					case REFERENCE:
+						// reference installs are relative to the installPath
+						content = new File(installPath, contentPath);
+						break;
+					case DEFAULT:
+						// normal installs are relative to the storage area
+						content = getFile(contentPath, true);
+						break;
+					default:
+						throw new IllegalArgumentException("Unknown type: " + contentType); //$NON-NLS-1$
 					}
 				}
 			}
-			BundleInfo info = new BundleInfo(this, infoId, infoLocation, nextGenId);
-			Generation generation = info.restoreGeneration(generationId, content, isDirectory, contentType,
-					hasPackageInfo, cachedHeaders, lastModified, isMRJar);
-			result.put(infoId, generation);
-			generations.add(generation);
 		}
-
-		connectPersistentBundles(generations);
-		loadStorageHookData(generations, in);
-		return result;
+		BundleInfo info = new BundleInfo(this, infoId, infoLocation, nextGenId);
+		return info.restoreGeneration(generationId, content, isDirectory, contentType, hasPackageInfo,
+				cachedHeaders, lastModified, isMRJar);
 	}
 
 	private void connectPersistentBundles(List<Generation> generations) {
@@ -17,6 +17,7 @@ package org.eclipse.osgi.storage.bundlefile;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import org.eclipse.osgi.storage.StorageUtil;
 
 /**
@@ -101,4 +102,18 @@ public abstract class BundleEntry {
 		// //$NON-NLS-1$ //$NON-NLS-2$
 		return StorageUtil.getBytes(in, length, BUF_SIZE);
 	}
+
+	/**
+	 * Used for class loading. Returns the content of this entry as a read-only
+	 * byte buffer if the content is available without copying it, for example
+	 * when the bundle file is memory mapped. This default implementation returns
+	 * {@code null}.
+	 * 
+	 * @return a byte buffer containing the content of this entry or {@code null}
+	 *         if the content must be read with {@link #getBytes()}
+	 * @throws IOException if an error occurs accessing the content
+	 */
+	public ByteBuffer getByteBuffer() throws IOException {
+		return null;
+	}
 }
@@ -63,6 +63,13 @@ public abstract class CloseableBundleFile<E> extends BundleFile {
 
 	private int referenceCount = 0;
 
+	/**
+	 * The directory index of the open bundle file; built lazily and dropped when the
+	 * bundle file is closed.
+	 */
+	/* @GuardedBy("openLock") */
+	private DirectoryIndex directoryIndex;
+
 	public CloseableBundleFile(File basefile, BundleInfo.Generation generation, MRUBundleFileList mruList,
 			Debug debug) {
 		super(basefile);
@@ -269,15 +276,25 @@ public abstract class CloseableBundleFile<E> extends BundleFile {
 			if (dir.length() > 0 && dir.charAt(dir.length() - 1) != '/')
 				dir = dir + '/';
 
-			for (String entry : getPaths()) {
-				if (entry.startsWith(dir)) {
-					return true;
-				}
-			}
+			return getDirectoryIndex().containsDir(dir);
 		} finally {
 			releaseOpen();
 		}
-		return false;
+	}
+
+	/**
+	 * Returns the directory index of the bundle file. Must be called while holding
+	 * the open lock.
+	 * 
+	 * @return the directory index
+	 */
+	private DirectoryIndex getDirectoryIndex() {
+		DirectoryIndex index = directoryIndex;
+		if (index == null) {
+			index = DirectoryIndex.build(getPaths());
+			directoryIndex = index;
+		}
+		return index;
 	}
 
 	@Override
@@ -317,39 +334,13 @@ public abstract class CloseableBundleFile<E> extends BundleFile {
 				path = new StringBuilder(path).append("/").toString(); //$NON-NLS-1$
 
 			LinkedHashSet<String> result = new LinkedHashSet<>();
-			// Get all entries and add the ones of interest.
-			for (String entryPath : getPaths()) {
-				// Is the entry of possible interest? Note that
-				// string.startsWith("") == true.
-				if (entryPath.startsWith(path)) {
-					// If we get here, we know that the entry is either (1) equal to
-					// path, (2) a file under path, or (3) a subdirectory of path.
-					if (path.length() < entryPath.length()) {
-						// If we get here, we know that entry is not equal to path.
-						getEntryPaths(path, entryPath.substring(path.length()), recurse, result);
-					}
-				}
-			}
+			getDirectoryIndex().getEntryPaths(path, recurse, result);
 			return result.size() == 0 ? null : Collections.enumeration(result);
 		} finally {
 			releaseOpen();
 		}
 	}
 
-	private void getEntryPaths(String path, String entry, boolean recurse, LinkedHashSet<String> entries) {
-		if (entry.length() == 0)
-			return;
-		int slash = entry.indexOf('/');
-		if (slash == -1)
-			entries.add(path + entry);
-		else {
-			path = path + entry.substring(0, slash + 1);
-			entries.add(path);
-			if (recurse)
-				getEntryPaths(path, entry.substring(slash + 1), true, entries);
-		}
-	}
-
 	@Override
 	public void close() throws IOException {
 		openLock.lock();
@@ -375,6 +366,7 @@ public abstract class CloseableBundleFile<E> extends BundleFile {
 
 				}
 				closed = true;
+				directoryIndex = null;
 				doClose();
 				mruListRemove();
 				postClose();
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.storage.bundlefile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An index of the directories of a bundle file built from the paths of all its
+ * entries. Each directory knows its direct children and the entries it
+ * directly contains so that directory queries only visit the content of the
+ * directory instead of all the paths of the bundle file.
+ * <p>
+ * Directory paths are relative to the root of the bundle file and end with a
+ * '/' except for the root directory which is the empty string. The results
+ * are in the same order as a scan of all the paths of the bundle file would
+ * produce.
+ */
+final class DirectoryIndex {
+	private static final String[] EMPTY_CHILDREN = new String[0];
+
+	static final class Directory {
+		/** the direct children; sub directories end with a '/' */
+		final String[] children;
+		/** the indexes of the entries whose parent is this directory */
+		final int[] entries;
+		/** the sub directories */
+		final Directory[] subDirectories;
+
+		Directory(String[] children, int[] entries, Directory[] subDirectories) {
+			this.children = children;
+			this.entries = entries;
+			this.subDirectories = subDirectories;
+		}
+	}
+
+	private final String[] paths;
+	private final Map<String, Directory> directories;
+
+	private DirectoryIndex(String[] paths, Map<String, Directory> directories) {
+		this.paths = paths;
+		this.directories = directories;
+	}
+
+	/**
+	 * Builds an index for the specified entry paths
+	 *
+	 * @param entryPaths the paths of all entries of a bundle file
+	 * @return the directory index
+	 */
+	static DirectoryIndex build(Iterable<String> entryPaths) {
+		List<String> paths = new ArrayList<>();
+		Map<String, Builder> builders = new HashMap<>();
+		for (String path : entryPaths) {
+			if (path.length() == 0) {
+				continue;
+			}
+			int index = paths.size();
+			paths.add(path);
+			String parent = ""; //$NON-NLS-1$
+			Builder parentBuilder = builders.computeIfAbsent(parent, Builder::new);
+			int start = 0;
+			int slash;
+			while ((slash = path.indexOf('/', start)) >= 0) {
+				String dir = path.substring(0, slash + 1);
+				Builder dirBuilder = builders.get(dir);
+				if (dirBuilder == null) {
+					dirBuilder = new Builder(dir);
+					builders.put(dir, dirBuilder);
+				}
+				parentBuilder.addChild(dir, dirBuilder);
+				if (slash + 1 == path.length()) {
+					// this is a directory entry; it is an entry of its parent
+					break;
+				}
+				parent = dir;
+				parentBuilder = dirBuilder;
+				start = slash + 1;
+			}
+			if (slash < 0) {
+				parentBuilder.addChild(path, null);
+			}
+			parentBuilder.addEntry(index);
+		}
+		Map<String, Directory> directories = new HashMap<>(builders.size() * 4 / 3 + 1);
+		Builder root = builders.get(""); //$NON-NLS-1$
+		if (root != null) {
+			root.build(directories);
+		}
+		return new DirectoryIndex(paths.toArray(new String[0]), directories);
+	}
+
+	/**
+	 * Returns true if the specified directory contains any entries.
+	 *
+	 * @param dir the directory path
+	 * @return true if the directory contains any entries
+	 */
+	boolean containsDir(String dir) {
+		return directories.containsKey(dir);
+	}
+
+	/**
+	 * Adds the paths of the content of a directory to the specified collection.
+	 *
+	 * @param dir     the directory path
+	 * @param recurse true if the content of sub directories is included
+	 * @param result  the collection to add the paths to
+	 */
+	void getEntryPaths(String dir, boolean recurse, Collection<String> result) {
+		Directory directory = directories.get(dir);
+		if (directory == null) {
+			return;
+		}
+		if (!recurse) {
+			result.addAll(Arrays.asList(directory.children));
+			return;
+		}
+		// visit the entries of the sub tree in their original order
+		int[] entries = collectEntries(directory);
+		Arrays.sort(entries);
+		for (int entry : entries) {
+			addEntryPaths(dir, paths[entry].substring(dir.length()), result);
+		}
+	}
+
+	private static int[] collectEntries(Directory directory) {
+		List<Directory> toVisit = new ArrayList<>();
+		toVisit.add(directory);
+		int size = 0;
+		for (int i = 0; i < toVisit.size(); i++) {
+			Directory current = toVisit.get(i);
+			size += current.entries.length;
+			toVisit.addAll(Arrays.asList(current.subDirectories));
+		}
+		int[] result = new int[size];
+		int pos = 0;
+		for (Directory current : toVisit) {
+			System.arraycopy(current.entries, 0, result, pos, current.entries.length);
+			pos += current.entries.length;
+		}
+		return result;
+	}
+
+	private static void addEntryPaths(String path, String entry, Collection<String> result) {
+		int start = 0;
+		int slash;
+		while ((slash = entry.indexOf('/', start)) >= 0) {
+			result.add(path + entry.substring(0, slash + 1));
+			start = slash + 1;
+		}
+		if (start < entry.length()) {
+			result.add(path + entry);
+		}
+	}
+
+	private static final class Builder {
+		final String path;
+		final LinkedHashSet<String> children = new LinkedHashSet<>();
+		final List<Builder> subDirectories = new ArrayList<>();
+		int[] entries = new int[4];
+		int numEntries = 0;
+
+		Builder(String path) {
+			this.path = path;
+		}
+
+		void addChild(String child, Builder subDirectory) {
+			if (children.add(child) && subDirectory != null) {
+				subDirectories.add(subDirectory);
+			}
+		}
+
+		void addEntry(int entry) {
+			if (numEntries == entries.length) {
+				entries = Arrays.copyOf(entries, numEntries * 2);
+			}
+			entries[numEntries++] = entry;
+		}
+
+		Directory build(Map<String, Directory> directories) {
+			Directory[] subs = new Directory[subDirectories.size()];
+			for (int i = 0; i < subs.length; i++) {
+				subs[i] = subDirectories.get(i).build(directories);
+			}
+			Directory directory = new Directory(
+					children.isEmpty() ? EMPTY_CHILDREN : children.toArray(EMPTY_CHILDREN),
+					Arrays.copyOf(entries, numEntries), subs);
+			directories.put(path, directory);
+			return directory;
+		}
+	}
+}
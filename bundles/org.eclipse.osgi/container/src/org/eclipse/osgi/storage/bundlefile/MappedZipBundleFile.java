@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2026 IBM Corporation and others.
+ *
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *     IBM Corporation - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.osgi.storage.bundlefile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import org.eclipse.osgi.internal.debug.Debug;
+import org.eclipse.osgi.storage.BundleInfo;
+
+/**
+ * A ZipBundleFile which memory maps the zip file. The content of entries that
+ * are stored without compression is read directly from the mapped file. This
+ * allows classes to be defined from the mapped content without copying the
+ * class bytes into an array. Compressed entries are read from the ZipFile.
+ * <p>
+ * The zip file is mapped the first time the content of an entry is requested
+ * and the mapping is released when the bundle file is closed.
+ */
+public class MappedZipBundleFile extends ZipBundleFile {
+	private static final int LOC_SIG = 0x04034b50;
+	private static final int CEN_SIG = 0x02014b50;
+	private static final int END_SIG = 0x06054b50;
+	private static final int LOC_HEADER = 30;
+	private static final int CEN_HEADER = 46;
+	private static final int END_HEADER = 22;
+	private static final int MAX_COMMENT = 0xFFFF;
+	private static final long UNKNOWN = 0xFFFFFFFFL;
+
+	/**
+	 * The mapped zip file, or {@code null} if not mapped
+	 */
+	/* @GuardedBy("openLock") */
+	private ByteBuffer mapped;
+	/**
+	 * The stored entries keyed by name; the value holds the local header offset in
+	 * the high and the size in the low 32 bits
+	 */
+	/* @GuardedBy("openLock") */
+	private Map<String, Long> storedEntries;
+
+	public MappedZipBundleFile(File basefile, BundleInfo.Generation generation, MRUBundleFileList mruList,
+			Debug debug, boolean verify) throws IOException {
+		super(basefile, generation, mruList, debug, verify);
+	}
+
+	@Override
+	ByteBuffer getMappedContent(ZipEntry entry) {
+		if (!lockOpen()) {
+			return null;
+		}
+		try {
+			return findMappedContent(entry.getName());
+		} finally {
+			releaseOpen();
+		}
+	}
+
+	@Override
+	protected InputStream doGetInputStream(ZipEntry entry) throws IOException {
+		ByteBuffer content = findMappedContent(entry.getName());
+		return content != null ? new ByteBufferInputStream(content) : super.doGetInputStream(entry);
+	}
+
+	@Override
+	protected void postClose() {
+		super.postClose();
+		// the mapping is released once the buffers are no longer referenced
+		mapped = null;
+		storedEntries = null;
+	}
+
+	/*
+	 * Must be called while holding the open lock
+	 */
+	private ByteBuffer findMappedContent(String name) {
+		if (storedEntries == null) {
+			map();
+		}
+		Long location = storedEntries.get(name);
+		if (location == null) {
+			return null;
+		}
+		int offset = (int) (location >>> 32);
+		int size = (int) (location & UNKNOWN);
+		ByteBuffer buffer = mapped.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+		if (offset + LOC_HEADER > buffer.limit() || buffer.getInt(offset) != LOC_SIG) {
+			return null;
+		}
+		int start = offset + LOC_HEADER + getUnsignedShort(buffer, offset + 26)
+				+ getUnsignedShort(buffer, offset + 28);
+		if (start + (long) size > buffer.limit()) {
+			return null;
+		}
+		buffer.limit(start + size);
+		buffer.position(start);
+		return buffer.slice();
+	}
+
+	private void map() {
+		storedEntries = Collections.emptyMap();
+		if (verify) {
+			// the content must be read through the verifying zip file
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(basefile.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size > Integer.MAX_VALUE) {
+				return;
+			}
+			ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+			Map<String, Long> entries = readStoredEntries(buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN));
+			if (!entries.isEmpty()) {
+				mapped = buffer;
+				storedEntries = entries;
+			}
+		} catch (IOException e) {
+			if (debug.DEBUG_BUNDLE_FILE) {
+				Debug.printStackTrace(e);
+			}
+		}
+	}
+
+	/*
+	 * Reads the central directory of the zip file and returns the entries which are
+	 * stored without compression. Zip64 archives are not mapped.
+	 */
+	private static Map<String, Long> readStoredEntries(ByteBuffer buffer) {
+		int end = findEnd(buffer);
+		if (end < 0) {
+			return Collections.emptyMap();
+		}
+		int total = getUnsignedShort(buffer, end + 10);
+		long cenSize = getUnsignedInt(buffer, end + 12);
+		long cenOffset = getUnsignedInt(buffer, end + 16);
+		if (total == 0xFFFF || cenOffset + cenSize != end) {
+			return Collections.emptyMap();
+		}
+		Map<String, Long> result = new HashMap<>();
+		int pos = (int) cenOffset;
+		for (int i = 0; i < total; i++) {
+			if (pos + CEN_HEADER > end || buffer.getInt(pos) != CEN_SIG) {
+				return Collections.emptyMap();
+			}
+			int flags = getUnsignedShort(buffer, pos + 8);
+			int method = getUnsignedShort(buffer, pos + 10);
+			long compressedSize = getUnsignedInt(buffer, pos + 20);
+			long size = getUnsignedInt(buffer, pos + 24);
+			int nameLength = getUnsignedShort(buffer, pos + 28);
+			int extraLength = getUnsignedShort(buffer, pos + 30);
+			int commentLength = getUnsignedShort(buffer, pos + 32);
+			long localOffset = getUnsignedInt(buffer, pos + 42);
+			// the content of an entry must be before the central directory
+			if (method == ZipEntry.STORED && (flags & 1) == 0 && compressedSize == size
+					&& localOffset + LOC_HEADER + size <= cenOffset && nameLength > 0
+					&& pos + CEN_HEADER + nameLength <= end) {
+				byte[] nameBytes = new byte[nameLength];
+				ByteBuffer name = buffer.duplicate();
+				name.position(pos + CEN_HEADER);
+				name.get(nameBytes);
+				String entryName = new String(nameBytes, StandardCharsets.UTF_8);
+				if (entryName.charAt(entryName.length() - 1) != '/') {
+					result.put(entryName, (localOffset << 32) | size);
+				}
+			}
+			pos += CEN_HEADER + nameLength + extraLength + commentLength;
+		}
+		return result;
+	}
+
+	private static int findEnd(ByteBuffer buffer) {
+		int limit = buffer.limit();
+		int min = Math.max(0, limit - END_HEADER - MAX_COMMENT);
+		for (int pos = limit - END_HEADER; pos >= min; pos--) {
+			if (buffer.getInt(pos) == END_SIG && pos + END_HEADER + getUnsignedShort(buffer, pos + 20) == limit) {
+				return pos;
+			}
+		}
+		return -1;
+	}
+
+	private static int getUnsignedShort(ByteBuffer buffer, int pos) {
+		return buffer.getShort(pos) & 0xFFFF;
+	}
+
+	private static long getUnsignedInt(ByteBuffer buffer, int pos) {
+		return buffer.getInt(pos) & UNKNOWN;
+	}
+}
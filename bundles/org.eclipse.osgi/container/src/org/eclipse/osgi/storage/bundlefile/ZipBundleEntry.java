@@ -19,6 +19,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.ByteBuffer;
 import java.util.zip.ZipEntry;
 
 /**
@@ -68,6 +69,11 @@ public class ZipBundleEntry extends BundleEntry {
 		return zipEntry.getSize();
 	}
 
+	@Override
+	public ByteBuffer getByteBuffer() throws IOException {
+		return bundleFile.getMappedContent(zipEntry);
+	}
+
 	/**
 	 * Return name of the entry.
 	 *
@@ -18,6 +18,7 @@ package org.eclipse.osgi.storage.bundlefile;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.zip.ZipEntry;
@@ -96,6 +97,17 @@ public class ZipBundleFile extends CloseableBundleFile<ZipEntry> {
 		zipFile = null;
 	}
 
+	/**
+	 * Returns the content of the specified entry if it is available without
+	 * copying it into an array. This implementation returns {@code null}.
+	 * 
+	 * @param entry the entry
+	 * @return the content of the entry or {@code null}
+	 */
+	ByteBuffer getMappedContent(ZipEntry entry) {
+		return null;
+	}
+
 	@Override
 	protected InputStream doGetInputStream(ZipEntry entry) throws IOException {
 		return zipFile.getInputStream(entry);
@@ -22,10 +22,12 @@ import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -76,8 +78,38 @@ public class ResolverImpl implements Resolver
 
     private final Executor m_executor;
 
+    // The number of permutations to check for consistency in parallel
+    private final int m_permutationParallelism;
+
+    // Holds the result of checking the consistency of a single permutation.
+    // A speculation is computed without modifying the session so that its
+    // results can be applied to the session in the order the permutations
+    // would have been processed sequentially.
+    static final class Speculation
+    {
+        final Candidates m_permutation;
+        final Map<Resource, ResolutionError> m_faultyResources = new HashMap<Resource, ResolutionError>();
+        final List<Candidates> m_usesPermutations = new ArrayList<Candidates>();
+        final List<Candidates> m_importPermutations = new ArrayList<Candidates>();
+        // substitute requirements and their permutations which may be null
+        final List<Requirement> m_substReqs = new ArrayList<Requirement>();
+        final List<Candidates> m_substPermutations = new ArrayList<Candidates>();
+        final Set<Requirement> m_mutated = new HashSet<Requirement>();
+        final Set<Requirement> m_subMutated;
+        Candidates m_multipleCardCandidates = null;
+        ResolutionError m_error = null;
+
+        Speculation(Candidates permutation, Set<Requirement> subMutated)
+        {
+            m_permutation = permutation;
+            m_subMutated = new HashSet<Requirement>(subMutated);
+        }
+    }
+
     // Note this class is not thread safe.
     // Only use in the context of a single thread.
+    // The exception is the check of speculative permutations which records all
+    // changes in a thread bound Speculation instead of this session.
     static class ResolveSession implements Runnable
     {
         // Holds the resolve context for this session
@@ -114,6 +146,7 @@ public class ResolverImpl implements Resolver
         private final Set<Requirement> m_mutated = new HashSet<Requirement>();
         private final Set<Requirement> m_sub_mutated = new HashSet<Requirement>();
         private final ConcurrentMap<String, List<String>> m_usesCache = new ConcurrentHashMap<String, List<String>>();
+        private final ThreadLocal<Speculation> m_speculation = new ThreadLocal<Speculation>();
         private ResolutionError m_currentError;
         volatile private CancellationException m_isCancelled = null;
         private final Logger logger;
@@ -177,6 +210,19 @@ public class ResolverImpl implements Resolver
             List<Capability> candidates = permutation.getCandidates(req);
             if ((candidates != null) && (candidates.size() > 1))
             {
+                Speculation speculation = m_speculation.get();
+                if (speculation != null) {
+                    if ((type == PermutationType.SUBSTITUTE)) {
+                        if (speculation.m_subMutated.add(req)) {
+                            // recorded even if null; applying it marks the requirement as mutated
+                            speculation.m_substReqs.add(req);
+                            speculation.m_substPermutations.add(permutation.permutate(req));
+                        }
+                    } else if (speculation.m_mutated.add(req)) {
+                        addPermutation(type, permutation.permutate(req));
+                    }
+                    return;
+                }
                 if ((type == PermutationType.SUBSTITUTE)) {
                     if (!m_sub_mutated.add(req)) {
                         return;
@@ -202,6 +248,22 @@ public class ResolverImpl implements Resolver
         }
 
         void addPermutation(PermutationType type, Candidates permutation) {
+            Speculation speculation = m_speculation.get();
+            if (speculation != null) {
+                if (permutation != null) {
+                    switch (type) {
+                        case USES :
+                            speculation.m_usesPermutations.add(permutation);
+                            break;
+                        case IMPORT :
+                            speculation.m_importPermutations.add(permutation);
+                            break;
+                        default :
+                            throw new IllegalArgumentException("Unknown permutation type: " + type);
+                    }
+                }
+                return;
+            }
             if (permutation != null)
             {
                 List<Candidates> typeToAddTo = null;
@@ -266,6 +328,72 @@ public class ResolverImpl implements Resolver
             return next;
         }
 
+        /**
+         * Returns the queued permutations which will be processed next, in
+         * the order they are processed, skipping the permutations with an
+         * already processed delta.
+         */
+        List<Candidates> getNextPermutations(int max) {
+            List<Candidates> result = new ArrayList<Candidates>(max);
+            Set<Object> deltas = new HashSet<Object>();
+            for (List<Candidates> permutations : Arrays.asList(m_usesPermutations, m_importPermutations, m_substPermutations))
+            {
+                for (Candidates permutation : permutations)
+                {
+                    if (result.size() >= max)
+                    {
+                        return result;
+                    }
+                    Object delta = permutation.getDelta();
+                    if (!m_processedDeltas.contains(delta) && deltas.add(delta))
+                    {
+                        result.add(permutation);
+                    }
+                }
+            }
+            return result;
+        }
+
+        Speculation createSpeculation(Candidates permutation) {
+            return new Speculation(permutation, m_sub_mutated);
+        }
+
+        void beginSpeculation(Speculation speculation) {
+            m_speculation.set(speculation);
+        }
+
+        void endSpeculation() {
+            m_speculation.remove();
+        }
+
+        /**
+         * Applies the recorded results of a speculation for the permutation
+         * which was just returned by {@link #getNextPermutation()}, as if
+         * the permutation was checked with this session.
+         */
+        void applySpeculation(Speculation speculation) {
+            for (Candidates permutation : speculation.m_usesPermutations)
+            {
+                addPermutation(PermutationType.USES, permutation);
+            }
+            for (Candidates permutation : speculation.m_importPermutations)
+            {
+                addPermutation(PermutationType.IMPORT, permutation);
+            }
+            for (int i = 0; i < speculation.m_substReqs.size(); i++)
+            {
+                // the substitute requirement may have been mutated by a
+                // permutation applied after the speculation was computed
+                if (m_sub_mutated.add(speculation.m_substReqs.get(i)))
+                {
+                    addPermutation(PermutationType.SUBSTITUTE, speculation.m_substPermutations.get(i));
+                }
+            }
+            m_mutated.addAll(speculation.m_mutated);
+            m_multipleCardCandidates = speculation.m_multipleCardCandidates;
+            m_currentError = speculation.m_error;
+        }
+
         void clearPermutations() {
             m_usesPermutations.clear();
             m_importPermutations.clear();
@@ -286,15 +414,26 @@ public class ResolverImpl implements Resolver
             Requirement req = usedBlame.m_reqs.get(0);
             if (Util.isMultiple(req))
             {
+                Speculation speculation = m_speculation.get();
                 // Create a copy of the current permutation so we can remove the
                 // candidates causing the blame.
-                if (m_multipleCardCandidates == null)
+                Candidates multipleCardCandidates = speculation != null
+                        ? speculation.m_multipleCardCandidates : m_multipleCardCandidates;
+                if (multipleCardCandidates == null)
                 {
-                    m_multipleCardCandidates = permutation.copy();
+                    multipleCardCandidates = permutation.copy();
+                    if (speculation != null)
+                    {
+                        speculation.m_multipleCardCandidates = multipleCardCandidates;
+                    }
+                    else
+                    {
+                        m_multipleCardCandidates = multipleCardCandidates;
+                    }
                 }
                 // Get the current candidate list and remove all the offending root
                 // cause candidates from a copy of the current permutation.
-                candidates = m_multipleCardCandidates.clearMultipleCardinalityCandidates(req, usedBlames.getRootCauses(req));
+                candidates = multipleCardCandidates.clearMultipleCardinalityCandidates(req, usedBlames.getRootCauses(req));
             }
             // We only are successful if there is at least one candidate left
             // for the requirement
@@ -302,11 +441,18 @@ public class ResolverImpl implements Resolver
         }
 
         long getPermutationCount() {
+            Speculation speculation = m_speculation.get();
+            if (speculation != null) {
+                return speculation.m_usesPermutations.size() + speculation.m_importPermutations.size()
+                        + speculation.m_substReqs.size();
+            }
             return m_usesPermutations.size() + m_importPermutations.size() + m_substPermutations.size(); 
         }
 
         Executor getExecutor() {
-            return m_executor;
+            // a speculation is already running on the executor; avoid
+            // blocking executor threads while waiting for nested tasks
+            return m_speculation.get() != null ? new DumbExecutor() : m_executor;
         }
 
         ResolutionError getCurrentError() {
@@ -399,13 +545,28 @@ public class ResolverImpl implements Resolver
         this.m_logger = logger;
         this.m_parallelism = parallelism;
         this.m_executor = null;
+        this.m_permutationParallelism = 1;
     }
 
     public ResolverImpl(Logger logger, Executor executor)
+    {
+        this(logger, executor, 1);
+    }
+
+    /**
+     * Creates a resolver which checks up to the specified number of
+     * permutations in parallel on the executor. The permutations are
+     * speculatively checked in the order they would be processed
+     * sequentially and the first consistent permutation in that order
+     * is used. The resolution result is the same as resolving with a
+     * permutation parallelism of one.
+     */
+    public ResolverImpl(Logger logger, Executor executor, int permutationParallelism)
     {
         this.m_logger = logger;
         this.m_parallelism = -1;
         this.m_executor = executor;
+        this.m_permutationParallelism = Math.max(1, permutationParallelism);
     }
 
     public Map<Resource, List<Wire>> resolve(ResolveContext rc) throws ResolutionException
@@ -599,6 +760,9 @@ public class ResolverImpl implements Resolver
     private Candidates findValidCandidates(ResolveSession session, Map<Resource, ResolutionError> faultyResources) {
         Candidates allCandidates = null;
         boolean foundFaultyResources = false;
+        // speculative results for permutations which are not processed yet
+        Map<Candidates, Speculation> speculations = m_permutationParallelism > 1
+                ? new IdentityHashMap<Candidates, Speculation>() : null;
         do
         {
             allCandidates = session.getNextPermutation();
@@ -609,15 +773,29 @@ public class ResolverImpl implements Resolver
 
 //allCandidates.dump();
 
-            Map<Resource, ResolutionError> currentFaultyResources = new HashMap<Resource, ResolutionError>();
+            Map<Resource, ResolutionError> currentFaultyResources;
+            if (speculations == null)
+            {
+                currentFaultyResources = new HashMap<Resource, ResolutionError>();
 
-            session.setCurrentError(
-                    checkConsistency(
-                            session,
-                            allCandidates,
-                            currentFaultyResources
-                    )
-            );
+                session.setCurrentError(
+                        checkConsistency(
+                                session,
+                                allCandidates,
+                                currentFaultyResources
+                        )
+                );
+            }
+            else
+            {
+                Speculation speculation = speculations.remove(allCandidates);
+                if (speculation == null)
+                {
+                    speculation = speculate(session, allCandidates, speculations);
+                }
+                session.applySpeculation(speculation);
+                currentFaultyResources = speculation.m_faultyResources;
+            }
 
             if (!currentFaultyResources.isEmpty())
             {
@@ -639,6 +817,49 @@ public class ResolverImpl implements Resolver
         return allCandidates;
     }
 
+    /**
+     * Checks the specified permutation together with the permutations queued
+     * after it in parallel. Returns the speculation for the specified
+     * permutation; the speculations for the queued permutations are added to
+     * the speculations map.
+     */
+    private Speculation speculate(
+        final ResolveSession session,
+        Candidates next,
+        Map<Candidates, Speculation> speculations)
+    {
+        List<Speculation> batch = new ArrayList<Speculation>(m_permutationParallelism);
+        batch.add(session.createSpeculation(next));
+        for (Candidates permutation : session.getNextPermutations(m_permutationParallelism - 1))
+        {
+            Speculation speculation = session.createSpeculation(permutation);
+            speculations.put(permutation, speculation);
+            batch.add(speculation);
+        }
+        EnhancedExecutor executor = new EnhancedExecutor(session.getExecutor());
+        for (final Speculation speculation : batch)
+        {
+            executor.execute(new Runnable()
+            {
+                public void run()
+                {
+                    session.beginSpeculation(speculation);
+                    try
+                    {
+                        speculation.m_error = checkConsistency(
+                                session, speculation.m_permutation, speculation.m_faultyResources);
+                    }
+                    finally
+                    {
+                        session.endSpeculation();
+                    }
+                }
+            });
+        }
+        executor.await();
+        return batch.get(0);
+    }
+
     private ResolutionError checkConsistency(
         ResolveSession session,
         Candidates allCandidates,